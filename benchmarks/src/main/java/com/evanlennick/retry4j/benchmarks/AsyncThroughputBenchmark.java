@@ -0,0 +1,98 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time and memory (with the GC profiler) to run a batch of concurrent calls through an {@link AsyncCallExecutor},
+ * either succeeding right away or failing a number of times first. With {@code scheduling=timer} backoffs are
+ * scheduled on a {@link HashedWheelTimer} instead of sleeping a pool thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncThroughputBenchmark {
+
+    @Param({"1000", "10000"})
+    public int concurrentCalls;
+
+    @Param({"0", "2"})
+    public int failuresBeforeSuccess;
+
+    @Param({"sleep", "timer"})
+    public String scheduling;
+
+    private ExecutorService executorService;
+
+    private HashedWheelTimer timer;
+
+    private AsyncCallExecutor<Integer> executor;
+
+    @Setup
+    public void setup() {
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(failuresBeforeSuccess + 1)
+                .withDelayBetweenTries(1, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+
+        executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        if ("timer".equals(scheduling)) {
+            timer = new HashedWheelTimer(Duration.ofMillis(1), 512);
+        }
+        executor = new CallExecutorBuilder<Integer>().config(config).buildAsync(executorService, timer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+        if (null != timer) {
+            timer.stop();
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object executeBatch() {
+        CompletableFuture<Status<Integer>>[] futures = new CompletableFuture[concurrentCalls];
+        for (int i = 0; i < concurrentCalls; i++) {
+            AtomicInteger tries = new AtomicInteger();
+            futures[i] = executor.execute(() -> {
+                int attempt = tries.incrementAndGet();
+                if (attempt <= failuresBeforeSuccess) {
+                    throw new IllegalStateException();
+                }
+                return attempt;
+            });
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+}
@@ -0,0 +1,86 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.audit.StatusAuditLog;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time an execution's completion listener adds to record its status, with a {@link StatusAuditLog} compared with
+ * writing the status as a line of text to a file and flushing it, as a logger appending to a file does. Several
+ * threads record at once, so both pay for contending on the file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AuditLogBenchmark {
+
+    private Path directory;
+
+    private Status<String> status;
+
+    private StatusAuditLog<String> auditLog;
+
+    private BufferedWriter textLog;
+
+    @Setup
+    public void setup() throws IOException {
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(0, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+        status = new CallExecutorBuilder<String>().config(config).build().execute(() -> "done", "audited-call");
+
+        directory = Files.createTempDirectory("retry4j-audit-benchmark");
+        auditLog = new StatusAuditLog<>(directory.resolve("audit"));
+        textLog = Files.newBufferedWriter(directory.resolve("audit.log"), StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        auditLog.close();
+        textLog.close();
+    }
+
+    @Benchmark
+    public void statusAuditLog() {
+        auditLog.onEvent(status);
+    }
+
+    @Benchmark
+    public void textLine() throws IOException {
+        String line = status.toString();
+        synchronized (textLog) {
+            textLog.write(line);
+            textLog.newLine();
+            textLog.flush();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.backoff.BackoffStrategy;
+import com.evanlennick.retry4j.backoff.ExponentialBackoffStrategy;
+import com.evanlennick.retry4j.backoff.FibonacciBackoffStrategy;
+import com.evanlennick.retry4j.backoff.FixedBackoffStrategy;
+import com.evanlennick.retry4j.backoff.NoWaitBackoffStrategy;
+import com.evanlennick.retry4j.backoff.RandomBackoffStrategy;
+import com.evanlennick.retry4j.backoff.RandomExponentialBackoffStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of computing the wait before the next try with each of the built in backoff strategies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BackoffStrategyBenchmark {
+
+    @Param({"fixed", "exponential", "fibonacci", "noWait", "random", "randomExponential"})
+    public String strategy;
+
+    @Param({"1", "10"})
+    public int numberOfTriesFailed;
+
+    private final Duration delayBetweenAttempts = Duration.ofMillis(100);
+
+    private BackoffStrategy backoffStrategy;
+
+    @Setup
+    public void setup() {
+        switch (strategy) {
+            case "fixed":
+                backoffStrategy = new FixedBackoffStrategy();
+                break;
+            case "exponential":
+                backoffStrategy = new ExponentialBackoffStrategy();
+                break;
+            case "fibonacci":
+                backoffStrategy = new FibonacciBackoffStrategy();
+                break;
+            case "noWait":
+                backoffStrategy = new NoWaitBackoffStrategy();
+                break;
+            case "random":
+                backoffStrategy = new RandomBackoffStrategy();
+                break;
+            case "randomExponential":
+                backoffStrategy = new RandomExponentialBackoffStrategy();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+    }
+
+    @Benchmark
+    public Duration getDurationToWait() {
+        return backoffStrategy.getDurationToWait(numberOfTriesFailed, delayBetweenAttempts);
+    }
+}
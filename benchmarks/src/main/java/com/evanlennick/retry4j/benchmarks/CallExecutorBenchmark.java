@@ -0,0 +1,122 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.metrics.RetryMetrics;
+import com.evanlennick.retry4j.tracing.RetryTracing;
+import com.evanlennick.retry4j.tracing.Span;
+import com.evanlennick.retry4j.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of running a call that succeeds on its first try through a {@link CallExecutor}, compared with calling it
+ * directly, with each kind of per-try instrumentation switched on in turn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CallExecutorBenchmark {
+
+    @Param({"none", "metrics", "observer", "history", "unsampled", "sampled"})
+    public String instrumentation;
+
+    private final Callable<String> callable = () -> "result";
+
+    private CallExecutor<String> executor;
+
+    @Setup
+    public void setup() {
+        RetryConfigBuilder config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withNoWaitBackoff();
+        if ("history".equals(instrumentation)) {
+            config.withAttemptHistory(16);
+        }
+
+        CallExecutorBuilder<String> builder = new CallExecutorBuilder<String>().config(config.build());
+        if ("metrics".equals(instrumentation)) {
+            builder.metrics(new RetryMetrics());
+        } else if ("observer".equals(instrumentation)) {
+            builder.attemptObserver((callName, attempt, startNanos, endNanos, outcome, exceptionClass) -> {
+            });
+        }
+        if ("unsampled".equals(instrumentation)) {
+            builder.tracing(new RetryTracing(new NoopTracer(), 0));
+        } else if ("sampled".equals(instrumentation)) {
+            builder.tracing(new RetryTracing(new NoopTracer(), 1));
+        }
+        executor = builder.build();
+    }
+
+    // measures what the executor adds for a sampled execution, not the cost of a real tracing library
+    private static class NoopTracer implements Tracer {
+
+        private static final Span SPAN = new Span() {
+            @Override
+            public void setAttribute(String key, String value) {
+            }
+
+            @Override
+            public void setAttribute(String key, long value) {
+            }
+
+            @Override
+            public void recordException(Throwable exception) {
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+
+        @Override
+        public Span startExecution(String callName) {
+            return SPAN;
+        }
+
+        @Override
+        public Span startAttempt(Span executionSpan, int attempt) {
+            return SPAN;
+        }
+
+        @Override
+        public Span startBackoff(Span executionSpan, int nextAttempt, long plannedDelayMillis) {
+            return SPAN;
+        }
+    }
+
+    @Benchmark
+    public String directCall() throws Exception {
+        return callable.call();
+    }
+
+    @Benchmark
+    public Status<String> firstTrySuccess() {
+        return executor.execute(callable);
+    }
+
+    @Benchmark
+    public Status<String> firstTrySuccessWithCallName() {
+        return executor.execute(callable, "benchmark");
+    }
+}
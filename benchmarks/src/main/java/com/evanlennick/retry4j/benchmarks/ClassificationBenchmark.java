@@ -0,0 +1,93 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of deciding whether an exception is retried on, for each exception strategy and for exceptions wrapped in a
+ * chain of causes. The call always fails with the same preallocated exception and only gets one try, so the
+ * measurement is one classification plus the executor's failure path, without any backoff.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ClassificationBenchmark {
+
+    @Param({"specific", "causedBy", "excluding", "custom", "any"})
+    public String strategy;
+
+    @Param({"1", "5"})
+    public int causeDepth;
+
+    private CallExecutor<String> executor;
+
+    private Callable<String> callable;
+
+    @Setup
+    public void setup() {
+        Exception exception = new IOException("root cause");
+        for (int i = 0; i < causeDepth; i++) {
+            exception = new IllegalStateException("wrapper " + i, exception);
+        }
+        Exception thrown = exception;
+        callable = () -> {
+            throw thrown;
+        };
+
+        RetryConfigBuilder config = new RetryConfigBuilder()
+                .withMaxNumberOfTries(1)
+                .withNoWaitBackoff();
+        switch (strategy) {
+            case "specific":
+                config.retryOnSpecificExceptions(IllegalStateException.class);
+                break;
+            case "causedBy":
+                config.retryOnSpecificExceptions(IOException.class).retryOnCausedBy();
+                break;
+            case "excluding":
+                config.retryOnAnyExceptionExcluding(IllegalArgumentException.class,
+                        UnsupportedOperationException.class);
+                break;
+            case "custom":
+                config.retryOnCustomExceptionLogic(e -> e instanceof IllegalStateException);
+                break;
+            case "any":
+                config.retryOnAnyException();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+
+        // a failure listener stops the executor from throwing RetriesExhaustedException, whose cost is not of interest
+        executor = new CallExecutorBuilder<String>()
+                .config(config.build())
+                .onFailureListener(status -> {
+                })
+                .build();
+    }
+
+    @Benchmark
+    public Status<String> classifyFailure() {
+        return executor.execute(callable);
+    }
+}
@@ -0,0 +1,90 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.scheduler.RetryPriority;
+import com.evanlennick.retry4j.scheduler.RetryScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead per try of dispatching tries through a {@link RetryScheduler}, which queues them per tenant and serves the
+ * tenants by weighted deficit round robin, compared with submitting them to a plain fixed thread pool with the same
+ * number of threads. The tries do no work, so the difference is the cost of the fair queueing itself, for a growing
+ * number of tenants with different weights.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FairSchedulingBenchmark {
+
+    private static final int TRIES = 10_000;
+
+    private static final int THREADS = 4;
+
+    @Param({"1", "16", "1024"})
+    public int tenants;
+
+    private String[] tenantKeys;
+
+    private RetryScheduler scheduler;
+
+    private ExecutorService executorService;
+
+    @Setup
+    public void setup() {
+        scheduler = new RetryScheduler(THREADS, TRIES);
+        executorService = Executors.newFixedThreadPool(THREADS);
+
+        tenantKeys = new String[tenants];
+        for (int i = 0; i < tenants; i++) {
+            tenantKeys[i] = "tenant-" + i;
+            scheduler.setTenantWeight(tenantKeys[i], 1 + i % 4);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRIES)
+    public void fairScheduler() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(TRIES);
+        Runnable task = finished::countDown;
+        for (int i = 0; i < TRIES; i++) {
+            scheduler.execute(RetryPriority.NORMAL, tenantKeys[i % tenants], task, task);
+        }
+        finished.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRIES)
+    public void threadPool() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(TRIES);
+        Runnable task = finished::countDown;
+        for (int i = 0; i < TRIES; i++) {
+            executorService.execute(task);
+        }
+        finished.await();
+    }
+}
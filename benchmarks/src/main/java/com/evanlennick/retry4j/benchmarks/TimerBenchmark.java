@@ -0,0 +1,70 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and memory to schedule a million pending backoffs, spread over the next minute, on a {@link HashedWheelTimer}
+ * compared with a {@link ScheduledThreadPoolExecutor}, whose delay queue is a binary heap.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class TimerBenchmark {
+
+    private static final int TIMEOUTS = 1_000_000;
+
+    private static final long SPREAD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Runnable task = () -> {
+    };
+
+    private HashedWheelTimer wheelTimer;
+
+    private ScheduledThreadPoolExecutor scheduledExecutor;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        wheelTimer = new HashedWheelTimer();
+        scheduledExecutor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        wheelTimer.stop();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public long hashedWheelTimer() {
+        for (int i = 0; i < TIMEOUTS; i++) {
+            wheelTimer.newTimeout(task, 1000 + i % SPREAD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return wheelTimer.pendingTimeouts();
+    }
+
+    @Benchmark
+    public long scheduledThreadPoolExecutor() {
+        for (int i = 0; i < TIMEOUTS; i++) {
+            scheduledExecutor.schedule(task, 1000 + i % SPREAD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return scheduledExecutor.getQueue().size();
+    }
+}
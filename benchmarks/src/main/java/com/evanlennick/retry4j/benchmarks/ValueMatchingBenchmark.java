@@ -0,0 +1,73 @@
+package com.evanlennick.retry4j.benchmarks;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking a result against the values to retry on or to expect, as the number of configured values grows.
+ * The result never triggers a retry and is compared against every value, the worst case for a successful call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ValueMatchingBenchmark {
+
+    @Param({"retryOn", "expect"})
+    public String matching;
+
+    @Param({"1", "10", "100"})
+    public int valueCount;
+
+    private CallExecutor<String> executor;
+
+    private Callable<String> callable;
+
+    @Setup
+    public void setup() {
+        Object[] values = new Object[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            values[i] = "value-" + i;
+        }
+
+        RetryConfigBuilder config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withNoWaitBackoff();
+        if ("retryOn".equals(matching)) {
+            config.retryOnReturnValues(values);
+            // a fresh instance that is equal to none of the values
+            callable = () -> "result";
+        } else {
+            config.retryOnReturnValuesExcluding(values);
+            // equal to the last value only, and not the same instance, so equals() has to compare the characters
+            String expected = new String("value-" + (valueCount - 1));
+            callable = () -> expected;
+        }
+
+        executor = new CallExecutorBuilder<String>().config(config.build()).build();
+    }
+
+    @Benchmark
+    public Status<String> matchResult() {
+        return executor.execute(callable);
+    }
+}
@@ -0,0 +1,150 @@
+package com.evanlennick.retry4j.processor;
+
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link RetryPolicy} as read from the source, which is validated with the rules {@link RetryConfigBuilder} would
+ * apply at runtime and turned into the expression building its config.
+ */
+final class PolicyModel {
+
+    private final AnnotationMirror mirror;
+    private final int maxTries;
+    private final long delay;
+    private final String unit;
+    private final String backoff;
+    private final List<String> retryOn;
+    private final List<String> abortOn;
+    private final String callName;
+
+    private PolicyModel(AnnotationMirror mirror, int maxTries, long delay, String unit, String backoff,
+                        List<String> retryOn, List<String> abortOn, String callName) {
+        this.mirror = mirror;
+        this.maxTries = maxTries;
+        this.delay = delay;
+        this.unit = unit;
+        this.backoff = backoff;
+        this.retryOn = retryOn;
+        this.abortOn = abortOn;
+        this.callName = callName;
+    }
+
+    static PolicyModel read(AnnotationMirror mirror, Elements elements) {
+        Map<String, AnnotationValue> values = new HashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue());
+        }
+
+        return new PolicyModel(mirror,
+                (Integer) values.get("maxTries").getValue(),
+                (Long) values.get("delay").getValue(),
+                enumConstant(values.get("unit")),
+                enumConstant(values.get("backoff")),
+                classNames(values.get("retryOn")),
+                classNames(values.get("abortOn")),
+                (String) values.get("callName").getValue());
+    }
+
+    private static String enumConstant(AnnotationValue value) {
+        return ((VariableElement) value.getValue()).getSimpleName().toString();
+    }
+
+    private static List<String> classNames(AnnotationValue value) {
+        List<String> names = new ArrayList<>();
+        for (Object element : (List<?>) value.getValue()) {
+            names.add(((AnnotationValue) element).getValue().toString());
+        }
+        return names;
+    }
+
+    /**
+     * @return the problems that would make building the config fail, empty if there are none
+     */
+    List<String> validate() {
+        List<String> errors = new ArrayList<>();
+        if (maxTries < 1) {
+            errors.add(RetryConfigBuilder.MUST_SPECIFY_MAX_TRIES_ABOVE_0__ERROR_MSG);
+        }
+        if (delay < 0) {
+            errors.add(RetryConfigBuilder.SHOULD_SPECIFY_DELAY_BETWEEN_RETRIES_AS_POSTIVE__ERROR_MSG);
+        }
+        ChronoUnit chronoUnit = ChronoUnit.valueOf(unit);
+        if (chronoUnit.isDurationEstimated() && chronoUnit != ChronoUnit.DAYS) {
+            errors.add("Delay between retries must use a unit with an exact duration, not " + unit + "!");
+        }
+        if (!retryOn.isEmpty() && !abortOn.isEmpty()) {
+            errors.add(RetryConfigBuilder.CAN_ONLY_SPECIFY_ONE_EXCEPTION_STRAT__ERROR_MSG);
+        }
+        return errors;
+    }
+
+    AnnotationMirror getMirror() {
+        return mirror;
+    }
+
+    /**
+     * @return the call name set on the policy, or the default one for the given method
+     */
+    String callName(String interfaceName, String methodName) {
+        return callName.isEmpty() ? interfaceName + "." + methodName : callName;
+    }
+
+    String configExpression(String indent) {
+        StringBuilder sb = new StringBuilder("new RetryConfigBuilder()");
+        if (!retryOn.isEmpty()) {
+            sb.append('\n').append(indent).append(".retryOnSpecificExceptions(").append(classLiterals(retryOn))
+                    .append(')');
+        } else if (!abortOn.isEmpty()) {
+            sb.append('\n').append(indent).append(".retryOnAnyExceptionExcluding(").append(classLiterals(abortOn))
+                    .append(')');
+        } else {
+            sb.append('\n').append(indent).append(".retryOnAnyException()");
+        }
+        sb.append('\n').append(indent).append(".withMaxNumberOfTries(").append(maxTries).append(')');
+        sb.append('\n').append(indent).append(".withDelayBetweenTries(").append(delay)
+                .append(delay > Integer.MAX_VALUE ? "L" : "").append(", ChronoUnit.").append(unit).append(')');
+        sb.append('\n').append(indent).append('.').append(backoffMethod()).append("()");
+        sb.append('\n').append(indent).append(".build()");
+        return sb.toString();
+    }
+
+    private String backoffMethod() {
+        switch (RetryPolicy.Backoff.valueOf(backoff)) {
+            case EXPONENTIAL:
+                return "withExponentialBackoff";
+            case FIBONACCI:
+                return "withFibonacciBackoff";
+            case NO_WAIT:
+                return "withNoWaitBackoff";
+            case RANDOM:
+                return "withRandomBackoff";
+            case RANDOM_EXPONENTIAL:
+                return "withRandomExponentialBackoff";
+            default:
+                return "withFixedBackoff";
+        }
+    }
+
+    private static String classLiterals(List<String> classNames) {
+        StringBuilder sb = new StringBuilder();
+        for (String className : classNames) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(className).append(".class");
+        }
+        return sb.toString();
+    }
+}
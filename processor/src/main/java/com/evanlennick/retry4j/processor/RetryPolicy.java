@@ -0,0 +1,53 @@
+package com.evanlennick.retry4j.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The {@link com.evanlennick.retry4j.config.RetryConfig} a method of a {@link RetryWrapper} interface is retried with.
+ * On the interface itself it applies to all of its methods, a policy on a method takes precedence over the one on the
+ * interface. The config is built once, as a constant of the generated class, and checked when the interface is
+ * compiled.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RetryPolicy {
+
+    int maxTries();
+
+    long delay() default 0;
+
+    ChronoUnit unit() default ChronoUnit.MILLIS;
+
+    Backoff backoff() default Backoff.FIXED;
+
+    /**
+     * @return the exceptions to retry on, any exception is retried on if neither this nor {@link #abortOn()} is set
+     */
+    Class<? extends Exception>[] retryOn() default {};
+
+    /**
+     * @return the exceptions not to retry on, any other exception is retried on
+     */
+    Class<? extends Exception>[] abortOn() default {};
+
+    /**
+     * @return the call name the executions are reported under, defaults to the interface and method name, eg:
+     * OrderService.findOrder
+     */
+    String callName() default "";
+
+    enum Backoff {
+        FIXED,
+        EXPONENTIAL,
+        FIBONACCI,
+        NO_WAIT,
+        RANDOM,
+        RANDOM_EXPONENTIAL
+    }
+}
@@ -0,0 +1,151 @@
+package com.evanlennick.retry4j.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates the wrappers of the interfaces annotated with {@link RetryWrapper}. The generated classes execute the
+ * calls with a {@link com.evanlennick.retry4j.CallExecutor} directly, so they need neither reflection nor proxies at
+ * runtime, and policies that would not make a valid config fail the compilation.
+ */
+public class RetryProcessor extends AbstractProcessor {
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(RetryWrapper.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(RetryWrapper.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error("@RetryWrapper can only be used on interfaces", element, null);
+                continue;
+            }
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                error("@RetryWrapper interfaces must not be private", element, null);
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            WrapperWriter writer = newWriter(type);
+            if (null != writer) {
+                write(type, writer);
+            }
+        }
+        return true;
+    }
+
+    // returns null if a policy is invalid, after reporting every problem found
+    private WrapperWriter newWriter(TypeElement type) {
+        PolicyModel typePolicy = readPolicy(type);
+        boolean valid = null == typePolicy || validate(typePolicy, type);
+
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        List<WrapperWriter.WrappedMethod> methods = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            // skips the members of Object, which the generated class inherits like any other class
+            if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+                    || method.getModifiers().contains(Modifier.STATIC)
+                    || method.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+
+            ExecutableType methodType = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+            if (!signatures.add(signature(method, methodType))) {
+                continue;
+            }
+
+            PolicyModel ownPolicy = readPolicy(method);
+            if (null != ownPolicy) {
+                valid &= validate(ownPolicy, method);
+                methods.add(new WrapperWriter.WrappedMethod(method, methodType, ownPolicy, true));
+            } else {
+                methods.add(new WrapperWriter.WrappedMethod(method, methodType, typePolicy, false));
+            }
+        }
+        return valid ? new WrapperWriter(processingEnv, type, className(type), methods) : null;
+    }
+
+    private PolicyModel readPolicy(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(RetryPolicy.class.getCanonicalName())) {
+                return PolicyModel.read(mirror, processingEnv.getElementUtils());
+            }
+        }
+        return null;
+    }
+
+    private boolean validate(PolicyModel policy, Element element) {
+        List<String> errors = policy.validate();
+        for (String message : errors) {
+            error(message, element, policy.getMirror());
+        }
+        return errors.isEmpty();
+    }
+
+    private String signature(ExecutableElement method, ExecutableType methodType) {
+        StringBuilder sb = new StringBuilder(method.getSimpleName()).append('(');
+        methodType.getParameterTypes()
+                .forEach(parameter -> sb.append(processingEnv.getTypeUtils().erasure(parameter)).append(','));
+        return sb.append(')').toString();
+    }
+
+    private String className(TypeElement type) {
+        String configured = type.getAnnotation(RetryWrapper.class).className();
+        if (!configured.isEmpty()) {
+            return configured;
+        }
+
+        // nested interfaces are named after all their enclosing types, eg: RetryingOuter_Inner
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type;
+        while (((TypeElement) enclosing).getNestingKind() == NestingKind.MEMBER) {
+            enclosing = enclosing.getEnclosingElement();
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+        return "Retrying" + name;
+    }
+
+    private void write(TypeElement type, WrapperWriter writer) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(writer.getQualifiedName(), type);
+            try (Writer out = file.openWriter()) {
+                out.write(writer.write());
+            }
+        } catch (IOException e) {
+            error("Unable to write " + writer.getQualifiedName() + ": " + e.getMessage(), type, null);
+        }
+    }
+
+    private void error(String message, Element element, AnnotationMirror mirror) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element, mirror);
+    }
+}
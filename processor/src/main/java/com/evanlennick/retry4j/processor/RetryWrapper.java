@@ -0,0 +1,31 @@
+package com.evanlennick.retry4j.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Has {@link RetryProcessor} generate a class implementing the annotated interface that retries the calls to the
+ * methods with a {@link RetryPolicy} and passes the others straight through to the instance it wraps:
+ * <pre>
+ * &#64;RetryWrapper
+ * &#64;RetryPolicy(maxTries = 3, delay = 100, backoff = RetryPolicy.Backoff.EXPONENTIAL)
+ * public interface OrderService {
+ *     Order findOrder(String id);
+ * }
+ *
+ * OrderService orders = new RetryingOrderService(new JdbcOrderService());
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface RetryWrapper {
+
+    /**
+     * @return simple name of the generated class, defaults to the name of the interface prefixed with Retrying
+     */
+    String className() default "";
+}
@@ -0,0 +1,248 @@
+package com.evanlennick.retry4j.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the source of the class wrapping a {@link RetryWrapper} interface. Every policy becomes a RetryConfig
+ * constant, and every method either executes the call on the wrapped instance with a CallExecutor built from its
+ * policy's constant or, without a policy, calls the wrapped instance directly.
+ */
+final class WrapperWriter {
+
+    private static final String INDENT = "    ";
+
+    private final ProcessingEnvironment processingEnv;
+    private final TypeElement type;
+    private final String className;
+    private final List<WrappedMethod> methods;
+    private final String packageName;
+
+    private final Map<PolicyModel, String> constants = new IdentityHashMap<>();
+    private final Map<String, PolicyModel> policiesByConstant = new LinkedHashMap<>();
+
+    WrapperWriter(ProcessingEnvironment processingEnv, TypeElement type, String className,
+                  List<WrappedMethod> methods) {
+        this.processingEnv = processingEnv;
+        this.type = type;
+        this.className = className;
+        this.methods = methods;
+        this.packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        nameConstants();
+    }
+
+    // the interface's policy is shared by all methods without one of their own, overloads get numbered constants
+    private void nameConstants() {
+        for (WrappedMethod method : methods) {
+            if (null == method.policy || constants.containsKey(method.policy)) {
+                continue;
+            }
+
+            String base = method.ownPolicy ? constantName(method.element.getSimpleName().toString()) : "RETRY";
+            String name = base + "_CONFIG";
+            for (int i = 2; policiesByConstant.containsKey(name); i++) {
+                name = base + "_" + i + "_CONFIG";
+            }
+            constants.put(method.policy, name);
+            policiesByConstant.put(name, method.policy);
+        }
+    }
+
+    private static String constantName(String methodName) {
+        return methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    String getQualifiedName() {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    String write() {
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import com.evanlennick.retry4j.CallExecutorBuilder;\n");
+        sb.append("import com.evanlennick.retry4j.config.RetryConfig;\n");
+        sb.append("import com.evanlennick.retry4j.config.RetryConfigBuilder;\n\n");
+        sb.append("import java.time.temporal.ChronoUnit;\n\n");
+
+        String interfaceName = type.getQualifiedName().toString();
+        sb.append("/**\n * Retrying wrapper of {@link ").append(interfaceName)
+                .append("}, generated by retry4j-processor.\n */\n");
+        if (type.getModifiers().contains(Modifier.PUBLIC)) {
+            sb.append("public ");
+        }
+        sb.append("final class ").append(className).append(typeParameters(type.getTypeParameters()))
+                .append(" implements ").append(type.asType()).append(" {\n");
+
+        policiesByConstant.forEach((constant, policy) -> sb.append('\n').append(INDENT)
+                .append("private static final RetryConfig ").append(constant).append(" = ")
+                .append(policy.configExpression(INDENT + INDENT + INDENT)).append(";\n"));
+
+        sb.append('\n').append(INDENT).append("private final ").append(type.asType()).append(" delegate;\n\n");
+        sb.append(INDENT).append("public ").append(className).append('(').append(type.asType())
+                .append(" delegate) {\n");
+        sb.append(INDENT).append(INDENT).append("this.delegate = delegate;\n");
+        sb.append(INDENT).append("}\n");
+
+        for (WrappedMethod method : methods) {
+            sb.append('\n');
+            writeMethod(sb, method);
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private void writeMethod(StringBuilder sb, WrappedMethod method) {
+        ExecutableElement element = method.element;
+        TypeMirror returnType = method.type.getReturnType();
+        boolean returnsValue = returnType.getKind() != TypeKind.VOID;
+        String call = "this.delegate." + element.getSimpleName() + "(" + parameterNames(element) + ")";
+
+        sb.append(INDENT).append("@Override\n");
+        sb.append(INDENT).append("public ");
+        String typeParameters = typeParameters(element.getTypeParameters());
+        if (!typeParameters.isEmpty()) {
+            sb.append(typeParameters).append(' ');
+        }
+        sb.append(returnType).append(' ').append(element.getSimpleName()).append('(')
+                .append(parameters(method)).append(')').append(throwsClause(method)).append(" {\n");
+
+        String body = INDENT + INDENT;
+        if (null == method.policy) {
+            sb.append(body).append(returnsValue ? "return " : "").append(call).append(";\n");
+        } else {
+            String callName = method.policy.callName(type.getSimpleName().toString(),
+                    element.getSimpleName().toString());
+            String continuation = body + INDENT + INDENT;
+            sb.append(body).append(returnsValue ? "return " : "")
+                    .append("new CallExecutorBuilder<").append(boxed(returnType)).append(">()\n");
+            sb.append(continuation).append(".config(").append(constants.get(method.policy)).append(")\n");
+            sb.append(continuation).append(".build()\n");
+            if (returnsValue) {
+                sb.append(continuation).append(".execute(() -> ").append(call).append(", \"")
+                        .append(escape(callName)).append("\")\n");
+                sb.append(continuation).append(".getResult();\n");
+            } else {
+                sb.append(continuation).append(".execute(() -> {\n");
+                sb.append(continuation).append(INDENT).append(call).append(";\n");
+                sb.append(continuation).append(INDENT).append("return null;\n");
+                sb.append(continuation).append("}, \"").append(escape(callName)).append("\");\n");
+            }
+        }
+        sb.append(INDENT).append("}\n");
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind() == TypeKind.VOID) {
+            return "Void";
+        }
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private static String typeParameters(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder("<");
+        for (TypeParameterElement typeParameter : typeParameters) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(typeParameter.getSimpleName());
+            List<? extends TypeMirror> bounds = typeParameter.getBounds();
+            if (bounds.size() > 1 || !bounds.get(0).toString().equals("java.lang.Object")) {
+                sb.append(" extends ");
+                for (int i = 0; i < bounds.size(); i++) {
+                    sb.append(i > 0 ? " & " : "").append(bounds.get(i));
+                }
+            }
+        }
+        return sb.append('>').toString();
+    }
+
+    private static String parameters(WrappedMethod method) {
+        List<? extends VariableElement> parameters = method.element.getParameters();
+        List<? extends TypeMirror> types = method.type.getParameterTypes();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            TypeMirror parameterType = types.get(i);
+            if (method.element.isVarArgs() && i == parameters.size() - 1) {
+                sb.append(((ArrayType) parameterType).getComponentType()).append("...");
+            } else {
+                sb.append(parameterType);
+            }
+            sb.append(' ').append(parameters.get(i).getSimpleName());
+        }
+        return sb.toString();
+    }
+
+    private static String parameterNames(ExecutableElement element) {
+        StringBuilder sb = new StringBuilder();
+        for (VariableElement parameter : element.getParameters()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(parameter.getSimpleName());
+        }
+        return sb.toString();
+    }
+
+    private static String throwsClause(WrappedMethod method) {
+        List<? extends TypeMirror> thrownTypes = method.type.getThrownTypes();
+        if (thrownTypes.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder(" throws ");
+        for (int i = 0; i < thrownTypes.size(); i++) {
+            sb.append(i > 0 ? ", " : "").append(thrownTypes.get(i));
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    static final class WrappedMethod {
+
+        private final ExecutableElement element;
+        private final ExecutableType type;
+        private final PolicyModel policy;
+        private final boolean ownPolicy;
+
+        /**
+         * @param policy    the method's own policy, the interface's or null if neither has one
+         * @param ownPolicy whether the policy is the method's own
+         */
+        WrappedMethod(ExecutableElement element, ExecutableType type, PolicyModel policy,
+                      boolean ownPolicy) {
+            this.element = element;
+            this.type = type;
+            this.policy = policy;
+            this.ownPolicy = ownPolicy;
+        }
+    }
+}
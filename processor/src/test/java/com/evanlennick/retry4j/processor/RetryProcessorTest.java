@@ -0,0 +1,162 @@
+package com.evanlennick.retry4j.processor;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Test(singleThreaded = true)
+public class RetryProcessorTest {
+
+    private static final String INVENTORY = "package demo;\n"
+            + "import com.evanlennick.retry4j.processor.RetryPolicy;\n"
+            + "import com.evanlennick.retry4j.processor.RetryWrapper;\n"
+            + "import java.io.IOException;\n"
+            + "@RetryWrapper\n"
+            + "@RetryPolicy(maxTries = 3, retryOn = IOException.class)\n"
+            + "public interface Inventory {\n"
+            + "    int count(String item) throws IOException;\n"
+            + "    @RetryPolicy(maxTries = 2, delay = 1, backoff = RetryPolicy.Backoff.EXPONENTIAL,"
+            + " callName = \"reserve\")\n"
+            + "    void reserve(String item, int quantity);\n"
+            + "}\n";
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("retry4j-processor");
+    }
+
+    @Test
+    public void verifyWrapperIsGeneratedWithConfigConstants() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(source("demo.Inventory", INVENTORY));
+
+        assertThat(errors).isEmpty();
+        String generated = new String(Files.readAllBytes(directory.resolve("demo/RetryingInventory.java")),
+                StandardCharsets.UTF_8);
+        assertThat(generated)
+                .contains("public final class RetryingInventory implements demo.Inventory")
+                .contains("private static final RetryConfig RETRY_CONFIG = new RetryConfigBuilder()")
+                .contains(".retryOnSpecificExceptions(java.io.IOException.class)")
+                .contains("private static final RetryConfig RESERVE_CONFIG = new RetryConfigBuilder()")
+                .contains(".withExponentialBackoff()")
+                .contains("\"Inventory.count\"")
+                .contains("\"reserve\"")
+                .doesNotContain("reflect");
+    }
+
+    @Test
+    public void verifyGeneratedWrapperRetriesCalls() throws Exception {
+        String check = "package demo;\n"
+                + "public class Check implements java.util.concurrent.Callable<Object> {\n"
+                + "    public Object call() throws Exception {\n"
+                + "        int[] calls = {0};\n"
+                + "        Inventory inventory = new RetryingInventory(new Inventory() {\n"
+                + "            public int count(String item) throws java.io.IOException {\n"
+                + "                if (++calls[0] < 3) throw new java.io.IOException();\n"
+                + "                return 42;\n"
+                + "            }\n"
+                + "            public void reserve(String item, int quantity) {}\n"
+                + "        });\n"
+                + "        return inventory.count(\"widget\") + \"/\" + calls[0];\n"
+                + "    }\n"
+                + "}\n";
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(source("demo.Inventory", INVENTORY),
+                source("demo.Check", check));
+        assertThat(errors).isEmpty();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()},
+                getClass().getClassLoader())) {
+            Callable<?> callable = (Callable<?>) classLoader.loadClass("demo.Check")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            assertThat(callable.call()).isEqualTo("42/3");
+        }
+    }
+
+    @Test
+    public void verifyInvalidPolicyFailsCompilation() {
+        String bad = "package demo;\n"
+                + "import com.evanlennick.retry4j.processor.RetryPolicy;\n"
+                + "import com.evanlennick.retry4j.processor.RetryWrapper;\n"
+                + "@RetryWrapper\n"
+                + "public interface Bad {\n"
+                + "    @RetryPolicy(maxTries = 0, unit = java.time.temporal.ChronoUnit.MONTHS)\n"
+                + "    void call();\n"
+                + "    @RetryPolicy(maxTries = 1, retryOn = RuntimeException.class,"
+                + " abortOn = IllegalStateException.class)\n"
+                + "    void other();\n"
+                + "}\n";
+
+        List<String> messages = compile(source("demo.Bad", bad)).stream()
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+
+        assertThat(messages).containsExactlyInAnyOrder(
+                "Cannot specify a maximum number of tries less than 1!",
+                "Delay between retries must use a unit with an exact duration, not MONTHS!",
+                "Retry config cannot specify more than one exception strategy!");
+        assertThat(directory.resolve("demo/RetryingBad.java")).doesNotExist();
+    }
+
+    @Test
+    public void verifyClassesAreRejected() {
+        String notAnInterface = "package demo;\n"
+                + "@com.evanlennick.retry4j.processor.RetryWrapper\n"
+                + "public class Service {}\n";
+
+        assertThat(compile(source("demo.Service", notAnInterface)))
+                .extracting(diagnostic -> diagnostic.getMessage(null))
+                .containsExactly("@RetryWrapper can only be used on interfaces");
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> options = Arrays.asList("-d", directory.toString(), "-s", directory.toString(),
+                "-classpath", System.getProperty("java.class.path"));
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+                Arrays.asList(sources));
+        task.setProcessors(Arrays.asList(new RetryProcessor()));
+        task.call();
+
+        List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic);
+            }
+        }
+        return errors;
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -1,15 +1,46 @@
 package com.evanlennick.retry4j;
 
 import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigRegistry;
+import com.evanlennick.retry4j.jmx.RetryExecutorMonitor;
+import com.evanlennick.retry4j.listener.AsyncEventDispatcher;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.listener.DeadLetterSink;
 import com.evanlennick.retry4j.listener.RetryListener;
+import com.evanlennick.retry4j.metrics.RetryMetrics;
+import com.evanlennick.retry4j.scheduler.AdmissionQueue;
+import com.evanlennick.retry4j.scheduler.RetryPriority;
+import com.evanlennick.retry4j.scheduler.RetryScheduler;
+import com.evanlennick.retry4j.state.RetryStateBackend;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import com.evanlennick.retry4j.timer.Timeout;
+import com.evanlennick.retry4j.tracing.RetryTracing;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation that kicks off each retry request in its own separate thread that does not block the thread the
  * execution is called from. If you provide an ExecutorService, it will be used when creating threads.
+ * <p>
+ * If you also provide a {@link HashedWheelTimer}, threads are only used while a try is actually running. Waiting
+ * between tries is handed off to the timer, so pending retries cost a timer entry instead of a sleeping thread.
+ * <p>
+ * If you provide a {@link RetryScheduler} instead, tries run on the scheduler's threads in the order of the
+ * {@link RetryPriority} of the executors sharing it, fairly between their tenants, and pending retries may be shed
+ * when the scheduler is overloaded.
+ * <p>
+ * Otherwise tries are accepted without limit unless you provide an {@link AdmissionQueue}, which bounds how many of
+ * them run and wait at a time and rejects the rest.
+ * <p>
+ * Cancelling a returned future cancels its execution: a try that is waiting out its backoff never runs, a try that is
+ * running is interrupted, and the execution ends with a {@link Status} that {@link Status#isCancelled() is cancelled}.
+ * <p>
+ * With {@link RetryTracing}, the context of the thread that starts an execution is attached on every thread that runs
+ * one of its tries.
  *
  * @param <T> The type that is returned by the Callable (eg: Boolean, Void, Object, etc)
  */
@@ -19,6 +50,18 @@ public class AsyncCallExecutor<T> implements RetryExecutor<T, CompletableFuture<
 
     private ExecutorService executorService;
 
+    private HashedWheelTimer timer;
+
+    private RetryScheduler scheduler;
+
+    private RetryPriority priority = RetryPriority.NORMAL;
+
+    private String tenant;
+
+    private AdmissionQueue admissionQueue;
+
+    private final Executor threads = this::runOnThread;
+
     private RetryListener<T> afterFailedTryListener;
 
     private RetryListener<T> beforeNextTryListener;
@@ -29,14 +72,34 @@ public class AsyncCallExecutor<T> implements RetryExecutor<T, CompletableFuture<
 
     private RetryListener<T> onCompletionListener;
 
+    private DeadLetterSink<T> deadLetterSink;
+
+    private AsyncEventDispatcher<T> eventDispatcher;
+
+    private RetryStateBackend stateBackend;
+
+    private RetryMetrics metrics;
+
+    private AttemptObserver attemptObserver;
+
+    private RetryExecutorMonitor monitor;
+
+    private RetryTracing tracing;
+
+    private RetryConfigRegistry configRegistry;
+
+    private String configName;
+
     /**
      * Use {@link CallExecutorBuilder} to build AsyncCallExecutor
      */
-    AsyncCallExecutor(RetryConfig config, ExecutorService executorService, RetryListener<T> afterFailedTryListener,
-                      RetryListener<T> beforeNextTryListener, RetryListener<T> onFailureListener,
-                      RetryListener<T> onSuccessListener, RetryListener<T> onCompletionListener) {
+    AsyncCallExecutor(RetryConfig config, ExecutorService executorService, HashedWheelTimer timer,
+                      RetryListener<T> afterFailedTryListener, RetryListener<T> beforeNextTryListener,
+                      RetryListener<T> onFailureListener, RetryListener<T> onSuccessListener,
+                      RetryListener<T> onCompletionListener) {
         this.config = config;
         this.executorService = executorService;
+        this.timer = timer;
         this.afterFailedTryListener = afterFailedTryListener;
         this.beforeNextTryListener = beforeNextTryListener;
         this.onFailureListener = onFailureListener;
@@ -51,31 +114,261 @@ public class AsyncCallExecutor<T> implements RetryExecutor<T, CompletableFuture<
 
     @Override
     public CompletableFuture<Status<T>> execute(Callable<T> callable, String callName) {
-        CallExecutor<T> synchronousCallExecutor = new CallExecutor<>(config, afterFailedTryListener,
-                beforeNextTryListener, onFailureListener, onSuccessListener, onCompletionListener);
+        if (timer != null || scheduler != null) {
+            return executeWithTimer(callable, callName, 0, 0, null);
+        }
 
-        CompletableFuture<Status<T>> completableFuture = new CompletableFuture<>();
+        CallExecutor<T> synchronousCallExecutor = newCallExecutor();
 
-        if (executorService != null) {
-            executorService.submit(()
-                    -> executeFuture(callable, callName, synchronousCallExecutor, completableFuture));
+        CompletableFuture<Status<T>> completableFuture = newFuture(synchronousCallExecutor, null);
+        submit(synchronousCallExecutor.withContext(
+                () -> executeFuture(callable, callName, synchronousCallExecutor, completableFuture)),
+                synchronousCallExecutor.withContext(() -> {
+                    synchronousCallExecutor.startExecution(callName);
+                    rejectExecution(callable, synchronousCallExecutor, completableFuture, 0, null);
+                }), true);
+        return completableFuture;
+    }
+
+    /**
+     * Starts a timer driven execution that may already have made some tries, for example one restored from a
+     * {@link com.evanlennick.retry4j.persistence.RetryJournal}. Uses the scheduler instead of the timer if there is
+     * one.
+     */
+    CompletableFuture<Status<T>> executeWithTimer(Callable<T> callable, String callName, int previousTries,
+                                                  long millisToWait, PendingRetryTracker tracker) {
+        if (timer == null && scheduler == null) {
+            throw new IllegalStateException("AsyncCallExecutor was not built with a timer or a scheduler!");
+        }
+
+        CallExecutor<T> callExecutor = newCallExecutor();
+        CompletableFuture<Status<T>> completableFuture = newFuture(callExecutor, tracker);
+
+        callExecutor.startExecution(callName);
+        Runnable firstTry = callExecutor.withContext(
+                () -> executeTry(callable, callExecutor, completableFuture, previousTries, tracker));
+        Runnable onRejected = callExecutor.withContext(
+                () -> rejectExecution(callable, callExecutor, completableFuture, previousTries, tracker));
+        Timeout timeout = null;
+        if (scheduler != null) {
+            if (millisToWait > 0) {
+                timeout = scheduler.schedule(priority, tenant, firstTry, onRejected, millisToWait,
+                        TimeUnit.MILLISECONDS);
+            } else {
+                timeout = scheduler.execute(priority, tenant, firstTry, onRejected);
+            }
         } else {
-            (new Thread(()
-                    -> executeFuture(callable, callName, synchronousCallExecutor, completableFuture))).start();
+            if (millisToWait > 0) {
+                timeout = timer.newTimeout(() -> submit(firstTry, onRejected, false), millisToWait,
+                        TimeUnit.MILLISECONDS);
+            } else {
+                submit(firstTry, onRejected, true);
+            }
+        }
+        if (timeout != null) {
+            callExecutor.awaitNextTry(previousTries + 1, timeout);
         }
 
         return completableFuture;
     }
 
+    private CompletableFuture<Status<T>> newFuture(CallExecutor<T> callExecutor, PendingRetryTracker tracker) {
+        return new CompletableFuture<Status<T>>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                if (isDone()) {
+                    return false;
+                }
+                // a next try that was waiting on the timer or scheduler never runs, so the execution ends here, before
+                // anything depending on the future runs
+                if (callExecutor.cancel()) {
+                    endCancelledExecution(callExecutor, tracker);
+                }
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+    }
+
+    private CallExecutor<T> newCallExecutor() {
+        CallExecutor<T> callExecutor = new CallExecutor<>(config, afterFailedTryListener,
+                beforeNextTryListener, onFailureListener, onSuccessListener, onCompletionListener);
+        callExecutor.setDeadLetterSink(deadLetterSink);
+        callExecutor.setEventDispatcher(eventDispatcher);
+        callExecutor.setStateBackend(stateBackend);
+        callExecutor.setMetrics(metrics);
+        callExecutor.setAttemptObserver(attemptObserver);
+        callExecutor.setMonitor(monitor);
+        callExecutor.setTracing(tracing);
+        // always called on the thread that starts the execution
+        callExecutor.captureContext();
+        callExecutor.setConfigRegistry(configRegistry);
+        callExecutor.setConfigName(configName);
+        return callExecutor;
+    }
+
+    /**
+     * @param callerMayRun false when submitting from the timer thread, which must never run a try itself
+     */
+    private void submit(Runnable runnable, Runnable onRejected, boolean callerMayRun) {
+        if (admissionQueue != null) {
+            admissionQueue.submit(runnable, onRejected, threads, callerMayRun);
+        } else {
+            threads.execute(runnable);
+        }
+    }
+
+    private void runOnThread(Runnable runnable) {
+        if (executorService != null) {
+            executorService.submit(runnable);
+        } else {
+            (new Thread(runnable)).start();
+        }
+    }
+
     private void executeFuture(Callable<T> callable, String callName, CallExecutor<T> synchronousCallExecutor, CompletableFuture<Status<T>> completableFuture) {
+        synchronousCallExecutor.attachThread(1);
         try {
             Status<T> status = synchronousCallExecutor.execute(callable, callName);
-            completableFuture.complete(status);
+            complete(completableFuture, synchronousCallExecutor, status);
         } catch (Throwable t) {
+            completeExceptionally(completableFuture, synchronousCallExecutor, t);
+        } finally {
+            synchronousCallExecutor.detachThread();
+        }
+    }
+
+    /**
+     * Runs a single try and, if another one is needed, schedules it on the timer instead of sleeping.
+     */
+    private void executeTry(Callable<T> callable, CallExecutor<T> callExecutor,
+                            CompletableFuture<Status<T>> completableFuture, int previousTries,
+                            PendingRetryTracker tracker) {
+        boolean scheduledNextTry = false;
+        try {
+            Status<T> status;
+            try {
+                if (!callExecutor.attachThread(previousTries + 1)) {
+                    status = callExecutor.cancelExecution();
+                } else {
+                    if (previousTries > 0) {
+                        callExecutor.notifyBeforeNextTry();
+                    } else {
+                        callExecutor.notifyFirstTry();
+                    }
+
+                    int tries = previousTries + 1;
+                    AttemptStatus<T> attemptStatus = callExecutor.tryCall(callable, tries);
+
+                    if (!attemptStatus.wasSuccessful()) {
+                        callExecutor.handleFailedTry(tries);
+
+                        if (tries < callExecutor.getConfig().getMaxNumberOfTries() && !callExecutor.isCancelled()
+                                && callExecutor.acquireRetry()) {
+                            long millisToWait = callExecutor.getMillisToWaitBeforeNextTry(tries);
+                            callExecutor.beginBackoff(tries + 1, millisToWait);
+                            if (tracker != null) {
+                                tracker.onRetryScheduled(tries, System.currentTimeMillis() + millisToWait);
+                            }
+                            Timeout nextTry = scheduleNextTry(callable, callExecutor, completableFuture, tries,
+                                    tracker, millisToWait);
+                            scheduledNextTry = callExecutor.awaitNextTry(tries + 1, nextTry);
+                            if (scheduledNextTry) {
+                                return;
+                            }
+                        }
+                    }
+
+                    status = callExecutor.isCancelled() && !attemptStatus.wasSuccessful()
+                            ? callExecutor.cancelExecution()
+                            : callExecutor.finishExecution(callable, attemptStatus, tries);
+                }
+            } finally {
+                callExecutor.detachThread();
+                if (!scheduledNextTry) {
+                    try {
+                        callExecutor.handleCompletion();
+                    } finally {
+                        if (tracker != null) {
+                            tracker.onExecutionFinished();
+                        }
+                    }
+                }
+            }
+            complete(completableFuture, callExecutor, status);
+        } catch (Throwable t) {
+            completeExceptionally(completableFuture, callExecutor, t);
+        }
+    }
+
+    // once cancelled, the future is left to the cancel that is under way, which completion would otherwise race
+    private void complete(CompletableFuture<Status<T>> completableFuture, CallExecutor<T> callExecutor,
+                          Status<T> status) {
+        if (!callExecutor.isCancelled()) {
+            completableFuture.complete(status);
+        }
+    }
+
+    private void completeExceptionally(CompletableFuture<Status<T>> completableFuture, CallExecutor<T> callExecutor,
+                                       Throwable t) {
+        if (!callExecutor.isCancelled()) {
             completableFuture.completeExceptionally(t);
         }
     }
 
+    private Timeout scheduleNextTry(Callable<T> callable, CallExecutor<T> callExecutor,
+                                    CompletableFuture<Status<T>> completableFuture, int tries,
+                                    PendingRetryTracker tracker, long millisToWait) {
+        Runnable nextTry = callExecutor.withContext(
+                () -> executeTry(callable, callExecutor, completableFuture, tries, tracker));
+        Runnable onRejected = callExecutor.withContext(
+                () -> rejectExecution(callable, callExecutor, completableFuture, tries, tracker));
+        if (scheduler != null) {
+            return scheduler.schedule(priority, tenant, nextTry, onRejected, millisToWait, TimeUnit.MILLISECONDS);
+        }
+        return timer.newTimeout(() -> submit(nextTry, onRejected, false), millisToWait, TimeUnit.MILLISECONDS);
+    }
+
+    private void endCancelledExecution(CallExecutor<T> callExecutor, PendingRetryTracker tracker) {
+        try {
+            callExecutor.cancelExecution();
+        } finally {
+            try {
+                callExecutor.handleCompletion();
+            } finally {
+                if (tracker != null) {
+                    tracker.onExecutionFinished();
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends an execution whose next try was shed by the scheduler or rejected by the admission queue.
+     */
+    private void rejectExecution(Callable<T> callable, CallExecutor<T> callExecutor,
+                                 CompletableFuture<Status<T>> completableFuture, int tries,
+                                 PendingRetryTracker tracker) {
+        try {
+            Status<T> status;
+            try {
+                status = callExecutor.isCancelled()
+                        ? callExecutor.cancelExecution()
+                        : callExecutor.rejectExecution(callable, tries);
+            } finally {
+                try {
+                    callExecutor.handleCompletion();
+                } finally {
+                    if (tracker != null) {
+                        tracker.onExecutionFinished();
+                    }
+                }
+            }
+            complete(completableFuture, callExecutor, status);
+        } catch (Throwable t) {
+            completeExceptionally(completableFuture, callExecutor, t);
+        }
+    }
+
     public RetryConfig getConfig() {
         return config;
     }
@@ -100,6 +393,78 @@ public class AsyncCallExecutor<T> implements RetryExecutor<T, CompletableFuture<
         return onCompletionListener;
     }
 
+    public DeadLetterSink<T> getDeadLetterSink() {
+        return deadLetterSink;
+    }
+
+    public void setDeadLetterSink(DeadLetterSink<T> deadLetterSink) {
+        this.deadLetterSink = deadLetterSink;
+    }
+
+    public AsyncEventDispatcher<T> getEventDispatcher() {
+        return eventDispatcher;
+    }
+
+    public void setEventDispatcher(AsyncEventDispatcher<T> eventDispatcher) {
+        this.eventDispatcher = eventDispatcher;
+    }
+
+    public RetryMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(RetryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public AttemptObserver getAttemptObserver() {
+        return attemptObserver;
+    }
+
+    public void setAttemptObserver(AttemptObserver attemptObserver) {
+        this.attemptObserver = attemptObserver;
+    }
+
+    public RetryExecutorMonitor getMonitor() {
+        return monitor;
+    }
+
+    public void setMonitor(RetryExecutorMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    public RetryTracing getTracing() {
+        return tracing;
+    }
+
+    public void setTracing(RetryTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    public RetryConfigRegistry getConfigRegistry() {
+        return configRegistry;
+    }
+
+    public void setConfigRegistry(RetryConfigRegistry configRegistry) {
+        this.configRegistry = configRegistry;
+    }
+
+    public String getConfigName() {
+        return configName;
+    }
+
+    public void setConfigName(String configName) {
+        this.configName = configName;
+    }
+
+    public RetryStateBackend getStateBackend() {
+        return stateBackend;
+    }
+
+    public void setStateBackend(RetryStateBackend stateBackend) {
+        this.stateBackend = stateBackend;
+    }
+
     public ExecutorService getExecutorService() {
         return executorService;
     }
@@ -108,6 +473,46 @@ public class AsyncCallExecutor<T> implements RetryExecutor<T, CompletableFuture<
         this.executorService = executorService;
     }
 
+    public RetryScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(RetryScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public RetryPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(RetryPriority priority) {
+        this.priority = priority;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public AdmissionQueue getAdmissionQueue() {
+        return admissionQueue;
+    }
+
+    public void setAdmissionQueue(AdmissionQueue admissionQueue) {
+        this.admissionQueue = admissionQueue;
+    }
+
+    public HashedWheelTimer getTimer() {
+        return timer;
+    }
+
+    public void setTimer(HashedWheelTimer timer) {
+        this.timer = timer;
+    }
+
     @Deprecated
     public ExecutorService getThreadExecutorService() {
         return executorService;
@@ -0,0 +1,150 @@
+package com.evanlennick.retry4j;
+
+import com.evanlennick.retry4j.listener.AttemptObserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed size record of the most recent tries of an execution, kept in a ring buffer so that an execution retrying
+ * indefinitely only ever holds on to the last {@link #getCapacity()} of them. Enable it with
+ * {@link com.evanlennick.retry4j.config.RetryConfigBuilder#withAttemptHistory(int)}.
+ */
+public class AttemptHistory {
+
+    private final int[] attempts;
+    private final long[] startNanos;
+    private final long[] durationNanos;
+    private final int[] outcomes;
+    private final Exception[] exceptions;
+
+    private long totalRecorded;
+
+    public AttemptHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.attempts = new int[capacity];
+        this.startNanos = new long[capacity];
+        this.durationNanos = new long[capacity];
+        this.outcomes = new int[capacity];
+        this.exceptions = new Exception[capacity];
+    }
+
+    /**
+     * Records a try, overwriting the oldest one once the history is full.
+     *
+     * @param outcome   one of the {@link AttemptObserver} outcome codes
+     * @param exception the exception the try threw, or null
+     */
+    public synchronized void record(int attempt, long startNanos, long durationNanos, int outcome,
+                                    Exception exception) {
+        int index = (int) (totalRecorded % attempts.length);
+        this.attempts[index] = attempt;
+        this.startNanos[index] = startNanos;
+        this.durationNanos[index] = durationNanos;
+        this.outcomes[index] = outcome;
+        this.exceptions[index] = exception;
+        totalRecorded++;
+    }
+
+    /**
+     * @return the recorded tries still in the history, oldest first
+     */
+    public synchronized List<AttemptRecord> getAttempts() {
+        int size = size();
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+
+        List<AttemptRecord> records = new ArrayList<>(size);
+        for (long i = totalRecorded - size; i < totalRecorded; i++) {
+            int index = (int) (i % attempts.length);
+            records.add(new AttemptRecord(attempts[index], startNanos[index], durationNanos[index],
+                    outcomes[index], exceptions[index]));
+        }
+        return records;
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(totalRecorded, attempts.length);
+    }
+
+    /**
+     * @return the number of tries recorded, including the ones that have since been overwritten
+     */
+    public synchronized long getTotalRecorded() {
+        return totalRecorded;
+    }
+
+    public int getCapacity() {
+        return attempts.length;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AttemptHistory{");
+        sb.append("capacity=").append(getCapacity());
+        sb.append(", totalRecorded=").append(getTotalRecorded());
+        sb.append(", attempts=").append(getAttempts());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    public static final class AttemptRecord {
+
+        private final int attempt;
+        private final long startNanos;
+        private final long durationNanos;
+        private final int outcome;
+        private final Exception exception;
+
+        AttemptRecord(int attempt, long startNanos, long durationNanos, int outcome, Exception exception) {
+            this.attempt = attempt;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.outcome = outcome;
+            this.exception = exception;
+        }
+
+        public int getAttempt() {
+            return attempt;
+        }
+
+        /**
+         * @return the {@link System#nanoTime()} at which the try started
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return one of the {@link AttemptObserver} outcome codes
+         */
+        public int getOutcome() {
+            return outcome;
+        }
+
+        public Exception getException() {
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("AttemptRecord{");
+            sb.append("attempt=").append(attempt);
+            sb.append(", startNanos=").append(startNanos);
+            sb.append(", durationNanos=").append(durationNanos);
+            sb.append(", outcome=").append(outcome);
+            sb.append(", exception=").append(exception);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
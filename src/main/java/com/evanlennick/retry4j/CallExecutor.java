@@ -1,9 +1,25 @@
 package com.evanlennick.retry4j;
 
 import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigRegistry;
 import com.evanlennick.retry4j.exception.RetriesExhaustedException;
 import com.evanlennick.retry4j.exception.UnexpectedException;
+import com.evanlennick.retry4j.jfr.ExecutionRecorder;
+import com.evanlennick.retry4j.jfr.FlightRecorderSupport;
+import com.evanlennick.retry4j.jmx.RetryControl;
+import com.evanlennick.retry4j.jmx.RetryExecutorMonitor;
+import com.evanlennick.retry4j.listener.AsyncEventDispatcher;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.listener.DeadLetterSink;
+import com.evanlennick.retry4j.listener.RetryEventType;
 import com.evanlennick.retry4j.listener.RetryListener;
+import com.evanlennick.retry4j.metrics.CallMetrics;
+import com.evanlennick.retry4j.metrics.RetryMetrics;
+import com.evanlennick.retry4j.state.RetryStateBackend;
+import com.evanlennick.retry4j.timer.Timeout;
+import com.evanlennick.retry4j.tracing.ContextSnapshot;
+import com.evanlennick.retry4j.tracing.ExecutionSpans;
+import com.evanlennick.retry4j.tracing.RetryTracing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +43,12 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
 
     private RetryConfig config;
 
+    private final RetryConfig defaultConfig;
+
+    private RetryConfigRegistry configRegistry;
+
+    private String configName;
+
     private RetryListener<T> afterFailedTryListener;
 
     private RetryListener<T> beforeNextTryListener;
@@ -37,10 +59,60 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
 
     private RetryListener<T> onCompletionListener;
 
+    private DeadLetterSink<T> deadLetterSink;
+
+    private AsyncEventDispatcher<T> eventDispatcher;
+
+    private RetryStateBackend stateBackend;
+
+    private RetryMetrics metrics;
+
+    private CallMetrics callMetrics;
+
+    private AttemptObserver attemptObserver;
+
+    private RetryExecutorMonitor monitor;
+
+    private boolean inBackoff;
+
+    private AttemptHistory attemptHistory;
+
+    private int lastAttempt;
+
+    private int executionOutcome;
+
+    private long startNanos;
+
+    private long firstTryStartNanos;
+
+    private long tryStartNanos;
+
+    private long lastTryEndNanos;
+
+    private ExecutionRecorder executionRecorder;
+
+    private RetryTracing tracing;
+
+    private ExecutionSpans executionSpans;
+
+    private ContextSnapshot context;
+
     private Exception lastKnownExceptionThatCausedRetry;
 
     private Status<T> status = new Status<>();
 
+    private final Object cancelLock = new Object();
+
+    private volatile boolean cancelled;
+
+    private Thread tryThread;
+
+    private Timeout nextTry;
+
+    private int nextTryAttempt;
+
+    private int startedAttempt;
+
     /**
      * Use {@link CallExecutorBuilder} to build {@link CallExecutor}
      */
@@ -48,6 +120,7 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
                  RetryListener<T> beforeNextTryListener, RetryListener<T> onFailureListener,
                  RetryListener<T> onSuccessListener, RetryListener<T> onCompletionListener) {
         this.config = config;
+        this.defaultConfig = config;
         this.afterFailedTryListener = afterFailedTryListener;
         this.beforeNextTryListener = beforeNextTryListener;
         this.onFailureListener = onFailureListener;
@@ -66,13 +139,9 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
         logger.trace("Starting retry4j execution with callable {}", config, callable);
         logger.debug("Starting retry4j execution with executor state {}", this);
 
-        long start = System.currentTimeMillis();
-        status.setStartTime(start);
+        startExecution(callName);
 
         int maxTries = config.getMaxNumberOfTries();
-        long millisBetweenTries = config.getDelayBetweenRetries() != null
-                ? config.getDelayBetweenRetries().toMillis() : 0L;
-        this.status.setCallName(callName);
 
         AttemptStatus<T> attemptStatus = new AttemptStatus<>();
         attemptStatus.setSuccessful(false);
@@ -81,54 +150,279 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
 
         try {
             for (tries = 0; tries < maxTries && !attemptStatus.wasSuccessful(); tries++) {
+                if (cancelled) {
+                    break;
+                }
                 if (tries > 0) {
-                    handleBeforeNextTry(millisBetweenTries, tries);
+                    if (!acquireRetry()) {
+                        break;
+                    }
+                    handleBeforeNextTry(tries);
+                    if (cancelled) {
+                        break;
+                    }
                     logger.trace("Retry4j retrying for time number {}", tries);
                 }
 
                 logger.trace("Retry4j executing callable {}", callable);
-                attemptStatus = tryCall(callable);
+                attemptStatus = tryCall(callable, tries + 1);
 
                 if (!attemptStatus.wasSuccessful()) {
                     handleFailedTry(tries + 1);
                 }
             }
 
-            refreshRetryStatus(attemptStatus.wasSuccessful(), tries);
-            status.setEndTime(System.currentTimeMillis());
+            if (cancelled && !attemptStatus.wasSuccessful()) {
+                cancelExecution();
+            } else {
+                finishExecution(callable, attemptStatus, tries);
+            }
+        } finally {
+            handleCompletion();
+        }
 
-            postExecutionCleanup(callable, maxTries, attemptStatus);
+        return status;
+    }
 
-            logger.debug("Finished retry4j execution in {} ms", status.getTotalElapsedDuration().toMillis());
-            logger.trace("Finished retry4j execution with executor state {}", this);
-        } finally {
-            if (null != onCompletionListener) {
-                onCompletionListener.onEvent(status);
-            }
+    // The methods below are the individual steps of an execution. execute() runs them in a loop on the calling
+    // thread while AsyncCallExecutor can also drive them from timer callbacks, so no thread is held during backoff.
+    void startExecution(String callName) {
+        // the config is resolved once per execution, so a reload never changes the rules of one already running
+        if (null != configRegistry) {
+            config = configRegistry.getOrDefault(null != configName ? configName : callName, defaultConfig);
         }
 
+        long start = System.currentTimeMillis();
+        status.setStartTime(start);
+        status.setCallName(callName);
+
+        lastAttempt = 0;
+        executionOutcome = AttemptObserver.ABORTED;
+
+        // a new history per execution, as the status of a finished execution may still be referenced
+        int historySize = config.getAttemptHistorySize();
+        attemptHistory = historySize > 0 ? new AttemptHistory(historySize) : null;
+        status.setAttemptHistory(attemptHistory);
+
+        if (null != metrics) {
+            callMetrics = metrics.forCall(callName);
+            callMetrics.recordCall();
+        }
+        if (null != monitor) {
+            inBackoff = false;
+            monitor.executionStarted(config);
+        }
+        if (isTimed()) {
+            startNanos = System.nanoTime();
+            tryStartNanos = startNanos;
+            firstTryStartNanos = startNanos;
+            lastTryEndNanos = 0;
+        }
+
+        executionRecorder = FlightRecorderSupport.startExecution(callName);
+        executionSpans = null != tracing ? tracing.startExecution(callName) : null;
+    }
+
+    Status<T> finishExecution(Callable<T> callable, AttemptStatus<T> attemptStatus, int tries) {
+        if (attemptStatus.wasSuccessful() && null != stateBackend && null != status.getCallName()) {
+            stateBackend.recordSuccess(status.getCallName());
+        }
+
+        executionOutcome = attemptStatus.wasSuccessful() ? AttemptObserver.SUCCEEDED
+                : status.isRejected() ? AttemptObserver.REJECTED : AttemptObserver.EXHAUSTED;
+        refreshRetryStatus(attemptStatus.wasSuccessful(), tries);
+        status.setEndTime(System.currentTimeMillis());
+
+        postExecutionCleanup(callable, config.getMaxNumberOfTries(), attemptStatus);
+
+        logger.debug("Finished retry4j execution in {} ms", status.getTotalElapsedDuration().toMillis());
+        logger.trace("Finished retry4j execution with executor state {}", this);
+
+        return status;
+    }
+
+    /**
+     * Ends the execution like one that ran out of tries, for an execution whose next try was shed.
+     */
+    Status<T> rejectExecution(Callable<T> callable, int tries) {
+        status.setRejected(true);
+
+        AttemptStatus<T> attemptStatus = new AttemptStatus<>();
+        attemptStatus.setSuccessful(false);
+        return finishExecution(callable, attemptStatus, tries);
+    }
+
+    /**
+     * Ends an execution that was cancelled, without reporting it as failed.
+     */
+    Status<T> cancelExecution() {
+        status.setCancelled(true);
+        refreshRetryStatus(false, lastAttempt);
+        status.setEndTime(System.currentTimeMillis());
+
+        logger.debug("Cancelled retry4j execution after {} tries", lastAttempt);
         return status;
     }
 
+    /**
+     * Cancels the execution. It makes no further tries, a try that is running is interrupted and a thread sleeping
+     * between tries is woken up.
+     *
+     * @return true if the next try was waiting on a timer or scheduler and was cancelled, in which case it is up to
+     * the caller to end the execution
+     */
+    boolean cancel() {
+        synchronized (cancelLock) {
+            cancelled = true;
+            if (null != tryThread) {
+                tryThread.interrupt();
+            }
+            return null != nextTry && nextTry.cancel();
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers the current thread as the one running the execution's tries, so that cancelling interrupts it.
+     *
+     * @param attempt the try the thread is about to make
+     * @return false if the execution was already cancelled
+     */
+    boolean attachThread(int attempt) {
+        synchronized (cancelLock) {
+            startedAttempt = Math.max(startedAttempt, attempt);
+            if (nextTryAttempt <= attempt) {
+                nextTry = null;
+            }
+            tryThread = Thread.currentThread();
+            return !cancelled;
+        }
+    }
+
+    void detachThread() {
+        synchronized (cancelLock) {
+            tryThread = null;
+            if (cancelled) {
+                // the interrupt was meant for the execution, not for whatever runs on this thread next
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Registers the timer or scheduler entry of the next try, so that cancelling the execution cancels it. The entry
+     * may already have run by the time it is registered, in which case it is ignored.
+     *
+     * @param attempt the try the entry is going to make
+     * @return false if the execution was cancelled before the entry was registered and the entry could still be
+     * cancelled, in which case it is up to the caller to end the execution
+     */
+    boolean awaitNextTry(int attempt, Timeout timeout) {
+        synchronized (cancelLock) {
+            if (!cancelled) {
+                if (attempt > startedAttempt) {
+                    nextTry = timeout;
+                    nextTryAttempt = attempt;
+                }
+                return true;
+            }
+        }
+        return !timeout.cancel();
+    }
+
+    void handleCompletion() {
+        if (isTimed()) {
+            long endNanos = System.nanoTime();
+            if (null != callMetrics) {
+                callMetrics.recordCallLatency(endNanos - startNanos);
+            }
+            if (null != attemptObserver) {
+                attemptObserver.onExecution(status.getCallName(), lastAttempt, startNanos, firstTryStartNanos,
+                        endNanos, executionOutcome);
+            }
+        }
+        if (null != executionRecorder) {
+            executionRecorder.executionFinished();
+            executionRecorder = null;
+        }
+        if (null != monitor) {
+            endBackoff();
+            monitor.executionFinished(executionOutcome == AttemptObserver.EXHAUSTED);
+        }
+        if (null != executionSpans) {
+            String outcome = cancelled ? "cancelled" : outcomeName(executionOutcome);
+            executionSpans.executionFinished(outcome, lastAttempt);
+            executionSpans = null;
+        }
+
+        if (null != onCompletionListener) {
+            onCompletionListener.onEvent(status);
+        }
+        publishEvent(RetryEventType.ON_COMPLETION);
+    }
+
     private void postExecutionCleanup(Callable<T> callable, int maxTries, AttemptStatus<T> attemptStatus) {
         if (!attemptStatus.wasSuccessful()) {
-            String failureMsg = String.format("Call '%s' failed after %d tries!", callable.toString(), maxTries);
+            if (null != callMetrics) {
+                if (status.isRejected()) {
+                    callMetrics.recordRejected();
+                } else {
+                    callMetrics.recordExhausted();
+                }
+            }
+            // a sink that fails must not change how the failure is reported
+            RuntimeException deadLetterException = null;
+            if (null != deadLetterSink) {
+                try {
+                    deadLetterSink.onDeadLetter(callable, status);
+                } catch (RuntimeException e) {
+                    logger.warn("Unable to hand failed call {} to the dead letter sink", status.getCallName(), e);
+                    deadLetterException = e;
+                }
+            }
+            publishEvent(RetryEventType.ON_FAILURE);
             if (null != onFailureListener) {
                 onFailureListener.onEvent(status);
             } else {
                 logger.trace("Throwing retries exhausted exception");
-                throw new RetriesExhaustedException(failureMsg, lastKnownExceptionThatCausedRetry, status);
+                // read now, as the next execution of this executor reuses the status
+                boolean rejected = status.isRejected();
+                int tries = rejected ? status.getTotalTries() : maxTries;
+                RetriesExhaustedException exhausted = new RetriesExhaustedException(() -> String.format(rejected
+                        ? "Call '%s' was rejected after %d tries!" : "Call '%s' failed after %d tries!",
+                        callable.toString(), tries), lastKnownExceptionThatCausedRetry, status,
+                        !config.isStacklessExceptions());
+                if (null != deadLetterException) {
+                    exhausted.addSuppressed(deadLetterException);
+                }
+                throw exhausted;
             }
         } else {
             status.setResult(attemptStatus.getResult());
             if (null != onSuccessListener) {
                 onSuccessListener.onEvent(status);
             }
+            publishEvent(RetryEventType.ON_SUCCESS);
         }
     }
 
-    private AttemptStatus<T> tryCall(Callable<T> callable) throws UnexpectedException {
+    AttemptStatus<T> tryCall(Callable<T> callable, int attempt) throws UnexpectedException {
         AttemptStatus attemptStatus = new AttemptStatus();
+        if (lastAttempt == 0) {
+            firstTryStartNanos = tryStartNanos;
+        }
+        lastAttempt = attempt;
+        int outcome = AttemptObserver.ABORTED;
+        Exception attemptException = null;
+        if (null != executionRecorder) {
+            executionRecorder.attemptStarted(attempt);
+        }
+        if (null != executionSpans) {
+            executionSpans.attemptStarted(attempt);
+        }
 
         try {
             T callResult = callable.call();
@@ -138,17 +432,55 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
                             || isOneOfValuesToRetryOn(callResult));
             if (shouldRetryOnThisResult) {
                 attemptStatus.setSuccessful(false);
+                outcome = AttemptObserver.FAILED_ON_VALUE;
+                if (null != executionRecorder) {
+                    executionRecorder.attemptFailed(null);
+                }
             } else {
                 attemptStatus.setResult(callResult);
                 attemptStatus.setSuccessful(true);
+                outcome = AttemptObserver.SUCCEEDED;
+                if (null != executionRecorder) {
+                    executionRecorder.attemptSucceeded();
+                }
             }
         } catch (Exception e) {
+            attemptException = e;
             if (shouldThrowException(e)) {
                 logger.trace("Throwing expected exception {}", e);
-                throw new UnexpectedException("Unexpected exception thrown during retry execution!", e);
+                if (null != callMetrics) {
+                    callMetrics.recordUnexpectedException();
+                }
+                if (null != executionRecorder) {
+                    executionRecorder.attemptAborted(e);
+                }
+                throw new UnexpectedException("Unexpected exception thrown during retry execution!", e,
+                        !config.isStacklessExceptions());
             } else {
                 lastKnownExceptionThatCausedRetry = e;
                 attemptStatus.setSuccessful(false);
+                outcome = AttemptObserver.FAILED_ON_EXCEPTION;
+                if (null != executionRecorder) {
+                    executionRecorder.attemptFailed(e);
+                }
+            }
+        } finally {
+            if (isTimed()) {
+                lastTryEndNanos = System.nanoTime();
+                if (null != callMetrics) {
+                    callMetrics.recordAttempt(lastTryEndNanos - tryStartNanos);
+                }
+                if (null != attemptObserver) {
+                    attemptObserver.onAttempt(status.getCallName(), attempt, tryStartNanos, lastTryEndNanos,
+                            outcome, null != attemptException ? attemptException.getClass() : null);
+                }
+                if (null != attemptHistory) {
+                    attemptHistory.record(attempt, tryStartNanos, lastTryEndNanos - tryStartNanos, outcome,
+                            attemptException);
+                }
+            }
+            if (null != executionSpans) {
+                executionSpans.attemptFinished(outcomeName(outcome), attemptException);
             }
         }
 
@@ -179,19 +511,133 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
         return false;
     }
 
-    private void handleBeforeNextTry(final long millisBetweenTries, final int tries) {
-        sleep(millisBetweenTries, tries);
+    private void handleBeforeNextTry(final int tries) {
+        long millisToWait = getMillisToWaitBeforeNextTry(tries);
+        beginBackoff(tries + 1, millisToWait);
+        sleep(millisToWait);
+        if (!cancelled) {
+            notifyBeforeNextTry();
+        }
+    }
+
+    void beginBackoff(int nextAttempt, long millisToWait) {
+        if (null != executionRecorder) {
+            executionRecorder.backoffStarted(nextAttempt, millisToWait);
+        }
+        if (null != monitor) {
+            inBackoff = true;
+            monitor.backoffStarted();
+        }
+        if (null != executionSpans) {
+            executionSpans.backoffStarted(nextAttempt, millisToWait);
+        }
+    }
+
+    // a cancelled or shed execution ends without finishing its backoff
+    private void endBackoff() {
+        if (inBackoff) {
+            inBackoff = false;
+            monitor.backoffFinished();
+        }
+    }
+
+    void notifyFirstTry() {
+        if (isTimed()) {
+            // a first try handed to another thread may have waited in its queue since the execution started
+            tryStartNanos = System.nanoTime();
+        }
+    }
+
+    void notifyBeforeNextTry() {
+        if (null != executionRecorder) {
+            executionRecorder.backoffFinished();
+        }
+        if (null != monitor) {
+            endBackoff();
+            monitor.retryStarted();
+        }
+        if (null != executionSpans) {
+            executionSpans.backoffFinished();
+        }
+        if (isTimed()) {
+            // the clock is read once here and reused as the start of the try that follows
+            tryStartNanos = System.nanoTime();
+            if (null != callMetrics) {
+                callMetrics.recordRetry();
+            }
+            // a resumed execution has no previous try in this JVM to measure the backoff from
+            if (lastTryEndNanos != 0) {
+                if (null != callMetrics) {
+                    callMetrics.recordBackoff(tryStartNanos - lastTryEndNanos);
+                }
+                if (null != attemptObserver) {
+                    attemptObserver.onBackoff(status.getCallName(), lastAttempt + 1, lastTryEndNanos,
+                            tryStartNanos);
+                }
+            }
+        }
+
         if (null != beforeNextTryListener) {
             beforeNextTryListener.onEvent(status);
         }
+        publishEvent(RetryEventType.BEFORE_NEXT_TRY);
     }
 
-    private void handleFailedTry(int tries) {
+    void handleFailedTry(int tries) {
+        if (null != stateBackend && null != status.getCallName()) {
+            stateBackend.recordFailure(status.getCallName());
+        }
+
         refreshRetryStatus(false, tries);
 
         if (null != afterFailedTryListener) {
             afterFailedTryListener.onEvent(status);
         }
+        publishEvent(RetryEventType.AFTER_FAILED_TRY);
+    }
+
+    private static String outcomeName(int outcome) {
+        switch (outcome) {
+            case AttemptObserver.SUCCEEDED:
+                return "succeeded";
+            case AttemptObserver.FAILED_ON_EXCEPTION:
+                return "failed_on_exception";
+            case AttemptObserver.FAILED_ON_VALUE:
+                return "failed_on_value";
+            case AttemptObserver.EXHAUSTED:
+                return "exhausted";
+            case AttemptObserver.REJECTED:
+                return "rejected";
+            default:
+                return "aborted";
+        }
+    }
+
+    /**
+     * Captures the context of the current thread, to be attached by {@link #withContext(Runnable)}. Only has an
+     * effect with tracing.
+     */
+    void captureContext() {
+        if (null != tracing) {
+            context = tracing.captureContext();
+        }
+    }
+
+    /**
+     * @return a runnable that runs the given one with the captured context attached, for handing it to another thread
+     */
+    Runnable withContext(Runnable runnable) {
+        return null != context ? RetryTracing.wrap(context, runnable) : runnable;
+    }
+
+    private boolean isTimed() {
+        return null != callMetrics || null != attemptObserver || null != attemptHistory;
+    }
+
+    private void publishEvent(RetryEventType type) {
+        if (null != eventDispatcher) {
+            eventDispatcher.publish(type, status);
+        }
     }
 
     private void refreshRetryStatus(boolean success, int tries) {
@@ -204,10 +650,44 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
         status.setLastExceptionThatCausedRetry(lastKnownExceptionThatCausedRetry);
     }
 
-    private void sleep(long millis, int tries) {
-        Duration duration = Duration.of(millis, ChronoUnit.MILLIS);
-        long millisToSleep = config.getBackoffStrategy().getDurationToWait(tries, duration).toMillis();
+    /**
+     * @return false if retries are paused, globally or on the monitor, or if the state backend has no retry budget
+     * left for this call, in which case the execution gives up as if it had run out of tries
+     */
+    boolean acquireRetry() {
+        if (RetryControl.getInstance().isRetriesPaused()) {
+            logger.debug("Retries are paused, not retrying call {}", status.getCallName());
+            RetryControl.getInstance().executionDrained();
+            if (null != monitor) {
+                monitor.executionDrained();
+            }
+            return false;
+        }
+        if (null != monitor && monitor.isRetriesPaused()) {
+            logger.debug("Retries of {} are paused, not retrying call {}", monitor.getName(), status.getCallName());
+            monitor.executionDrained();
+            return false;
+        }
+
+        if (null == stateBackend || null == status.getCallName()) {
+            return true;
+        }
+
+        boolean acquired = stateBackend.tryAcquireRetry(status.getCallName());
+        if (!acquired) {
+            logger.debug("Retry budget for call {} is used up, not retrying", status.getCallName());
+        }
+        return acquired;
+    }
+
+    long getMillisToWaitBeforeNextTry(int tries) {
+        long millisBetweenTries = config.getDelayBetweenRetries() != null
+                ? config.getDelayBetweenRetries().toMillis() : 0L;
+        Duration duration = Duration.of(millisBetweenTries, ChronoUnit.MILLIS);
+        return config.getBackoffStrategy().getDurationToWait(tries, duration).toMillis();
+    }
 
+    private void sleep(long millisToSleep) {
         logger.trace("Retry4j executor sleeping for {} ms", millisToSleep);
         try {
             TimeUnit.MILLISECONDS.sleep(millisToSleep);
@@ -290,6 +770,81 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
         return onCompletionListener;
     }
 
+    public DeadLetterSink<T> getDeadLetterSink() {
+        return deadLetterSink;
+    }
+
+    public void setDeadLetterSink(DeadLetterSink<T> deadLetterSink) {
+        this.deadLetterSink = deadLetterSink;
+    }
+
+    public AsyncEventDispatcher<T> getEventDispatcher() {
+        return eventDispatcher;
+    }
+
+    public void setEventDispatcher(AsyncEventDispatcher<T> eventDispatcher) {
+        this.eventDispatcher = eventDispatcher;
+    }
+
+    public RetryMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(RetryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public AttemptObserver getAttemptObserver() {
+        return attemptObserver;
+    }
+
+    public void setAttemptObserver(AttemptObserver attemptObserver) {
+        this.attemptObserver = attemptObserver;
+    }
+
+    public RetryExecutorMonitor getMonitor() {
+        return monitor;
+    }
+
+    public void setMonitor(RetryExecutorMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    public RetryTracing getTracing() {
+        return tracing;
+    }
+
+    public void setTracing(RetryTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    public RetryConfigRegistry getConfigRegistry() {
+        return configRegistry;
+    }
+
+    public void setConfigRegistry(RetryConfigRegistry configRegistry) {
+        this.configRegistry = configRegistry;
+    }
+
+    public String getConfigName() {
+        return configName;
+    }
+
+    /**
+     * @param configName the name of the config to use from the registry, instead of the call name of the execution
+     */
+    public void setConfigName(String configName) {
+        this.configName = configName;
+    }
+
+    public RetryStateBackend getStateBackend() {
+        return stateBackend;
+    }
+
+    public void setStateBackend(RetryStateBackend stateBackend) {
+        this.stateBackend = stateBackend;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("CallExecutor{");
@@ -298,6 +853,8 @@ public class CallExecutor<T> implements RetryExecutor<T, Status<T>> {
         sb.append(", beforeNextTryListener=").append(beforeNextTryListener);
         sb.append(", onFailureListener=").append(onFailureListener);
         sb.append(", onSuccessListener=").append(onSuccessListener);
+        sb.append(", deadLetterSink=").append(deadLetterSink);
+        sb.append(", stateBackend=").append(stateBackend);
         sb.append(", lastKnownExceptionThatCausedRetry=").append(lastKnownExceptionThatCausedRetry);
         sb.append(", status=").append(status);
         sb.append('}');
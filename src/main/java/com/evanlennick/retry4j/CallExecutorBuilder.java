@@ -2,7 +2,19 @@ package com.evanlennick.retry4j;
 
 import com.evanlennick.retry4j.config.RetryConfig;
 import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.config.RetryConfigRegistry;
+import com.evanlennick.retry4j.jmx.RetryExecutorMonitor;
+import com.evanlennick.retry4j.listener.AsyncEventDispatcher;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.listener.DeadLetterSink;
 import com.evanlennick.retry4j.listener.RetryListener;
+import com.evanlennick.retry4j.metrics.RetryMetrics;
+import com.evanlennick.retry4j.scheduler.AdmissionQueue;
+import com.evanlennick.retry4j.scheduler.RetryPriority;
+import com.evanlennick.retry4j.scheduler.RetryScheduler;
+import com.evanlennick.retry4j.state.RetryStateBackend;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import com.evanlennick.retry4j.tracing.RetryTracing;
 
 import java.util.concurrent.ExecutorService;
 
@@ -15,6 +27,25 @@ public class CallExecutorBuilder<T> {
     private RetryListener<T> onSuccessListener;
     private RetryListener<T> onFailureListener;
     private RetryListener<T> onCompletionListener;
+    private DeadLetterSink<T> deadLetterSink;
+    private AsyncEventDispatcher<T> eventDispatcher;
+    private RetryStateBackend stateBackend;
+    private RetryMetrics metrics;
+
+    private AttemptObserver attemptObserver;
+
+    private RetryExecutorMonitor monitor;
+
+    private RetryTracing tracing;
+
+    private RetryConfigRegistry configRegistry;
+    private String configName;
+
+    private RetryScheduler scheduler;
+    private RetryPriority priority = RetryPriority.NORMAL;
+    private String tenant;
+
+    private AdmissionQueue admissionQueue;
 
     public CallExecutorBuilder() {
     }
@@ -49,18 +80,141 @@ public class CallExecutorBuilder<T> {
         return this;
     }
 
+    public CallExecutorBuilder<T> deadLetterSink(DeadLetterSink<T> sink) {
+        this.deadLetterSink = sink;
+        return this;
+    }
+
+    public CallExecutorBuilder<T> eventDispatcher(AsyncEventDispatcher<T> dispatcher) {
+        this.eventDispatcher = dispatcher;
+        return this;
+    }
+
+    public CallExecutorBuilder<T> stateBackend(RetryStateBackend stateBackend) {
+        this.stateBackend = stateBackend;
+        return this;
+    }
+
+    public CallExecutorBuilder<T> metrics(RetryMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    public CallExecutorBuilder<T> attemptObserver(AttemptObserver observer) {
+        this.attemptObserver = observer;
+        return this;
+    }
+
+    /**
+     * Exposes the executions of the executor over JMX through the monitor, and lets it pause their retries.
+     */
+    public CallExecutorBuilder<T> monitor(RetryExecutorMonitor monitor) {
+        this.monitor = monitor;
+        return this;
+    }
+
+    /**
+     * Starts spans for sampled executions, and lets async executors carry the context of the thread that starts an
+     * execution to the threads that run its tries.
+     */
+    public CallExecutorBuilder<T> tracing(RetryTracing tracing) {
+        this.tracing = tracing;
+        return this;
+    }
+
+    /**
+     * Looks up the config of every execution in the registry by its call name as it starts, falling back to the
+     * config of this builder when the registry has none by that name.
+     */
+    public CallExecutorBuilder<T> configRegistry(RetryConfigRegistry registry) {
+        return configRegistry(registry, null);
+    }
+
+    /**
+     * Looks up the config of every execution in the registry by the given name as it starts, falling back to the
+     * config of this builder when the registry has none by that name.
+     */
+    public CallExecutorBuilder<T> configRegistry(RetryConfigRegistry registry, String configName) {
+        this.configRegistry = registry;
+        this.configName = configName;
+        return this;
+    }
+
+    /**
+     * Runs the tries of async executors on a scheduler shared with other executors, instead of an ExecutorService
+     * and a timer. Has no effect on synchronous executors.
+     */
+    public CallExecutorBuilder<T> scheduler(RetryScheduler scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    /**
+     * The priority class of the executions of async executors on their scheduler, NORMAL unless set.
+     */
+    public CallExecutorBuilder<T> priority(RetryPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * The tenant whose share of their scheduler the executions of async executors use, the
+     * {@link RetryScheduler#DEFAULT_TENANT} unless set.
+     */
+    public CallExecutorBuilder<T> tenant(String tenant) {
+        this.tenant = tenant;
+        return this;
+    }
+
+    /**
+     * Bounds the tries async executors run and queue at a time. Has no effect on synchronous executors, or on async
+     * executors with a scheduler, which bounds its pending retries itself.
+     */
+    public CallExecutorBuilder<T> admissionQueue(AdmissionQueue admissionQueue) {
+        this.admissionQueue = admissionQueue;
+        return this;
+    }
+
     public CallExecutor<T> build() {
-        return new CallExecutor<>(retryConfig, afterFailedTryListener, beforeNextTryListener,
+        CallExecutor<T> callExecutor = new CallExecutor<>(retryConfig, afterFailedTryListener, beforeNextTryListener,
                 onFailureListener, onSuccessListener, onCompletionListener);
+        callExecutor.setDeadLetterSink(deadLetterSink);
+        callExecutor.setEventDispatcher(eventDispatcher);
+        callExecutor.setStateBackend(stateBackend);
+        callExecutor.setMetrics(metrics);
+        callExecutor.setAttemptObserver(attemptObserver);
+        callExecutor.setMonitor(monitor);
+        callExecutor.setTracing(tracing);
+        callExecutor.setConfigRegistry(configRegistry);
+        callExecutor.setConfigName(configName);
+        return callExecutor;
     }
 
     public AsyncCallExecutor<T> buildAsync() {
-        return new AsyncCallExecutor<>(retryConfig, null, afterFailedTryListener, beforeNextTryListener,
-                onFailureListener, onSuccessListener, onCompletionListener);
+        return buildAsync(null, null);
     }
 
     public AsyncCallExecutor<T> buildAsync(ExecutorService executorService) {
-        return new AsyncCallExecutor<>(retryConfig, executorService, afterFailedTryListener, beforeNextTryListener,
-                onFailureListener, onSuccessListener, onCompletionListener);
+        return buildAsync(executorService, null);
+    }
+
+    public AsyncCallExecutor<T> buildAsync(ExecutorService executorService, HashedWheelTimer timer) {
+        AsyncCallExecutor<T> asyncCallExecutor = new AsyncCallExecutor<>(retryConfig, executorService, timer,
+                afterFailedTryListener, beforeNextTryListener, onFailureListener, onSuccessListener,
+                onCompletionListener);
+        asyncCallExecutor.setDeadLetterSink(deadLetterSink);
+        asyncCallExecutor.setEventDispatcher(eventDispatcher);
+        asyncCallExecutor.setStateBackend(stateBackend);
+        asyncCallExecutor.setMetrics(metrics);
+        asyncCallExecutor.setAttemptObserver(attemptObserver);
+        asyncCallExecutor.setMonitor(monitor);
+        asyncCallExecutor.setTracing(tracing);
+        asyncCallExecutor.setConfigRegistry(configRegistry);
+        asyncCallExecutor.setConfigName(configName);
+        asyncCallExecutor.setScheduler(scheduler);
+        asyncCallExecutor.setPriority(priority);
+        asyncCallExecutor.setTenant(tenant);
+        asyncCallExecutor.setAdmissionQueue(admissionQueue);
+        return asyncCallExecutor;
     }
 }
@@ -0,0 +1,19 @@
+package com.evanlennick.retry4j;
+
+/**
+ * Notified by a timer driven {@link AsyncCallExecutor} execution whenever it parks a retry on the timer and once it
+ * has finished for good, so that the pending retry can be tracked outside of the executor.
+ */
+interface PendingRetryTracker {
+
+    /**
+     * Called before the next try is handed to the timer.
+     *
+     * @param tries       the number of tries made so far
+     * @param nextTryTime epoch millis at which the next try is due
+     */
+    void onRetryScheduled(int tries, long nextTryTime);
+
+    void onExecutionFinished();
+
+}
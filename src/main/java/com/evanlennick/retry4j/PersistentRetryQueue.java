@@ -0,0 +1,178 @@
+package com.evanlennick.retry4j;
+
+import com.evanlennick.retry4j.persistence.PendingRetry;
+import com.evanlennick.retry4j.persistence.RetryJournal;
+import com.evanlennick.retry4j.persistence.TaskCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Opt-in durable front end for an {@link AsyncCallExecutor} that was built with a timer. Every retry the executor
+ * parks on its timer is first written to a {@link RetryJournal} together with the encoded Callable, and removed from
+ * it once the execution finishes. After a restart, {@link #recover()} reschedules everything the journal still holds.
+ * <p>
+ * Executions are identified by an idempotency key, which is also used as their call name. Submitting a key that is
+ * already running, or that is still pending in the journal, does not start a second execution.
+ *
+ * @param <T> The type that is returned by the Callable (eg: Boolean, Void, Object, etc)
+ */
+public class PersistentRetryQueue<T> {
+
+    private Logger logger = LoggerFactory.getLogger(PersistentRetryQueue.class);
+
+    private final AsyncCallExecutor<T> asyncCallExecutor;
+
+    private final RetryJournal journal;
+
+    private final TaskCodec<T> taskCodec;
+
+    private final ConcurrentMap<String, CompletableFuture<Status<T>>> inFlight = new ConcurrentHashMap<>();
+
+    public PersistentRetryQueue(AsyncCallExecutor<T> asyncCallExecutor, RetryJournal journal, TaskCodec<T> taskCodec) {
+        if (asyncCallExecutor.getTimer() == null && asyncCallExecutor.getScheduler() == null) {
+            throw new IllegalArgumentException(
+                    "A persistent retry queue requires an AsyncCallExecutor with a timer or a scheduler!");
+        }
+
+        this.asyncCallExecutor = asyncCallExecutor;
+        this.journal = journal;
+        this.taskCodec = taskCodec;
+    }
+
+    /**
+     * Starts executing the Callable unless an execution with the same key is already running or pending in the
+     * journal, in which case that execution's future is returned instead.
+     */
+    public CompletableFuture<Status<T>> submit(String key, Callable<T> callable) {
+        CompletableFuture<Status<T>> future = new CompletableFuture<>();
+        CompletableFuture<Status<T>> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            logger.trace("Execution with key {} is already in flight", key);
+            return existing;
+        }
+
+        PendingRetry pendingRetry = findPendingRetry(key);
+        if (pendingRetry != null) {
+            logger.debug("Resuming journaled execution with key {} instead of starting a new one", key);
+            resume(pendingRetry, future);
+        } else {
+            start(key, callable, null, 0, 0, future);
+        }
+        return future;
+    }
+
+    /**
+     * Reschedules every retry left in the journal that is not already running. Retries that became due while the JVM
+     * was down are started right away, the rest are parked on the timer until their next try time.
+     *
+     * @return the futures of the rescheduled executions, keyed by idempotency key
+     */
+    public Map<String, CompletableFuture<Status<T>>> recover() {
+        Map<String, CompletableFuture<Status<T>>> recovered = new LinkedHashMap<>();
+        for (PendingRetry pendingRetry : journal.getPendingRetries()) {
+            CompletableFuture<Status<T>> future = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(pendingRetry.getKey(), future) == null) {
+                resume(pendingRetry, future);
+                recovered.put(pendingRetry.getKey(), future);
+            }
+        }
+        logger.debug("Recovered {} pending retries from {}", recovered.size(), journal.getDirectory());
+        return recovered;
+    }
+
+    private PendingRetry findPendingRetry(String key) {
+        if (!journal.isPending(key)) {
+            return null;
+        }
+        for (PendingRetry pendingRetry : journal.getPendingRetries()) {
+            if (pendingRetry.getKey().equals(key)) {
+                return pendingRetry;
+            }
+        }
+        return null;
+    }
+
+    private void resume(PendingRetry pendingRetry, CompletableFuture<Status<T>> future) {
+        Callable<T> callable;
+        try {
+            callable = taskCodec.decode(pendingRetry.getPayload());
+        } catch (RuntimeException e) {
+            inFlight.remove(pendingRetry.getKey(), future);
+            future.completeExceptionally(e);
+            return;
+        }
+
+        long millisToWait = Math.max(0, pendingRetry.getNextTryTime() - System.currentTimeMillis());
+        start(pendingRetry.getKey(), callable, pendingRetry.getPayload(), pendingRetry.getAttemptCount(),
+                millisToWait, future);
+    }
+
+    private void start(String key, Callable<T> callable, byte[] payload, int previousTries, long millisToWait,
+                       CompletableFuture<Status<T>> future) {
+        JournalingTracker tracker = new JournalingTracker(key, callable, payload);
+        try {
+            asyncCallExecutor.executeWithTimer(callable, key, previousTries, millisToWait, tracker)
+                    .whenComplete((status, throwable) -> {
+                        inFlight.remove(key, future);
+                        if (throwable != null) {
+                            future.completeExceptionally(throwable);
+                        } else {
+                            future.complete(status);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public AsyncCallExecutor<T> getAsyncCallExecutor() {
+        return asyncCallExecutor;
+    }
+
+    public RetryJournal getJournal() {
+        return journal;
+    }
+
+    public TaskCodec<T> getTaskCodec() {
+        return taskCodec;
+    }
+
+    private class JournalingTracker implements PendingRetryTracker {
+
+        private final String key;
+        private final Callable<T> callable;
+        private byte[] payload;
+
+        JournalingTracker(String key, Callable<T> callable, byte[] payload) {
+            this.key = key;
+            this.callable = callable;
+            this.payload = payload;
+        }
+
+        @Override
+        public void onRetryScheduled(int tries, long nextTryTime) {
+            // only pay for encoding once a call actually needs a retry
+            if (payload == null) {
+                payload = taskCodec.encode(callable);
+            }
+            journal.recordPending(new PendingRetry(key, payload, tries, nextTryTime));
+        }
+
+        @Override
+        public void onExecutionFinished() {
+            journal.recordCompleted(key);
+        }
+    }
+}
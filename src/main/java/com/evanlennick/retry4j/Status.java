@@ -11,6 +11,9 @@ public class Status<T> extends AttemptStatus<T> {
     private int totalTries;
     private Duration totalElapsedDuration;
     private Exception lastExceptionThatCausedRetry;
+    private AttemptHistory attemptHistory;
+    private boolean rejected;
+    private boolean cancelled;
 
     public String getId() {
         return id;
@@ -68,6 +71,41 @@ public class Status<T> extends AttemptStatus<T> {
         this.lastExceptionThatCausedRetry = lastExceptionThatCausedRetry;
     }
 
+    /**
+     * @return the most recent tries of the execution, or null unless the config enables an attempt history
+     */
+    public AttemptHistory getAttemptHistory() {
+        return attemptHistory;
+    }
+
+    public void setAttemptHistory(AttemptHistory attemptHistory) {
+        this.attemptHistory = attemptHistory;
+    }
+
+    /**
+     * @return whether a {@link com.evanlennick.retry4j.scheduler.RetryScheduler} shed the execution before it could
+     * make all of its tries
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    public void setRejected(boolean rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return true if the execution was cancelled through the future returned by
+     * {@link com.evanlennick.retry4j.AsyncCallExecutor}, and ended without making all of its tries
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Status{");
@@ -80,6 +118,9 @@ public class Status<T> extends AttemptStatus<T> {
         sb.append(", totalElapsedDuration=").append(totalElapsedDuration);
         sb.append(", result=").append(getResult());
         sb.append(", lastExceptionThatCausedRetry=").append(lastExceptionThatCausedRetry);
+        sb.append(", attemptHistory=").append(attemptHistory);
+        sb.append(", rejected=").append(rejected);
+        sb.append(", cancelled=").append(cancelled);
         sb.append('}');
         return sb.toString();
     }
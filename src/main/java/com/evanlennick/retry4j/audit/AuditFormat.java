@@ -0,0 +1,147 @@
+package com.evanlennick.retry4j.audit;
+
+import com.evanlennick.retry4j.Status;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Layout of audit log segments. After the header, a segment is a sequence of length prefixed records, one per
+ * {@link Status}. Every record stands on its own, so each segment can be read without the ones before it.
+ * <pre>
+ * header:  int magic, int version
+ * record:  int length, byte flags, id, string callName, int totalTries, long startTime, long endTime,
+ *          long elapsedMillis, string exceptionClassName
+ * id:      long mostSignificantBits, long leastSignificantBits if the UUID_ID flag is set, otherwise a string
+ * string:  short length (-1 for null), UTF-8 bytes
+ * </pre>
+ * Times are in epoch milliseconds, as on the status.
+ */
+final class AuditFormat {
+
+    static final int MAGIC = 0x52344a41;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    static final byte SUCCESSFUL = 1;
+    static final byte REJECTED = 1 << 1;
+    static final byte CANCELLED = 1 << 2;
+    static final byte UUID_ID = 1 << 3;
+
+    static final int MAX_STRING_BYTES = 4096;
+    static final int MAX_RECORD_SIZE = 4 + 1 + 3 * (2 + MAX_STRING_BYTES) + 4 + 3 * 8;
+
+    private AuditFormat() {
+    }
+
+    /**
+     * Encodes the status into a record, including its length prefix.
+     */
+    static byte[] encode(Status<?> status) {
+        UUID uuid = parseUuid(status.getId());
+        byte[] id = null == uuid ? bytes(status.getId()) : null;
+        byte[] callName = bytes(status.getCallName());
+        Exception lastException = status.getLastExceptionThatCausedRetry();
+        byte[] exceptionClassName = bytes(null != lastException ? lastException.getClass().getName() : null);
+
+        byte flags = 0;
+        if (status.wasSuccessful()) {
+            flags |= SUCCESSFUL;
+        }
+        if (status.isRejected()) {
+            flags |= REJECTED;
+        }
+        if (status.isCancelled()) {
+            flags |= CANCELLED;
+        }
+        if (null != uuid) {
+            flags |= UUID_ID;
+        }
+
+        int length = 1 + (null != uuid ? 16 : stringSize(id)) + stringSize(callName) + 4 + 3 * 8
+                + stringSize(exceptionClassName);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length);
+        buffer.putInt(length).put(flags);
+        if (null != uuid) {
+            buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        } else {
+            putString(buffer, id);
+        }
+        putString(buffer, callName);
+        Duration elapsed = status.getTotalElapsedDuration();
+        buffer.putInt(status.getTotalTries())
+                .putLong(status.getStartTime())
+                .putLong(status.getEndTime())
+                .putLong(null != elapsed ? elapsed.toMillis() : 0);
+        putString(buffer, exceptionClassName);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the body of a record, after its length prefix.
+     */
+    static AuditRecord decode(ByteBuffer buffer) {
+        byte flags = buffer.get();
+        String id = (flags & UUID_ID) != 0
+                ? new UUID(buffer.getLong(), buffer.getLong()).toString()
+                : getString(buffer);
+        String callName = getString(buffer);
+        int totalTries = buffer.getInt();
+        long startTime = buffer.getLong();
+        long endTime = buffer.getLong();
+        Duration elapsed = Duration.ofMillis(buffer.getLong());
+        String exceptionClassName = getString(buffer);
+        return new AuditRecord(id, callName, totalTries, startTime, endTime, elapsed,
+                (flags & SUCCESSFUL) != 0, (flags & REJECTED) != 0, (flags & CANCELLED) != 0, exceptionClassName);
+    }
+
+    private static UUID parseUuid(String id) {
+        if (null == id || id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            // only ids that read back exactly the same can be stored as a UUID
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        if (null == value) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_BYTES) {
+            return bytes;
+        }
+        byte[] truncated = new byte[MAX_STRING_BYTES];
+        System.arraycopy(bytes, 0, truncated, 0, MAX_STRING_BYTES);
+        return truncated;
+    }
+
+    private static int stringSize(byte[] value) {
+        return 2 + (null != value ? value.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (null == value) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+package com.evanlennick.retry4j.audit;
+
+import com.evanlennick.retry4j.exception.PersistenceException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads back the segments written by {@link StatusAuditLog}, oldest first. A record cut short at the end of a
+ * segment, as left by a crash, ends that segment.
+ */
+public final class AuditLogReader {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile(
+            Pattern.quote(StatusAuditLog.SEGMENT_PREFIX) + "(\\d{20})" + Pattern.quote(StatusAuditLog.SEGMENT_SUFFIX));
+
+    private AuditLogReader() {
+    }
+
+    /**
+     * @return every record in the directory's segments, in the order they were written
+     */
+    public static List<AuditRecord> read(Path directory) {
+        List<AuditRecord> records = new ArrayList<>();
+        forEach(directory, records::add);
+        return records;
+    }
+
+    /**
+     * Hands every record in the directory's segments to the consumer, without holding more than one segment in
+     * memory at a time.
+     */
+    public static void forEach(Path directory, Consumer<AuditRecord> consumer) {
+        for (Path segment : segments(directory)) {
+            readSegment(segment, consumer);
+        }
+    }
+
+    public static void readSegment(Path segment, Consumer<AuditRecord> consumer) {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to read audit log segment " + segment, e);
+        }
+
+        if (buffer.remaining() < AuditFormat.HEADER_SIZE || buffer.getInt() != AuditFormat.MAGIC) {
+            throw new PersistenceException(segment + " is not a retry4j audit log segment!");
+        }
+        int version = buffer.getInt();
+        if (version != AuditFormat.VERSION) {
+            throw new PersistenceException("Unsupported audit log version " + version + " in " + segment);
+        }
+
+        while (buffer.remaining() >= 4) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            buffer.position(buffer.position() + length);
+            try {
+                consumer.accept(AuditFormat.decode(record));
+            } catch (BufferUnderflowException e) {
+                throw new PersistenceException("Corrupt audit record in " + segment, e);
+            }
+        }
+    }
+
+    /**
+     * @return the segments in the directory, oldest first
+     */
+    public static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(AuditLogReader::isSegment)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to list audit log segments in " + directory, e);
+        }
+    }
+
+    static long lastSegmentSequence(Path directory) {
+        List<Path> segments = segments(directory);
+        return segments.isEmpty() ? -1 : sequence(segments.get(segments.size() - 1));
+    }
+
+    private static boolean isSegment(Path file) {
+        return SEGMENT_NAME.matcher(file.getFileName().toString()).matches();
+    }
+
+    private static long sequence(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        matcher.matches();
+        return Long.parseLong(matcher.group(1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.evanlennick.retry4j.audit;
+
+import java.time.Duration;
+
+/**
+ * The audited part of a {@link com.evanlennick.retry4j.Status}, as read back by {@link AuditLogReader}.
+ */
+public final class AuditRecord {
+
+    private final String id;
+    private final String callName;
+    private final int totalTries;
+    private final long startTime;
+    private final long endTime;
+    private final Duration totalElapsedDuration;
+    private final boolean successful;
+    private final boolean rejected;
+    private final boolean cancelled;
+    private final String exceptionClassName;
+
+    AuditRecord(String id, String callName, int totalTries, long startTime, long endTime,
+                Duration totalElapsedDuration, boolean successful, boolean rejected, boolean cancelled,
+                String exceptionClassName) {
+        this.id = id;
+        this.callName = callName;
+        this.totalTries = totalTries;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.totalElapsedDuration = totalElapsedDuration;
+        this.successful = successful;
+        this.rejected = rejected;
+        this.cancelled = cancelled;
+        this.exceptionClassName = exceptionClassName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCallName() {
+        return callName;
+    }
+
+    public int getTotalTries() {
+        return totalTries;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public Duration getTotalElapsedDuration() {
+        return totalElapsedDuration;
+    }
+
+    public boolean wasSuccessful() {
+        return successful;
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the class of the last exception that caused a retry, or null if there was none
+     */
+    public String getExceptionClassName() {
+        return exceptionClassName;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AuditRecord{");
+        sb.append("id=").append(id);
+        sb.append(", callName='").append(callName).append('\'');
+        sb.append(", totalTries=").append(totalTries);
+        sb.append(", startTime=").append(startTime);
+        sb.append(", endTime=").append(endTime);
+        sb.append(", totalElapsedDuration=").append(totalElapsedDuration);
+        sb.append(", successful=").append(successful);
+        sb.append(", rejected=").append(rejected);
+        sb.append(", cancelled=").append(cancelled);
+        sb.append(", exceptionClassName=").append(exceptionClassName);
+        sb.append('}');
+        return sb.toString();
+    }
+}
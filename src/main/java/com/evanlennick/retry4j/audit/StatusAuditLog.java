@@ -0,0 +1,361 @@
+package com.evanlennick.retry4j.audit;
+
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.exception.PersistenceException;
+import com.evanlennick.retry4j.listener.RetryListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps an audit trail of every execution of the executors it is registered on, as compact binary records in a
+ * directory of rolling segment files that {@link AuditLogReader} reads back. Register it as the executor's
+ * onCompletionListener:
+ * <pre>
+ * StatusAuditLog&lt;Boolean&gt; auditLog = new StatusAuditLog&lt;&gt;(Paths.get("audit"));
+ * new CallExecutorBuilder&lt;Boolean&gt;().config(config).onCompletionListener(auditLog).build();
+ * </pre>
+ * Recording a status only encodes it into an in-memory buffer. The buffered records are written and forced to disk
+ * together, by a background thread every commit interval, or by whoever finds the buffer full or calls
+ * {@link #sync()}, so a single write and force covers the records of every execution that completed meanwhile. With
+ * syncOnEvent, every execution waits until its own record is on disk; the waits of concurrent executions still share
+ * one force. A segment is rolled over once it has grown past the max segment size.
+ * <p>
+ * A failure to write disables the log rather than failing calls.
+ *
+ * @param <T> The type that is returned by the Callable (eg: Boolean, Void, Object, etc)
+ */
+public class StatusAuditLog<T> implements RetryListener<T>, Closeable {
+
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 64 * 1024 * 1024;
+    public static final Duration DEFAULT_COMMIT_INTERVAL = Duration.ofMillis(100);
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    private Logger logger = LoggerFactory.getLogger(StatusAuditLog.class);
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final long commitIntervalMillis;
+    private final boolean syncOnEvent;
+
+    // guards the active buffer and everything about the records appended to it
+    private final Object lock = new Object();
+    private ByteBuffer activeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private ByteBuffer spareBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long appendedSequence;
+    private boolean failed;
+    private boolean closed;
+
+    // guards committedSequence and commitInProgress; the channel is only touched by the thread leading a commit
+    private final Object commitLock = new Object();
+    private long committedSequence;
+    private boolean commitInProgress;
+    private volatile long commits;
+    private FileChannel channel;
+    private long segmentSequence;
+
+    private final Thread committer;
+
+    public StatusAuditLog(Path directory) {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES, DEFAULT_COMMIT_INTERVAL, false);
+    }
+
+    /**
+     * @param commitInterval how often buffered records are committed in the background
+     * @param syncOnEvent    true to make every execution wait until its record is on disk
+     */
+    public StatusAuditLog(Path directory, long maxSegmentBytes, Duration commitInterval, boolean syncOnEvent) {
+        if (maxSegmentBytes <= AuditFormat.HEADER_SIZE) {
+            throw new IllegalArgumentException("Max segment size is too small: " + maxSegmentBytes);
+        }
+        if (commitInterval.isNegative() || commitInterval.isZero()) {
+            throw new IllegalArgumentException("Commit interval must be positive: " + commitInterval);
+        }
+
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.commitIntervalMillis = Math.max(1, commitInterval.toMillis());
+        this.syncOnEvent = syncOnEvent;
+
+        try {
+            Files.createDirectories(directory);
+            // a new segment every time the log is opened, so a segment cut short by a crash is never appended to
+            segmentSequence = AuditLogReader.lastSegmentSequence(directory) + 1;
+            channel = openSegment(segmentSequence);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to open audit log in " + directory, e);
+        }
+
+        committer = new Thread(this::commitPeriodically,
+                "retry4j-audit-log-" + INSTANCE_COUNTER.incrementAndGet());
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @Override
+    public void onEvent(Status<T> status) {
+        record(status);
+    }
+
+    /**
+     * Buffers a record of the status, and with syncOnEvent waits until it is on disk.
+     */
+    public void record(Status<?> status) {
+        byte[] record = AuditFormat.encode(status);
+        long sequence;
+        for (;;) {
+            long fullSequence;
+            synchronized (lock) {
+                if (closed || failed) {
+                    return;
+                }
+                if (activeBuffer.remaining() >= record.length) {
+                    activeBuffer.put(record);
+                    sequence = ++appendedSequence;
+                    break;
+                }
+                fullSequence = appendedSequence;
+            }
+            // the buffer is full, so commit what is in it and try again
+            commit(fullSequence);
+        }
+
+        if (syncOnEvent) {
+            commit(sequence);
+        }
+    }
+
+    /**
+     * Waits until every record buffered so far is on disk.
+     */
+    public void sync() {
+        long sequence;
+        synchronized (lock) {
+            sequence = appendedSequence;
+        }
+        commit(sequence);
+    }
+
+    /**
+     * Waits until every record up to the given sequence is on disk. The first caller to find no commit running swaps
+     * the buffers, then writes and forces everything that was buffered, covering the records of every caller that
+     * appended meanwhile.
+     */
+    private void commit(long sequence) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                synchronized (commitLock) {
+                    if (committedSequence >= sequence) {
+                        return;
+                    }
+                    if (commitInProgress) {
+                        try {
+                            commitLock.wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                        continue;
+                    }
+                    commitInProgress = true;
+                }
+
+                long batchSequence = 0;
+                try {
+                    batchSequence = writeBatch();
+                } finally {
+                    synchronized (commitLock) {
+                        commitInProgress = false;
+                        committedSequence = Math.max(committedSequence, batchSequence);
+                        commitLock.notifyAll();
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Must only be called by the thread leading a commit.
+     *
+     * @return the sequence of the last record written, or everything appended if the log has failed or is closed, so
+     * that nobody keeps waiting for records that will never be written
+     */
+    private long writeBatch() {
+        ByteBuffer batch;
+        long batchSequence;
+        synchronized (lock) {
+            batch = activeBuffer;
+            activeBuffer = spareBuffer;
+            spareBuffer = null;
+            batchSequence = appendedSequence;
+            if (failed || null == channel) {
+                batch.clear();
+                spareBuffer = batch;
+                return batchSequence;
+            }
+        }
+
+        batch.flip();
+        try {
+            if (batch.hasRemaining()) {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+                commits++;
+                if (channel.position() >= maxSegmentBytes) {
+                    channel.close();
+                    channel = openSegment(++segmentSequence);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to write to audit log in {}, no longer recording", directory, e);
+            synchronized (lock) {
+                failed = true;
+            }
+        } finally {
+            batch.clear();
+            synchronized (lock) {
+                spareBuffer = batch;
+            }
+        }
+        return batchSequence;
+    }
+
+    private FileChannel openSegment(long sequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        FileChannel segment = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(AuditFormat.HEADER_SIZE);
+        header.putInt(AuditFormat.MAGIC).putInt(AuditFormat.VERSION).flip();
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+        logger.debug("Opened audit log segment {}", path);
+        return segment;
+    }
+
+    private void commitPeriodically() {
+        try {
+            for (;;) {
+                synchronized (lock) {
+                    if (closed) {
+                        return;
+                    }
+                    lock.wait(commitIntervalMillis);
+                    if (closed) {
+                        return;
+                    }
+                }
+                sync();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Audit log committer was interrupted");
+        }
+    }
+
+    /**
+     * @return the number of statuses recorded so far
+     */
+    public long getRecordedStatuses() {
+        synchronized (lock) {
+            return appendedSequence;
+        }
+    }
+
+    /**
+     * @return the number of recorded statuses that are on disk, unless the log {@link #isFailed() failed}
+     */
+    public long getCommittedStatuses() {
+        synchronized (commitLock) {
+            return committedSequence;
+        }
+    }
+
+    /**
+     * @return the number of times buffered records were written and forced to disk
+     */
+    public long getCommits() {
+        return commits;
+    }
+
+    public boolean isFailed() {
+        synchronized (lock) {
+            return failed;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Commits the buffered records and closes the current segment. Statuses recorded afterwards are ignored.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+        closeSegment();
+    }
+
+    // takes over from any commit still running, so the channel is not closed under it
+    private void closeSegment() {
+        boolean interrupted = false;
+        synchronized (commitLock) {
+            while (commitInProgress) {
+                try {
+                    commitLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            commitInProgress = true;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Unable to close audit log in {}", directory, e);
+        } finally {
+            channel = null;
+            synchronized (commitLock) {
+                commitInProgress = false;
+                commitLock.notifyAll();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
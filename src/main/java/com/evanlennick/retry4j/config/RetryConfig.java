@@ -20,12 +20,15 @@ public class RetryConfig {
     private final boolean retryOnValue;
     private final Function<Exception, Boolean> customRetryOnLogic;
     private final boolean retryOnCausedBy;
+    private final int attemptHistorySize;
+    private final boolean stacklessExceptions;
 
     RetryConfig(boolean retryOnAnyException, Set<Class<? extends Exception>> retryOnSpecificExceptions,
                 Set<Class<? extends Exception>> retryOnAnyExceptionExcluding, Integer maxNumberOfTries,
                 Duration delayBetweenRetries, BackoffStrategy backoffStrategy,
                 Collection<Object> valuesToRetryOn, Collection<Object> valuesToExpect,
-                boolean retryOnValue, Function<Exception, Boolean> customRetryOnLogic, boolean retryOnCausedBy) {
+                boolean retryOnValue, Function<Exception, Boolean> customRetryOnLogic, boolean retryOnCausedBy,
+                int attemptHistorySize, boolean stacklessExceptions) {
         this.retryOnAnyException = retryOnAnyException;
         this.retryOnSpecificExceptions = retryOnSpecificExceptions;
         this.retryOnAnyExceptionExcluding = retryOnAnyExceptionExcluding;
@@ -37,6 +40,8 @@ public class RetryConfig {
         this.retryOnValue = retryOnValue;
         this.customRetryOnLogic = customRetryOnLogic;
         this.retryOnCausedBy = retryOnCausedBy;
+        this.attemptHistorySize = attemptHistorySize;
+        this.stacklessExceptions = stacklessExceptions;
     }
 
     public Collection<Object> getValuesToRetryOn() {
@@ -83,6 +88,20 @@ public class RetryConfig {
         return delayBetweenRetries;
     }
 
+    /**
+     * @return the number of most recent tries kept in the attempt history of each execution, or 0 if none are kept
+     */
+    public int getAttemptHistorySize() {
+        return attemptHistorySize;
+    }
+
+    /**
+     * @return true if the exceptions thrown by retry4j itself skip filling in their stack trace
+     */
+    public boolean isStacklessExceptions() {
+        return stacklessExceptions;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("RetryConfig{");
@@ -96,6 +115,8 @@ public class RetryConfig {
         sb.append(", valuesToExpect=").append(valuesToExpect);
         sb.append(", retryOnValue=").append(retryOnValue);
         sb.append(", customRetryOnLogic=").append(customRetryOnLogic);
+        sb.append(", attemptHistorySize=").append(attemptHistorySize);
+        sb.append(", stacklessExceptions=").append(stacklessExceptions);
         sb.append('}');
         return sb.toString();
     }
@@ -36,6 +36,8 @@ public class RetryConfigBuilder {
             = "Max number of retries must be a non-negative number.";
     public static final String SHOULD_SPECIFY_DELAY_BETWEEN_RETRIES_AS_POSTIVE__ERROR_MSG
             = "Delay between retries must be a non-negative Duration.";
+    public static final String SHOULD_SPECIFY_ATTEMPT_HISTORY_SIZE_AS_POSITIVE__ERROR_MSG
+            = "Attempt history must keep at least one attempt.";
     private boolean builtInExceptionStrategySpecified;
     private boolean validationEnabled;
     private Boolean retryOnAnyException = false;
@@ -49,6 +51,8 @@ public class RetryConfigBuilder {
     private Boolean retryOnValue = false;
     private Function<Exception, Boolean> customRetryOnLogic;
     private boolean retryOnCausedBy;
+    private int attemptHistorySize;
+    private boolean stacklessExceptions;
 
     public RetryConfigBuilder() {
         this.builtInExceptionStrategySpecified = false;
@@ -182,6 +186,30 @@ public class RetryConfigBuilder {
         return this;
     }
 
+    /**
+     * Keeps a record of the most recent tries of each execution, available from
+     * {@link com.evanlennick.retry4j.Status#getAttemptHistory()}. Older tries are overwritten once the history is
+     * full, so executions that retry indefinitely use a bounded amount of memory.
+     */
+    public RetryConfigBuilder withAttemptHistory(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new InvalidRetryConfigException(SHOULD_SPECIFY_ATTEMPT_HISTORY_SIZE_AS_POSITIVE__ERROR_MSG);
+        }
+
+        attemptHistorySize = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Makes the RetriesExhaustedException and UnexpectedException thrown by executors skip filling in their stack
+     * trace, which is mostly retry4j's own frames. The exception thrown by the call is still available, with its full
+     * stack trace, as the cause.
+     */
+    public RetryConfigBuilder withStacklessExceptions() {
+        stacklessExceptions = true;
+        return this;
+    }
+
     public RetryConfigBuilder withBackoffStrategy(BackoffStrategy backoffStrategy) {
         validateBackoffStrategyAddition();
         this.backoffStrategy = backoffStrategy;
@@ -229,7 +257,8 @@ public class RetryConfigBuilder {
                 retryOnAnyExceptionExcluding, maxNumberOfTries,
                 delayBetweenRetries, backoffStrategy, valuesToRetryOn,
                 valuesToExpect,
-                retryOnValue, customRetryOnLogic, retryOnCausedBy);
+                retryOnValue, customRetryOnLogic, retryOnCausedBy, attemptHistorySize,
+                stacklessExceptions);
 
         validateConfig(retryConfig);
 
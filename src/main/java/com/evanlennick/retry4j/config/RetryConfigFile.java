@@ -0,0 +1,279 @@
+package com.evanlennick.retry4j.config;
+
+import com.evanlennick.retry4j.exception.InvalidRetryConfigException;
+import com.evanlennick.retry4j.exception.Retry4jException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Reads the named configs of a {@link RetryConfigRegistry} from a properties file, where every property is prefixed
+ * with the name of its config:
+ * <pre>
+ * db.maxTries=5
+ * db.delay=100ms
+ * db.backoff=exponential
+ * db.retryOn=java.sql.SQLTransientException, java.io.IOException
+ * </pre>
+ * or from a YAML file (.yml or .yaml) with one mapping per config, limited to the subset needed for that:
+ * <pre>
+ * db:
+ *   maxTries: 5
+ *   delay: 100ms
+ *   backoff: exponential
+ *   retryOn: [java.sql.SQLTransientException, java.io.IOException]
+ * </pre>
+ * Besides those, a config takes abortOn, retryOnCausedBy, attemptHistory and stacklessExceptions. maxTries also
+ * accepts "indefinitely" and delays are given in ms, s, m, h or d, or as ISO-8601 durations.
+ */
+final class RetryConfigFile {
+
+    private static final Set<String> PROPERTIES = new HashSet<>(Arrays.asList("maxTries", "delay",
+            "backoff", "retryOn", "abortOn", "retryOnCausedBy", "attemptHistory", "stacklessExceptions"));
+
+    private RetryConfigFile() {
+    }
+
+    /**
+     * @throws InvalidRetryConfigException if the file is malformed or describes a config that is not valid
+     * @throws IOException                 if the file cannot be read
+     */
+    static Map<String, RetryConfig> read(Path file, ClassLoader classLoader) throws IOException {
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Map<String, Map<String, String>> properties = fileName.endsWith(".yml") || fileName.endsWith(".yaml")
+                ? parseYaml(content) : parseProperties(content);
+
+        Map<String, RetryConfig> configs = new LinkedHashMap<>();
+        properties.forEach((name, values) -> configs.put(name, build(name, values, classLoader)));
+        return Collections.unmodifiableMap(configs);
+    }
+
+    private static Map<String, Map<String, String>> parseProperties(String content) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = new StringReader(content)) {
+            properties.load(reader);
+        }
+
+        Map<String, Map<String, String>> configs = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            int separator = key.lastIndexOf('.');
+            if (separator <= 0) {
+                throw new InvalidRetryConfigException("Property '" + key + "' must be prefixed with a config name!");
+            }
+            configs.computeIfAbsent(key.substring(0, separator), name -> new LinkedHashMap<>())
+                    .put(key.substring(separator + 1), properties.getProperty(key).trim());
+        }
+        return configs;
+    }
+
+    private static Map<String, Map<String, String>> parseYaml(String content) {
+        Map<String, Map<String, String>> configs = new LinkedHashMap<>();
+        Map<String, String> current = null;
+        int lineNumber = 0;
+        for (String rawLine : content.split("\r?\n")) {
+            lineNumber++;
+            String line = stripComment(rawLine);
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            int separator = line.indexOf(':');
+            if (separator < 0) {
+                throw new InvalidRetryConfigException("Line " + lineNumber + " is not a 'key: value' pair!");
+            }
+            String key = unquote(line.substring(0, separator).trim());
+            String value = unquote(line.substring(separator + 1).trim());
+
+            if (!Character.isWhitespace(line.charAt(0))) {
+                if (!value.isEmpty()) {
+                    throw new InvalidRetryConfigException("Line " + lineNumber + " must start the config '" + key
+                            + "' without a value!");
+                }
+                current = configs.computeIfAbsent(key, name -> new LinkedHashMap<>());
+            } else if (null == current) {
+                throw new InvalidRetryConfigException("Line " + lineNumber + " is not part of a config!");
+            } else {
+                if (value.startsWith("[") && value.endsWith("]")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                current.put(key, value);
+            }
+        }
+        return configs;
+    }
+
+    // like YAML, a # only starts a comment at the start of the line or after whitespace, and never inside quotes
+    private static String stripComment(String line) {
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            boolean startOfToken = i == 0 || " \t:[,".indexOf(line.charAt(i - 1)) >= 0;
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if ((c == '"' || c == '\'') && startOfToken) {
+                quote = c;
+            } else if (c == '#' && (i == 0 || Character.isWhitespace(line.charAt(i - 1)))) {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.startsWith("\"") && value.endsWith("\"")
+                || value.startsWith("'") && value.endsWith("'"))) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    // the properties are applied in a fixed order, as the builder only accepts some of them once
+    private static RetryConfig build(String name, Map<String, String> values, ClassLoader classLoader) {
+        for (String property : values.keySet()) {
+            if (!PROPERTIES.contains(property)) {
+                throw new InvalidRetryConfigException("Retry config '" + name + "' has an unknown property '"
+                        + property + "'!");
+            }
+        }
+
+        try {
+            RetryConfigBuilder builder = new RetryConfigBuilder();
+            if (values.containsKey("retryOn")) {
+                builder.retryOnSpecificExceptions(exceptionClasses(values.get("retryOn"), classLoader));
+            }
+            if (values.containsKey("abortOn")) {
+                builder.retryOnAnyExceptionExcluding(exceptionClasses(values.get("abortOn"), classLoader));
+            }
+            if (!values.containsKey("retryOn") && !values.containsKey("abortOn")) {
+                builder.retryOnAnyException();
+            }
+            if (Boolean.parseBoolean(values.get("retryOnCausedBy"))) {
+                builder.retryOnCausedBy();
+            }
+
+            String maxTries = values.get("maxTries");
+            if ("indefinitely".equalsIgnoreCase(maxTries)) {
+                builder.retryIndefinitely();
+            } else if (null != maxTries) {
+                builder.withMaxNumberOfTries(parseInt(maxTries, "maxTries"));
+            }
+            if (values.containsKey("delay")) {
+                builder.withDelayBetweenTries(parseDuration(values.get("delay")));
+            }
+            if (values.containsKey("backoff")) {
+                applyBackoff(builder, values.get("backoff"));
+            }
+            if (values.containsKey("attemptHistory")) {
+                builder.withAttemptHistory(parseInt(values.get("attemptHistory"), "attemptHistory"));
+            }
+            if (Boolean.parseBoolean(values.get("stacklessExceptions"))) {
+                builder.withStacklessExceptions();
+            }
+            return builder.build();
+        } catch (Retry4jException e) {
+            throw new InvalidRetryConfigException("Retry config '" + name + "' is not valid: " + e.getMessage());
+        }
+    }
+
+    private static Class<? extends Exception>[] exceptionClasses(String value, ClassLoader classLoader) {
+        List<Class<? extends Exception>> classes = new ArrayList<>();
+        for (String className : value.split(",")) {
+            if (className.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                Class<?> type = Class.forName(className.trim(), false, classLoader);
+                if (!Exception.class.isAssignableFrom(type)) {
+                    throw new InvalidRetryConfigException(className.trim() + " is not an exception!");
+                }
+                classes.add(type.asSubclass(Exception.class));
+            } catch (ClassNotFoundException e) {
+                throw new InvalidRetryConfigException("Exception class " + className.trim() + " was not found!");
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Class<? extends Exception>[] array = (Class<? extends Exception>[]) classes.toArray(new Class<?>[0]);
+        return array;
+    }
+
+    private static void applyBackoff(RetryConfigBuilder builder, String backoff) {
+        switch (backoff.toLowerCase(Locale.ROOT).replace("_", "").replace("-", "")) {
+            case "fixed":
+                builder.withFixedBackoff();
+                break;
+            case "exponential":
+                builder.withExponentialBackoff();
+                break;
+            case "fibonacci":
+                builder.withFibonacciBackoff();
+                break;
+            case "nowait":
+                builder.withNoWaitBackoff();
+                break;
+            case "random":
+                builder.withRandomBackoff();
+                break;
+            case "randomexponential":
+                builder.withRandomExponentialBackoff();
+                break;
+            default:
+                throw new InvalidRetryConfigException("Unknown backoff strategy '" + backoff + "'!");
+        }
+    }
+
+    private static int parseInt(String value, String property) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRetryConfigException(property + " must be a number: " + value);
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        String lowerCase = value.toLowerCase(Locale.ROOT);
+        try {
+            if (lowerCase.startsWith("p")) {
+                return Duration.parse(value);
+            }
+            if (lowerCase.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(lowerCase.substring(0, lowerCase.length() - 2).trim()));
+            }
+
+            long amount = Long.parseLong(lowerCase.substring(0, lowerCase.length() - 1).trim());
+            switch (lowerCase.charAt(lowerCase.length() - 1)) {
+                case 's':
+                    return Duration.ofSeconds(amount);
+                case 'm':
+                    return Duration.ofMinutes(amount);
+                case 'h':
+                    return Duration.ofHours(amount);
+                case 'd':
+                    return Duration.ofDays(amount);
+                default:
+                    throw new InvalidRetryConfigException("Delay must end with ms, s, m, h or d: " + value);
+            }
+        } catch (NumberFormatException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new InvalidRetryConfigException("Delay is not a duration: " + value);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.evanlennick.retry4j.config;
+
+import com.evanlennick.retry4j.exception.InvalidRetryConfigException;
+import com.evanlennick.retry4j.exception.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Named {@link RetryConfig}s loaded from a properties or YAML file, see {@link RetryConfigFile} for the format, which
+ * can be changed while the application runs. Executors built with
+ * {@link com.evanlennick.retry4j.CallExecutorBuilder#configRegistry(RetryConfigRegistry)} look up the config for the
+ * call name of every execution as it starts, so tuning max tries or delays during an incident takes effect without a
+ * restart:
+ * <pre>
+ * RetryConfigRegistry registry = RetryConfigRegistry.load(Paths.get("retry.properties")).watch();
+ * CallExecutor&lt;Order&gt; executor = new CallExecutorBuilder&lt;Order&gt;()
+ *         .config(defaultConfig)
+ *         .configRegistry(registry)
+ *         .build();
+ * executor.execute(() -&gt; orders.find(id), "db");
+ * </pre>
+ * Every config in the file is validated with the same rules as configs built in code. A reload replaces all configs
+ * at once, and only if all of them are valid; otherwise the previous ones stay in use. Executions keep the config
+ * they started with.
+ */
+public class RetryConfigRegistry implements Closeable {
+
+    private Logger logger = LoggerFactory.getLogger(RetryConfigRegistry.class);
+
+    private final Path file;
+    private final ClassLoader classLoader;
+
+    private volatile Map<String, RetryConfig> configs;
+    private volatile long version;
+
+    private WatchService watchService;
+
+    private RetryConfigRegistry(Path file, ClassLoader classLoader) {
+        this.file = file.toAbsolutePath();
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @throws InvalidRetryConfigException if the file is malformed or describes a config that is not valid
+     * @throws PersistenceException        if the file cannot be read
+     */
+    public static RetryConfigRegistry load(Path file) {
+        return load(file, RetryConfigRegistry.class.getClassLoader());
+    }
+
+    /**
+     * @param classLoader loads the exception classes the configs retry on or abort on
+     */
+    public static RetryConfigRegistry load(Path file, ClassLoader classLoader) {
+        RetryConfigRegistry registry = new RetryConfigRegistry(file, classLoader);
+        registry.configs = registry.readFile();
+        registry.version = 1;
+        return registry;
+    }
+
+    private Map<String, RetryConfig> readFile() {
+        try {
+            return RetryConfigFile.read(file, classLoader);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to read retry configs from " + file, e);
+        }
+    }
+
+    /**
+     * @return the config registered under the name, or null if there is none
+     */
+    public RetryConfig get(String name) {
+        return configs.get(name);
+    }
+
+    public RetryConfig getOrDefault(String name, RetryConfig defaultConfig) {
+        RetryConfig config = null != name ? configs.get(name) : null;
+        return null != config ? config : defaultConfig;
+    }
+
+    public Set<String> getNames() {
+        return configs.keySet();
+    }
+
+    /**
+     * @return the number of times configs were loaded successfully, starting with 1 for the initial load
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Reads the file again and swaps in its configs if all of them are valid.
+     *
+     * @return whether the configs were replaced
+     */
+    public synchronized boolean reload() {
+        try {
+            configs = readFile();
+            version++;
+            logger.info("Reloaded retry configs {} from {}", configs.keySet(), file);
+            return true;
+        } catch (InvalidRetryConfigException | PersistenceException e) {
+            logger.warn("Keeping the current retry configs, unable to reload {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Starts reloading the configs whenever the file is written to or replaced, on a daemon thread, until the
+     * registry is closed.
+     */
+    public synchronized RetryConfigRegistry watch() {
+        if (null != watchService) {
+            return this;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to watch " + file, e);
+        }
+
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> watchFile(service), "retry4j-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        return this;
+    }
+
+    private void watchFile(WatchService service) {
+        Path fileName = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    logger.warn("No longer watching {}, its directory is gone", file);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.debug("Stopped watching {}", file);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (null == watchService) {
+            return;
+        }
+
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Unable to stop watching {}", file, e);
+        }
+        watchService = null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RetryConfigRegistry{");
+        sb.append("file=").append(file);
+        sb.append(", version=").append(version);
+        sb.append(", configs=").append(configs.keySet());
+        sb.append('}');
+        return sb.toString();
+    }
+}
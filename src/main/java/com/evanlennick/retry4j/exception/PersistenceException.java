@@ -0,0 +1,18 @@
+package com.evanlennick.retry4j.exception;
+
+/**
+ * This exception represents a failure to read or write one of Retry4j's file backed stores.
+ */
+public class PersistenceException extends Retry4jException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PersistenceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public PersistenceException(String message) {
+        super(message);
+    }
+
+}
@@ -1,7 +1,10 @@
 package com.evanlennick.retry4j.exception;
 
+import com.evanlennick.retry4j.AttemptHistory;
 import com.evanlennick.retry4j.Status;
 
+import java.util.function.Supplier;
+
 /**
  * This exception represents a call execution that never succeeded after exhausting all retries.
  */
@@ -14,7 +17,20 @@ public class RetriesExhaustedException extends Retry4jException {
         this.status = status;
     }
 
+    public RetriesExhaustedException(Supplier<String> messageSupplier, Throwable cause, Status status,
+                                     boolean writableStackTrace) {
+        super(messageSupplier, cause, writableStackTrace);
+        this.status = status;
+    }
+
     public Status getStatus() {
         return status;
     }
+
+    /**
+     * @return the most recent tries of the execution, or null unless the config enables an attempt history
+     */
+    public AttemptHistory getAttemptHistory() {
+        return status != null ? status.getAttemptHistory() : null;
+    }
 }
@@ -1,7 +1,13 @@
 package com.evanlennick.retry4j.exception;
 
+import java.util.function.Supplier;
+
 public class Retry4jException extends RuntimeException {
 
+    private Supplier<String> messageSupplier;
+
+    private String message;
+
     public Retry4jException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -10,4 +16,29 @@ public class Retry4jException extends RuntimeException {
         super(message);
     }
 
+    /**
+     * @param messageSupplier    builds the message the first time it is asked for, so exceptions that are caught
+     *                           and dropped never pay for it
+     * @param writableStackTrace false to skip filling in the stack trace, the cause keeps its own
+     */
+    protected Retry4jException(Supplier<String> messageSupplier, Throwable cause, boolean writableStackTrace) {
+        super(null, cause, true, writableStackTrace);
+        this.messageSupplier = messageSupplier;
+    }
+
+    @Override
+    public String getMessage() {
+        if (null == messageSupplier) {
+            return super.getMessage();
+        }
+
+        // racing threads may both build the message, which is harmless as it is always the same
+        String result = message;
+        if (null == result) {
+            result = messageSupplier.get();
+            message = result;
+        }
+        return result;
+    }
+
 }
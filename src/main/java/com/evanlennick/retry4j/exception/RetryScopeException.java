@@ -0,0 +1,38 @@
+package com.evanlennick.retry4j.exception;
+
+import com.evanlennick.retry4j.Status;
+
+/**
+ * This exception represents a {@link com.evanlennick.retry4j.scope.RetryScope} that was shut down before all of its
+ * subtasks succeeded, because one of them failed or because its deadline passed.
+ */
+public class RetryScopeException extends Retry4jException {
+
+    private static final long serialVersionUID = 1L;
+
+    private Status<?> status;
+
+    private boolean deadlineExceeded;
+
+    public RetryScopeException(String message, Throwable cause, Status<?> status) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public RetryScopeException(String message) {
+        super(message);
+        this.deadlineExceeded = true;
+    }
+
+    /**
+     * @return the status of the subtask that failed, or null if it failed with an exception before it had one or if
+     * the deadline passed
+     */
+    public Status<?> getStatus() {
+        return status;
+    }
+
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
@@ -10,4 +10,8 @@ public class UnexpectedException extends Retry4jException {
         super(message, cause);
     }
 
+    public UnexpectedException(String message, Throwable cause, boolean writableStackTrace) {
+        super(() -> message, cause, writableStackTrace);
+    }
+
 }
@@ -0,0 +1,29 @@
+package com.evanlennick.retry4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.evanlennick.retry4j.Attempt")
+@Label("Retry4j Attempt")
+@Description("A single try of a Callable")
+@Category("Retry4j")
+@StackTrace(false)
+final class AttemptEvent extends jdk.jfr.Event {
+
+    @Label("Call Name")
+    String callName;
+
+    @Label("Attempt")
+    @Description("Number of the try within its execution, starting at 1")
+    int attempt;
+
+    @Label("Outcome")
+    @Description("SUCCESS, FAILURE if the try will be retried on, or UNEXPECTED")
+    String outcome;
+
+    @Label("Exception Class")
+    String exceptionClass;
+}
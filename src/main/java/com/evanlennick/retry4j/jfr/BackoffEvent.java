@@ -0,0 +1,26 @@
+package com.evanlennick.retry4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.evanlennick.retry4j.Backoff")
+@Label("Retry4j Backoff")
+@Description("Wait between a failed try and the next one; the event duration is the actual delay")
+@Category("Retry4j")
+@StackTrace(false)
+final class BackoffEvent extends jdk.jfr.Event {
+
+    @Label("Call Name")
+    String callName;
+
+    @Label("Next Attempt")
+    int nextAttempt;
+
+    @Label("Planned Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long plannedDelay;
+}
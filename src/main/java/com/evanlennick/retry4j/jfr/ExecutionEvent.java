@@ -0,0 +1,25 @@
+package com.evanlennick.retry4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.evanlennick.retry4j.Execution")
+@Label("Retry4j Execution")
+@Description("A whole execution of a Callable, including all of its retries")
+@Category("Retry4j")
+@StackTrace(false)
+final class ExecutionEvent extends jdk.jfr.Event {
+
+    @Label("Call Name")
+    String callName;
+
+    @Label("Total Tries")
+    int totalTries;
+
+    @Label("Outcome")
+    @Description("SUCCESS, EXHAUSTED or UNEXPECTED")
+    String outcome;
+}
@@ -0,0 +1,24 @@
+package com.evanlennick.retry4j.jfr;
+
+/**
+ * Receives the steps of one execution so they can be emitted as Flight Recorder events. Obtained from
+ * {@link FlightRecorderSupport#startExecution(String)}, which only returns one while a recording has a retry4j event
+ * enabled.
+ */
+public interface ExecutionRecorder {
+
+    void attemptStarted(int attempt);
+
+    void attemptSucceeded();
+
+    void attemptFailed(Throwable cause);
+
+    void attemptAborted(Throwable cause);
+
+    void backoffStarted(int nextAttempt, long plannedDelayMillis);
+
+    void backoffFinished();
+
+    void executionFinished();
+
+}
@@ -0,0 +1,35 @@
+package com.evanlennick.retry4j.jfr;
+
+/**
+ * Entry point for emitting Java Flight Recorder events from the executors. Retry4j still runs on Java 8 releases
+ * that do not ship the {@code jdk.jfr} API, so the classes that depend on it are only loaded once this class has found
+ * the API to be present.
+ */
+public final class FlightRecorderSupport {
+
+    private static final boolean AVAILABLE = isJfrPresent();
+
+    private FlightRecorderSupport() {
+    }
+
+    private static boolean isJfrPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderSupport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @return a recorder for a new execution, or null when Flight Recorder is unavailable or no recording has a
+     * retry4j event enabled, in which case recording the execution costs nothing
+     */
+    public static ExecutionRecorder startExecution(String callName) {
+        return AVAILABLE ? JfrExecutionRecorder.startIfEnabled(callName) : null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.evanlennick.retry4j.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * Emits the steps of one execution as events. Only the event types that were enabled when the execution started are
+ * recorded, so an execution never pays for events nobody is listening to.
+ */
+final class JfrExecutionRecorder implements ExecutionRecorder {
+
+    private static final String SUCCESS = "SUCCESS";
+    private static final String FAILURE = "FAILURE";
+    private static final String EXHAUSTED = "EXHAUSTED";
+    private static final String UNEXPECTED = "UNEXPECTED";
+
+    private static final EventType ATTEMPT_TYPE = EventType.getEventType(AttemptEvent.class);
+    private static final EventType BACKOFF_TYPE = EventType.getEventType(BackoffEvent.class);
+    private static final EventType EXECUTION_TYPE = EventType.getEventType(ExecutionEvent.class);
+
+    private final String callName;
+    private final boolean attemptsEnabled;
+    private final boolean backoffsEnabled;
+    private final ExecutionEvent executionEvent;
+
+    private int lastAttempt;
+    private AttemptEvent attemptEvent;
+    private BackoffEvent backoffEvent;
+    private String lastAttemptOutcome = FAILURE;
+
+    private JfrExecutionRecorder(String callName, boolean attemptsEnabled, boolean backoffsEnabled,
+                                 boolean executionsEnabled) {
+        this.callName = callName;
+        this.attemptsEnabled = attemptsEnabled;
+        this.backoffsEnabled = backoffsEnabled;
+        if (executionsEnabled) {
+            executionEvent = new ExecutionEvent();
+            executionEvent.begin();
+        } else {
+            executionEvent = null;
+        }
+    }
+
+    static ExecutionRecorder startIfEnabled(String callName) {
+        boolean attemptsEnabled = ATTEMPT_TYPE.isEnabled();
+        boolean backoffsEnabled = BACKOFF_TYPE.isEnabled();
+        boolean executionsEnabled = EXECUTION_TYPE.isEnabled();
+        if (!attemptsEnabled && !backoffsEnabled && !executionsEnabled) {
+            return null;
+        }
+        return new JfrExecutionRecorder(callName, attemptsEnabled, backoffsEnabled, executionsEnabled);
+    }
+
+    @Override
+    public void attemptStarted(int attempt) {
+        lastAttempt = attempt;
+        if (attemptsEnabled) {
+            attemptEvent = new AttemptEvent();
+            attemptEvent.callName = callName;
+            attemptEvent.attempt = attempt;
+            attemptEvent.begin();
+        }
+    }
+
+    @Override
+    public void attemptSucceeded() {
+        finishAttempt(SUCCESS, null);
+    }
+
+    @Override
+    public void attemptFailed(Throwable cause) {
+        finishAttempt(FAILURE, cause);
+    }
+
+    @Override
+    public void attemptAborted(Throwable cause) {
+        finishAttempt(UNEXPECTED, cause);
+    }
+
+    private void finishAttempt(String outcome, Throwable cause) {
+        lastAttemptOutcome = outcome;
+        if (attemptEvent != null) {
+            attemptEvent.end();
+            if (attemptEvent.shouldCommit()) {
+                attemptEvent.outcome = outcome;
+                attemptEvent.exceptionClass = cause != null ? cause.getClass().getName() : null;
+                attemptEvent.commit();
+            }
+            attemptEvent = null;
+        }
+    }
+
+    @Override
+    public void backoffStarted(int nextAttempt, long plannedDelayMillis) {
+        if (backoffsEnabled) {
+            backoffEvent = new BackoffEvent();
+            backoffEvent.callName = callName;
+            backoffEvent.nextAttempt = nextAttempt;
+            backoffEvent.plannedDelay = plannedDelayMillis;
+            backoffEvent.begin();
+        }
+    }
+
+    @Override
+    public void backoffFinished() {
+        if (backoffEvent != null) {
+            backoffEvent.end();
+            if (backoffEvent.shouldCommit()) {
+                backoffEvent.commit();
+            }
+            backoffEvent = null;
+        }
+    }
+
+    @Override
+    public void executionFinished() {
+        if (executionEvent != null) {
+            executionEvent.end();
+            if (executionEvent.shouldCommit()) {
+                executionEvent.callName = callName;
+                executionEvent.totalTries = lastAttempt;
+                executionEvent.outcome = FAILURE.equals(lastAttemptOutcome) ? EXHAUSTED : lastAttemptOutcome;
+                executionEvent.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.evanlennick.retry4j.jmx;
+
+/**
+ * Counts events over the last minute, in one bucket per second. A bucket left over from an earlier minute is reset
+ * by the first event that lands in it again, and skipped when summing.
+ */
+final class RecentEventCounter {
+
+    private static final int SECONDS = 60;
+
+    private final long[] counts = new long[SECONDS];
+    private final long[] bucketSeconds = new long[SECONDS];
+
+    synchronized void increment(long nowMillis) {
+        long second = nowMillis / 1000;
+        int bucket = (int) (second % SECONDS);
+        if (bucketSeconds[bucket] != second) {
+            bucketSeconds[bucket] = second;
+            counts[bucket] = 0;
+        }
+        counts[bucket]++;
+    }
+
+    synchronized long sum(long nowMillis) {
+        long second = nowMillis / 1000;
+        long sum = 0;
+        for (int bucket = 0; bucket < SECONDS; bucket++) {
+            if (second - bucketSeconds[bucket] < SECONDS) {
+                sum += counts[bucket];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,76 @@
+package com.evanlennick.retry4j.jmx;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The switch that pauses retries globally, for example while a downstream service is having an incident. It is
+ * registered with the platform MBean server under {@link #OBJECT_NAME} as soon as a {@link RetryExecutorMonitor} is,
+ * so it can be flipped from JConsole without a redeploy.
+ * <p>
+ * While retries are paused, every execution that would retry gives up instead, as if it had run out of tries, so the
+ * executions in flight drain without adding load. First tries still run, and an execution already backing off when
+ * retries are paused makes the retry it is waiting for.
+ */
+public final class RetryControl implements RetryControlMXBean {
+
+    public static final String OBJECT_NAME = "com.evanlennick.retry4j:type=RetryControl";
+
+    private static final RetryControl INSTANCE = new RetryControl();
+
+    private volatile boolean paused;
+
+    private final LongAdder drainedExecutions = new LongAdder();
+
+    private RetryControl() {
+    }
+
+    public static RetryControl getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the control with the platform MBean server, unless it already is.
+     */
+    public static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            // registered concurrently
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register MBean " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public boolean isRetriesPaused() {
+        return paused;
+    }
+
+    @Override
+    public void pauseRetries() {
+        paused = true;
+    }
+
+    @Override
+    public void resumeRetries() {
+        paused = false;
+    }
+
+    @Override
+    public long getDrainedExecutions() {
+        return drainedExecutions.sum();
+    }
+
+    public void executionDrained() {
+        drainedExecutions.increment();
+    }
+}
@@ -0,0 +1,22 @@
+package com.evanlennick.retry4j.jmx;
+
+/**
+ * Management interface of {@link RetryControl}, as seen from JConsole or any other JMX client.
+ */
+public interface RetryControlMXBean {
+
+    boolean isRetriesPaused();
+
+    /**
+     * Stops the executions of every executor in the JVM from starting new retries until {@link #resumeRetries()} is
+     * called.
+     */
+    void pauseRetries();
+
+    void resumeRetries();
+
+    /**
+     * @return the number of executions that gave up on a retry because retries were paused globally
+     */
+    long getDrainedExecutions();
+}
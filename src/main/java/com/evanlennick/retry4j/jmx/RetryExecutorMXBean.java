@@ -0,0 +1,52 @@
+package com.evanlennick.retry4j.jmx;
+
+/**
+ * Management interface of a {@link RetryExecutorMonitor}, as seen from JConsole or any other JMX client.
+ */
+public interface RetryExecutorMXBean {
+
+    String getName();
+
+    /**
+     * @return the number of executions that have started and not yet completed
+     */
+    long getInFlightExecutions();
+
+    /**
+     * @return the number of executions waiting out the backoff before their next try
+     */
+    long getExecutionsInBackoff();
+
+    long getRetries();
+
+    long getExhaustedExecutions();
+
+    /**
+     * @return the number of retries made during the last minute
+     */
+    long getRecentRetries();
+
+    /**
+     * @return the number of executions that ran out of tries during the last minute
+     */
+    long getRecentExhaustedExecutions();
+
+    /**
+     * @return the number of executions that gave up on a retry because retries were paused
+     */
+    long getDrainedExecutions();
+
+    /**
+     * @return the config of the execution that started last, or null if none has started yet
+     */
+    String getConfig();
+
+    boolean isRetriesPaused();
+
+    /**
+     * Stops the executions of this executor from starting new retries until {@link #resumeRetries()} is called.
+     */
+    void pauseRetries();
+
+    void resumeRetries();
+}
@@ -0,0 +1,188 @@
+package com.evanlennick.retry4j.jmx;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live view of the executions of the executors it is registered with, exposed over JMX under the name of the
+ * executor. Register it with the platform MBean server and build executors with it:
+ * <pre>
+ * RetryExecutorMonitor monitor = RetryExecutorMonitor.register("orders");
+ * new CallExecutorBuilder&lt;Boolean&gt;().config(config).monitor(monitor).build();
+ * </pre>
+ * Besides counting executions, retries and exhaustions, the monitor can pause the retries of its executors, on top of
+ * the global pause of {@link RetryControl}. Any number of executors can share a monitor.
+ */
+public class RetryExecutorMonitor implements RetryExecutorMXBean {
+
+    public static final String DOMAIN = "com.evanlennick.retry4j";
+
+    private final String name;
+
+    private final LongAdder inFlightExecutions = new LongAdder();
+    private final LongAdder executionsInBackoff = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhaustedExecutions = new LongAdder();
+    private final LongAdder drainedExecutions = new LongAdder();
+
+    private final RecentEventCounter recentRetries = new RecentEventCounter();
+    private final RecentEventCounter recentExhaustedExecutions = new RecentEventCounter();
+
+    private volatile RetryConfig config;
+
+    private volatile boolean paused;
+
+    private ObjectName objectName;
+
+    /**
+     * Creates a monitor without registering it, for registering with an MBean server other than the platform one.
+     */
+    public RetryExecutorMonitor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a monitor and registers it, along with {@link RetryControl}, with the platform MBean server.
+     *
+     * @throws IllegalArgumentException if a monitor with the same name is already registered
+     */
+    public static RetryExecutorMonitor register(String name) {
+        RetryExecutorMonitor monitor = new RetryExecutorMonitor(name);
+        ObjectName objectName = objectName(name);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalArgumentException("A retry executor named " + name + " is already registered", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register MBean " + objectName, e);
+        }
+        monitor.objectName = objectName;
+        RetryControl.register();
+        return monitor;
+    }
+
+    /**
+     * Removes the monitor from the platform MBean server, if {@link #register(String)} registered it there. Executors
+     * built with it keep recording into it.
+     */
+    public void unregister() {
+        if (null == objectName) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // already unregistered
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to unregister MBean " + objectName, e);
+        }
+        objectName = null;
+    }
+
+    public static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(DOMAIN + ":type=RetryExecutor,name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid retry executor name " + name, e);
+        }
+    }
+
+    public void executionStarted(RetryConfig config) {
+        this.config = config;
+        inFlightExecutions.increment();
+    }
+
+    public void backoffStarted() {
+        executionsInBackoff.increment();
+    }
+
+    public void backoffFinished() {
+        executionsInBackoff.decrement();
+    }
+
+    public void retryStarted() {
+        retries.increment();
+        recentRetries.increment(System.currentTimeMillis());
+    }
+
+    public void executionDrained() {
+        drainedExecutions.increment();
+    }
+
+    public void executionFinished(boolean exhausted) {
+        inFlightExecutions.decrement();
+        if (exhausted) {
+            exhaustedExecutions.increment();
+            recentExhaustedExecutions.increment(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getInFlightExecutions() {
+        return inFlightExecutions.sum();
+    }
+
+    @Override
+    public long getExecutionsInBackoff() {
+        return executionsInBackoff.sum();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getExhaustedExecutions() {
+        return exhaustedExecutions.sum();
+    }
+
+    @Override
+    public long getRecentRetries() {
+        return recentRetries.sum(System.currentTimeMillis());
+    }
+
+    @Override
+    public long getRecentExhaustedExecutions() {
+        return recentExhaustedExecutions.sum(System.currentTimeMillis());
+    }
+
+    @Override
+    public long getDrainedExecutions() {
+        return drainedExecutions.sum();
+    }
+
+    @Override
+    public String getConfig() {
+        RetryConfig current = config;
+        return null != current ? current.toString() : null;
+    }
+
+    @Override
+    public boolean isRetriesPaused() {
+        return paused;
+    }
+
+    @Override
+    public void pauseRetries() {
+        paused = true;
+    }
+
+    @Override
+    public void resumeRetries() {
+        paused = false;
+    }
+}
@@ -0,0 +1,235 @@
+package com.evanlennick.retry4j.listener;
+
+import com.evanlennick.retry4j.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers retry events to listeners on dedicated threads, so that slow listeners do not add to the latency of the
+ * calls being retried. Executors publish an immutable {@link RetryEvent} snapshot into a bounded lock-free ring buffer
+ * and carry on; consumer threads take events from the buffer and hand them to every listener subscribed to their type.
+ * <p>
+ * When the buffer is full, events are either dropped (and counted) or the publishing thread waits for room, depending
+ * on the {@link OverflowStrategy}. With a single consumer thread, the default, events are delivered in the order they
+ * were published; with more, events of the same execution may be delivered out of order.
+ *
+ * @param <T> The type that is returned by the Callable (eg: Boolean, Void, Object, etc)
+ */
+public class AsyncEventDispatcher<T> implements Closeable {
+
+    public enum OverflowStrategy {
+        /**
+         * Discard the event that did not fit, see {@link #getDroppedCount()}.
+         */
+        DROP,
+        /**
+         * Make the publishing thread wait until a consumer has made room.
+         */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // publishers unpark idle consumers, the timeout only bounds the delay should a wakeup ever be missed
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final AtomicInteger DISPATCHER_COUNT = new AtomicInteger();
+
+    private Logger logger = LoggerFactory.getLogger(AsyncEventDispatcher.class);
+
+    private final RingBuffer<RetryEvent<T>> ringBuffer;
+    private final OverflowStrategy overflowStrategy;
+    private final Map<RetryEventType, List<RetryEventListener<T>>> listeners = new EnumMap<>(RetryEventType.class);
+    private final List<Thread> consumers = new ArrayList<>();
+
+    // number of consumer threads that are about to park or parked, so publishers only unpark when needed
+    private final AtomicInteger idleConsumers = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public AsyncEventDispatcher() {
+        this(DEFAULT_CAPACITY, OverflowStrategy.DROP);
+    }
+
+    public AsyncEventDispatcher(int capacity, OverflowStrategy overflowStrategy) {
+        this(capacity, overflowStrategy, 1);
+    }
+
+    /**
+     * @param capacity        number of events the buffer can hold, must be a power of two
+     * @param consumerThreads number of threads delivering events to listeners
+     */
+    public AsyncEventDispatcher(int capacity, OverflowStrategy overflowStrategy, int consumerThreads) {
+        if (overflowStrategy == null) {
+            throw new IllegalArgumentException("Overflow strategy is required!");
+        }
+        if (consumerThreads <= 0) {
+            throw new IllegalArgumentException("Must have at least one consumer thread: " + consumerThreads);
+        }
+
+        this.ringBuffer = new RingBuffer<>(capacity);
+        this.overflowStrategy = overflowStrategy;
+        for (RetryEventType type : RetryEventType.values()) {
+            listeners.put(type, new CopyOnWriteArrayList<>());
+        }
+
+        int dispatcherNumber = DISPATCHER_COUNT.incrementAndGet();
+        for (int i = 0; i < consumerThreads; i++) {
+            Thread consumer = new Thread(this::consume, "retry4j-events-" + dispatcherNumber + "-" + i);
+            consumer.setDaemon(true);
+            consumers.add(consumer);
+        }
+        consumers.forEach(Thread::start);
+    }
+
+    public AsyncEventDispatcher<T> subscribe(RetryEventType type, RetryEventListener<T> listener) {
+        listeners.get(type).add(listener);
+        return this;
+    }
+
+    /**
+     * Subscribes the listener to every event type.
+     */
+    public AsyncEventDispatcher<T> subscribe(RetryEventListener<T> listener) {
+        for (RetryEventType type : RetryEventType.values()) {
+            subscribe(type, listener);
+        }
+        return this;
+    }
+
+    public boolean unsubscribe(RetryEventType type, RetryEventListener<T> listener) {
+        return listeners.get(type).remove(listener);
+    }
+
+    public boolean hasSubscribers(RetryEventType type) {
+        return !listeners.get(type).isEmpty();
+    }
+
+    /**
+     * Takes a snapshot of the status and queues it for delivery. Events without any subscriber are not queued.
+     *
+     * @return false if the event was dropped because the buffer was full or the dispatcher is closed
+     */
+    public boolean publish(RetryEventType type, Status<T> status) {
+        if (!hasSubscribers(type)) {
+            return true;
+        }
+        return publish(RetryEvent.of(type, status));
+    }
+
+    public boolean publish(RetryEvent<T> event) {
+        boolean published = running && ringBuffer.offer(event);
+        if (!published && overflowStrategy == OverflowStrategy.BLOCK) {
+            long parkNanos = 1000;
+            while (running && !published) {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                published = ringBuffer.offer(event);
+            }
+        }
+
+        if (!published) {
+            dropped.increment();
+            return false;
+        }
+
+        if (idleConsumers.get() > 0) {
+            for (Thread consumer : consumers) {
+                LockSupport.unpark(consumer);
+            }
+        }
+        return true;
+    }
+
+    private void consume() {
+        int idleSpins = 0;
+        for (;;) {
+            RetryEvent<T> event = ringBuffer.poll();
+            if (event != null) {
+                idleSpins = 0;
+                dispatch(event);
+            } else if (!running) {
+                return;
+            } else if (++idleSpins < SPINS_BEFORE_PARKING) {
+                Thread.yield();
+            } else {
+                idleConsumers.incrementAndGet();
+                // a publisher that missed the increment above is covered by checking once more before parking
+                if (ringBuffer.size() == 0 && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idleConsumers.decrementAndGet();
+            }
+        }
+    }
+
+    private void dispatch(RetryEvent<T> event) {
+        for (RetryEventListener<T> listener : listeners.get(event.getType())) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                logger.warn("Listener {} failed to handle event {}", listener, event, e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of events that were not delivered because the buffer was full or the dispatcher was closed
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getPendingCount() {
+        return ringBuffer.size();
+    }
+
+    public int getCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    public OverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    /**
+     * Stops accepting events, waits for the consumer threads to deliver everything already queued and stops them.
+     */
+    @Override
+    public void close() {
+        running = false;
+        boolean interrupted = false;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        // events published while the consumers were shutting down
+        RetryEvent<T> event;
+        while ((event = ringBuffer.poll()) != null) {
+            dispatch(event);
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.evanlennick.retry4j.listener;
+
+/**
+ * Low level alternative to {@link RetryListener} for instrumentation that runs on every try. The callbacks only take
+ * primitives and references the executor already holds, so calling them never allocates and never exposes the
+ * mutable {@link com.evanlennick.retry4j.Status} of the execution. Times are {@link System#nanoTime()} readings.
+ * <p>
+ * Observers are called synchronously on the thread executing the call and should return quickly.
+ */
+public interface AttemptObserver {
+
+    /**
+     * The try returned a result that was accepted.
+     */
+    int SUCCEEDED = 0;
+
+    /**
+     * The try threw an exception that is retried on.
+     */
+    int FAILED_ON_EXCEPTION = 1;
+
+    /**
+     * The try returned a value that is retried on, or not one of the values to expect.
+     */
+    int FAILED_ON_VALUE = 2;
+
+    /**
+     * The try threw an exception that is not retried on, which ends the execution.
+     */
+    int ABORTED = 3;
+
+    /**
+     * Every try failed, or the retry budget was used up.
+     */
+    int EXHAUSTED = 4;
+
+    /**
+     * The next try was shed by an admission queue or scheduler, which ends the execution.
+     */
+    int REJECTED = 5;
+
+    /**
+     * Called after every try.
+     *
+     * @param callName       the name passed to execute, may be null
+     * @param exceptionClass class of the exception the try threw, or null if it did not throw
+     */
+    void onAttempt(String callName, int attempt, long startNanos, long endNanos, int outcome,
+                   Class<? extends Throwable> exceptionClass);
+
+    /**
+     * Called when the next try starts, with the time spent since the previous try ended. Not called for the first
+     * try of an execution that was resumed from a journal in another JVM.
+     */
+    default void onBackoff(String callName, int nextAttempt, long startNanos, long endNanos) {
+    }
+
+    /**
+     * Called once the execution is over, before the onCompletionListener.
+     *
+     * @param outcome {@link #SUCCEEDED}, {@link #EXHAUSTED}, {@link #REJECTED} or {@link #ABORTED}
+     */
+    default void onExecution(String callName, int totalTries, long startNanos, long endNanos, int outcome) {
+    }
+
+    /**
+     * Called once the execution is over, like {@link #onExecution(String, int, long, long, int)}, which it calls by
+     * default. Also passes the start of the first try made in this JVM, which is later than the start of the
+     * execution when that try waited in a queue, for a scheduled delay, or when no try was made at all.
+     *
+     * @param outcome {@link #SUCCEEDED}, {@link #EXHAUSTED}, {@link #REJECTED} or {@link #ABORTED}
+     */
+    default void onExecution(String callName, int totalTries, long startNanos, long firstTryStartNanos,
+                             long endNanos, int outcome) {
+        onExecution(callName, totalTries, startNanos, endNanos, outcome);
+    }
+}
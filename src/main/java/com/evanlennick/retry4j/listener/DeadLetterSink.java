@@ -0,0 +1,16 @@
+package com.evanlennick.retry4j.listener;
+
+import com.evanlennick.retry4j.Status;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Receives every execution that exhausted all of its tries, together with the Callable that failed, so that the work
+ * can be kept and replayed later instead of being lost. The sink is called before the onFailureListener runs or the
+ * RetriesExhaustedException is thrown.
+ */
+public interface DeadLetterSink<T> {
+
+    void onDeadLetter(Callable<T> callable, Status<T> status);
+
+}
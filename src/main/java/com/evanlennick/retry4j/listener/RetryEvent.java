@@ -0,0 +1,97 @@
+package com.evanlennick.retry4j.listener;
+
+import com.evanlennick.retry4j.Status;
+
+import java.time.Duration;
+
+/**
+ * Immutable copy of an execution's {@link Status} at the moment an event happened. Unlike the Status handed to a
+ * {@link RetryListener}, which the executor keeps updating, a RetryEvent can safely be read on another thread later on.
+ */
+public final class RetryEvent<T> {
+
+    private final RetryEventType type;
+    private final String id;
+    private final String callName;
+    private final long startTime;
+    private final long endTime;
+    private final int totalTries;
+    private final Duration totalElapsedDuration;
+    private final boolean successful;
+    private final T result;
+    private final Exception lastExceptionThatCausedRetry;
+
+    private RetryEvent(RetryEventType type, Status<T> status) {
+        this.type = type;
+        this.id = status.getId();
+        this.callName = status.getCallName();
+        this.startTime = status.getStartTime();
+        this.endTime = status.getEndTime();
+        this.totalTries = status.getTotalTries();
+        this.totalElapsedDuration = status.getTotalElapsedDuration();
+        this.successful = status.wasSuccessful();
+        this.result = status.getResult();
+        this.lastExceptionThatCausedRetry = status.getLastExceptionThatCausedRetry();
+    }
+
+    public static <T> RetryEvent<T> of(RetryEventType type, Status<T> status) {
+        return new RetryEvent<>(type, status);
+    }
+
+    public RetryEventType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCallName() {
+        return callName;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public int getTotalTries() {
+        return totalTries;
+    }
+
+    public Duration getTotalElapsedDuration() {
+        return totalElapsedDuration;
+    }
+
+    public boolean wasSuccessful() {
+        return successful;
+    }
+
+    public T getResult() {
+        return result;
+    }
+
+    public Exception getLastExceptionThatCausedRetry() {
+        return lastExceptionThatCausedRetry;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RetryEvent{");
+        sb.append("type=").append(type);
+        sb.append(", id=").append(id);
+        sb.append(", callName='").append(callName).append('\'');
+        sb.append(", startTime=").append(startTime);
+        sb.append(", endTime=").append(endTime);
+        sb.append(", totalTries=").append(totalTries);
+        sb.append(", totalElapsedDuration=").append(totalElapsedDuration);
+        sb.append(", successful=").append(successful);
+        sb.append(", result=").append(result);
+        sb.append(", lastExceptionThatCausedRetry=").append(lastExceptionThatCausedRetry);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package com.evanlennick.retry4j.listener;
+
+/**
+ * Subscriber of an {@link AsyncEventDispatcher}, called on one of the dispatcher's threads.
+ */
+public interface RetryEventListener<T> {
+
+    void onEvent(RetryEvent<T> event);
+
+}
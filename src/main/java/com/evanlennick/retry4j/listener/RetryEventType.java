@@ -0,0 +1,14 @@
+package com.evanlennick.retry4j.listener;
+
+/**
+ * The points of an execution at which the executors notify listeners.
+ */
+public enum RetryEventType {
+
+    AFTER_FAILED_TRY,
+    BEFORE_NEXT_TRY,
+    ON_SUCCESS,
+    ON_FAILURE,
+    ON_COMPLETION
+
+}
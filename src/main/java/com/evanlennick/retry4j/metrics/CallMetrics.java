@@ -0,0 +1,126 @@
+package com.evanlennick.retry4j.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for all executions with one call name. Counters are striped {@link LongAdder}s, so
+ * executions on many threads can record into the same instance without contending on a single memory location.
+ */
+public class CallMetrics {
+
+    private final String callName;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder unexpectedExceptions = new LongAdder();
+
+    private final LatencyHistogram attemptLatency = new LatencyHistogram();
+    private final LatencyHistogram callLatency = new LatencyHistogram();
+    private final LatencyHistogram backoffTime = new LatencyHistogram();
+
+    CallMetrics(String callName) {
+        this.callName = callName;
+    }
+
+    public void recordCall() {
+        calls.increment();
+    }
+
+    public void recordAttempt(long latencyNanos) {
+        attempts.increment();
+        attemptLatency.record(latencyNanos);
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordBackoff(long backoffNanos) {
+        backoffTime.record(backoffNanos);
+    }
+
+    public void recordExhausted() {
+        exhausted.increment();
+    }
+
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    public void recordUnexpectedException() {
+        unexpectedExceptions.increment();
+    }
+
+    public void recordCallLatency(long latencyNanos) {
+        callLatency.record(latencyNanos);
+    }
+
+    public String getCallName() {
+        return callName;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getExhausted() {
+        return exhausted.sum();
+    }
+
+    /**
+     * @return executions that ended because their next try was shed, which are not counted as exhausted
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getUnexpectedExceptions() {
+        return unexpectedExceptions.sum();
+    }
+
+    /**
+     * @return the duration of every single try, successful or not
+     */
+    public LatencyHistogram getAttemptLatency() {
+        return attemptLatency;
+    }
+
+    /**
+     * @return the duration of whole executions, from the first try until the executor completed
+     */
+    public LatencyHistogram getCallLatency() {
+        return callLatency;
+    }
+
+    /**
+     * @return the time between the end of a failed try and the start of the retry after it
+     */
+    public LatencyHistogram getBackoffTime() {
+        return backoffTime;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CallMetrics{");
+        sb.append("callName='").append(callName).append('\'');
+        sb.append(", calls=").append(getCalls());
+        sb.append(", attempts=").append(getAttempts());
+        sb.append(", retries=").append(getRetries());
+        sb.append(", exhausted=").append(getExhausted());
+        sb.append(", rejected=").append(getRejected());
+        sb.append(", unexpectedExceptions=").append(getUnexpectedExceptions());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.evanlennick.retry4j.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal HTTP endpoint, built on the JDK's own {@code com.sun.net.httpserver}, that serves the metrics of a
+ * {@link RetryMetrics} registry in the Prometheus text format at {@code /metrics}. Requests are handled on a single
+ * daemon thread.
+ */
+public class PrometheusHttpServer implements Closeable {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final RetryMetrics metrics;
+
+    private final HttpServer server;
+
+    private final ExecutorService executorService;
+
+    public PrometheusHttpServer(RetryMetrics metrics, int port) throws IOException {
+        this(metrics, new InetSocketAddress(port));
+    }
+
+    public PrometheusHttpServer(RetryMetrics metrics, InetSocketAddress address) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(address, 0);
+        this.executorService = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "retry4j-metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executorService);
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * @return the port the server is listening on, useful when it was started on port 0
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public RetryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executorService.shutdown();
+    }
+}
@@ -0,0 +1,117 @@
+package com.evanlennick.retry4j.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registry of {@link CallMetrics}, one per call name, that executors record into when it is registered with them. A
+ * single registry can be shared by any number of executors. Executions without a call name are recorded under the
+ * empty string.
+ * <p>
+ * The registry can write all of its metrics in the Prometheus text exposition format, either directly through
+ * {@link #writePrometheus(Writer)} or over HTTP with a {@link PrometheusHttpServer}.
+ */
+public class RetryMetrics {
+
+    private static final String PREFIX = "retry4j_";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final ConcurrentMap<String, CallMetrics> callMetrics = new ConcurrentHashMap<>();
+
+    public CallMetrics forCall(String callName) {
+        String key = callName != null ? callName : "";
+        CallMetrics metrics = callMetrics.get(key);
+        if (metrics == null) {
+            metrics = callMetrics.computeIfAbsent(key, CallMetrics::new);
+        }
+        return metrics;
+    }
+
+    public Collection<CallMetrics> getCallMetrics() {
+        return callMetrics.values();
+    }
+
+    public void writePrometheus(Writer writer) throws IOException {
+        List<CallMetrics> all = new ArrayList<>(callMetrics.values());
+        all.sort(Comparator.comparing(CallMetrics::getCallName));
+
+        writeCounter(writer, all, "calls_total", "Executions started.", CallMetrics::getCalls);
+        writeCounter(writer, all, "attempts_total", "Tries made, successful or not.", CallMetrics::getAttempts);
+        writeCounter(writer, all, "retries_total", "Tries made after a failed try.", CallMetrics::getRetries);
+        writeCounter(writer, all, "exhausted_total", "Executions that failed after using up all of their tries.",
+                CallMetrics::getExhausted);
+        writeCounter(writer, all, "rejected_total", "Executions that ended because their next try was shed.",
+                CallMetrics::getRejected);
+        writeCounter(writer, all, "unexpected_exceptions_total",
+                "Executions aborted by an exception that is not retried on.", CallMetrics::getUnexpectedExceptions);
+
+        writeSummary(writer, all, "attempt_duration_seconds", "Duration of single tries.",
+                CallMetrics::getAttemptLatency);
+        writeSummary(writer, all, "call_duration_seconds", "Duration of whole executions, including retries.",
+                CallMetrics::getCallLatency);
+        writeSummary(writer, all, "backoff_duration_seconds", "Time spent waiting between tries.",
+                CallMetrics::getBackoffTime);
+    }
+
+    public String scrape() {
+        StringWriter writer = new StringWriter();
+        try {
+            writePrometheus(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    private static void writeCounter(Writer writer, List<CallMetrics> all, String name, String help,
+                                     ToLongFunction<CallMetrics> value) throws IOException {
+        writeHeader(writer, name, help, "counter");
+        for (CallMetrics metrics : all) {
+            writer.append(PREFIX).append(name).append("{call_name=\"").append(escape(metrics.getCallName()))
+                    .append("\"} ").append(Long.toString(value.applyAsLong(metrics))).append('\n');
+        }
+    }
+
+    private static void writeSummary(Writer writer, List<CallMetrics> all, String name, String help,
+                                     Function<CallMetrics, LatencyHistogram> histogram) throws IOException {
+        writeHeader(writer, name, help, "summary");
+        for (CallMetrics metrics : all) {
+            LatencyHistogram h = histogram.apply(metrics);
+            String label = escape(metrics.getCallName());
+            for (double quantile : QUANTILES) {
+                writer.append(PREFIX).append(name).append("{call_name=\"").append(label)
+                        .append("\",quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                        .append(seconds(h.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            writer.append(PREFIX).append(name).append("_sum{call_name=\"").append(label).append("\"} ")
+                    .append(seconds(h.getTotalNanos())).append('\n');
+            writer.append(PREFIX).append(name).append("_count{call_name=\"").append(label).append("\"} ")
+                    .append(Long.toString(h.getCount())).append('\n');
+        }
+    }
+
+    private static void writeHeader(Writer writer, String name, String help, String type) throws IOException {
+        writer.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        writer.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
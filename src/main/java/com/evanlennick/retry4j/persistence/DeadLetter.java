@@ -0,0 +1,141 @@
+package com.evanlennick.retry4j.persistence;
+
+import com.evanlennick.retry4j.Status;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The final state of an execution that exhausted all of its tries, as kept by a {@link DeadLetterStore}.
+ */
+public class DeadLetter {
+
+    private static final int MAX_EXCEPTION_MESSAGE_LENGTH = 1024;
+
+    private final String id;
+    private final String statusId;
+    private final String callName;
+    private final int totalTries;
+    private final long startTime;
+    private final long endTime;
+    private final String exceptionClassName;
+    private final String exceptionMessage;
+    private final byte[] payload;
+
+    public DeadLetter(String id, String statusId, String callName, int totalTries, long startTime, long endTime,
+                      String exceptionClassName, String exceptionMessage, byte[] payload) {
+        this.id = id;
+        this.statusId = statusId;
+        this.callName = callName;
+        this.totalTries = totalTries;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.exceptionClassName = exceptionClassName;
+        this.exceptionMessage = exceptionMessage;
+        this.payload = payload;
+    }
+
+    /**
+     * Builds a dead letter with a new unique id from the final status of an execution, keeping a summary of the last
+     * exception rather than the exception itself.
+     */
+    public static DeadLetter fromStatus(Status<?> status, byte[] payload) {
+        Exception lastException = status.getLastExceptionThatCausedRetry();
+        String exceptionClassName = lastException != null ? lastException.getClass().getName() : null;
+        String exceptionMessage = lastException != null ? truncate(lastException.getMessage()) : null;
+
+        return new DeadLetter(UUID.randomUUID().toString(), status.getId(), status.getCallName(),
+                status.getTotalTries(), status.getStartTime(), status.getEndTime(), exceptionClassName,
+                exceptionMessage, payload);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_EXCEPTION_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_EXCEPTION_MESSAGE_LENGTH);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the id of the {@link Status} the execution finished with
+     */
+    public String getStatusId() {
+        return statusId;
+    }
+
+    public String getCallName() {
+        return callName;
+    }
+
+    public int getTotalTries() {
+        return totalTries;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public String getExceptionClassName() {
+        return exceptionClassName;
+    }
+
+    public String getExceptionMessage() {
+        return exceptionMessage;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DeadLetter{");
+        sb.append("id=").append(id);
+        sb.append(", statusId=").append(statusId);
+        sb.append(", callName='").append(callName).append('\'');
+        sb.append(", totalTries=").append(totalTries);
+        sb.append(", startTime=").append(startTime);
+        sb.append(", endTime=").append(endTime);
+        sb.append(", exceptionClassName=").append(exceptionClassName);
+        sb.append(", exceptionMessage=").append(exceptionMessage);
+        sb.append(", payloadLength=").append(payload.length);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DeadLetter that = (DeadLetter) o;
+        return totalTries == that.totalTries
+                && startTime == that.startTime
+                && endTime == that.endTime
+                && id.equals(that.id)
+                && Objects.equals(statusId, that.statusId)
+                && Objects.equals(callName, that.callName)
+                && Objects.equals(exceptionClassName, that.exceptionClassName)
+                && Objects.equals(exceptionMessage, that.exceptionMessage)
+                && Arrays.equals(payload, that.payload);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + Arrays.hashCode(payload);
+        return result;
+    }
+}
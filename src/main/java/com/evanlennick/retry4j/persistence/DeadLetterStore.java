@@ -0,0 +1,345 @@
+package com.evanlennick.retry4j.persistence;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.listener.DeadLetterSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Local, file backed {@link DeadLetterSink} that keeps every exhausted execution in a directory of memory-mapped
+ * segment files, along with its Callable encoded by a {@link TaskCodec}. Once the failing dependency has recovered,
+ * the stored dead letters can be replayed through an executor at a controlled rate; those that succeed are removed.
+ *
+ * @param <T> The type that is returned by the Callable (eg: Boolean, Void, Object, etc)
+ */
+public class DeadLetterStore<T> extends SegmentedStore implements DeadLetterSink<T> {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    public static final int DEFAULT_SEGMENTS_BEFORE_COMPACTION = 4;
+
+    private static final String SEGMENT_PREFIX = "dead-letters-";
+
+    private static final byte RECORD_TYPE_ADDED = 1;
+    private static final byte RECORD_TYPE_REMOVED = 2;
+
+    private Logger logger = LoggerFactory.getLogger(DeadLetterStore.class);
+
+    private final TaskCodec<T> taskCodec;
+
+    private final Map<String, DeadLetter> deadLetters = new LinkedHashMap<>();
+
+    // the callables being replayed, mapped to the id of the fresh dead letter stored for them, if any
+    private final Map<Callable<T>, String> replacements = new IdentityHashMap<>();
+
+    public DeadLetterStore(Path directory, TaskCodec<T> taskCodec) {
+        this(directory, taskCodec, DEFAULT_SEGMENT_SIZE, DEFAULT_SEGMENTS_BEFORE_COMPACTION);
+    }
+
+    public DeadLetterStore(Path directory, TaskCodec<T> taskCodec, int segmentSize, int segmentsBeforeCompaction) {
+        super(directory, SEGMENT_PREFIX, segmentSize, segmentsBeforeCompaction);
+        this.taskCodec = taskCodec;
+        open();
+        logger.debug("Opened dead letter store in {} with {} dead letters", directory, deadLetters.size());
+    }
+
+    @Override
+    public void onDeadLetter(Callable<T> callable, Status<T> status) {
+        DeadLetter deadLetter = DeadLetter.fromStatus(status, taskCodec.encode(callable));
+        add(deadLetter);
+        synchronized (writeLock) {
+            if (replacements.containsKey(callable)) {
+                replacements.put(callable, deadLetter.getId());
+            }
+        }
+    }
+
+    /**
+     * Durably stores the dead letter, returning once it has been forced to disk.
+     */
+    public void add(DeadLetter deadLetter) {
+        long sequence;
+        synchronized (writeLock) {
+            sequence = append(encodeAdded(deadLetter));
+            deadLetters.put(deadLetter.getId(), deadLetter);
+        }
+        awaitDurable(sequence);
+    }
+
+    public boolean remove(String id) {
+        long sequence;
+        synchronized (writeLock) {
+            if (!deadLetters.containsKey(id)) {
+                return false;
+            }
+            sequence = append(encodeRemoved(id));
+            deadLetters.remove(id);
+        }
+        awaitDurable(sequence);
+        return true;
+    }
+
+    /**
+     * @return a snapshot of the stored dead letters, oldest first
+     */
+    public List<DeadLetter> getDeadLetters() {
+        synchronized (writeLock) {
+            return new ArrayList<>(deadLetters.values());
+        }
+    }
+
+    public int size() {
+        synchronized (writeLock) {
+            return deadLetters.size();
+        }
+    }
+
+    public ReplayResult replay(CallExecutor<T> executor, double deadLettersPerSecond) {
+        return replay(executor, deadLettersPerSecond, deadLetter -> true);
+    }
+
+    /**
+     * Re-runs the matching dead letters one after the other on the calling thread, starting no more than the given
+     * number per second. Dead letters that succeed are removed from the store; the others are kept unless the
+     * executor exhausted its tries again and this store durably added a fresh dead letter in their place.
+     */
+    public ReplayResult replay(CallExecutor<T> executor, double deadLettersPerSecond,
+                               Predicate<DeadLetter> filter) {
+        int replayed = 0;
+        int succeeded = 0;
+
+        ReplayPacer pacer = new ReplayPacer(deadLettersPerSecond);
+        for (DeadLetter deadLetter : getDeadLetters()) {
+            if (!filter.test(deadLetter)) {
+                continue;
+            }
+            Callable<T> callable = decode(deadLetter);
+            if (callable == null) {
+                continue;
+            }
+
+            pacer.awaitNextPermit();
+            replayed++;
+
+            boolean success = false;
+            expectReplacement(callable);
+            try {
+                success = executor.execute(callable, deadLetter.getCallName()).wasSuccessful();
+            } catch (RuntimeException e) {
+                logger.debug("Replay of dead letter {} failed", deadLetter.getId(), e);
+            }
+            boolean deadLetteredAgain = takeReplacement(callable) != null;
+
+            if (success || deadLetteredAgain) {
+                remove(deadLetter.getId());
+            }
+            if (success) {
+                succeeded++;
+            }
+        }
+
+        ReplayResult result = new ReplayResult(replayed, succeeded, replayed - succeeded);
+        logger.debug("Finished replaying dead letters from {}: {}", getDirectory(), result);
+        return result;
+    }
+
+    public CompletableFuture<ReplayResult> replay(AsyncCallExecutor<T> executor, double deadLettersPerSecond) {
+        return replay(executor, deadLettersPerSecond, deadLetter -> true);
+    }
+
+    /**
+     * Submits the matching dead letters to the async executor, starting no more than the given number per second.
+     * Submission is paced on the calling thread; the returned future completes once every replayed execution has.
+     */
+    public CompletableFuture<ReplayResult> replay(AsyncCallExecutor<T> executor, double deadLettersPerSecond,
+                                                  Predicate<DeadLetter> filter) {
+        AtomicInteger succeeded = new AtomicInteger();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        ReplayPacer pacer = new ReplayPacer(deadLettersPerSecond);
+        for (DeadLetter deadLetter : getDeadLetters()) {
+            if (!filter.test(deadLetter)) {
+                continue;
+            }
+            Callable<T> callable = decode(deadLetter);
+            if (callable == null) {
+                continue;
+            }
+
+            pacer.awaitNextPermit();
+            expectReplacement(callable);
+            futures.add(executor.execute(callable, deadLetter.getCallName()).handle((status, throwable) -> {
+                boolean success = throwable == null && status.wasSuccessful();
+                boolean deadLetteredAgain = takeReplacement(callable) != null;
+                if (success || deadLetteredAgain) {
+                    remove(deadLetter.getId());
+                }
+                if (success) {
+                    succeeded.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> new ReplayResult(futures.size(), succeeded.get(), futures.size() - succeeded.get()));
+    }
+
+    // the original dead letter may only go once its replacement is on disk, which a failing sink never confirms
+    private void expectReplacement(Callable<T> callable) {
+        synchronized (writeLock) {
+            replacements.put(callable, null);
+        }
+    }
+
+    private String takeReplacement(Callable<T> callable) {
+        synchronized (writeLock) {
+            return replacements.remove(callable);
+        }
+    }
+
+    private Callable<T> decode(DeadLetter deadLetter) {
+        try {
+            return taskCodec.decode(deadLetter.getPayload());
+        } catch (RuntimeException e) {
+            logger.warn("Unable to decode dead letter {}, skipping it", deadLetter.getId(), e);
+            return null;
+        }
+    }
+
+    public TaskCodec<T> getTaskCodec() {
+        return taskCodec;
+    }
+
+    @Override
+    protected void replay(ByteBuffer record) {
+        byte type = record.get();
+        String id = readString(record);
+        if (type == RECORD_TYPE_ADDED) {
+            String statusId = readNullableString(record);
+            String callName = readNullableString(record);
+            int totalTries = record.getInt();
+            long startTime = record.getLong();
+            long endTime = record.getLong();
+            String exceptionClassName = readNullableString(record);
+            String exceptionMessage = readNullableString(record);
+            byte[] payload = new byte[record.getInt()];
+            record.get(payload);
+            deadLetters.put(id, new DeadLetter(id, statusId, callName, totalTries, startTime, endTime,
+                    exceptionClassName, exceptionMessage, payload));
+        } else if (type == RECORD_TYPE_REMOVED) {
+            deadLetters.remove(id);
+        } else {
+            logger.warn("Skipping dead letter record with unknown type {}", type);
+        }
+    }
+
+    @Override
+    protected List<byte[]> liveRecords() {
+        List<byte[]> records = new ArrayList<>(deadLetters.size());
+        for (DeadLetter deadLetter : deadLetters.values()) {
+            records.add(encodeAdded(deadLetter));
+        }
+        return records;
+    }
+
+    private static byte[] encodeAdded(DeadLetter deadLetter) {
+        byte[] id = utf8(deadLetter.getId());
+        byte[] statusId = utf8(deadLetter.getStatusId());
+        byte[] callName = utf8(deadLetter.getCallName());
+        byte[] exceptionClassName = utf8(deadLetter.getExceptionClassName());
+        byte[] exceptionMessage = utf8(deadLetter.getExceptionMessage());
+        byte[] payload = deadLetter.getPayload();
+
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + id.length + nullableLength(statusId)
+                + nullableLength(callName) + 4 + 8 + 8 + nullableLength(exceptionClassName)
+                + nullableLength(exceptionMessage) + 4 + payload.length);
+        record.put(RECORD_TYPE_ADDED);
+        writeString(record, id);
+        writeNullableString(record, statusId);
+        writeNullableString(record, callName);
+        record.putInt(deadLetter.getTotalTries());
+        record.putLong(deadLetter.getStartTime());
+        record.putLong(deadLetter.getEndTime());
+        writeNullableString(record, exceptionClassName);
+        writeNullableString(record, exceptionMessage);
+        record.putInt(payload.length).put(payload);
+        return record.array();
+    }
+
+    private static byte[] encodeRemoved(String id) {
+        byte[] idBytes = utf8(id);
+
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + idBytes.length);
+        record.put(RECORD_TYPE_REMOVED);
+        writeString(record, idBytes);
+        return record.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int nullableLength(byte[] utf8) {
+        return 4 + (utf8 != null ? utf8.length : 0);
+    }
+
+    private static void writeNullableString(ByteBuffer buffer, byte[] utf8) {
+        if (utf8 == null) {
+            buffer.putInt(-1);
+        } else {
+            writeString(buffer, utf8);
+        }
+    }
+
+    private static String readNullableString(ByteBuffer buffer) {
+        int length = buffer.getInt(buffer.position());
+        if (length < 0) {
+            buffer.getInt();
+            return null;
+        }
+        return readString(buffer);
+    }
+
+    /**
+     * Spaces out replays evenly so that at most the configured number start per second.
+     */
+    private static final class ReplayPacer {
+
+        private final long nanosBetweenPermits;
+        private long nextPermitNanos;
+
+        ReplayPacer(double permitsPerSecond) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("Replay rate must be positive: " + permitsPerSecond);
+            }
+            this.nanosBetweenPermits = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+            this.nextPermitNanos = System.nanoTime();
+        }
+
+        void awaitNextPermit() {
+            long waitNanos;
+            while ((waitNanos = nextPermitNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            // a slow replay must not build up credit for a burst afterwards
+            nextPermitNanos = Math.max(nextPermitNanos, System.nanoTime()) + nanosBetweenPermits;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.evanlennick.retry4j.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * One fixed size, memory-mapped file of an append-only log. Each record is framed as its length, a CRC32 of its body
+ * and then the body itself. A zero length marks the end of the written part of the segment, and a record whose
+ * length or checksum does not add up is treated as a torn write: it and everything after it are ignored and then
+ * overwritten by the next append.
+ * <p>
+ * Not thread safe; callers are expected to guard appends with their own lock.
+ */
+final class MappedSegment implements Closeable {
+
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path path;
+    private final long sequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private MappedSegment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static MappedSegment create(Path directory, String prefix, long sequence, int size) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", prefix, sequence, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new MappedSegment(path, sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    static MappedSegment open(Path path, long sequence) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedSegment segment = new MappedSegment(path, sequence, channel,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        segment.recoverWritePosition();
+        return segment;
+    }
+
+    /**
+     * @return the existing segments in the directory with the given prefix, oldest first
+     */
+    static List<MappedSegment> openAll(Path directory, String prefix) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> isSegmentFile(p, prefix)).sorted().forEach(paths::add);
+        }
+
+        List<MappedSegment> segments = new ArrayList<>();
+        for (Path p : paths) {
+            segments.add(open(p, parseSequence(p, prefix)));
+        }
+        return segments;
+    }
+
+    private static boolean isSegmentFile(Path path, String prefix) {
+        String name = path.getFileName().toString();
+        return name.startsWith(prefix) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long parseSequence(Path path, String prefix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void recoverWritePosition() {
+        int position = 0;
+        while (readRecordAt(position) != null) {
+            position += RECORD_HEADER_SIZE + buffer.getInt(position);
+        }
+        writePosition = position;
+
+        // clear whatever a torn write left behind so it can never be mistaken for a record later
+        for (int i = position; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private ByteBuffer readRecordAt(int position) {
+        if (position + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return null;
+        }
+
+        int length = buffer.getInt(position);
+        if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+            return null;
+        }
+
+        ByteBuffer body = buffer.duplicate();
+        body.position(position + RECORD_HEADER_SIZE);
+        body.limit(position + RECORD_HEADER_SIZE + length);
+        body = body.slice();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+        return body;
+    }
+
+    boolean hasRoomFor(int bodyLength) {
+        return writePosition + RECORD_HEADER_SIZE + bodyLength <= buffer.capacity();
+    }
+
+    void append(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+
+        ByteBuffer target = buffer.duplicate();
+        target.position(writePosition + RECORD_HEADER_SIZE);
+        target.put(body);
+        buffer.putInt(writePosition + 4, (int) crc.getValue());
+        buffer.putInt(writePosition, body.length);
+
+        writePosition += RECORD_HEADER_SIZE + body.length;
+    }
+
+    void forEachRecord(Consumer<ByteBuffer> consumer) {
+        int position = 0;
+        ByteBuffer body;
+        while ((body = readRecordAt(position)) != null) {
+            consumer.accept(body);
+            position += RECORD_HEADER_SIZE + body.capacity();
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getWritePosition() {
+        return writePosition;
+    }
+
+    int getCapacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,82 @@
+package com.evanlennick.retry4j.persistence;
+
+import java.util.Arrays;
+
+/**
+ * A retry that has been scheduled but has not run yet, as recorded in a {@link RetryJournal}.
+ */
+public class PendingRetry {
+
+    private final String key;
+    private final byte[] payload;
+    private final int attemptCount;
+    private final long nextTryTime;
+
+    /**
+     * @param key          idempotency key of the execution; at most one pending retry is kept per key
+     * @param payload      the encoded Callable, see {@link TaskCodec}
+     * @param attemptCount the number of tries that have already been made
+     * @param nextTryTime  epoch millis at which the next try is due
+     */
+    public PendingRetry(String key, byte[] payload, int attemptCount, long nextTryTime) {
+        this.key = key;
+        this.payload = payload;
+        this.attemptCount = attemptCount;
+        this.nextTryTime = nextTryTime;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public long getNextTryTime() {
+        return nextTryTime;
+    }
+
+    public boolean isDue(long currentTimeMillis) {
+        return nextTryTime <= currentTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PendingRetry{");
+        sb.append("key='").append(key).append('\'');
+        sb.append(", payloadLength=").append(payload.length);
+        sb.append(", attemptCount=").append(attemptCount);
+        sb.append(", nextTryTime=").append(nextTryTime);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PendingRetry that = (PendingRetry) o;
+        return attemptCount == that.attemptCount
+                && nextTryTime == that.nextTryTime
+                && key.equals(that.key)
+                && Arrays.equals(payload, that.payload);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = key.hashCode();
+        result = 31 * result + Arrays.hashCode(payload);
+        result = 31 * result + attemptCount;
+        result = 31 * result + (int) (nextTryTime ^ (nextTryTime >>> 32));
+        return result;
+    }
+}
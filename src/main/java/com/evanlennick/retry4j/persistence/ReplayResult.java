@@ -0,0 +1,39 @@
+package com.evanlennick.retry4j.persistence;
+
+/**
+ * Outcome of replaying dead letters through an executor with {@link DeadLetterStore}.
+ */
+public class ReplayResult {
+
+    private final int replayed;
+    private final int succeeded;
+    private final int failed;
+
+    public ReplayResult(int replayed, int succeeded, int failed) {
+        this.replayed = replayed;
+        this.succeeded = succeeded;
+        this.failed = failed;
+    }
+
+    public int getReplayed() {
+        return replayed;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReplayResult{");
+        sb.append("replayed=").append(replayed);
+        sb.append(", succeeded=").append(succeeded);
+        sb.append(", failed=").append(failed);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package com.evanlennick.retry4j.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Durable write-ahead log of pending retries, stored as a series of memory-mapped, append-only segment files in one
+ * directory. Every scheduled retry is appended as a record holding its idempotency key, encoded task, attempt count
+ * and next try time; a completed execution appends a tombstone for its key.
+ * <p>
+ * Writes are group committed: concurrent callers append under a short lock and then wait for a single flush to make
+ * all of their records durable together, rather than each forcing the segment to disk on its own. Once enough
+ * segments have filled up and most of their records are stale, the live records are compacted into fresh segments
+ * and the old files are deleted.
+ * <p>
+ * Opening a journal replays its segments and restores the latest state for every key, see
+ * {@link #getPendingRetries()}.
+ */
+public class RetryJournal extends SegmentedStore {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    public static final int DEFAULT_SEGMENTS_BEFORE_COMPACTION = 4;
+
+    private static final String SEGMENT_PREFIX = "retry-journal-";
+
+    private static final byte RECORD_TYPE_PENDING = 1;
+    private static final byte RECORD_TYPE_COMPLETED = 2;
+
+    private Logger logger = LoggerFactory.getLogger(RetryJournal.class);
+
+    private final Map<String, PendingRetry> pendingRetries = new LinkedHashMap<>();
+
+    public RetryJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_SEGMENTS_BEFORE_COMPACTION);
+    }
+
+    public RetryJournal(Path directory, int segmentSize, int segmentsBeforeCompaction) {
+        super(directory, SEGMENT_PREFIX, segmentSize, segmentsBeforeCompaction);
+        open();
+        logger.debug("Opened retry journal in {} with {} segments and {} pending retries",
+                directory, getSegmentCount(), pendingRetries.size());
+    }
+
+    @Override
+    protected void replay(ByteBuffer record) {
+        byte type = record.get();
+        String key = readString(record);
+        if (type == RECORD_TYPE_PENDING) {
+            int attemptCount = record.getInt();
+            long nextTryTime = record.getLong();
+            byte[] payload = new byte[record.getInt()];
+            record.get(payload);
+            pendingRetries.put(key, new PendingRetry(key, payload, attemptCount, nextTryTime));
+        } else if (type == RECORD_TYPE_COMPLETED) {
+            pendingRetries.remove(key);
+        } else {
+            logger.warn("Skipping retry journal record with unknown type {}", type);
+        }
+    }
+
+    @Override
+    protected List<byte[]> liveRecords() {
+        List<byte[]> records = new ArrayList<>(pendingRetries.size());
+        for (PendingRetry pendingRetry : pendingRetries.values()) {
+            records.add(encodePending(pendingRetry));
+        }
+        return records;
+    }
+
+    /**
+     * Durably records a retry that is waiting for its next try, replacing any earlier record with the same key.
+     * Returns once the record has been forced to disk.
+     */
+    public void recordPending(PendingRetry pendingRetry) {
+        long sequence;
+        synchronized (writeLock) {
+            sequence = append(encodePending(pendingRetry));
+            pendingRetries.put(pendingRetry.getKey(), pendingRetry);
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Durably records that the execution with this key no longer has a pending retry.
+     */
+    public void recordCompleted(String key) {
+        long sequence;
+        synchronized (writeLock) {
+            if (!pendingRetries.containsKey(key)) {
+                return;
+            }
+            sequence = append(encodeCompleted(key));
+            pendingRetries.remove(key);
+        }
+        awaitDurable(sequence);
+    }
+
+    public boolean isPending(String key) {
+        synchronized (writeLock) {
+            return pendingRetries.containsKey(key);
+        }
+    }
+
+    /**
+     * @return a snapshot of every retry that is still pending, in the order they were first recorded
+     */
+    public List<PendingRetry> getPendingRetries() {
+        synchronized (writeLock) {
+            return new ArrayList<>(pendingRetries.values());
+        }
+    }
+
+    /**
+     * @return a snapshot of the pending retries whose next try time is at or before the given epoch millis
+     */
+    public List<PendingRetry> getDueRetries(long currentTimeMillis) {
+        return getPendingRetries().stream()
+                .filter(p -> p.isDue(currentTimeMillis))
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] encodePending(PendingRetry pendingRetry) {
+        byte[] key = pendingRetry.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = pendingRetry.getPayload();
+
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + key.length + 4 + 8 + 4 + payload.length);
+        record.put(RECORD_TYPE_PENDING);
+        writeString(record, key);
+        record.putInt(pendingRetry.getAttemptCount());
+        record.putLong(pendingRetry.getNextTryTime());
+        record.putInt(payload.length).put(payload);
+        return record.array();
+    }
+
+    private static byte[] encodeCompleted(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + keyBytes.length);
+        record.put(RECORD_TYPE_COMPLETED);
+        writeString(record, keyBytes);
+        return record.array();
+    }
+}
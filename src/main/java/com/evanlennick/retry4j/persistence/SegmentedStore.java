@@ -0,0 +1,316 @@
+package com.evanlennick.retry4j.persistence;
+
+import com.evanlennick.retry4j.exception.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shared plumbing of the file backed stores: a directory of memory-mapped {@link MappedSegment}s that records are
+ * appended to, group commit, and compaction of the live records into fresh segments. Subclasses keep their own
+ * in-memory view of the live records, rebuilt from {@link #replay(ByteBuffer)} when the store is opened, and must
+ * only touch it while holding {@link #writeLock}.
+ */
+abstract class SegmentedStore implements Closeable {
+
+    private Logger logger = LoggerFactory.getLogger(SegmentedStore.class);
+
+    private final Path directory;
+    private final String segmentPrefix;
+    private final int segmentSize;
+    private final int segmentsBeforeCompaction;
+
+    // guards the segments plus whatever in-memory state the subclass keeps
+    protected final Object writeLock = new Object();
+    private final List<MappedSegment> segments = new ArrayList<>();
+    private final Set<MappedSegment> unflushedSegments = new LinkedHashSet<>();
+    private long appendedSequence;
+    private boolean compactionNeeded;
+    private boolean closed;
+
+    // guards durableSequence and flushInProgress
+    private final Object commitLock = new Object();
+    private long durableSequence;
+    private boolean flushInProgress;
+
+    SegmentedStore(Path directory, String segmentPrefix, int segmentSize, int segmentsBeforeCompaction) {
+        if (segmentSize <= MappedSegment.RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+        }
+        if (segmentsBeforeCompaction < 2) {
+            throw new IllegalArgumentException("Must allow at least 2 segments before compacting!");
+        }
+
+        this.directory = directory;
+        this.segmentPrefix = segmentPrefix;
+        this.segmentSize = segmentSize;
+        this.segmentsBeforeCompaction = segmentsBeforeCompaction;
+    }
+
+    /**
+     * Opens the existing segments and replays their records. Called at the end of the subclass constructor, once
+     * the state that {@link #replay(ByteBuffer)} fills in has been initialized.
+     */
+    protected void open() {
+        synchronized (writeLock) {
+            try {
+                Files.createDirectories(directory);
+                segments.addAll(MappedSegment.openAll(directory, segmentPrefix));
+            } catch (IOException e) {
+                throw new PersistenceException("Unable to open store in " + directory, e);
+            }
+
+            for (MappedSegment segment : segments) {
+                segment.forEachRecord(this::replay);
+            }
+        }
+    }
+
+    /**
+     * Applies one record read back from disk to the in-memory view of the store.
+     */
+    protected abstract void replay(ByteBuffer record);
+
+    /**
+     * @return the encoded records that make up the current state of the store, called while holding the write lock
+     */
+    protected abstract List<byte[]> liveRecords();
+
+    /**
+     * Appends a record to the newest segment, rolling over to a new segment when it does not fit. Must be called
+     * while holding the write lock; the record is only durable once {@link #awaitDurable(long)} returns.
+     *
+     * @return the sequence number to pass to {@link #awaitDurable(long)}
+     */
+    protected long append(byte[] record) {
+        ensureOpen();
+
+        if (record.length > segmentSize - MappedSegment.RECORD_HEADER_SIZE) {
+            throw new PersistenceException("Record of " + record.length
+                    + " bytes does not fit in a segment of " + segmentSize + " bytes!");
+        }
+
+        MappedSegment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || !segment.hasRoomFor(record.length)) {
+            segment = newSegment(segment == null ? 0 : segment.getSequence() + 1);
+            segments.add(segment);
+            compactionNeeded = segments.size() >= segmentsBeforeCompaction;
+        }
+
+        segment.append(record);
+        unflushedSegments.add(segment);
+        return ++appendedSequence;
+    }
+
+    private MappedSegment newSegment(long sequence) {
+        try {
+            return MappedSegment.create(directory, segmentPrefix, sequence, segmentSize);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to create segment in " + directory, e);
+        }
+    }
+
+    /**
+     * Waits until every record up to the given sequence is on disk. The first caller to find no flush running forces
+     * all segments written since the last flush, covering the records of every caller that appended meanwhile. Runs
+     * a compaction afterwards if a segment rolled over and most records on disk are stale.
+     */
+    protected void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                synchronized (commitLock) {
+                    if (durableSequence >= sequence) {
+                        break;
+                    }
+                    if (flushInProgress) {
+                        try {
+                            commitLock.wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                        continue;
+                    }
+                    flushInProgress = true;
+                }
+
+                long flushedSequence = 0;
+                try {
+                    long appended;
+                    List<MappedSegment> toFlush;
+                    synchronized (writeLock) {
+                        appended = appendedSequence;
+                        toFlush = new ArrayList<>(unflushedSegments);
+                        unflushedSegments.clear();
+                    }
+                    for (MappedSegment segment : toFlush) {
+                        segment.force();
+                    }
+                    flushedSequence = appended;
+                } finally {
+                    releaseFlushLeadership(flushedSequence);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        boolean shouldCompact;
+        synchronized (writeLock) {
+            shouldCompact = compactionNeeded && !closed
+                    && liveRecordBytes() * 2 < (long) segments.size() * segmentSize;
+            compactionNeeded = false;
+        }
+        if (shouldCompact) {
+            compact();
+        }
+    }
+
+    private long liveRecordBytes() {
+        long bytes = 0;
+        for (byte[] record : liveRecords()) {
+            bytes += MappedSegment.RECORD_HEADER_SIZE + record.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Rewrites the live records into new segments and deletes all older segments.
+     */
+    public void compact() {
+        acquireFlushLeadership();
+        long flushedSequence = 0;
+        try {
+            synchronized (writeLock) {
+                ensureOpen();
+
+                List<MappedSegment> oldSegments = new ArrayList<>(segments);
+                long nextSequence = oldSegments.isEmpty()
+                        ? 0 : oldSegments.get(oldSegments.size() - 1).getSequence() + 1;
+
+                segments.clear();
+                unflushedSegments.clear();
+                for (byte[] record : liveRecords()) {
+                    MappedSegment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+                    if (segment == null || !segment.hasRoomFor(record.length)) {
+                        segment = newSegment(nextSequence++);
+                        segments.add(segment);
+                    }
+                    segment.append(record);
+                }
+                for (MappedSegment segment : segments) {
+                    segment.force();
+                }
+                flushedSequence = appendedSequence;
+
+                for (MappedSegment oldSegment : oldSegments) {
+                    try {
+                        oldSegment.delete();
+                    } catch (IOException e) {
+                        logger.warn("Unable to delete compacted segment {}", oldSegment.getPath(), e);
+                    }
+                }
+
+                logger.debug("Compacted {} from {} to {} segments", directory, oldSegments.size(), segments.size());
+            }
+        } finally {
+            releaseFlushLeadership(flushedSequence);
+        }
+    }
+
+    @Override
+    public void close() {
+        acquireFlushLeadership();
+        long flushedSequence = 0;
+        try {
+            synchronized (writeLock) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+
+                for (MappedSegment segment : segments) {
+                    segment.force();
+                }
+                flushedSequence = appendedSequence;
+
+                for (MappedSegment segment : segments) {
+                    try {
+                        segment.close();
+                    } catch (IOException e) {
+                        logger.warn("Unable to close segment {}", segment.getPath(), e);
+                    }
+                }
+            }
+        } finally {
+            releaseFlushLeadership(flushedSequence);
+        }
+    }
+
+    private void acquireFlushLeadership() {
+        boolean interrupted = false;
+        synchronized (commitLock) {
+            while (flushInProgress) {
+                try {
+                    commitLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            flushInProgress = true;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void releaseFlushLeadership(long flushedSequence) {
+        synchronized (commitLock) {
+            durableSequence = Math.max(durableSequence, flushedSequence);
+            flushInProgress = false;
+            commitLock.notifyAll();
+        }
+    }
+
+    protected void ensureOpen() {
+        if (closed) {
+            throw new PersistenceException("Store in " + directory + " is closed!");
+        }
+    }
+
+    public int getSegmentCount() {
+        synchronized (writeLock) {
+            return segments.size();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    static void writeString(ByteBuffer buffer, byte[] utf8) {
+        buffer.putInt(utf8.length).put(utf8);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
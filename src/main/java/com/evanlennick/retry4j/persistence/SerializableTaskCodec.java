@@ -0,0 +1,44 @@
+package com.evanlennick.retry4j.persistence;
+
+import com.evanlennick.retry4j.exception.PersistenceException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+
+/**
+ * Codec that uses Java serialization. Only works for Callables that implement {@link Serializable}, such as a class
+ * implementing both interfaces or a lambda cast to {@code Callable<T> & Serializable}.
+ */
+public class SerializableTaskCodec<T> implements TaskCodec<T> {
+
+    @Override
+    public byte[] encode(Callable<T> callable) {
+        if (!(callable instanceof Serializable)) {
+            throw new PersistenceException("Callable " + callable + " does not implement Serializable!");
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(callable);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to serialize callable " + callable, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Callable<T> decode(byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (Callable<T>) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new PersistenceException("Unable to deserialize callable", e);
+        }
+    }
+
+}
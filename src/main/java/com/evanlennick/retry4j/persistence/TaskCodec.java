@@ -0,0 +1,17 @@
+package com.evanlennick.retry4j.persistence;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Converts a Callable to and from the bytes that are written to disk, so that it can be executed again after the
+ * JVM restarts.
+ *
+ * @param <T> The type that is returned by the Callable (eg: Boolean, Void, Object, etc)
+ */
+public interface TaskCodec<T> {
+
+    byte[] encode(Callable<T> callable);
+
+    Callable<T> decode(byte[] payload);
+
+}
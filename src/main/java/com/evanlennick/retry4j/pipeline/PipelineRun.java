@@ -0,0 +1,195 @@
+package com.evanlennick.retry4j.pipeline;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * One pass of data through a {@link RetryPipeline}. Each stage is executed with a {@link CallExecutorBuilder built}
+ * executor using its config, under its name as the call name, and checkpointed as soon as it succeeds. A stage that
+ * fails ends the execution of the run like a failed execution of any executor, with a
+ * {@link com.evanlennick.retry4j.exception.RetriesExhaustedException} or an
+ * {@link com.evanlennick.retry4j.exception.UnexpectedException} whose status names the stage. Executing the run
+ * again, synchronously or not, resumes from that stage with the checkpointed output of the stage before it.
+ * <p>
+ * A run can only be executed by one caller at a time.
+ *
+ * @param <O> the output of the last stage
+ */
+public class PipelineRun<O> {
+
+    private Logger logger = LoggerFactory.getLogger(PipelineRun.class);
+
+    private final List<RetryPipeline.Stage> stages;
+
+    private final Object lock = new Object();
+    private final Object[] outputs;
+    private final Status<?>[] statuses;
+    private int completedStages;
+    private boolean running;
+
+    PipelineRun(List<RetryPipeline.Stage> stages) {
+        this.stages = stages;
+        this.outputs = new Object[stages.size()];
+        this.statuses = new Status<?>[stages.size()];
+    }
+
+    /**
+     * Executes the stages that have not completed yet on the calling thread, retrying each one as its config says.
+     */
+    public PipelineStatus<O> execute() {
+        int firstStage = begin();
+        try {
+            for (int stage = firstStage; stage < stages.size(); stage++) {
+                RetryPipeline.Stage current = stages.get(stage);
+                Status<Object> status = new CallExecutorBuilder<>()
+                        .config(current.config)
+                        .build()
+                        .execute(stageCallable(stage), current.name);
+                checkpoint(stage, status);
+            }
+            return newStatus(firstStage);
+        } finally {
+            end();
+        }
+    }
+
+    public CompletableFuture<PipelineStatus<O>> executeAsync(ExecutorService executorService) {
+        return executeAsync(executorService, null);
+    }
+
+    /**
+     * Executes the stages that have not completed yet without blocking the calling thread, each one with an
+     * {@link AsyncCallExecutor} built with the executor service and timer, which may be null.
+     */
+    public CompletableFuture<PipelineStatus<O>> executeAsync(ExecutorService executorService,
+                                                             HashedWheelTimer timer) {
+        int firstStage = begin();
+        CompletableFuture<PipelineStatus<O>> future = new CompletableFuture<>();
+        CompletableFuture<Void> stagesDone;
+        try {
+            stagesDone = executeAsyncFrom(firstStage, executorService, timer);
+        } catch (RuntimeException e) {
+            end();
+            throw e;
+        }
+        // the run is available again before anything depending on the future runs
+        stagesDone.whenComplete((ignored, t) -> {
+            end();
+            if (null != t) {
+                future.completeExceptionally(t instanceof CompletionException && null != t.getCause()
+                        ? t.getCause() : t);
+            } else {
+                future.complete(newStatus(firstStage));
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<Void> executeAsyncFrom(int stage, ExecutorService executorService,
+                                                     HashedWheelTimer timer) {
+        if (stage == stages.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        RetryPipeline.Stage current = stages.get(stage);
+        AsyncCallExecutor<Object> executor = new CallExecutorBuilder<>()
+                .config(current.config)
+                .buildAsync(executorService, timer);
+        return executor.execute(stageCallable(stage), current.name).thenCompose(status -> {
+            checkpoint(stage, status);
+            return executeAsyncFrom(stage + 1, executorService, timer);
+        });
+    }
+
+    private Callable<Object> stageCallable(int stage) {
+        PipelineStage<Object, Object> function = stages.get(stage).function;
+        Object input;
+        synchronized (lock) {
+            input = stage > 0 ? outputs[stage - 1] : null;
+        }
+        return () -> function.apply(input);
+    }
+
+    private int begin() {
+        synchronized (lock) {
+            if (running) {
+                throw new IllegalStateException("Pipeline run is already executing");
+            }
+            running = true;
+            if (completedStages > 0 && completedStages < stages.size()) {
+                logger.debug("Resuming pipeline run from stage {}", stages.get(completedStages).name);
+            }
+            return completedStages;
+        }
+    }
+
+    private void end() {
+        synchronized (lock) {
+            running = false;
+        }
+    }
+
+    private void checkpoint(int stage, Status<?> status) {
+        synchronized (lock) {
+            outputs[stage] = status.getResult();
+            statuses[stage] = status;
+            completedStages = stage + 1;
+        }
+        logger.trace("Checkpointed pipeline stage {}", stages.get(stage).name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PipelineStatus<O> newStatus(int firstStage) {
+        synchronized (lock) {
+            List<Status<?>> stageStatuses = new ArrayList<>(Arrays.asList(statuses));
+            String resumedFromStage = firstStage < stages.size() ? stages.get(firstStage).name : null;
+            return new PipelineStatus<>((O) outputs[stages.size() - 1], stageStatuses, resumedFromStage);
+        }
+    }
+
+    /**
+     * @return the number of stages that have completed, whose outputs are checkpointed
+     */
+    public int getCompletedStages() {
+        synchronized (lock) {
+            return completedStages;
+        }
+    }
+
+    public boolean isComplete() {
+        return getCompletedStages() == stages.size();
+    }
+
+    /**
+     * @return the stage the next execution of the run starts with, or null if every stage has completed
+     */
+    public String getNextStage() {
+        int next = getCompletedStages();
+        return next < stages.size() ? stages.get(next).name : null;
+    }
+
+    /**
+     * @return the checkpointed output of the stage, or null if it has not completed
+     */
+    public Object getCheckpoint(String stageName) {
+        synchronized (lock) {
+            for (int stage = 0; stage < completedStages; stage++) {
+                if (stages.get(stage).name.equals(stageName)) {
+                    return outputs[stage];
+                }
+            }
+            return null;
+        }
+    }
+}
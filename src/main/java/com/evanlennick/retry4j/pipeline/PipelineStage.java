@@ -0,0 +1,13 @@
+package com.evanlennick.retry4j.pipeline;
+
+/**
+ * A stage of a {@link RetryPipeline} after the first, which turns the output of the stage before it into its own.
+ *
+ * @param <I> the output of the stage before
+ * @param <O> the output of this stage
+ */
+@FunctionalInterface
+public interface PipelineStage<I, O> {
+
+    O apply(I input) throws Exception;
+}
@@ -0,0 +1,77 @@
+package com.evanlennick.retry4j.pipeline;
+
+import com.evanlennick.retry4j.Status;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a {@link PipelineRun} whose stages have all succeeded.
+ *
+ * @param <O> the output of the last stage
+ */
+public final class PipelineStatus<O> {
+
+    private final O result;
+    private final List<Status<?>> stageStatuses;
+    private final String resumedFromStage;
+
+    PipelineStatus(O result, List<Status<?>> stageStatuses, String resumedFromStage) {
+        this.result = result;
+        this.stageStatuses = Collections.unmodifiableList(stageStatuses);
+        this.resumedFromStage = resumedFromStage;
+    }
+
+    public O getResult() {
+        return result;
+    }
+
+    /**
+     * @return the status of the execution that completed each stage, in the order of the stages, whose call names
+     * are the names of the stages
+     */
+    public List<Status<?>> getStageStatuses() {
+        return stageStatuses;
+    }
+
+    /**
+     * @return the status of the execution that completed the stage, or null if the pipeline has no such stage
+     */
+    public Status<?> getStageStatus(String stageName) {
+        for (Status<?> status : stageStatuses) {
+            if (stageName.equals(status.getCallName())) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the first stage the last execution of the run started with, which is the first stage of the pipeline
+     * unless the run was resumed after a stage failed, or null if every stage had already completed
+     */
+    public String getResumedFromStage() {
+        return resumedFromStage;
+    }
+
+    /**
+     * @return the tries made by the executions that completed the stages
+     */
+    public int getTotalTries() {
+        int totalTries = 0;
+        for (Status<?> status : stageStatuses) {
+            totalTries += status.getTotalTries();
+        }
+        return totalTries;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PipelineStatus{");
+        sb.append("result=").append(result);
+        sb.append(", stageStatuses=").append(stageStatuses);
+        sb.append(", resumedFromStage='").append(resumedFromStage).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.evanlennick.retry4j.pipeline;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * A chain of stages that each retry on their own, such as fetch, then transform, then publish. Every stage has its
+ * own {@link RetryConfig}, gets the output of the stage before it, and is only retried itself when it fails, so a
+ * failing publish never repeats the fetch and transform that came before it.
+ * <pre>
+ * RetryPipeline&lt;Receipt&gt; pipeline = RetryPipeline.firstStage("fetch", fetchConfig, () -&gt; source.fetch())
+ *         .thenStage("transform", transformConfig, page -&gt; transform(page))
+ *         .thenStage("publish", publishConfig, report -&gt; sink.publish(report));
+ *
+ * PipelineStatus&lt;Receipt&gt; status = pipeline.newRun().execute();
+ * </pre>
+ * A pipeline is immutable and can be shared. The outputs of the stages that succeeded are checkpointed in the
+ * {@link PipelineRun} that executes them, so when a stage runs out of tries, executing the run again resumes from
+ * that stage.
+ *
+ * @param <O> the output of the last stage
+ */
+public final class RetryPipeline<O> {
+
+    private final List<Stage> stages;
+
+    private RetryPipeline(List<Stage> stages) {
+        this.stages = Collections.unmodifiableList(stages);
+    }
+
+    public static <O> RetryPipeline<O> firstStage(String name, RetryConfig config, Callable<O> callable) {
+        if (null == callable) {
+            throw new IllegalArgumentException("Stage " + name + " has no callable");
+        }
+        List<Stage> stages = new ArrayList<>();
+        stages.add(new Stage(name, config, input -> callable.call()));
+        return new RetryPipeline<>(stages);
+    }
+
+    /**
+     * @return a new pipeline that runs the stage after the stages of this one
+     */
+    @SuppressWarnings("unchecked")
+    public <N> RetryPipeline<N> thenStage(String name, RetryConfig config, PipelineStage<? super O, N> stage) {
+        if (null == stage) {
+            throw new IllegalArgumentException("Stage " + name + " has no function");
+        }
+        for (Stage existing : stages) {
+            if (existing.name.equals(name)) {
+                throw new IllegalArgumentException("Pipeline already has a stage named " + name);
+            }
+        }
+        List<Stage> next = new ArrayList<>(stages);
+        next.add(new Stage(name, config, input -> stage.apply((O) input)));
+        return new RetryPipeline<>(next);
+    }
+
+    public PipelineRun<O> newRun() {
+        return new PipelineRun<>(stages);
+    }
+
+    public List<String> getStageNames() {
+        List<String> names = new ArrayList<>();
+        for (Stage stage : stages) {
+            names.add(stage.name);
+        }
+        return names;
+    }
+
+    static final class Stage {
+
+        final String name;
+        final RetryConfig config;
+        final PipelineStage<Object, Object> function;
+
+        Stage(String name, RetryConfig config, PipelineStage<Object, Object> function) {
+            if (null == name) {
+                throw new IllegalArgumentException("Stage name must not be null");
+            }
+            if (null == config) {
+                throw new IllegalArgumentException("Stage " + name + " has no config");
+            }
+            this.name = name;
+            this.config = config;
+            this.function = function;
+        }
+    }
+}
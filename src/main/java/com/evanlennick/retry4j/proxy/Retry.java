@@ -0,0 +1,28 @@
+package com.evanlennick.retry4j.proxy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the methods of an interface whose calls a {@link RetryProxy} retries. On the interface itself it applies to
+ * all of its methods, an annotation on a method takes precedence over the one on the interface.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Retry {
+
+    /**
+     * @return the name the {@link com.evanlennick.retry4j.config.RetryConfig} to retry with was registered under
+     */
+    String value();
+
+    /**
+     * @return the call name the executions are reported under, defaults to the interface and method name, eg:
+     * OrderService.placeOrder
+     */
+    String callName() default "";
+}
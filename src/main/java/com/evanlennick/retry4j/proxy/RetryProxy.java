@@ -0,0 +1,209 @@
+package com.evanlennick.retry4j.proxy;
+
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigRegistry;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.metrics.RetryMetrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Creates proxies that retry the calls to the methods annotated with {@link Retry}, instead of every call site
+ * wrapping them in a {@link com.evanlennick.retry4j.CallExecutor}:
+ * <pre>
+ * RetryProxy retryProxy = new RetryProxy()
+ *         .config("db", dbConfig)
+ *         .config("cache", cacheConfig);
+ * OrderService orders = retryProxy.create(OrderService.class, new JdbcOrderService());
+ * </pre>
+ * The config, call name and a {@link MethodHandle} to the target of every method are resolved once when the proxy is
+ * created, so a call only costs a map lookup over executing it by hand. Methods without a {@link Retry} annotation
+ * are passed straight through to the target.
+ * <p>
+ * Calls behave as if they had been executed by hand: a call that exhausts its tries throws a
+ * {@link com.evanlennick.retry4j.exception.RetriesExhaustedException} and one that throws an exception that is not
+ * retried on throws an {@link com.evanlennick.retry4j.exception.UnexpectedException}.
+ */
+public class RetryProxy {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Map<String, RetryConfig> configs = new HashMap<>();
+
+    private RetryConfigRegistry configRegistry;
+
+    private RetryMetrics metrics;
+
+    private AttemptObserver attemptObserver;
+
+    public RetryProxy config(String name, RetryConfig config) {
+        configs.put(name, config);
+        return this;
+    }
+
+    /**
+     * Resolves the {@link Retry} names that were not registered with {@link #config(String, RetryConfig)} from the
+     * registry, whenever a call starts, so the proxies follow reloads of its file.
+     */
+    public RetryProxy configRegistry(RetryConfigRegistry registry) {
+        this.configRegistry = registry;
+        return this;
+    }
+
+    /**
+     * Records the retried calls of the proxies created afterwards, under their call names.
+     */
+    public RetryProxy metrics(RetryMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Observes the retried calls of the proxies created afterwards, under their call names.
+     */
+    public RetryProxy attemptObserver(AttemptObserver observer) {
+        this.attemptObserver = observer;
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the type is not an interface, or one of its {@link Retry} annotations names
+     *                                  a config that was not registered
+     */
+    public <I> I create(Class<I> type, I target) {
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException("Only interfaces can be proxied: " + type.getName());
+        }
+
+        Map<Method, ProxiedMethod> methods = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            methods.put(method, resolve(type, method, target));
+        }
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new RetryInvocationHandler(target, methods));
+        return type.cast(proxy);
+    }
+
+    private ProxiedMethod resolve(Class<?> type, Method method, Object target) {
+        MethodHandle handle = unreflect(method).bindTo(target)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(SPREAD_TYPE);
+
+        Retry retry = method.getAnnotation(Retry.class);
+        if (null == retry) {
+            retry = type.getAnnotation(Retry.class);
+        }
+        if (null == retry) {
+            return new ProxiedMethod(handle, null, null);
+        }
+
+        RetryConfig config = configs.get(retry.value());
+        boolean fromRegistry = null == config && null != configRegistry;
+        if (fromRegistry) {
+            config = configRegistry.get(retry.value());
+        }
+        if (null == config) {
+            throw new IllegalArgumentException("No RetryConfig named '" + retry.value() + "' for "
+                    + type.getSimpleName() + "." + method.getName());
+        }
+        String callName = retry.callName().isEmpty()
+                ? type.getSimpleName() + "." + method.getName() : retry.callName();
+        CallExecutorBuilder<Object> executorBuilder = new CallExecutorBuilder<>()
+                .config(config)
+                .metrics(metrics)
+                .attemptObserver(attemptObserver);
+        if (fromRegistry) {
+            executorBuilder.configRegistry(configRegistry, retry.value());
+        }
+        return new ProxiedMethod(handle, executorBuilder, callName);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        // methods of non public interfaces are only reachable once access checks are suppressed
+        if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            method.setAccessible(true);
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Unable to access " + method, e);
+        }
+    }
+
+    private static Object invoke(MethodHandle handle, Object[] args) throws Exception {
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    private static final class ProxiedMethod {
+
+        private final MethodHandle handle;
+        private final CallExecutorBuilder<Object> executorBuilder;
+        private final String callName;
+
+        private ProxiedMethod(MethodHandle handle, CallExecutorBuilder<Object> executorBuilder, String callName) {
+            this.handle = handle;
+            this.executorBuilder = executorBuilder;
+            this.callName = callName;
+        }
+    }
+
+    private static final class RetryInvocationHandler implements InvocationHandler {
+
+        private final Object target;
+        private final Map<Method, ProxiedMethod> methods;
+
+        private RetryInvocationHandler(Object target, Map<Method, ProxiedMethod> methods) {
+            this.target = target;
+            this.methods = methods;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object[] arguments = null != args ? args : NO_ARGS;
+            ProxiedMethod proxied = methods.get(method);
+            if (null == proxied) {
+                return invokeObjectMethod(proxy, method, arguments);
+            }
+            if (null == proxied.executorBuilder) {
+                return RetryProxy.invoke(proxied.handle, arguments);
+            }
+
+            // executors hold the state of a single execution, so every call gets its own like with AsyncCallExecutor
+            Callable<Object> call = () -> RetryProxy.invoke(proxied.handle, arguments);
+            return proxied.executorBuilder.build().execute(call, proxied.callName).getResult();
+        }
+
+        private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "RetryProxy[" + target + "]";
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.evanlennick.retry4j.scheduler;
+
+import com.evanlennick.retry4j.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the work the {@link com.evanlennick.retry4j.AsyncCallExecutor}s sharing it take on. At most
+ * maxConcurrentTries tries run at a time, on the executors' threads as usual, and at most capacity more wait in a
+ * FIFO queue. A try submitted while the queue is full is handled according to the {@link RejectionPolicy}, and a try
+ * that waited longer than the max queue time is dropped once it reaches the head of the queue, since whoever was
+ * waiting on it has likely given up by then.
+ * <p>
+ * Rejected and dropped tries end their execution right away, with a {@link com.evanlennick.retry4j.Status} that
+ * {@link com.evanlennick.retry4j.Status#isRejected() is rejected}.
+ */
+public class AdmissionQueue {
+
+    private Logger logger = LoggerFactory.getLogger(AdmissionQueue.class);
+
+    private final Object lock = new Object();
+
+    private final int maxConcurrentTries;
+    private final int capacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final long maxQueueNanos;
+
+    private final ArrayDeque<QueuedTry> queue = new ArrayDeque<>();
+    private int runningTries;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder droppedOldest = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+
+    public AdmissionQueue(int maxConcurrentTries, int capacity, RejectionPolicy rejectionPolicy) {
+        this(maxConcurrentTries, capacity, rejectionPolicy, null);
+    }
+
+    /**
+     * @param maxQueueTime how long a try may wait in the queue before it is dropped, or null to never drop them
+     */
+    public AdmissionQueue(int maxConcurrentTries, int capacity, RejectionPolicy rejectionPolicy,
+                          Duration maxQueueTime) {
+        if (maxConcurrentTries < 1) {
+            throw new IllegalArgumentException("At least one try must be allowed to run: " + maxConcurrentTries);
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Queue capacity must not be negative: " + capacity);
+        }
+        if (null != maxQueueTime && (maxQueueTime.isNegative() || maxQueueTime.isZero())) {
+            throw new IllegalArgumentException("Max queue time must be positive: " + maxQueueTime);
+        }
+
+        this.maxConcurrentTries = maxConcurrentTries;
+        this.capacity = capacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.maxQueueNanos = null != maxQueueTime ? maxQueueTime.toNanos() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Runs the try on the executor right away if fewer than maxConcurrentTries are running, and queues it otherwise.
+     *
+     * @param onRejected   run instead of the task if it is rejected or dropped
+     * @param callerMayRun whether the submitting thread may run the task under {@link RejectionPolicy#CALLER_RUNS};
+     *                     retries submitted by a timer thread are rejected instead, as running them there would hold
+     *                     up every other pending retry
+     */
+    public void submit(Runnable task, Runnable onRejected, Executor executor, boolean callerMayRun) {
+        QueuedTry submitted = new QueuedTry(task, onRejected, executor, System.nanoTime());
+        QueuedTry dispatch = null;
+        List<QueuedTry> dropped = new ArrayList<>();
+        boolean runOnCaller = false;
+
+        synchronized (lock) {
+            if (runningTries < maxConcurrentTries && queue.isEmpty()) {
+                runningTries++;
+                dispatch = submitted;
+            } else {
+                if (queue.size() >= capacity) {
+                    pollExpired(submitted.queuedNanos, dropped);
+                }
+                if (queue.size() < capacity) {
+                    queue.add(submitted);
+                } else if (rejectionPolicy == RejectionPolicy.DROP_OLDEST && !queue.isEmpty()) {
+                    dropped.add(queue.poll());
+                    droppedOldest.increment();
+                    queue.add(submitted);
+                } else if (rejectionPolicy == RejectionPolicy.CALLER_RUNS && callerMayRun) {
+                    runOnCaller = true;
+                } else {
+                    rejected.increment();
+                    dropped.add(submitted);
+                }
+            }
+        }
+
+        dropped.forEach(this::reject);
+        if (null != dispatch) {
+            waitTime.record(0);
+            admitted.increment();
+            dispatch(dispatch);
+        } else if (runOnCaller) {
+            callerRuns.increment();
+            submitted.task.run();
+        }
+    }
+
+    private void dispatch(QueuedTry queuedTry) {
+        QueuedTry current = queuedTry;
+        while (null != current) {
+            QueuedTry admittedTry = current;
+            try {
+                admittedTry.executor.execute(() -> runFrom(admittedTry));
+                return;
+            } catch (RejectedExecutionException e) {
+                logger.warn("Executor rejected a try admitted by the queue", e);
+                rejected.increment();
+                reject(admittedTry);
+                current = onTryFinished(admittedTry.executor);
+            }
+        }
+    }
+
+    // keeps running queued tries on this thread while they are meant for the same executor
+    private void runFrom(QueuedTry first) {
+        QueuedTry current = first;
+        while (null != current) {
+            try {
+                current.task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Admitted retry4j task failed", e);
+            }
+            current = onTryFinished(current.executor);
+        }
+    }
+
+    /**
+     * @return the next try if it is meant for the same executor and can run on the finishing thread, otherwise null
+     */
+    private QueuedTry onTryFinished(Executor executor) {
+        List<QueuedTry> dropped = new ArrayList<>();
+        QueuedTry next;
+        synchronized (lock) {
+            long now = System.nanoTime();
+            pollExpired(now, dropped);
+            next = queue.poll();
+            if (null == next) {
+                runningTries--;
+            } else {
+                waitTime.record(now - next.queuedNanos);
+                admitted.increment();
+            }
+        }
+
+        dropped.forEach(this::reject);
+        if (null != next && next.executor != executor) {
+            dispatch(next);
+            return null;
+        }
+        return next;
+    }
+
+    // must hold the lock
+    private void pollExpired(long now, List<QueuedTry> dropped) {
+        while (!queue.isEmpty() && now - queue.peek().queuedNanos > maxQueueNanos) {
+            QueuedTry expiredTry = queue.poll();
+            waitTime.record(now - expiredTry.queuedNanos);
+            expired.increment();
+            dropped.add(expiredTry);
+        }
+    }
+
+    private void reject(QueuedTry queuedTry) {
+        try {
+            queuedTry.onRejected.run();
+        } catch (RuntimeException e) {
+            logger.warn("Rejecting a retry4j task failed", e);
+        }
+    }
+
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    public int getRunningTries() {
+        synchronized (lock) {
+            return runningTries;
+        }
+    }
+
+    /**
+     * @return how long tries waited in the queue, including the ones that were dropped for waiting too long
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * @return the number of tries rejected because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getDroppedOldest() {
+        return droppedOldest.sum();
+    }
+
+    /**
+     * @return the number of tries dropped for waiting longer than the max queue time
+     */
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    public long getCallerRuns() {
+        return callerRuns.sum();
+    }
+
+    public int getMaxConcurrentTries() {
+        return maxConcurrentTries;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdmissionQueue{");
+        sb.append("maxConcurrentTries=").append(maxConcurrentTries);
+        sb.append(", capacity=").append(capacity);
+        sb.append(", rejectionPolicy=").append(rejectionPolicy);
+        sb.append(", queueDepth=").append(getQueueDepth());
+        sb.append(", runningTries=").append(getRunningTries());
+        sb.append(", rejected=").append(getRejected());
+        sb.append(", droppedOldest=").append(getDroppedOldest());
+        sb.append(", expired=").append(getExpired());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static final class QueuedTry {
+
+        private final Runnable task;
+        private final Runnable onRejected;
+        private final Executor executor;
+        private final long queuedNanos;
+
+        private QueuedTry(Runnable task, Runnable onRejected, Executor executor, long queuedNanos) {
+            this.task = task;
+            this.onRejected = onRejected;
+            this.executor = executor;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.evanlennick.retry4j.scheduler;
+
+/**
+ * What an {@link AdmissionQueue} does with a try submitted while its queue is full.
+ */
+public enum RejectionPolicy {
+
+    /**
+     * Rejects the submitted try.
+     */
+    FAIL_FAST,
+
+    /**
+     * Runs the submitted try on the thread that submitted it, which slows down whoever keeps submitting.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Rejects the try that has waited the longest and queues the submitted one.
+     */
+    DROP_OLDEST
+}
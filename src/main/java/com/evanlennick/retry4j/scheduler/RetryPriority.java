@@ -0,0 +1,20 @@
+package com.evanlennick.retry4j.scheduler;
+
+/**
+ * The priority class of an execution on a {@link RetryScheduler}. Tries of a higher class are always dispatched
+ * first, and pending retries of a lower class are always shed first.
+ */
+public enum RetryPriority {
+
+    /**
+     * Calls a user is waiting on.
+     */
+    HIGH,
+
+    NORMAL,
+
+    /**
+     * Background and batch work that can wait, or be retried later by the job itself.
+     */
+    LOW
+}
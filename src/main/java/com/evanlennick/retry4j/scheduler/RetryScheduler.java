@@ -0,0 +1,583 @@
+package com.evanlennick.retry4j.scheduler;
+
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import com.evanlennick.retry4j.timer.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tries of the {@link com.evanlennick.retry4j.AsyncCallExecutor}s that share it on a fixed number of worker
+ * threads, so that executions of different {@link RetryPriority} classes and tenants do not compete for threads on
+ * equal terms. Retries wait out their backoff on a {@link HashedWheelTimer} and are then queued for the workers.
+ * <p>
+ * Workers always take a queued try of the highest priority class next. Within a class, every tenant has its own queue
+ * of tries in the order they became due, and the queues are served by deficit round robin: on its turn a tenant may
+ * run as many tries as its weight before the next tenant's turn, so tenants get worker time in proportion to their
+ * weights however many tries each of them queues. Tenants have a weight of {@value #DEFAULT_TENANT_WEIGHT} unless
+ * {@link #setTenantWeight(String, int) configured otherwise}.
+ * <p>
+ * At most maxPendingRetries retries can be pending, backing off or queued, at a time, and each tenant can only hold
+ * its share of them, in proportion to its weight among the tenants with pending retries. Scheduling a retry past
+ * either limit sheds the newest pending retry of the lowest priority class, of the tenant or overall, or the new
+ * retry itself when nothing pending has a lower priority than it. A shed execution ends right away with a
+ * {@link com.evanlennick.retry4j.Status} that {@link com.evanlennick.retry4j.Status#isRejected() is rejected}. First
+ * tries are queued by priority and tenant as well, but are never shed.
+ */
+public class RetryScheduler {
+
+    /**
+     * The tenant of executions that were not given one.
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    public static final int DEFAULT_TENANT_WEIGHT = 1;
+
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    // the last task in this order is the first to be shed
+    private static final Comparator<Task> SHED_ORDER = Comparator
+            .comparing((Task task) -> task.priority)
+            .thenComparingLong(task -> task.sequence);
+
+    private static final int WAITING = 0;
+    private static final int QUEUED = 1;
+    private static final int DONE = 2;
+
+    private Logger logger = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private final Object lock = new Object();
+
+    private final HashedWheelTimer timer;
+    private final boolean ownsTimer;
+    private final int maxPendingRetries;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Map<String, Integer> tenantWeights = new HashMap<>();
+
+    // tenants are only kept while they have tries pending or queued
+    private final Map<String, Tenant> tenants = new HashMap<>();
+
+    // the queues of the tenants with queued tries of each priority class, in the order of their turns
+    private final List<ArrayDeque<TenantQueue>> rounds = new ArrayList<>();
+
+    private final TreeSet<Task> pendingRetries = new TreeSet<>(SHED_ORDER);
+    private final long[] shedRetries = new long[RetryPriority.values().length];
+
+    // the total weight of the tenants with pending retries, which their shares are taken from
+    private long pendingWeight;
+    private int queuedTries;
+    private long sequence;
+    private boolean shutdown;
+
+    public RetryScheduler(int threads, int maxPendingRetries) {
+        this(threads, maxPendingRetries, new HashedWheelTimer(), true);
+    }
+
+    /**
+     * @param timer the timer retries wait out their backoff on, which stays running after a shutdown
+     */
+    public RetryScheduler(int threads, int maxPendingRetries, HashedWheelTimer timer) {
+        this(threads, maxPendingRetries, timer, false);
+    }
+
+    private RetryScheduler(int threads, int maxPendingRetries, HashedWheelTimer timer, boolean ownsTimer) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A scheduler needs at least one thread: " + threads);
+        }
+        if (maxPendingRetries < 0) {
+            throw new IllegalArgumentException("Max pending retries must not be negative: " + maxPendingRetries);
+        }
+
+        this.timer = timer;
+        this.ownsTimer = ownsTimer;
+        this.maxPendingRetries = maxPendingRetries;
+        for (int i = 0; i < RetryPriority.values().length; i++) {
+            rounds.add(new ArrayDeque<>());
+        }
+
+        int instance = INSTANCE_COUNTER.incrementAndGet();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "retry4j-scheduler-" + instance + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Sets the weight of a tenant, which is its number of tries per turn and the relative size of its share of the
+     * pending retries.
+     */
+    public void setTenantWeight(String tenant, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Tenant weight must be at least 1: " + weight);
+        }
+
+        synchronized (lock) {
+            tenantWeights.put(tenant, weight);
+            Tenant active = tenants.get(tenant);
+            if (null != active) {
+                if (!active.pendingRetries.isEmpty()) {
+                    pendingWeight += weight - active.weight;
+                }
+                active.weight = weight;
+            }
+        }
+    }
+
+    public int getTenantWeight(String tenant) {
+        synchronized (lock) {
+            return tenantWeights.getOrDefault(tenant, DEFAULT_TENANT_WEIGHT);
+        }
+    }
+
+    /**
+     * Queues the first try of an execution, which is never shed.
+     *
+     * @param tenant     the tenant of the execution, or null for the {@link #DEFAULT_TENANT}
+     * @param onRejected run instead of the task if the scheduler is shut down before the task could run
+     * @return a handle that cancels the try, in which case neither the task nor onRejected is run
+     */
+    public Timeout execute(RetryPriority priority, String tenant, Runnable task, Runnable onRejected) {
+        Task firstTry = new Task(priority, task, onRejected);
+        synchronized (lock) {
+            if (!shutdown) {
+                firstTry.tenant = tenant(tenant);
+                firstTry.sequence = sequence++;
+                enqueue(firstTry);
+                return firstTry;
+            }
+        }
+        reject(firstTry);
+        return firstTry;
+    }
+
+    /**
+     * Queues a retry once its delay has passed.
+     *
+     * @param tenant     the tenant of the execution, or null for the {@link #DEFAULT_TENANT}
+     * @param onRejected run instead of the task if the retry is shed, or if the scheduler is shut down before the
+     *                   task could run
+     * @return a handle that cancels the retry, in which case neither the task nor onRejected is run
+     */
+    public Timeout schedule(RetryPriority priority, String tenant, Runnable task, Runnable onRejected, long delay,
+                         TimeUnit unit) {
+        Task retry = new Task(priority, task, onRejected);
+        Task shed = null;
+        synchronized (lock) {
+            if (shutdown) {
+                shed = retry;
+            } else {
+                retry.tenant = tenant(tenant);
+                retry.sequence = sequence++;
+                long weight = pendingWeight + (retry.tenant.pendingRetries.isEmpty() ? retry.tenant.weight : 0);
+                if (retry.tenant.pendingRetries.size() >= share(retry.tenant, weight)) {
+                    shed = shedCandidate(retry.tenant.pendingRetries, retry);
+                } else if (pendingRetries.size() >= maxPendingRetries) {
+                    shed = shedForTenantUnderShare(retry, weight);
+                }
+                if (null != shed) {
+                    shedRetries[shed.priority.ordinal()]++;
+                    remove(shed);
+                }
+                if (shed != retry) {
+                    addPendingRetry(retry);
+                    retry.timeout = timer.newTimeout(() -> onRetryDue(retry), delay, unit);
+                }
+            }
+        }
+
+        if (null != shed) {
+            logger.debug("Shedding a pending {} priority retry of tenant {}", shed.priority,
+                    null != shed.tenant ? shed.tenant.key : tenant);
+            reject(shed);
+        }
+        return retry;
+    }
+
+    // must hold the lock
+    private Tenant tenant(String key) {
+        String tenantKey = null != key ? key : DEFAULT_TENANT;
+        return tenants.computeIfAbsent(tenantKey,
+                k -> new Tenant(k, tenantWeights.getOrDefault(k, DEFAULT_TENANT_WEIGHT)));
+    }
+
+    /**
+     * @param weight the total weight of the tenants with pending retries, including the one about to schedule one
+     */
+    private long share(Tenant tenant, long weight) {
+        return Math.max(1, maxPendingRetries * (long) tenant.weight / weight);
+    }
+
+    // sheds the newest of the lowest priority candidates, if their priority is lower than the retry's
+    private static Task shedCandidate(TreeSet<Task> candidates, Task retry) {
+        Task lowest = candidates.isEmpty() ? null : candidates.last();
+        return null != lowest && lowest.priority.compareTo(retry.priority) > 0 ? lowest : retry;
+    }
+
+    // must hold the lock. A retry of a tenant under its share sheds one of a lower priority, or of the tenant that is
+    // furthest over its share
+    private Task shedForTenantUnderShare(Task retry, long weight) {
+        Task shed = shedCandidate(pendingRetries, retry);
+        if (shed != retry) {
+            return shed;
+        }
+
+        Tenant mostOverShare = null;
+        long mostOver = 0;
+        for (Tenant tenant : tenants.values()) {
+            long over = tenant.pendingRetries.size() - share(tenant, weight);
+            if (over > mostOver) {
+                mostOverShare = tenant;
+                mostOver = over;
+            }
+        }
+        if (null != mostOverShare && mostOverShare.pendingRetries.last().priority.compareTo(retry.priority) >= 0) {
+            return mostOverShare.pendingRetries.last();
+        }
+        return retry;
+    }
+
+    // must hold the lock
+    private void addPendingRetry(Task retry) {
+        if (retry.tenant.pendingRetries.isEmpty()) {
+            pendingWeight += retry.tenant.weight;
+        }
+        retry.tenant.pendingRetries.add(retry);
+        pendingRetries.add(retry);
+    }
+
+    private void onRetryDue(Task retry) {
+        synchronized (lock) {
+            if (retry.state == WAITING) {
+                enqueue(retry);
+            }
+        }
+    }
+
+    // must hold the lock
+    private void enqueue(Task task) {
+        task.state = QUEUED;
+        queuedTries++;
+        task.tenant.queuedTries++;
+
+        TenantQueue queue = task.tenant.queues[task.priority.ordinal()];
+        queue.tasks.add(task);
+        if (!queue.inRound) {
+            queue.inRound = true;
+            rounds.get(task.priority.ordinal()).addLast(queue);
+        }
+        lock.notify();
+    }
+
+    // must hold the lock
+    private void remove(Task task) {
+        if (task.state == QUEUED) {
+            queuedTries--;
+            task.tenant.queuedTries--;
+        }
+        task.state = DONE;
+        if (null != task.timeout) {
+            task.timeout.cancel();
+        }
+
+        if (pendingRetries.remove(task)) {
+            task.tenant.pendingRetries.remove(task);
+            if (task.tenant.pendingRetries.isEmpty()) {
+                pendingWeight -= task.tenant.weight;
+            }
+        }
+        releaseIfIdle(task.tenant);
+    }
+
+    // must hold the lock
+    private void releaseIfIdle(Tenant tenant) {
+        if (!tenant.pendingRetries.isEmpty() || tenant.queuedTries > 0) {
+            return;
+        }
+        for (TenantQueue queue : tenant.queues) {
+            if (queue.inRound) {
+                return;
+            }
+        }
+        tenants.remove(tenant.key, tenant);
+    }
+
+    // must hold the lock
+    private Task poll() {
+        for (ArrayDeque<TenantQueue> round : rounds) {
+            while (!round.isEmpty()) {
+                TenantQueue queue = round.peekFirst();
+                Task task = queue.poll();
+                if (null == task) {
+                    round.pollFirst();
+                    queue.inRound = false;
+                    queue.deficit = 0;
+                    releaseIfIdle(queue.tenant);
+                    continue;
+                }
+
+                // every try costs the same, so a turn is simply as many tries as the tenant's weight
+                if (queue.deficit == 0) {
+                    queue.deficit = queue.tenant.weight;
+                }
+                queue.deficit--;
+                if (queue.deficit == 0) {
+                    round.addLast(round.pollFirst());
+                }
+
+                remove(task);
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                Task task;
+                synchronized (lock) {
+                    task = poll();
+                    while (null == task) {
+                        if (shutdown) {
+                            return;
+                        }
+                        lock.wait();
+                        task = poll();
+                    }
+                }
+
+                try {
+                    task.task.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Scheduled retry4j task failed", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Scheduler worker {} was interrupted", Thread.currentThread().getName());
+        }
+    }
+
+    private void reject(Task task) {
+        try {
+            task.onRejected.run();
+        } catch (RuntimeException e) {
+            logger.warn("Rejecting a retry4j task failed", e);
+        }
+    }
+
+    /**
+     * Stops the workers once the tries they are running finish. Every try still backing off or queued, and every
+     * try scheduled afterwards, is rejected.
+     */
+    public void shutdown() {
+        List<Task> rejected = new ArrayList<>();
+        synchronized (lock) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+
+            for (Task task : pendingRetries) {
+                if (task.state == WAITING) {
+                    rejected.add(task);
+                }
+            }
+            for (ArrayDeque<TenantQueue> round : rounds) {
+                for (TenantQueue queue : round) {
+                    for (Task task : queue.tasks) {
+                        if (task.state == QUEUED) {
+                            rejected.add(task);
+                        }
+                    }
+                    queue.tasks.clear();
+                    queue.inRound = false;
+                }
+                round.clear();
+            }
+            rejected.forEach(this::remove);
+            lock.notifyAll();
+        }
+
+        if (ownsTimer) {
+            timer.stop();
+        }
+        rejected.forEach(this::reject);
+    }
+
+    public boolean isShutdown() {
+        synchronized (lock) {
+            return shutdown;
+        }
+    }
+
+    /**
+     * @return the number of retries that are backing off or queued
+     */
+    public int getPendingRetries() {
+        synchronized (lock) {
+            return pendingRetries.size();
+        }
+    }
+
+    /**
+     * @return the number of tries, first tries included, that are due and waiting for a worker
+     */
+    public int getQueuedTries() {
+        synchronized (lock) {
+            return queuedTries;
+        }
+    }
+
+    public int getPendingRetries(String tenant) {
+        synchronized (lock) {
+            Tenant active = tenants.get(tenant);
+            return null != active ? active.pendingRetries.size() : 0;
+        }
+    }
+
+    public int getQueuedTries(String tenant) {
+        synchronized (lock) {
+            Tenant active = tenants.get(tenant);
+            return null != active ? active.queuedTries : 0;
+        }
+    }
+
+    public long getShedRetries(RetryPriority priority) {
+        synchronized (lock) {
+            return shedRetries[priority.ordinal()];
+        }
+    }
+
+    public long getShedRetries() {
+        synchronized (lock) {
+            long total = 0;
+            for (long shed : shedRetries) {
+                total += shed;
+            }
+            return total;
+        }
+    }
+
+    public int getMaxPendingRetries() {
+        return maxPendingRetries;
+    }
+
+    public int getThreads() {
+        return workers.size();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RetryScheduler{");
+        sb.append("threads=").append(workers.size());
+        sb.append(", maxPendingRetries=").append(maxPendingRetries);
+        sb.append(", pendingRetries=").append(getPendingRetries());
+        sb.append(", queuedTries=").append(getQueuedTries());
+        sb.append(", shedRetries=").append(getShedRetries());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private final class Task implements Timeout {
+
+        private final RetryPriority priority;
+        private final Runnable task;
+        private final Runnable onRejected;
+
+        private Tenant tenant;
+        private long sequence;
+        private int state = WAITING;
+        private Timeout timeout;
+        private boolean cancelled;
+
+        private Task(RetryPriority priority, Runnable task, Runnable onRejected) {
+            this.priority = priority;
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (lock) {
+                if (state == DONE) {
+                    return false;
+                }
+                cancelled = true;
+                remove(this);
+                return true;
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            synchronized (lock) {
+                return cancelled;
+            }
+        }
+
+        @Override
+        public boolean isExpired() {
+            synchronized (lock) {
+                return state == DONE && !cancelled;
+            }
+        }
+
+        @Override
+        public Runnable getTask() {
+            return task;
+        }
+    }
+
+    private static final class Tenant {
+
+        private final String key;
+        private final TreeSet<Task> pendingRetries = new TreeSet<>(SHED_ORDER);
+        private final TenantQueue[] queues = new TenantQueue[RetryPriority.values().length];
+
+        private int weight;
+        private int queuedTries;
+
+        private Tenant(String key, int weight) {
+            this.key = key;
+            this.weight = weight;
+            for (int i = 0; i < queues.length; i++) {
+                queues[i] = new TenantQueue(this);
+            }
+        }
+    }
+
+    private static final class TenantQueue {
+
+        private final Tenant tenant;
+
+        // shed tasks are only marked as done and skipped when they reach the head of the queue
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+
+        private int deficit;
+        private boolean inRound;
+
+        private TenantQueue(Tenant tenant) {
+            this.tenant = tenant;
+        }
+
+        private Task poll() {
+            Task task;
+            do {
+                task = tasks.poll();
+            } while (null != task && task.state != QUEUED);
+            return task;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.evanlennick.retry4j.scope;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.exception.RetryScopeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans a request out into retried subtasks that succeed or fail together. Each subtask is an execution of an
+ * {@link AsyncCallExecutor}, with its own config and retries. As soon as one of them fails, or the scope's deadline
+ * passes while joining, the scope shuts down and cancels every subtask that is still running: backoffs that are
+ * waiting end right away, and tries that are running are interrupted, so no retries outlive the request that made
+ * them.
+ * <pre>
+ * try (RetryScope scope = new RetryScope(Duration.ofSeconds(2))) {
+ *     RetryScope.Subtask&lt;User&gt; user = scope.fork(userExecutor, () -&gt; users.get(id));
+ *     RetryScope.Subtask&lt;Cart&gt; cart = scope.fork(cartExecutor, () -&gt; carts.get(id));
+ *     scope.join();
+ *     return new Page(user.get(), cart.get());
+ * }
+ * </pre>
+ * A subtask fails if its execution ends with an exception or with a {@link Status} that was not successful, which
+ * is the case for executors built with an onFailureListener.
+ */
+public class RetryScope implements AutoCloseable {
+
+    private Logger logger = LoggerFactory.getLogger(RetryScope.class);
+
+    private final Object lock = new Object();
+
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private int runningSubtasks;
+    private Subtask<?> failedSubtask;
+    private boolean shutdown;
+
+    public RetryScope() {
+        this.deadlineNanos = 0;
+        this.hasDeadline = false;
+    }
+
+    /**
+     * @param timeout how long from now {@link #join()} waits for the subtasks before cancelling them
+     */
+    public RetryScope(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Scope timeout must not be negative: " + timeout);
+        }
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+        this.hasDeadline = true;
+    }
+
+    public <T> Subtask<T> fork(AsyncCallExecutor<T> executor, Callable<T> callable) {
+        return fork(executor, callable, null);
+    }
+
+    /**
+     * Starts an execution of the callable as a subtask of the scope. A subtask forked after the scope has shut down
+     * is never started, and is {@link Subtask.State#CANCELLED cancelled} right away.
+     */
+    public <T> Subtask<T> fork(AsyncCallExecutor<T> executor, Callable<T> callable, String callName) {
+        Subtask<T> subtask = new Subtask<>(callName);
+        synchronized (lock) {
+            if (shutdown) {
+                subtask.state = Subtask.State.CANCELLED;
+                return subtask;
+            }
+            subtasks.add(subtask);
+            runningSubtasks++;
+        }
+
+        CompletableFuture<Status<T>> future;
+        try {
+            future = executor.execute(callable, callName);
+        } catch (RuntimeException e) {
+            // eg. a shut down executor service rejecting the execution, which fails the subtask like any other error
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        boolean cancel;
+        synchronized (lock) {
+            subtask.future = future;
+            cancel = shutdown;
+        }
+        if (cancel) {
+            future.cancel(true);
+        }
+        future.whenComplete((status, t) -> onSubtaskFinished(subtask, status, t));
+        return subtask;
+    }
+
+    private <T> void onSubtaskFinished(Subtask<T> subtask, Status<T> status, Throwable t) {
+        boolean failed;
+        synchronized (lock) {
+            if (subtask.future.isCancelled()) {
+                subtask.state = Subtask.State.CANCELLED;
+            } else {
+                subtask.status = status;
+                subtask.exception = t;
+                subtask.state = null == t && status.wasSuccessful()
+                        ? Subtask.State.SUCCEEDED
+                        : Subtask.State.FAILED;
+            }
+            runningSubtasks--;
+
+            failed = subtask.state == Subtask.State.FAILED && !shutdown;
+            if (failed) {
+                failedSubtask = subtask;
+            }
+            lock.notifyAll();
+        }
+
+        if (failed) {
+            logger.debug("Subtask {} failed, shutting down its retry scope", subtask.callName);
+            shutdown();
+        }
+    }
+
+    /**
+     * Waits until every subtask has succeeded, or the scope has shut down and the subtasks that were still running
+     * have been cancelled.
+     *
+     * @throws RetryScopeException if a subtask failed, or if the deadline passed first, in which case the subtasks
+     *                             still running are cancelled
+     */
+    public void join() throws InterruptedException {
+        boolean deadlineExceeded = false;
+        synchronized (lock) {
+            while (runningSubtasks > 0) {
+                // once shut down, the remaining subtasks are being cancelled and finish right away
+                if (!hasDeadline || shutdown) {
+                    lock.wait();
+                    continue;
+                }
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    deadlineExceeded = true;
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remainingNanos);
+            }
+        }
+
+        if (deadlineExceeded) {
+            int running = shutdown();
+            throw new RetryScopeException(String.format("Retry scope deadline passed with %d subtasks still running!",
+                    running));
+        }
+
+        Subtask<?> failed;
+        synchronized (lock) {
+            failed = failedSubtask;
+        }
+        if (null != failed) {
+            throw new RetryScopeException(String.format("Subtask '%s' of the retry scope failed!", failed.callName),
+                    failed.exception, failed.status);
+        }
+    }
+
+    /**
+     * Cancels every subtask that is still running, and every subtask forked from now on.
+     *
+     * @return the number of subtasks that were cancelled
+     */
+    public int shutdown() {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        synchronized (lock) {
+            if (shutdown) {
+                return 0;
+            }
+            shutdown = true;
+            for (Subtask<?> subtask : subtasks) {
+                if (subtask.state == Subtask.State.RUNNING && null != subtask.future) {
+                    futures.add(subtask.future);
+                }
+            }
+            lock.notifyAll();
+        }
+
+        int cancelled = 0;
+        for (CompletableFuture<?> future : futures) {
+            if (future.cancel(true)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    public boolean isShutdown() {
+        synchronized (lock) {
+            return shutdown;
+        }
+    }
+
+    /**
+     * Shuts the scope down, so that nothing it forked keeps running after it is closed.
+     */
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    /**
+     * A retried execution forked in a {@link RetryScope}.
+     *
+     * @param <T> The type that is returned by the Callable (eg: Boolean, Void, Object, etc)
+     */
+    public static final class Subtask<T> {
+
+        public enum State {
+            RUNNING, SUCCEEDED, FAILED, CANCELLED
+        }
+
+        private final String callName;
+
+        private volatile State state = State.RUNNING;
+        private volatile CompletableFuture<Status<T>> future;
+        private volatile Status<T> status;
+        private volatile Throwable exception;
+
+        private Subtask(String callName) {
+            this.callName = callName;
+        }
+
+        /**
+         * @return the result of the subtask's execution
+         * @throws IllegalStateException if the subtask has not succeeded
+         */
+        public T get() {
+            if (state != State.SUCCEEDED) {
+                throw new IllegalStateException("Subtask '" + callName + "' has not succeeded: " + state);
+            }
+            return status.getResult();
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * @return the status the subtask's execution ended with, or null if it is running, was cancelled or ended
+         * with an exception before it had one
+         */
+        public Status<T> getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the exception the subtask's execution ended with, or null
+         */
+        public Throwable getException() {
+            return exception;
+        }
+
+        public String getCallName() {
+            return callName;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Subtask{");
+            sb.append("callName=").append(callName);
+            sb.append(", state=").append(state);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.evanlennick.retry4j.simulation;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+
+import java.time.Duration;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discrete event simulation of a population of clients retrying their calls, with a {@link RetryConfig}, against a
+ * server that can only handle a limited number of requests at a time. Runs in virtual time, so simulating minutes of
+ * traffic takes milliseconds, and lets backoff strategies and their parameters be compared before a config is changed
+ * in production.
+ * <p>
+ * Clients start calls at random (Poisson) intervals, whether or not earlier calls are still being retried, as
+ * independent clients do. The server accepts a request if fewer than its concurrency limit, scaled by the
+ * {@link ServerProfile}, are in progress, and answers it after the service time; otherwise the request fails after
+ * the failure latency. A failed try is retried after the wait the config's backoff strategy asks for, until the
+ * config's maximum number of tries is reached.
+ */
+public class RetryStormSimulation {
+
+    private static final int ATTEMPT = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+
+    private final RetryConfig config;
+
+    private int clients = 100;
+    private double callsPerSecondPerClient = 1;
+    private int serverConcurrency = 50;
+    private long serviceTimeMillis = 50;
+    private long failureLatencyMillis = 1;
+    private ServerProfile serverProfile = ServerProfile.steady();
+    private double recoveryThreshold = 0.99;
+    private long seed = 42;
+
+    public RetryStormSimulation(RetryConfig config) {
+        this.config = config;
+    }
+
+    public RetryStormSimulation clients(int clients, double callsPerSecondPerClient) {
+        if (clients <= 0 || callsPerSecondPerClient <= 0) {
+            throw new IllegalArgumentException("Must have clients making calls!");
+        }
+        this.clients = clients;
+        this.callsPerSecondPerClient = callsPerSecondPerClient;
+        return this;
+    }
+
+    /**
+     * @param concurrency number of requests the healthy server can work on at the same time
+     * @param serviceTime time the server takes to answer an accepted request
+     */
+    public RetryStormSimulation server(int concurrency, Duration serviceTime) {
+        if (concurrency <= 0 || serviceTime.isNegative() || serviceTime.isZero()) {
+            throw new IllegalArgumentException("Server must have a positive concurrency and service time!");
+        }
+        this.serverConcurrency = concurrency;
+        this.serviceTimeMillis = serviceTime.toMillis();
+        return this;
+    }
+
+    /**
+     * @param failureLatency time it takes a client to find out the server rejected a request
+     */
+    public RetryStormSimulation failureLatency(Duration failureLatency) {
+        if (failureLatency.isNegative()) {
+            throw new IllegalArgumentException("Failure latency must not be negative!");
+        }
+        this.failureLatencyMillis = failureLatency.toMillis();
+        return this;
+    }
+
+    public RetryStormSimulation serverProfile(ServerProfile serverProfile) {
+        this.serverProfile = serverProfile;
+        return this;
+    }
+
+    /**
+     * @param recoveryThreshold fraction of tries that have to succeed within a second for the system to count as
+     *                          recovered, see {@link SimulationReport#getTimeToRecovery()}
+     */
+    public RetryStormSimulation recoveryThreshold(double recoveryThreshold) {
+        if (recoveryThreshold <= 0 || recoveryThreshold > 1) {
+            throw new IllegalArgumentException("Recovery threshold must be above 0 and at most 1: "
+                    + recoveryThreshold);
+        }
+        this.recoveryThreshold = recoveryThreshold;
+        return this;
+    }
+
+    /**
+     * Seeds the arrival times of calls. Runs with the same seed and a deterministic backoff strategy give the same
+     * report; the random backoff strategies draw from their own source of randomness.
+     */
+    public RetryStormSimulation seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Simulates calls starting during the given duration, then lets the calls still being retried play out for up to
+     * the same duration again, so late calls are not cut short.
+     */
+    public SimulationReport run(Duration duration) {
+        long durationMillis = duration.toMillis();
+        if (durationMillis <= 0) {
+            throw new IllegalArgumentException("Duration must be positive: " + duration);
+        }
+
+        long endMillis = durationMillis * 2;
+        int seconds = (int) TimeUnit.MILLISECONDS.toSeconds(endMillis - 1) + 1;
+        SimulationReport report = new SimulationReport(seconds, capacityRestoredAt(durationMillis),
+                recoveryThreshold);
+
+        PriorityQueue<Event> events = new PriorityQueue<>();
+        Random random = new Random(seed);
+        double callsPerMilli = clients * callsPerSecondPerClient / 1000;
+        long sequence = 0;
+
+        // arrivals are generated up front, the retries they cause are interleaved through the queue
+        double arrival = 0;
+        while (true) {
+            arrival += -Math.log(1 - random.nextDouble()) / callsPerMilli;
+            if (arrival >= durationMillis) {
+                break;
+            }
+            long time = (long) arrival;
+            events.add(new Event(time, sequence++, ATTEMPT, new Call(time)));
+        }
+
+        int maxTries = config.getMaxNumberOfTries();
+        long delayMillis = config.getDelayBetweenRetries() != null ? config.getDelayBetweenRetries().toMillis() : 0;
+        Duration delay = Duration.ofMillis(delayMillis);
+        int inFlight = 0;
+
+        Event event;
+        while ((event = events.poll()) != null && event.time < endMillis) {
+            Call call = event.call;
+            int second = (int) (event.time / 1000);
+
+            switch (event.type) {
+                case ATTEMPT:
+                    if (call.tries == 0) {
+                        report.callStarted(second);
+                    }
+                    call.tries++;
+                    report.attempted(second);
+
+                    int limit = (int) (serverConcurrency * serverProfile.capacityFactor(event.time));
+                    if (inFlight < limit) {
+                        inFlight++;
+                        events.add(new Event(event.time + serviceTimeMillis, sequence++, SUCCEEDED, call));
+                    } else {
+                        events.add(new Event(event.time + failureLatencyMillis, sequence++, FAILED, call));
+                    }
+                    break;
+                case SUCCEEDED:
+                    inFlight--;
+                    report.attemptSucceeded(second);
+                    report.callSucceeded(event.time - call.startMillis);
+                    break;
+                case FAILED:
+                    report.attemptFailed(second);
+                    if (call.tries < maxTries) {
+                        long wait = config.getBackoffStrategy().getDurationToWait(call.tries, delay).toMillis();
+                        events.add(new Event(event.time + wait, sequence++, ATTEMPT, call));
+                    } else {
+                        report.callExhausted(event.time - call.startMillis);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event type: " + event.type);
+            }
+        }
+
+        // every call still going has exactly one event pending, including the one polled past the end
+        report.setUnfinishedCalls(events.size() + (null != event ? 1 : 0));
+        return report;
+    }
+
+    // the first whole second from which the server keeps its full capacity until the end of the arrivals
+    private long capacityRestoredAt(long durationMillis) {
+        long restoredAt = 0;
+        for (long time = 0; time < durationMillis; time += 10) {
+            if (serverProfile.capacityFactor(time) < 1.0) {
+                restoredAt = (time / 1000 + 1) * 1000;
+            }
+        }
+        return restoredAt;
+    }
+
+    private static final class Call {
+
+        private final long startMillis;
+        private int tries;
+
+        private Call(long startMillis) {
+            this.startMillis = startMillis;
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+
+        private final long time;
+        private final long sequence;
+        private final int type;
+        private final Call call;
+
+        private Event(long time, long sequence, int type, Call call) {
+            this.time = time;
+            this.sequence = sequence;
+            this.type = type;
+            this.call = call;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.evanlennick.retry4j.simulation;
+
+/**
+ * How much of its capacity the simulated server has at each point in virtual time.
+ */
+public interface ServerProfile {
+
+    /**
+     * @param timeMillis virtual time since the start of the simulation
+     * @return the fraction of the server's capacity that is available, between 0 (down) and 1 (healthy)
+     */
+    double capacityFactor(long timeMillis);
+
+    /**
+     * A server that is healthy for the whole simulation.
+     */
+    static ServerProfile steady() {
+        return timeMillis -> 1.0;
+    }
+
+    /**
+     * A server that goes down completely, then comes back.
+     *
+     * @param recoveryMillis time over which capacity ramps back up linearly once the outage is over, 0 to come back
+     *                       at full capacity at once
+     */
+    static ServerProfile outage(long startMillis, long durationMillis, long recoveryMillis) {
+        if (startMillis < 0 || durationMillis < 0 || recoveryMillis < 0) {
+            throw new IllegalArgumentException("Outage times must not be negative!");
+        }
+
+        long endMillis = startMillis + durationMillis;
+        return timeMillis -> {
+            if (timeMillis < startMillis) {
+                return 1.0;
+            } else if (timeMillis < endMillis) {
+                return 0.0;
+            } else if (timeMillis < endMillis + recoveryMillis) {
+                return (double) (timeMillis - endMillis) / recoveryMillis;
+            }
+            return 1.0;
+        };
+    }
+
+    /**
+     * A server that keeps running with only part of its capacity for a while, eg: after losing some of its nodes.
+     */
+    static ServerProfile degraded(long startMillis, long durationMillis, double capacityFactor) {
+        if (startMillis < 0 || durationMillis < 0) {
+            throw new IllegalArgumentException("Degradation times must not be negative!");
+        }
+        if (capacityFactor < 0 || capacityFactor > 1) {
+            throw new IllegalArgumentException("Capacity factor must be between 0 and 1: " + capacityFactor);
+        }
+
+        return timeMillis -> timeMillis >= startMillis && timeMillis < startMillis + durationMillis
+                ? capacityFactor : 1.0;
+    }
+}
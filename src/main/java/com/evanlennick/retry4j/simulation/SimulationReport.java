@@ -0,0 +1,174 @@
+package com.evanlennick.retry4j.simulation;
+
+import com.evanlennick.retry4j.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link RetryStormSimulation}. Per second figures are indexed by the second of virtual time in which
+ * they happened.
+ */
+public class SimulationReport {
+
+    private final long[] callsStarted;
+    private final long[] attempts;
+    private final long[] succeededAttempts;
+    private final long[] failedAttempts;
+
+    private final long capacityRestoredAtMillis;
+    private final double recoveryThreshold;
+
+    private final LatencyHistogram callLatency = new LatencyHistogram();
+
+    private long succeededCalls;
+    private long exhaustedCalls;
+    private long unfinishedCalls;
+
+    SimulationReport(int seconds, long capacityRestoredAtMillis, double recoveryThreshold) {
+        this.callsStarted = new long[seconds];
+        this.attempts = new long[seconds];
+        this.succeededAttempts = new long[seconds];
+        this.failedAttempts = new long[seconds];
+        this.capacityRestoredAtMillis = capacityRestoredAtMillis;
+        this.recoveryThreshold = recoveryThreshold;
+    }
+
+    void callStarted(int second) {
+        callsStarted[second]++;
+    }
+
+    void attempted(int second) {
+        attempts[second]++;
+    }
+
+    void attemptSucceeded(int second) {
+        succeededAttempts[second]++;
+    }
+
+    void attemptFailed(int second) {
+        failedAttempts[second]++;
+    }
+
+    void callSucceeded(long latencyMillis) {
+        succeededCalls++;
+        callLatency.record(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
+
+    void callExhausted(long latencyMillis) {
+        exhaustedCalls++;
+        callLatency.record(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
+
+    void setUnfinishedCalls(long unfinishedCalls) {
+        this.unfinishedCalls = unfinishedCalls;
+    }
+
+    public long getTotalCalls() {
+        return Arrays.stream(callsStarted).sum();
+    }
+
+    public long getTotalAttempts() {
+        return Arrays.stream(attempts).sum();
+    }
+
+    public long getSucceededCalls() {
+        return succeededCalls;
+    }
+
+    public long getExhaustedCalls() {
+        return exhaustedCalls;
+    }
+
+    /**
+     * @return calls that were still being retried when the simulation stopped
+     */
+    public long getUnfinishedCalls() {
+        return unfinishedCalls;
+    }
+
+    /**
+     * @return the number of requests the clients sent to the server in each second, first tries and retries alike
+     */
+    public long[] getOfferedLoad() {
+        return attempts.clone();
+    }
+
+    public long getPeakOfferedLoad() {
+        return Arrays.stream(attempts).max().orElse(0);
+    }
+
+    /**
+     * @return the number of calls the clients started in each second, the load there would be without retries
+     */
+    public long[] getCallsStarted() {
+        return callsStarted.clone();
+    }
+
+    public long[] getSucceededAttempts() {
+        return succeededAttempts.clone();
+    }
+
+    public long[] getFailedAttempts() {
+        return failedAttempts.clone();
+    }
+
+    /**
+     * @return requests sent per call started; 1.0 means no retries at all
+     */
+    public double getAmplificationFactor() {
+        long calls = getTotalCalls();
+        return calls == 0 ? 0 : (double) getTotalAttempts() / calls;
+    }
+
+    /**
+     * @return time from the server regaining its full capacity until the first second in which at least the recovery
+     * threshold of tries succeeded, zero if the server never lost capacity, or null if the clients never recovered
+     * before the simulation stopped
+     */
+    public Duration getTimeToRecovery() {
+        if (capacityRestoredAtMillis == 0) {
+            return Duration.ZERO;
+        }
+
+        for (int second = (int) (capacityRestoredAtMillis / 1000); second < attempts.length; second++) {
+            long finished = succeededAttempts[second] + failedAttempts[second];
+            if (finished > 0 && succeededAttempts[second] >= recoveryThreshold * finished) {
+                return Duration.ofMillis(Math.max(0, second * 1000L - capacityRestoredAtMillis));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return latency of finished calls, from the start of their first try until their last try succeeded or failed
+     */
+    public Duration getCallLatencyPercentile(double percentile) {
+        return Duration.ofNanos(callLatency.getValueAtPercentile(percentile));
+    }
+
+    public Duration getMaxCallLatency() {
+        return Duration.ofNanos(callLatency.getMaxNanos());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SimulationReport{");
+        sb.append("totalCalls=").append(getTotalCalls());
+        sb.append(", totalAttempts=").append(getTotalAttempts());
+        sb.append(", succeededCalls=").append(succeededCalls);
+        sb.append(", exhaustedCalls=").append(exhaustedCalls);
+        sb.append(", unfinishedCalls=").append(unfinishedCalls);
+        sb.append(", amplificationFactor=").append(getAmplificationFactor());
+        sb.append(", peakOfferedLoad=").append(getPeakOfferedLoad());
+        sb.append(", timeToRecovery=").append(getTimeToRecovery());
+        sb.append(", p50=").append(getCallLatencyPercentile(50));
+        sb.append(", p99=").append(getCallLatencyPercentile(99));
+        sb.append(", p999=").append(getCallLatencyPercentile(99.9));
+        sb.append(", max=").append(getMaxCallLatency());
+        sb.append('}');
+        return sb.toString();
+    }
+}
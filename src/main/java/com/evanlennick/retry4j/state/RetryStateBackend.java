@@ -0,0 +1,21 @@
+package com.evanlennick.retry4j.state;
+
+/**
+ * State that executors consult and update while retrying, keyed by the call name of the execution. Sharing one
+ * backend between executors lets them all see the same budget and health for a dependency, instead of each one
+ * retrying as if it were the only caller.
+ */
+public interface RetryStateBackend {
+
+    /**
+     * Takes one retry out of the budget for the key.
+     *
+     * @return false if the budget is used up and the execution should give up instead of retrying
+     */
+    boolean tryAcquireRetry(String key);
+
+    void recordSuccess(String key);
+
+    void recordFailure(String key);
+
+}
@@ -0,0 +1,342 @@
+package com.evanlennick.retry4j.state;
+
+import com.evanlennick.retry4j.exception.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link RetryStateBackend} that keeps its counters in a memory-mapped file, so every JVM on the host that opens the
+ * same file shares one retry budget and one set of failure counters per key, without any network service in between.
+ * <p>
+ * The file holds a fixed size open addressing table of cache line sized slots, one per key. Slots are claimed and
+ * updated with atomic operations directly on the mapped memory, which the operating system shares between all
+ * processes mapping the file. Each key may be retried at most {@code maxRetriesPerWindow} times per window, counted
+ * across all processes; the window and limit are not stored in the file, so every process should use the same ones.
+ * <p>
+ * Once the table is full, keys that do not have a slot yet are not tracked and their retries are always allowed.
+ */
+public class SharedRetryState implements RetryStateBackend, Closeable {
+
+    public static final int DEFAULT_MAX_KEYS = 1024;
+
+    private static final int MAGIC = 0x52344A53;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_SLOT_COUNT = 8;
+
+    private static final int SLOT_SIZE = 64;
+    private static final int SLOT_KEY_HASH = 0;
+    private static final int SLOT_BUDGET = 8;
+    private static final int SLOT_CONSECUTIVE_FAILURES = 16;
+    private static final int SLOT_TOTAL_FAILURES = 24;
+    private static final int SLOT_TOTAL_SUCCESSES = 32;
+    private static final int SLOT_LAST_FAILURE_TIME = 40;
+
+    // the budget is a single word so that it can be updated with one compare and swap: the window it belongs to in
+    // the upper bits and the number of retries taken in that window in the lower ones
+    private static final int BUDGET_COUNT_BITS = 24;
+    private static final long BUDGET_COUNT_MASK = (1L << BUDGET_COUNT_BITS) - 1;
+    private static final long BUDGET_WINDOW_MASK = (1L << (64 - BUDGET_COUNT_BITS)) - 1;
+
+    private static final long NO_SLOT = -1;
+
+    private Logger logger = LoggerFactory.getLogger(SharedRetryState.class);
+
+    private final Path file;
+    private final int maxRetriesPerWindow;
+    private final long windowMillis;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long baseAddress;
+    private final int slotCount;
+
+    // slots never move once claimed, so their addresses can be cached per process
+    private final ConcurrentMap<String, Long> slotAddresses = new ConcurrentHashMap<>();
+
+    private volatile boolean tableFullLogged;
+    private volatile boolean closed;
+
+    public SharedRetryState(Path file, int maxRetriesPerWindow, Duration window) {
+        this(file, maxRetriesPerWindow, window, DEFAULT_MAX_KEYS);
+    }
+
+    /**
+     * @param maxKeys the number of keys the file has room for, rounded up to a power of two. Only used when the file
+     *                is created; an existing file keeps its size.
+     */
+    public SharedRetryState(Path file, int maxRetriesPerWindow, Duration window, int maxKeys) {
+        if (!UnsafeAccess.isAvailable()) {
+            throw new IllegalStateException("Off-heap atomic operations are not available on this JVM!");
+        }
+        if (maxRetriesPerWindow < 0 || maxRetriesPerWindow > BUDGET_COUNT_MASK) {
+            throw new IllegalArgumentException("Max retries per window must be between 0 and "
+                    + BUDGET_COUNT_MASK + ": " + maxRetriesPerWindow);
+        }
+        if (window == null || window.toMillis() <= 0) {
+            throw new IllegalArgumentException("Window must be at least one millisecond: " + window);
+        }
+        if (maxKeys <= 0 || maxKeys > 1 << 24) {
+            throw new IllegalArgumentException("Max keys must be between 1 and " + (1 << 24) + ": " + maxKeys);
+        }
+
+        this.file = file;
+        this.maxRetriesPerWindow = maxRetriesPerWindow;
+        this.windowMillis = window.toMillis();
+
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to open shared retry state in " + file, e);
+        }
+        try {
+            this.buffer = mapAndInitialize(maxKeys);
+        } catch (IOException e) {
+            close();
+            throw new PersistenceException("Unable to map shared retry state in " + file, e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+
+        this.slotCount = buffer.getInt(HEADER_SLOT_COUNT);
+        this.baseAddress = UnsafeAccess.addressOf(buffer);
+        logger.debug("Opened shared retry state in {} with room for {} keys", file, slotCount);
+    }
+
+    @SuppressWarnings("try")
+    private MappedByteBuffer mapAndInitialize(int maxKeys) throws IOException {
+        // the file lock keeps two processes from initializing the same new file at once
+        try (FileLock ignored = channel.lock()) {
+            if (channel.size() > 0) {
+                MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                validateHeader(existing);
+                return existing;
+            }
+
+            int slots = Integer.bitCount(maxKeys) == 1 ? maxKeys : Integer.highestOneBit(maxKeys) << 1;
+            MappedByteBuffer created = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) slots * SLOT_SIZE);
+            created.putInt(HEADER_SLOT_COUNT, slots);
+            created.putInt(HEADER_VERSION, VERSION);
+            created.putInt(HEADER_MAGIC, MAGIC);
+            created.force();
+            return created;
+        }
+    }
+
+    private void validateHeader(MappedByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new PersistenceException(file + " is not a shared retry state file!");
+        }
+        if (buffer.getInt(HEADER_VERSION) != VERSION) {
+            throw new PersistenceException("Unsupported shared retry state version "
+                    + buffer.getInt(HEADER_VERSION) + " in " + file);
+        }
+        int slots = buffer.getInt(HEADER_SLOT_COUNT);
+        if (Integer.bitCount(slots) != 1 || buffer.capacity() != HEADER_SIZE + (long) slots * SLOT_SIZE) {
+            throw new PersistenceException("Shared retry state in " + file + " is corrupt!");
+        }
+    }
+
+    @Override
+    public boolean tryAcquireRetry(String key) {
+        long slot = slotFor(key, true);
+        if (slot == NO_SLOT) {
+            return true;
+        }
+
+        long address = slot + SLOT_BUDGET;
+        long window = (System.currentTimeMillis() / windowMillis) & BUDGET_WINDOW_MASK;
+        for (;;) {
+            long budget = UnsafeAccess.getLongVolatile(address);
+            long updated;
+            if (budget >>> BUDGET_COUNT_BITS != window) {
+                if (maxRetriesPerWindow == 0) {
+                    return false;
+                }
+                updated = window << BUDGET_COUNT_BITS | 1;
+            } else if ((budget & BUDGET_COUNT_MASK) >= maxRetriesPerWindow) {
+                return false;
+            } else {
+                updated = budget + 1;
+            }
+            if (UnsafeAccess.compareAndSwapLong(address, budget, updated)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void recordSuccess(String key) {
+        long slot = slotFor(key, true);
+        if (slot == NO_SLOT) {
+            return;
+        }
+
+        // skip the write when possible, every write to the slot bounces its cache line between processes
+        if (UnsafeAccess.getLongVolatile(slot + SLOT_CONSECUTIVE_FAILURES) != 0) {
+            UnsafeAccess.putLongVolatile(slot + SLOT_CONSECUTIVE_FAILURES, 0);
+        }
+        UnsafeAccess.getAndAddLong(slot + SLOT_TOTAL_SUCCESSES, 1);
+    }
+
+    @Override
+    public void recordFailure(String key) {
+        long slot = slotFor(key, true);
+        if (slot == NO_SLOT) {
+            return;
+        }
+
+        UnsafeAccess.getAndAddLong(slot + SLOT_CONSECUTIVE_FAILURES, 1);
+        UnsafeAccess.getAndAddLong(slot + SLOT_TOTAL_FAILURES, 1);
+        UnsafeAccess.putLongVolatile(slot + SLOT_LAST_FAILURE_TIME, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the number of retries the key may still make in the current window, across all processes
+     */
+    public int getRemainingRetries(String key) {
+        long slot = slotFor(key, false);
+        if (slot == NO_SLOT) {
+            return maxRetriesPerWindow;
+        }
+
+        long window = (System.currentTimeMillis() / windowMillis) & BUDGET_WINDOW_MASK;
+        long budget = UnsafeAccess.getLongVolatile(slot + SLOT_BUDGET);
+        if (budget >>> BUDGET_COUNT_BITS != window) {
+            return maxRetriesPerWindow;
+        }
+        return (int) Math.max(0, maxRetriesPerWindow - (budget & BUDGET_COUNT_MASK));
+    }
+
+    /**
+     * @return the number of failed tries for the key since its last successful one, across all processes
+     */
+    public long getConsecutiveFailures(String key) {
+        return read(key, SLOT_CONSECUTIVE_FAILURES);
+    }
+
+    public long getTotalFailures(String key) {
+        return read(key, SLOT_TOTAL_FAILURES);
+    }
+
+    public long getTotalSuccesses(String key) {
+        return read(key, SLOT_TOTAL_SUCCESSES);
+    }
+
+    /**
+     * @return epoch millis of the most recent failed try for the key, or 0 if it never failed
+     */
+    public long getLastFailureTime(String key) {
+        return read(key, SLOT_LAST_FAILURE_TIME);
+    }
+
+    private long read(String key, int field) {
+        long slot = slotFor(key, false);
+        return slot == NO_SLOT ? 0 : UnsafeAccess.getLongVolatile(slot + field);
+    }
+
+    /**
+     * Finds the slot of the key by linear probing from its hash, claiming the first empty slot if the key has none
+     * yet and {@code claim} is set. Two different keys with the same 64 bit hash share a slot.
+     */
+    private long slotFor(String key, boolean claim) {
+        if (closed) {
+            throw new PersistenceException("Shared retry state in " + file + " is closed!");
+        }
+
+        Long cached = slotAddresses.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long hash = hash(key);
+        int mask = slotCount - 1;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        for (int probes = 0; probes < slotCount; probes++) {
+            long slot = baseAddress + HEADER_SIZE + (long) index * SLOT_SIZE;
+            long slotHash = UnsafeAccess.getLongVolatile(slot + SLOT_KEY_HASH);
+            if (slotHash == 0) {
+                if (!claim) {
+                    return NO_SLOT;
+                }
+                if (UnsafeAccess.compareAndSwapLong(slot + SLOT_KEY_HASH, 0, hash)) {
+                    slotHash = hash;
+                } else {
+                    slotHash = UnsafeAccess.getLongVolatile(slot + SLOT_KEY_HASH);
+                }
+            }
+            if (slotHash == hash) {
+                slotAddresses.put(key, slot);
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (claim && !tableFullLogged) {
+            tableFullLogged = true;
+            logger.warn("Shared retry state in {} is full, key {} will not be tracked", file, key);
+        }
+        return NO_SLOT;
+    }
+
+    // 64 bit FNV-1a; zero marks an empty slot so it is never used as a hash
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getMaxRetriesPerWindow() {
+        return maxRetriesPerWindow;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(windowMillis);
+    }
+
+    public int getMaxKeys() {
+        return slotCount;
+    }
+
+    /**
+     * Closes the file. The mapping itself is released once the buffer is garbage collected, as Java offers no
+     * supported way of unmapping it earlier.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Unable to close shared retry state in {}", file, e);
+        }
+    }
+}
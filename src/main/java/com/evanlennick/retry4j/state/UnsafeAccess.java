@@ -0,0 +1,121 @@
+package com.evanlennick.retry4j.state;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Atomic operations on off-heap memory. A plain MappedByteBuffer only offers racy reads and writes, which is not
+ * enough for counters that other processes update at the same time, so the buffer's address is used directly.
+ * <p>
+ * sun.misc.Unsafe is looked up by name and called through constant method handles, which the JIT inlines just like
+ * direct calls, so that the build does not depend on, or warn about, the internal API.
+ */
+final class UnsafeAccess {
+
+    private static final MethodHandle GET_LONG;
+    private static final MethodHandle GET_LONG_VOLATILE;
+    private static final MethodHandle PUT_LONG_VOLATILE;
+    private static final MethodHandle COMPARE_AND_SWAP_LONG;
+    private static final MethodHandle GET_AND_ADD_LONG;
+    private static final long BUFFER_ADDRESS_OFFSET;
+
+    static {
+        MethodHandle getLong = null;
+        MethodHandle getLongVolatile = null;
+        MethodHandle putLongVolatile = null;
+        MethodHandle compareAndSwapLong = null;
+        MethodHandle getAndAddLong = null;
+        long addressOffset = -1;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            addressOffset = (long) lookup.findVirtual(unsafeClass, "objectFieldOffset",
+                    methodType(long.class, Field.class)).invoke(unsafe, Buffer.class.getDeclaredField("address"));
+            getLong = lookup.findVirtual(unsafeClass, "getLong",
+                    methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+            getLongVolatile = lookup.findVirtual(unsafeClass, "getLongVolatile",
+                    methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+            putLongVolatile = lookup.findVirtual(unsafeClass, "putLongVolatile",
+                    methodType(void.class, Object.class, long.class, long.class)).bindTo(unsafe);
+            compareAndSwapLong = lookup.findVirtual(unsafeClass, "compareAndSwapLong",
+                    methodType(boolean.class, Object.class, long.class, long.class, long.class)).bindTo(unsafe);
+            getAndAddLong = lookup.findVirtual(unsafeClass, "getAndAddLong",
+                    methodType(long.class, Object.class, long.class, long.class)).bindTo(unsafe);
+        } catch (Throwable t) {
+            getLong = null;
+        }
+        GET_LONG = getLong;
+        GET_LONG_VOLATILE = getLongVolatile;
+        PUT_LONG_VOLATILE = putLongVolatile;
+        COMPARE_AND_SWAP_LONG = compareAndSwapLong;
+        GET_AND_ADD_LONG = getAndAddLong;
+        BUFFER_ADDRESS_OFFSET = addressOffset;
+    }
+
+    private UnsafeAccess() {
+    }
+
+    static boolean isAvailable() {
+        return GET_LONG != null;
+    }
+
+    static long addressOf(ByteBuffer directBuffer) {
+        try {
+            return (long) GET_LONG.invokeExact((Object) directBuffer, BUFFER_ADDRESS_OFFSET);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long getLongVolatile(long address) {
+        try {
+            return (long) GET_LONG_VOLATILE.invokeExact((Object) null, address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putLongVolatile(long address, long value) {
+        try {
+            PUT_LONG_VOLATILE.invokeExact((Object) null, address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean compareAndSwapLong(long address, long expected, long value) {
+        try {
+            return (boolean) COMPARE_AND_SWAP_LONG.invokeExact((Object) null, address, expected, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long getAndAddLong(long address, long delta) {
+        try {
+            return (long) GET_AND_ADD_LONG.invokeExact((Object) null, address, delta);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // the Unsafe methods used here do not throw checked exceptions
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
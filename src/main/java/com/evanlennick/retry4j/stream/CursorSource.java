@@ -0,0 +1,20 @@
+package com.evanlennick.retry4j.stream;
+
+import java.util.Iterator;
+
+/**
+ * Opens a remote result set, such as a paged query, at a position a {@link RetryingIterator} has consumed it up to.
+ * An iterator that is also {@link AutoCloseable} is closed when it is abandoned after a failure.
+ *
+ * @param <T> the type of the elements
+ * @param <C> the type of the cursor, such as an offset or a page token
+ */
+@FunctionalInterface
+public interface CursorSource<T, C> {
+
+    /**
+     * @param cursor the position after the last element consumed, or the initial cursor if none has been
+     * @return an iterator over the elements after the cursor
+     */
+    Iterator<T> open(C cursor) throws Exception;
+}
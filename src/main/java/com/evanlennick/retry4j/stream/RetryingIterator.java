@@ -0,0 +1,180 @@
+package com.evanlennick.retry4j.stream;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.config.RetryConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over a remote result set that can fail part way through, reopening it from the last consumed position
+ * instead of from the start. Fetching each element is an execution of a {@link CallExecutor} with the given config:
+ * when the underlying iterator fails, it is abandoned, and the source is opened again at the cursor, with backoff,
+ * until the config runs out of tries at that position. Every element consumed advances the cursor, so a long scan
+ * over a flaky connection repeats no more work than the page in flight when it failed.
+ * <pre>
+ * try (RetryingIterator&lt;Row, Long&gt; rows = RetryingIterator.fromOffset(config, 0, query::from)) {
+ *     rows.stream().forEach(this::process);
+ * }
+ * </pre>
+ * Running out of tries ends the iteration with the {@link com.evanlennick.retry4j.exception.RetriesExhaustedException}
+ * of the last execution. The scan can be resumed later from {@link #getCursor()}, either by calling this iterator
+ * again or by creating a new one with that cursor.
+ * <p>
+ * A RetryingIterator is not thread-safe.
+ *
+ * @param <T> the type of the elements
+ * @param <C> the type of the cursor, such as an offset or a page token
+ */
+public class RetryingIterator<T, C> implements Iterator<T>, AutoCloseable {
+
+    private static final Object END = new Object();
+
+    private Logger logger = LoggerFactory.getLogger(RetryingIterator.class);
+
+    private final CallExecutor<Object> executor;
+    private final CursorSource<? extends T, C> source;
+    private final BiFunction<? super C, ? super T, ? extends C> advance;
+    private final Callable<Object> fetchNext = this::fetchNext;
+
+    private C cursor;
+    private Iterator<? extends T> delegate;
+    private Object next;
+    private boolean hasBuffered;
+    private boolean ended;
+    private int opens;
+
+    /**
+     * @param cursor  the position to start from
+     * @param advance returns the cursor after an element, given the cursor before it
+     */
+    public RetryingIterator(RetryConfig config, C cursor, CursorSource<? extends T, C> source,
+                            BiFunction<? super C, ? super T, ? extends C> advance) {
+        if (null == source || null == advance) {
+            throw new IllegalArgumentException("Source and cursor advance must not be null");
+        }
+        this.executor = new CallExecutorBuilder<>().config(config).build();
+        this.cursor = cursor;
+        this.source = source;
+        this.advance = advance;
+    }
+
+    /**
+     * @return an iterator whose cursor is the number of elements consumed, starting from the given offset
+     */
+    public static <T> RetryingIterator<T, Long> fromOffset(RetryConfig config, long offset,
+                                                           CursorSource<? extends T, Long> source) {
+        return new RetryingIterator<>(config, offset, source, (position, element) -> position + 1);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (hasBuffered) {
+            return true;
+        }
+        if (ended) {
+            return false;
+        }
+
+        Object fetched = executor.execute(fetchNext).getResult();
+        if (fetched == END) {
+            ended = true;
+            closeDelegate();
+            return false;
+        }
+        next = fetched;
+        hasBuffered = true;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = (T) next;
+        next = null;
+        hasBuffered = false;
+        cursor = advance.apply(cursor, element);
+        return element;
+    }
+
+    private Object fetchNext() throws Exception {
+        if (null == delegate) {
+            opens++;
+            logger.trace("Opening source at cursor {}", cursor);
+            delegate = source.open(cursor);
+            if (null == delegate) {
+                throw new IllegalStateException("Source returned no iterator for cursor " + cursor);
+            }
+        }
+        try {
+            return delegate.hasNext() ? delegate.next() : END;
+        } catch (Exception e) {
+            logger.debug("Source failed after cursor {}, reopening it", cursor);
+            closeDelegate();
+            throw e;
+        }
+    }
+
+    private void closeDelegate() {
+        Iterator<? extends T> abandoned = delegate;
+        delegate = null;
+        if (abandoned instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) abandoned).close();
+            } catch (Exception e) {
+                logger.debug("Unable to close source iterator", e);
+            }
+        }
+    }
+
+    /**
+     * @return a spliterator over the remaining elements, which advances this iterator
+     */
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+    }
+
+    /**
+     * @return a sequential stream of the remaining elements, which closes this iterator when it is closed
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
+    /**
+     * @return the position after the last element consumed
+     */
+    public C getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return the number of times the source was opened, once plus once per failure
+     */
+    public int getOpens() {
+        return opens;
+    }
+
+    /**
+     * Closes the iterator of the source that is open, if any, and ends the iteration.
+     */
+    @Override
+    public void close() {
+        ended = true;
+        hasBuffered = false;
+        next = null;
+        closeDelegate();
+    }
+}
@@ -0,0 +1,488 @@
+package com.evanlennick.retry4j.timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer built for holding very large numbers of pending retries. Scheduled tasks are hashed into the buckets of a
+ * fixed size wheel which a single worker thread advances one tick at a time, so scheduling and cancelling a task are
+ * both O(1) regardless of how many tasks are pending.
+ * <p>
+ * Tasks are never run before their deadline. They may run up to one tick duration plus the configured coalescing
+ * tolerance after it: when a tolerance is configured the worker wakes at most once per tolerance window and expires
+ * every tick that became due in the meantime in one pass. The worker parks without any timed wakeups while nothing
+ * is scheduled.
+ * <p>
+ * Tasks run on the timer's worker thread and should do nothing more expensive than handing work off to another
+ * thread or executor.
+ */
+public class HashedWheelTimer {
+
+    public static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(10);
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private static final int MAX_TICKS_PER_WHEEL = 1 << 30;
+    private static final int MAX_TIMEOUTS_TRANSFERRED_PER_TICK = 100_000;
+
+    private static final int WORKER_STATE_INIT = 0;
+    private static final int WORKER_STATE_STARTED = 1;
+    private static final int WORKER_STATE_STOPPED = 2;
+
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    private Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final long coalescingToleranceNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<WheelTimeout> timeoutsToAdd = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> timeoutsToRemove = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_STATE_INIT);
+    private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
+    private final Set<Timeout> unprocessedTimeouts = new HashSet<>();
+    private final Thread workerThread;
+
+    private volatile long startTime;
+    private volatile boolean workerIdle;
+
+    public HashedWheelTimer() {
+        this(DEFAULT_TICK_DURATION, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    public HashedWheelTimer(Duration tickDuration, int ticksPerWheel) {
+        this(tickDuration, ticksPerWheel, Duration.ZERO);
+    }
+
+    /**
+     * @param tickDuration        the resolution of the timer; deadlines are rounded up to a multiple of this
+     * @param ticksPerWheel       the number of buckets in the wheel, rounded up to a power of two
+     * @param coalescingTolerance how late a task may run so that its wakeup can be shared with other tasks
+     */
+    public HashedWheelTimer(Duration tickDuration, int ticksPerWheel, Duration coalescingTolerance) {
+        Objects.requireNonNull(tickDuration, "tickDuration");
+        Objects.requireNonNull(coalescingTolerance, "coalescingTolerance");
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > MAX_TICKS_PER_WHEEL) {
+            throw new IllegalArgumentException("Ticks per wheel must be between 1 and " + MAX_TICKS_PER_WHEEL);
+        }
+        if (coalescingTolerance.isNegative()) {
+            throw new IllegalArgumentException("Coalescing tolerance must not be negative: " + coalescingTolerance);
+        }
+
+        this.tickNanos = tickDuration.toNanos();
+        this.coalescingToleranceNanos = coalescingTolerance.toNanos();
+        this.wheel = createWheel(ticksPerWheel);
+        this.mask = wheel.length - 1;
+
+        this.workerThread = new Thread(new Worker(), "retry4j-timer-" + INSTANCE_COUNTER.incrementAndGet());
+        this.workerThread.setDaemon(true);
+    }
+
+    private static Bucket[] createWheel(int ticksPerWheel) {
+        int normalizedTicksPerWheel = 1;
+        while (normalizedTicksPerWheel < ticksPerWheel) {
+            normalizedTicksPerWheel <<= 1;
+        }
+
+        Bucket[] wheel = new Bucket[normalizedTicksPerWheel];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        return wheel;
+    }
+
+    public Timeout newTimeout(Runnable task, Duration delay) {
+        return newTimeout(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules the task to run once after the given delay. The task is queued for the worker thread to place in the
+     * wheel on its next tick, so this never blocks on or contends with the worker.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task, "task");
+        Objects.requireNonNull(unit, "unit");
+
+        start();
+
+        long deadline = System.nanoTime() + unit.toNanos(delay) - startTime;
+        if (delay > 0 && deadline < 0) {
+            deadline = Long.MAX_VALUE;
+        }
+
+        WheelTimeout timeout = new WheelTimeout(this, task, deadline);
+        pendingTimeouts.incrementAndGet();
+        timeoutsToAdd.add(timeout);
+
+        if (workerIdle) {
+            LockSupport.unpark(workerThread);
+        }
+        return timeout;
+    }
+
+    private void start() {
+        switch (workerState.get()) {
+            case WORKER_STATE_INIT:
+                if (workerState.compareAndSet(WORKER_STATE_INIT, WORKER_STATE_STARTED)) {
+                    workerThread.start();
+                }
+                break;
+            case WORKER_STATE_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("Cannot schedule a task on a stopped timer!");
+        }
+
+        boolean interrupted = false;
+        while (startTime == 0) {
+            try {
+                startTimeInitialized.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the worker thread. Tasks that have not expired yet are not run.
+     *
+     * @return the timeouts that were still pending when the timer stopped
+     */
+    public Set<Timeout> stop() {
+        if (Thread.currentThread() == workerThread) {
+            throw new IllegalStateException("A timer cannot be stopped from one of its own tasks!");
+        }
+
+        if (workerState.getAndSet(WORKER_STATE_STOPPED) != WORKER_STATE_STARTED) {
+            return Collections.emptySet();
+        }
+
+        boolean interrupted = false;
+        while (workerThread.isAlive()) {
+            LockSupport.unpark(workerThread);
+            try {
+                workerThread.join(100);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return Collections.unmodifiableSet(unprocessedTimeouts);
+    }
+
+    /**
+     * @return the number of scheduled tasks that have neither expired nor been cancelled
+     */
+    public long pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    public Duration getTickDuration() {
+        return Duration.ofNanos(tickNanos);
+    }
+
+    public int getTicksPerWheel() {
+        return wheel.length;
+    }
+
+    public Duration getCoalescingTolerance() {
+        return Duration.ofNanos(coalescingToleranceNanos);
+    }
+
+    private final class Worker implements Runnable {
+
+        private long tick;
+
+        private long timeoutsInWheel;
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            startTime = now == 0 ? 1 : now;
+            startTimeInitialized.countDown();
+
+            long nextWakeup = 0;
+            while (workerState.get() == WORKER_STATE_STARTED) {
+                long elapsed = waitUntil(nextWakeup);
+                if (elapsed < 0) {
+                    break;
+                }
+
+                processCancelledTimeouts();
+
+                long currentTick = elapsed / tickNanos;
+                if (timeoutsInWheel == 0) {
+                    // nothing to expire in between, so skip the ticks that passed while idle
+                    tick = Math.max(tick, currentTick);
+                }
+                transferTimeoutsToBuckets();
+
+                for (; tick <= currentTick; tick++) {
+                    expireTimeouts(wheel[(int) (tick & mask)]);
+                }
+
+                nextWakeup = Math.max(tick * tickNanos, elapsed + coalescingToleranceNanos);
+            }
+
+            collectUnprocessedTimeouts();
+        }
+
+        /**
+         * @return the nanos elapsed since the timer started once the wakeup time is reached, or -1 if the timer was
+         * stopped while waiting
+         */
+        private long waitUntil(long wakeup) {
+            for (;;) {
+                if (workerState.get() != WORKER_STATE_STARTED) {
+                    return -1;
+                }
+
+                if (pendingTimeouts.get() == 0) {
+                    workerIdle = true;
+                    if (pendingTimeouts.get() == 0 && workerState.get() == WORKER_STATE_STARTED) {
+                        LockSupport.park(HashedWheelTimer.this);
+                    }
+                    workerIdle = false;
+                    continue;
+                }
+
+                long elapsed = System.nanoTime() - startTime;
+                long sleepNanos = wakeup - elapsed;
+                if (sleepNanos <= 0) {
+                    return elapsed;
+                }
+                LockSupport.parkNanos(HashedWheelTimer.this, sleepNanos);
+            }
+        }
+
+        private void transferTimeoutsToBuckets() {
+            for (int i = 0; i < MAX_TIMEOUTS_TRANSFERRED_PER_TICK; i++) {
+                WheelTimeout timeout = timeoutsToAdd.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.state() == WheelTimeout.ST_CANCELLED) {
+                    continue;
+                }
+
+                long expirationTick = timeout.deadline / tickNanos;
+                if (timeout.deadline % tickNanos != 0) {
+                    expirationTick++;
+                }
+                timeout.remainingRounds = Math.max(0, (expirationTick - tick) / wheel.length);
+
+                long bucketTick = Math.max(expirationTick, tick);
+                wheel[(int) (bucketTick & mask)].add(timeout);
+                timeoutsInWheel++;
+            }
+        }
+
+        private void processCancelledTimeouts() {
+            for (;;) {
+                WheelTimeout timeout = timeoutsToRemove.poll();
+                if (timeout == null) {
+                    return;
+                }
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                    timeoutsInWheel--;
+                }
+            }
+        }
+
+        private void expireTimeouts(Bucket bucket) {
+            WheelTimeout timeout = bucket.head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    bucket.remove(timeout);
+                    timeoutsInWheel--;
+                } else if (timeout.remainingRounds <= 0) {
+                    bucket.remove(timeout);
+                    timeoutsInWheel--;
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void collectUnprocessedTimeouts() {
+            for (Bucket bucket : wheel) {
+                bucket.drainTo(unprocessedTimeouts);
+            }
+            for (;;) {
+                WheelTimeout timeout = timeoutsToAdd.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.state() == WheelTimeout.ST_INIT) {
+                    unprocessedTimeouts.add(timeout);
+                }
+            }
+            timeoutsToRemove.clear();
+        }
+    }
+
+    private static final class WheelTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE_UPDATER
+                = AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+
+        @SuppressWarnings("unused")
+        private volatile int state = ST_INIT;
+
+        // only touched by the worker thread
+        private long remainingRounds;
+        private WheelTimeout next;
+        private WheelTimeout prev;
+        private Bucket bucket;
+
+        WheelTimeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        int state() {
+            return state;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pendingTimeouts.decrementAndGet();
+            timer.timeoutsToRemove.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        @Override
+        public Runnable getTask() {
+            return task;
+        }
+
+        void expire() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.pendingTimeouts.decrementAndGet();
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                timer.logger.warn("Retry4j timer task {} threw an exception", task, t);
+            }
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Timeout{");
+            sb.append("task=").append(task);
+            sb.append(", state=").append(state);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts hashed to one slot of the wheel, so a cancelled timeout can be unlinked in
+     * constant time.
+     */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+
+            if (timeout == head) {
+                if (timeout == tail) {
+                    tail = null;
+                    head = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void drainTo(Set<Timeout> set) {
+            while (head != null) {
+                WheelTimeout timeout = head;
+                remove(timeout);
+                if (timeout.state() == WheelTimeout.ST_INIT) {
+                    set.add(timeout);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.evanlennick.retry4j.timer;
+
+/**
+ * A handle to a task that was scheduled on a {@link HashedWheelTimer}, or on a
+ * {@link com.evanlennick.retry4j.scheduler.RetryScheduler}.
+ */
+public interface Timeout {
+
+    /**
+     * Attempts to cancel the scheduled task. Cancellation is O(1); the task is unlinked from its wheel bucket by the
+     * timer's worker thread on its next tick.
+     *
+     * @return true if the task was cancelled, false if it had already expired or been cancelled
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    boolean isExpired();
+
+    /**
+     * @return the task that this timeout will run (or ran) when it expires
+     */
+    Runnable getTask();
+
+}
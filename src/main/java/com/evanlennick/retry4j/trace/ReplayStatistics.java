@@ -0,0 +1,115 @@
+package com.evanlennick.retry4j.trace;
+
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.metrics.LatencyHistogram;
+
+import java.time.Duration;
+
+/**
+ * Outcomes, tries and latency of a set of executions, either as recorded in a trace or as replayed against another
+ * config by {@link TraceReplay}.
+ */
+public final class ReplayStatistics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private long executions;
+    private long succeeded;
+    private long exhausted;
+    private long rejected;
+    private long aborted;
+    private long unresolved;
+    private long attempts;
+
+    void record(int outcome, int tries, long latencyNanos) {
+        executions++;
+        attempts += tries;
+        latency.record(latencyNanos);
+        if (outcome == AttemptObserver.SUCCEEDED) {
+            succeeded++;
+        } else if (outcome == AttemptObserver.ABORTED) {
+            aborted++;
+        } else if (outcome == AttemptObserver.REJECTED) {
+            rejected++;
+        } else {
+            exhausted++;
+        }
+    }
+
+    void recordUnresolved() {
+        unresolved++;
+    }
+
+    /**
+     * @return executions whose outcome is known, the unresolved ones are not included
+     */
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * @return executions that ended because their next try was shed, only ever recorded ones
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getAborted() {
+        return aborted;
+    }
+
+    /**
+     * @return executions the replay could not finish because they would have kept retrying past the end of the trace
+     */
+    public long getUnresolved() {
+        return unresolved;
+    }
+
+    public long getTotalAttempts() {
+        return attempts;
+    }
+
+    public double getSuccessRate() {
+        return executions == 0 ? 0 : (double) succeeded / executions;
+    }
+
+    public double getMeanAttempts() {
+        return executions == 0 ? 0 : (double) attempts / executions;
+    }
+
+    public Duration getMeanLatency() {
+        return executions == 0 ? Duration.ZERO : Duration.ofNanos(latency.getTotalNanos() / executions);
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     */
+    public Duration getLatencyPercentile(double percentile) {
+        return Duration.ofNanos(latency.getValueAtPercentile(percentile));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReplayStatistics{");
+        sb.append("executions=").append(executions);
+        sb.append(", succeeded=").append(succeeded);
+        sb.append(", exhausted=").append(exhausted);
+        sb.append(", rejected=").append(rejected);
+        sb.append(", aborted=").append(aborted);
+        sb.append(", unresolved=").append(unresolved);
+        sb.append(", successRate=").append(getSuccessRate());
+        sb.append(", meanAttempts=").append(getMeanAttempts());
+        sb.append(", meanLatency=").append(getMeanLatency());
+        sb.append(", p99=").append(getLatencyPercentile(99));
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.evanlennick.retry4j.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The executions read back from a trace file by {@link TraceReader}, in the order they finished.
+ */
+public final class RetryTrace {
+
+    private final List<TracedExecution> executions;
+    private final long incompleteExecutions;
+
+    RetryTrace(List<TracedExecution> executions, long incompleteExecutions) {
+        this.executions = Collections.unmodifiableList(new ArrayList<>(executions));
+        this.incompleteExecutions = incompleteExecutions;
+    }
+
+    public List<TracedExecution> getExecutions() {
+        return executions;
+    }
+
+    /**
+     * @return the executions of a single call name, null for executions without one
+     */
+    public RetryTrace forCall(String callName) {
+        return new RetryTrace(executions.stream()
+                .filter(execution -> Objects.equals(callName, execution.getCallName()))
+                .collect(Collectors.toList()), 0);
+    }
+
+    /**
+     * @return executions that could not be read back whole, see {@link TraceReader}
+     */
+    public long getIncompleteExecutions() {
+        return incompleteExecutions;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RetryTrace{");
+        sb.append("executions=").append(executions.size());
+        sb.append(", incompleteExecutions=").append(incompleteExecutions);
+        sb.append('}');
+        return sb.toString();
+    }
+}
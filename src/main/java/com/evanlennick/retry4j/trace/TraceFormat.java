@@ -0,0 +1,33 @@
+package com.evanlennick.retry4j.trace;
+
+/**
+ * Layout of trace files. After the header, a trace is a sequence of records that each start with a type byte. Names
+ * (call names and exception class names) are written once, in a NAME record, and referred to by id afterwards; id -1
+ * stands for no name.
+ * <pre>
+ * header:    int magic, int version
+ * NAME:      int id, short length, UTF-8 bytes
+ * ATTEMPT:   int callNameId, int attempt, long startNanos, long endNanos, byte outcome, int exceptionClassId
+ * BACKOFF:   int callNameId, int nextAttempt, long startNanos, long endNanos
+ * EXECUTION: int callNameId, int totalTries, long startNanos, long firstTryStartNanos, long endNanos, byte outcome
+ * </pre>
+ */
+final class TraceFormat {
+
+    static final int MAGIC = 0x52344a54;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 8;
+
+    static final byte NAME = 1;
+    static final byte ATTEMPT = 2;
+    static final byte BACKOFF = 3;
+    static final byte EXECUTION = 4;
+
+    static final int NO_NAME = -1;
+
+    static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+    static final int MAX_RECORD_SIZE = 1 + 4 + 2 + MAX_NAME_BYTES;
+
+    private TraceFormat() {
+    }
+}
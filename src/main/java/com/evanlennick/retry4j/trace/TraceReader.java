@@ -0,0 +1,147 @@
+package com.evanlennick.retry4j.trace;
+
+import com.evanlennick.retry4j.exception.PersistenceException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads back trace files written by {@link TraceRecorder}.
+ * <p>
+ * The records of concurrent executions are interleaved in the file and do not carry an execution id. They are put back
+ * together using the timestamps executors share between consecutive events: an execution records the instant its
+ * first try started, a backoff starts when the previous try ended and ends when the next try starts. Executions that
+ * had not finished when the trace was written, or whose chain cannot be followed, are counted as incomplete.
+ */
+public final class TraceReader {
+
+    private TraceReader() {
+    }
+
+    public static RetryTrace read(Path file) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            return read(new DataInputStream(in), file);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to read trace " + file, e);
+        }
+    }
+
+    private static RetryTrace read(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != TraceFormat.MAGIC) {
+            throw new PersistenceException(file + " is not a retry4j trace!");
+        }
+        int version = in.readInt();
+        if (version != TraceFormat.VERSION) {
+            throw new PersistenceException("Unsupported trace version " + version + " in " + file);
+        }
+
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, Map<Long, TracedAttempt>> attemptsByStart = new HashMap<>();
+        Map<Integer, Map<Long, Long>> backoffEndByStart = new HashMap<>();
+        List<long[]> executionRecords = new ArrayList<>();
+
+        try {
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case TraceFormat.NAME: {
+                        int id = in.readInt();
+                        byte[] bytes = new byte[in.readUnsignedShort()];
+                        in.readFully(bytes);
+                        names.put(id, new String(bytes, StandardCharsets.UTF_8));
+                        break;
+                    }
+                    case TraceFormat.ATTEMPT: {
+                        int callNameId = in.readInt();
+                        int attempt = in.readInt();
+                        long start = in.readLong();
+                        long end = in.readLong();
+                        int outcome = in.readByte();
+                        String exceptionClassName = names.get(in.readInt());
+                        attemptsByStart.computeIfAbsent(callNameId, id -> new HashMap<>())
+                                .put(start, new TracedAttempt(attempt, start, end, outcome, exceptionClassName));
+                        break;
+                    }
+                    case TraceFormat.BACKOFF: {
+                        int callNameId = in.readInt();
+                        in.readInt();
+                        long start = in.readLong();
+                        long end = in.readLong();
+                        backoffEndByStart.computeIfAbsent(callNameId, id -> new HashMap<>()).put(start, end);
+                        break;
+                    }
+                    case TraceFormat.EXECUTION: {
+                        int callNameId = in.readInt();
+                        int totalTries = in.readInt();
+                        long start = in.readLong();
+                        long firstTryStart = in.readLong();
+                        long end = in.readLong();
+                        int outcome = in.readByte();
+                        executionRecords.add(new long[]{callNameId, totalTries, start, firstTryStart, end, outcome});
+                        break;
+                    }
+                    default:
+                        throw new PersistenceException("Unknown record type " + type + " in " + file);
+                }
+            }
+        } catch (EOFException e) {
+            // end of the trace, or a record cut short by a crash
+        }
+
+        List<TracedExecution> executions = new ArrayList<>(executionRecords.size());
+        long incomplete = 0;
+        for (long[] record : executionRecords) {
+            int callNameId = (int) record[0];
+            TracedExecution execution = assemble(names.get(callNameId), (int) record[1], record[2], record[3],
+                    record[4], (int) record[5], attemptsByStart.get(callNameId), backoffEndByStart.get(callNameId));
+            if (null != execution) {
+                executions.add(execution);
+            } else {
+                incomplete++;
+            }
+        }
+
+        // first tries left over belong to executions that were still running when the trace was written
+        for (Map<Long, TracedAttempt> remaining : attemptsByStart.values()) {
+            for (TracedAttempt attempt : remaining.values()) {
+                if (attempt.getAttempt() == 1) {
+                    incomplete++;
+                }
+            }
+        }
+
+        return new RetryTrace(executions, incomplete);
+    }
+
+    private static TracedExecution assemble(String callName, int totalTries, long start, long firstTryStart,
+                                            long end, int outcome, Map<Long, TracedAttempt> attemptsByStart,
+                                            Map<Long, Long> backoffEndByStart) {
+        if (null == attemptsByStart || totalTries <= 0) {
+            return null;
+        }
+
+        List<TracedAttempt> attempts = new ArrayList<>(totalTries);
+        TracedAttempt attempt = attemptsByStart.remove(firstTryStart);
+        while (null != attempt) {
+            attempts.add(attempt);
+            // counted from the first try in this JVM, which is not try 1 for resumed executions
+            if (attempt.getAttempt() == totalTries) {
+                return new TracedExecution(callName, start, end, outcome, attempts);
+            }
+
+            Long nextStart = null != backoffEndByStart ? backoffEndByStart.remove(attempt.getEndNanos()) : null;
+            attempt = null != nextStart ? attemptsByStart.remove(nextStart) : null;
+        }
+        return null;
+    }
+}
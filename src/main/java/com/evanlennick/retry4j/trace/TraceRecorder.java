@@ -0,0 +1,223 @@
+package com.evanlennick.retry4j.trace;
+
+import com.evanlennick.retry4j.exception.PersistenceException;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records every try, backoff and execution of the executors it is registered on to a compact binary trace file, which
+ * {@link TraceReader} reads back and {@link TraceReplay} re-evaluates against other configs. Register it as the
+ * executor's {@link AttemptObserver}:
+ * <pre>
+ * TraceRecorder recorder = new TraceRecorder(Paths.get("retries.trace"));
+ * new CallExecutorBuilder&lt;Boolean&gt;().config(config).attemptObserver(recorder).build();
+ * </pre>
+ * Records are appended to an in-memory buffer that is written out when full, on {@link #flush()} and on
+ * {@link #close()}, so a crash loses at most the buffered records. Call names and exception class names are written
+ * once and referred to by id afterwards. A failure to write disables the recorder rather than failing calls.
+ */
+public class TraceRecorder implements AttemptObserver, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private Logger logger = LoggerFactory.getLogger(TraceRecorder.class);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private final Map<String, Integer> callNameIds = new HashMap<>();
+    private final Map<Class<?>, Integer> exceptionClassIds = new HashMap<>();
+    private int nextNameId;
+
+    private long recordedAttempts;
+    private boolean failed;
+    private boolean closed;
+
+    public TraceRecorder(Path file) {
+        this(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TraceRecorder(Path file, int bufferSize) {
+        if (bufferSize < TraceFormat.MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Buffer must hold at least " + TraceFormat.MAX_RECORD_SIZE
+                    + " bytes: " + bufferSize);
+        }
+
+        this.file = file;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to create trace " + file, e);
+        }
+
+        buffer.putInt(TraceFormat.MAGIC);
+        buffer.putInt(TraceFormat.VERSION);
+    }
+
+    @Override
+    public synchronized void onAttempt(String callName, int attempt, long startNanos, long endNanos, int outcome,
+                                       Class<? extends Throwable> exceptionClass) {
+        if (closed || failed) {
+            return;
+        }
+
+        int callNameId = callNameId(callName);
+        int exceptionClassId = exceptionClassId(exceptionClass);
+        ensureRoom(1 + 4 + 4 + 8 + 8 + 1 + 4);
+        buffer.put(TraceFormat.ATTEMPT)
+                .putInt(callNameId)
+                .putInt(attempt)
+                .putLong(startNanos)
+                .putLong(endNanos)
+                .put((byte) outcome)
+                .putInt(exceptionClassId);
+        recordedAttempts++;
+    }
+
+    @Override
+    public synchronized void onBackoff(String callName, int nextAttempt, long startNanos, long endNanos) {
+        if (closed || failed) {
+            return;
+        }
+
+        int callNameId = callNameId(callName);
+        ensureRoom(1 + 4 + 4 + 8 + 8);
+        buffer.put(TraceFormat.BACKOFF)
+                .putInt(callNameId)
+                .putInt(nextAttempt)
+                .putLong(startNanos)
+                .putLong(endNanos);
+    }
+
+    @Override
+    public void onExecution(String callName, int totalTries, long startNanos, long endNanos, int outcome) {
+        onExecution(callName, totalTries, startNanos, startNanos, endNanos, outcome);
+    }
+
+    @Override
+    public synchronized void onExecution(String callName, int totalTries, long startNanos, long firstTryStartNanos,
+                                         long endNanos, int outcome) {
+        if (closed || failed) {
+            return;
+        }
+
+        int callNameId = callNameId(callName);
+        ensureRoom(1 + 4 + 4 + 8 + 8 + 8 + 1);
+        buffer.put(TraceFormat.EXECUTION)
+                .putInt(callNameId)
+                .putInt(totalTries)
+                .putLong(startNanos)
+                .putLong(firstTryStartNanos)
+                .putLong(endNanos)
+                .put((byte) outcome);
+    }
+
+    private int callNameId(String callName) {
+        if (null == callName) {
+            return TraceFormat.NO_NAME;
+        }
+
+        Integer id = callNameIds.get(callName);
+        if (null == id) {
+            id = writeName(callName);
+            callNameIds.put(callName, id);
+        }
+        return id;
+    }
+
+    private int exceptionClassId(Class<?> exceptionClass) {
+        if (null == exceptionClass) {
+            return TraceFormat.NO_NAME;
+        }
+
+        Integer id = exceptionClassIds.get(exceptionClass);
+        if (null == id) {
+            id = writeName(exceptionClass.getName());
+            exceptionClassIds.put(exceptionClass, id);
+        }
+        return id;
+    }
+
+    private int writeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, TraceFormat.MAX_NAME_BYTES);
+        int id = nextNameId++;
+
+        ensureRoom(1 + 4 + 2 + length);
+        buffer.put(TraceFormat.NAME)
+                .putInt(id)
+                .putShort((short) length)
+                .put(bytes, 0, length);
+        return id;
+    }
+
+    private void ensureRoom(int bytes) {
+        if (buffer.remaining() < bytes) {
+            writeBuffer();
+        }
+    }
+
+    // on failure the buffer is still cleared, so callers always have room for the record they are about to add
+    private void writeBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failed = true;
+            logger.warn("Unable to write to trace {}, no longer recording", file, e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Writes out the buffered records.
+     */
+    public synchronized void flush() {
+        if (!closed && !failed) {
+            writeBuffer();
+        }
+    }
+
+    /**
+     * @return the number of tries recorded so far
+     */
+    public synchronized long getRecordedAttempts() {
+        return recordedAttempts;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        flush();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Unable to close trace {}", file, e);
+        }
+    }
+}
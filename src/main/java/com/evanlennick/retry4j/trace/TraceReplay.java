@@ -0,0 +1,141 @@
+package com.evanlennick.retry4j.trace;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates how the executions in a trace would have gone with a different {@link RetryConfig}.
+ * <p>
+ * Each execution is replayed from the instant it started. Its first try goes as recorded. Every later try happens
+ * after the waits the other config's backoff strategy asks for, and is assumed to go the way the most recent recorded
+ * try of the same call name, from any execution, went at that point in time; the trace thus stands in for the state
+ * of the dependency over time. As long as the recorded tries started no later than the scheduling tolerance after
+ * the other config's waits would have, which covers threads and timers waking up late, the execution follows its
+ * recorded tries instead, so replaying with the config the trace was recorded with reproduces it.
+ * <p>
+ * Whether an exception is retried on is taken from the trace rather than re-evaluated, as only the class of the
+ * exception is recorded. Executions that would still be retrying after the last recorded try of their call name are
+ * reported as unresolved.
+ */
+public class TraceReplay {
+
+    // guards against configs that would retry forever without time moving on, eg: no delay and instant failures
+    private static final int MAX_REPLAYED_TRIES = 100_000;
+
+    public static final Duration DEFAULT_SCHEDULING_TOLERANCE = Duration.ofMillis(2);
+
+    private final RetryTrace trace;
+    private final long schedulingToleranceNanos;
+    private final Map<String, TracedAttempt[]> timelines = new HashMap<>();
+
+    public TraceReplay(RetryTrace trace) {
+        this(trace, DEFAULT_SCHEDULING_TOLERANCE);
+    }
+
+    /**
+     * @param schedulingTolerance how much later than planned a recorded try may have started and still be followed,
+     *                            use at least the tick duration when the trace was recorded with a HashedWheelTimer
+     */
+    public TraceReplay(RetryTrace trace, Duration schedulingTolerance) {
+        this.trace = trace;
+        this.schedulingToleranceNanos = schedulingTolerance.toNanos();
+
+        Map<String, List<TracedAttempt>> attemptsByCallName = new HashMap<>();
+        for (TracedExecution execution : trace.getExecutions()) {
+            attemptsByCallName.computeIfAbsent(execution.getCallName(), name -> new ArrayList<>())
+                    .addAll(execution.getAttempts());
+        }
+        attemptsByCallName.forEach((callName, attempts) -> {
+            attempts.sort(Comparator.comparingLong(TracedAttempt::getStartNanos));
+            timelines.put(callName, attempts.toArray(new TracedAttempt[0]));
+        });
+    }
+
+    public static TraceReplay fromFile(Path file) {
+        return new TraceReplay(TraceReader.read(file));
+    }
+
+    public TraceReplayReport replay(RetryConfig config) {
+        ReplayStatistics recorded = new ReplayStatistics();
+        ReplayStatistics replayed = new ReplayStatistics();
+
+        for (TracedExecution execution : trace.getExecutions()) {
+            recorded.record(execution.getOutcome(), execution.getAttempts().size(), execution.getDurationNanos());
+            replay(execution, config, replayed);
+        }
+        return new TraceReplayReport(recorded, replayed);
+    }
+
+    private void replay(TracedExecution execution, RetryConfig config, ReplayStatistics replayed) {
+        TracedAttempt[] timeline = timelines.get(execution.getCallName());
+        long lastRecordedStart = timeline[timeline.length - 1].getStartNanos();
+        int maxTries = config.getMaxNumberOfTries();
+        long delayMillis = config.getDelayBetweenRetries() != null ? config.getDelayBetweenRetries().toMillis() : 0;
+        Duration delay = Duration.ofMillis(delayMillis);
+
+        List<TracedAttempt> recordedAttempts = execution.getAttempts();
+        boolean onRecordedPath = true;
+        long start = execution.getStartNanos();
+        long time = start;
+        for (int tries = 1; tries <= MAX_REPLAYED_TRIES; tries++) {
+            TracedAttempt observed = onRecordedPath
+                    ? recordedAttempts.get(tries - 1) : observedAttempt(time, timeline, lastRecordedStart);
+            if (null == observed) {
+                break;
+            }
+
+            long end = time + observed.getDurationNanos();
+            int outcome = observed.getOutcome();
+            if (outcome != AttemptObserver.SUCCEEDED && outcome != AttemptObserver.ABORTED && tries >= maxTries) {
+                outcome = AttemptObserver.EXHAUSTED;
+            }
+            if (outcome != AttemptObserver.FAILED_ON_EXCEPTION && outcome != AttemptObserver.FAILED_ON_VALUE) {
+                boolean asRecorded = onRecordedPath && tries == recordedAttempts.size();
+                replayed.record(outcome, tries, asRecorded ? execution.getDurationNanos() : end - start);
+                return;
+            }
+
+            long waitMillis = config.getBackoffStrategy().getDurationToWait(tries, delay).toMillis();
+            time = end + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+
+            if (onRecordedPath && tries < recordedAttempts.size()) {
+                long recordedStart = recordedAttempts.get(tries).getStartNanos();
+                onRecordedPath = recordedStart >= time && recordedStart - time <= schedulingToleranceNanos;
+                if (onRecordedPath) {
+                    time = recordedStart;
+                }
+            } else {
+                onRecordedPath = false;
+            }
+        }
+        replayed.recordUnresolved();
+    }
+
+    private TracedAttempt observedAttempt(long time, TracedAttempt[] timeline, long lastRecordedStart) {
+        if (time > lastRecordedStart) {
+            return null;
+        }
+
+        // the latest try that started at or before the given time
+        int low = 0;
+        int high = timeline.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (timeline[mid].getStartNanos() <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return timeline[low];
+    }
+}
@@ -0,0 +1,55 @@
+package com.evanlennick.retry4j.trace;
+
+import java.time.Duration;
+
+/**
+ * How the executions of a trace went as recorded, and how they are estimated to have gone with another config.
+ */
+public final class TraceReplayReport {
+
+    private final ReplayStatistics recorded;
+    private final ReplayStatistics replayed;
+
+    TraceReplayReport(ReplayStatistics recorded, ReplayStatistics replayed) {
+        this.recorded = recorded;
+        this.replayed = replayed;
+    }
+
+    public ReplayStatistics getRecorded() {
+        return recorded;
+    }
+
+    public ReplayStatistics getReplayed() {
+        return replayed;
+    }
+
+    /**
+     * @return replayed minus recorded success rate, positive if the other config would have succeeded more often
+     */
+    public double getSuccessRateChange() {
+        return replayed.getSuccessRate() - recorded.getSuccessRate();
+    }
+
+    /**
+     * @return replayed minus recorded mean number of tries per execution
+     */
+    public double getMeanAttemptsChange() {
+        return replayed.getMeanAttempts() - recorded.getMeanAttempts();
+    }
+
+    /**
+     * @return replayed minus recorded latency at the given percentile
+     */
+    public Duration getLatencyPercentileChange(double percentile) {
+        return replayed.getLatencyPercentile(percentile).minus(recorded.getLatencyPercentile(percentile));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TraceReplayReport{");
+        sb.append("recorded=").append(recorded);
+        sb.append(", replayed=").append(replayed);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.evanlennick.retry4j.trace;
+
+/**
+ * One try read back from a trace.
+ */
+public final class TracedAttempt {
+
+    private final int attempt;
+    private final long startNanos;
+    private final long endNanos;
+    private final int outcome;
+    private final String exceptionClassName;
+
+    TracedAttempt(int attempt, long startNanos, long endNanos, int outcome, String exceptionClassName) {
+        this.attempt = attempt;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.outcome = outcome;
+        this.exceptionClassName = exceptionClassName;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * @return one of the {@link com.evanlennick.retry4j.listener.AttemptObserver} outcome codes
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return name of the class of the exception the try threw, or null
+     */
+    public String getExceptionClassName() {
+        return exceptionClassName;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TracedAttempt{");
+        sb.append("attempt=").append(attempt);
+        sb.append(", startNanos=").append(startNanos);
+        sb.append(", endNanos=").append(endNanos);
+        sb.append(", outcome=").append(outcome);
+        sb.append(", exceptionClassName=").append(exceptionClassName);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.evanlennick.retry4j.trace;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One execution read back from a trace, with all of its tries in order.
+ */
+public final class TracedExecution {
+
+    private final String callName;
+    private final long startNanos;
+    private final long endNanos;
+    private final int outcome;
+    private final List<TracedAttempt> attempts;
+
+    TracedExecution(String callName, long startNanos, long endNanos, int outcome, List<TracedAttempt> attempts) {
+        this.callName = callName;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.outcome = outcome;
+        this.attempts = Collections.unmodifiableList(attempts);
+    }
+
+    public String getCallName() {
+        return callName;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * @return {@link com.evanlennick.retry4j.listener.AttemptObserver#SUCCEEDED}, {@code EXHAUSTED}, {@code REJECTED}
+     * or {@code ABORTED}
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    public List<TracedAttempt> getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TracedExecution{");
+        sb.append("callName='").append(callName).append('\'');
+        sb.append(", startNanos=").append(startNanos);
+        sb.append(", endNanos=").append(endNanos);
+        sb.append(", outcome=").append(outcome);
+        sb.append(", attempts=").append(attempts);
+        sb.append('}');
+        return sb.toString();
+    }
+}
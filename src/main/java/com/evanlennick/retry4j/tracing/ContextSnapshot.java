@@ -0,0 +1,15 @@
+package com.evanlennick.retry4j.tracing;
+
+/**
+ * Thread bound context, such as the current span, captured on one thread to be attached on another.
+ */
+@FunctionalInterface
+public interface ContextSnapshot {
+
+    ContextSnapshot EMPTY = () -> Scope.NOOP;
+
+    /**
+     * Makes the captured context the current one on this thread, until the returned scope is closed.
+     */
+    Scope attach();
+}
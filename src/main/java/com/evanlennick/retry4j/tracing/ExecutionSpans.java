@@ -0,0 +1,82 @@
+package com.evanlennick.retry4j.tracing;
+
+/**
+ * The spans of one sampled execution, started and ended by the executor as the execution moves through its steps.
+ * Obtained from {@link RetryTracing#startExecution(String)}.
+ */
+public final class ExecutionSpans {
+
+    public static final String CALL_NAME = "retry4j.call_name";
+    public static final String ATTEMPT = "retry4j.attempt";
+    public static final String TOTAL_TRIES = "retry4j.total_tries";
+    public static final String PLANNED_DELAY_MILLIS = "retry4j.planned_delay_ms";
+    public static final String OUTCOME = "retry4j.outcome";
+
+    private final Tracer tracer;
+
+    private final Span executionSpan;
+
+    private Span attemptSpan;
+
+    private Scope attemptScope;
+
+    private Span backoffSpan;
+
+    ExecutionSpans(Tracer tracer, Span executionSpan) {
+        this.tracer = tracer;
+        this.executionSpan = executionSpan;
+    }
+
+    /**
+     * Starts the span of a try and makes it current, until {@link #attemptFinished(String, Throwable)} is called on
+     * the same thread.
+     */
+    public void attemptStarted(int attempt) {
+        attemptSpan = tracer.startAttempt(executionSpan, attempt);
+        attemptSpan.setAttribute(ATTEMPT, attempt);
+        attemptScope = attemptSpan.makeCurrent();
+    }
+
+    /**
+     * @param exception the exception the try threw, or null if it did not throw
+     */
+    public void attemptFinished(String outcome, Throwable exception) {
+        if (null == attemptSpan) {
+            return;
+        }
+        try {
+            attemptScope.close();
+        } finally {
+            attemptSpan.setAttribute(OUTCOME, outcome);
+            if (null != exception) {
+                attemptSpan.recordException(exception);
+            }
+            attemptSpan.end();
+            attemptSpan = null;
+            attemptScope = null;
+        }
+    }
+
+    public void backoffStarted(int nextAttempt, long plannedDelayMillis) {
+        backoffSpan = tracer.startBackoff(executionSpan, nextAttempt, plannedDelayMillis);
+        backoffSpan.setAttribute(ATTEMPT, nextAttempt);
+        backoffSpan.setAttribute(PLANNED_DELAY_MILLIS, plannedDelayMillis);
+    }
+
+    public void backoffFinished() {
+        if (null != backoffSpan) {
+            backoffSpan.end();
+            backoffSpan = null;
+        }
+    }
+
+    /**
+     * Ends the execution span, along with a backoff span left open by a cancelled or shed execution.
+     */
+    public void executionFinished(String outcome, int totalTries) {
+        backoffFinished();
+        executionSpan.setAttribute(TOTAL_TRIES, totalTries);
+        executionSpan.setAttribute(OUTCOME, outcome);
+        executionSpan.end();
+    }
+}
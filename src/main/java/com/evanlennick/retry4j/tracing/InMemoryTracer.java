@@ -0,0 +1,91 @@
+package com.evanlennick.retry4j.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Tracer that keeps the spans it starts in memory once they end, for tests. The current span is held in a thread
+ * local, like most tracing libraries do, so it also shows which span a call runs under.
+ */
+public class InMemoryTracer implements Tracer {
+
+    public static final String EXECUTION_SPAN = "retry4j.execution";
+    public static final String ATTEMPT_SPAN = "retry4j.attempt";
+    public static final String BACKOFF_SPAN = "retry4j.backoff";
+
+    private final ThreadLocal<RecordedSpan> currentSpan = new ThreadLocal<>();
+
+    private final Queue<RecordedSpan> finishedSpans = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong spanIds = new AtomicLong();
+
+    /**
+     * Starts a span as a child of the current one, as application code would.
+     */
+    public RecordedSpan startSpan(String name) {
+        return newSpan(name, currentSpan.get());
+    }
+
+    @Override
+    public Span startExecution(String callName) {
+        return newSpan(EXECUTION_SPAN, currentSpan.get());
+    }
+
+    @Override
+    public Span startAttempt(Span executionSpan, int attempt) {
+        return newSpan(ATTEMPT_SPAN, (RecordedSpan) executionSpan);
+    }
+
+    @Override
+    public Span startBackoff(Span executionSpan, int nextAttempt, long plannedDelayMillis) {
+        return newSpan(BACKOFF_SPAN, (RecordedSpan) executionSpan);
+    }
+
+    @Override
+    public ContextSnapshot captureContext() {
+        RecordedSpan captured = currentSpan.get();
+        return () -> makeCurrent(captured);
+    }
+
+    private RecordedSpan newSpan(String name, RecordedSpan parent) {
+        return new RecordedSpan(this, spanIds.incrementAndGet(), null != parent ? parent.getId() : 0, name);
+    }
+
+    Scope makeCurrent(RecordedSpan span) {
+        RecordedSpan previous = currentSpan.get();
+        currentSpan.set(span);
+        return () -> currentSpan.set(previous);
+    }
+
+    void finished(RecordedSpan span) {
+        finishedSpans.add(span);
+    }
+
+    /**
+     * @return the current span of this thread, or null if there is none
+     */
+    public RecordedSpan getCurrentSpan() {
+        return currentSpan.get();
+    }
+
+    /**
+     * @return the spans that have ended, in the order they ended
+     */
+    public List<RecordedSpan> getFinishedSpans() {
+        return new ArrayList<>(finishedSpans);
+    }
+
+    public List<RecordedSpan> getFinishedSpans(String name) {
+        return finishedSpans.stream()
+                .filter(span -> span.getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        finishedSpans.clear();
+    }
+}
@@ -0,0 +1,37 @@
+package com.evanlennick.retry4j.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * Carries the SLF4J MDC of the thread it was captured on. A null context is the MDC of a thread that never had one.
+ */
+final class MdcContextSnapshot implements ContextSnapshot {
+
+    private final Map<String, String> context;
+
+    private MdcContextSnapshot(Map<String, String> context) {
+        this.context = context;
+    }
+
+    static ContextSnapshot capture() {
+        return new MdcContextSnapshot(MDC.getCopyOfContextMap());
+    }
+
+    @Override
+    public Scope attach() {
+        // an empty MDC is attached too, so nothing left on a pooled thread leaks into the execution
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        setContextMap(context);
+        return () -> setContextMap(previous);
+    }
+
+    private static void setContextMap(Map<String, String> context) {
+        if (null != context) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+    }
+}
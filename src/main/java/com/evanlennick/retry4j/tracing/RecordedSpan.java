@@ -0,0 +1,118 @@
+package com.evanlennick.retry4j.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A span started by an {@link InMemoryTracer}.
+ */
+public final class RecordedSpan implements Span {
+
+    private final InMemoryTracer tracer;
+    private final long id;
+    private final long parentId;
+    private final String name;
+    private final String threadName;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private Throwable exception;
+    private long endNanos;
+    private boolean ended;
+
+    RecordedSpan(InMemoryTracer tracer, long id, long parentId, String name) {
+        this.tracer = tracer;
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.threadName = Thread.currentThread().getName();
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void setAttribute(String key, String value) {
+        attributes.put(key, value);
+    }
+
+    @Override
+    public synchronized void setAttribute(String key, long value) {
+        attributes.put(key, value);
+    }
+
+    @Override
+    public synchronized void recordException(Throwable exception) {
+        this.exception = exception;
+    }
+
+    @Override
+    public void end() {
+        synchronized (this) {
+            if (ended) {
+                throw new IllegalStateException("Span " + id + " was already ended");
+            }
+            ended = true;
+            endNanos = System.nanoTime();
+        }
+        tracer.finished(this);
+    }
+
+    @Override
+    public Scope makeCurrent() {
+        return tracer.makeCurrent(this);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return the id of the parent span, or 0 for a root span
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the name of the thread the span was started on
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public synchronized Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    public synchronized Map<String, Object> getAttributes() {
+        return new LinkedHashMap<>(attributes);
+    }
+
+    public synchronized Throwable getException() {
+        return exception;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public synchronized long getEndNanos() {
+        return endNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("RecordedSpan{");
+        sb.append("id=").append(id);
+        sb.append(", parentId=").append(parentId);
+        sb.append(", name='").append(name).append('\'');
+        sb.append(", threadName='").append(threadName).append('\'');
+        sb.append(", attributes=").append(attributes);
+        sb.append(", exception=").append(exception);
+        sb.append(", durationNanos=").append(ended ? endNanos - startNanos : -1);
+        sb.append('}');
+        return sb.toString();
+    }
+}
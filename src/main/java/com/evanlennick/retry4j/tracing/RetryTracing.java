@@ -0,0 +1,104 @@
+package com.evanlennick.retry4j.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traces executions through a {@link Tracer} and carries thread bound context across the threads of async executors.
+ * Register it with an executor:
+ * <pre>
+ * RetryTracing tracing = new RetryTracing(tracer, 0.01);
+ * new CallExecutorBuilder&lt;Boolean&gt;().config(config).tracing(tracing).build();
+ * </pre>
+ * Sampling is decided once, as an execution starts. An execution that is not sampled starts no spans at all, so its
+ * tries cost no more than without tracing. The context of the tracer and the SLF4J MDC are captured when an async
+ * execution is submitted and attached on every thread that runs one of its tries or listeners, whether it is sampled
+ * or not.
+ */
+public class RetryTracing {
+
+    private final Tracer tracer;
+
+    private final double sampleRate;
+
+    private final boolean propagateMdc;
+
+    /**
+     * @param sampleRate the fraction of executions to trace, between 0 and 1
+     */
+    public RetryTracing(Tracer tracer, double sampleRate) {
+        this(tracer, sampleRate, true);
+    }
+
+    public RetryTracing(Tracer tracer, double sampleRate, boolean propagateMdc) {
+        if (null == tracer) {
+            throw new IllegalArgumentException("Tracer must not be null");
+        }
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.tracer = tracer;
+        this.sampleRate = sampleRate;
+        this.propagateMdc = propagateMdc;
+    }
+
+    /**
+     * @return the spans of the execution, or null if it is not sampled
+     */
+    public ExecutionSpans startExecution(String callName) {
+        if (!isSampled()) {
+            return null;
+        }
+        Span executionSpan = tracer.startExecution(callName);
+        if (null != callName) {
+            executionSpan.setAttribute(ExecutionSpans.CALL_NAME, callName);
+        }
+        return new ExecutionSpans(tracer, executionSpan);
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public ContextSnapshot captureContext() {
+        ContextSnapshot tracerContext = tracer.captureContext();
+        if (!propagateMdc) {
+            return tracerContext;
+        }
+        ContextSnapshot mdcContext = MdcContextSnapshot.capture();
+        return () -> {
+            Scope mdcScope = mdcContext.attach();
+            Scope tracerScope = tracerContext.attach();
+            return () -> {
+                try {
+                    tracerScope.close();
+                } finally {
+                    mdcScope.close();
+                }
+            };
+        };
+    }
+
+    /**
+     * @return a runnable that runs the given one with the context attached
+     */
+    @SuppressWarnings("try")
+    public static Runnable wrap(ContextSnapshot context, Runnable runnable) {
+        return () -> {
+            try (Scope ignored = context.attach()) {
+                runnable.run();
+            }
+        };
+    }
+
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public boolean isPropagateMdc() {
+        return propagateMdc;
+    }
+}
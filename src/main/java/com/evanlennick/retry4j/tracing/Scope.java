@@ -0,0 +1,13 @@
+package com.evanlennick.retry4j.tracing;
+
+/**
+ * Undoes making a span current or attaching a {@link ContextSnapshot}, when closed on the thread that did it.
+ */
+public interface Scope extends AutoCloseable {
+
+    Scope NOOP = () -> {
+    };
+
+    @Override
+    void close();
+}
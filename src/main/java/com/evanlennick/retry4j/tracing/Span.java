@@ -0,0 +1,22 @@
+package com.evanlennick.retry4j.tracing;
+
+/**
+ * A span started by a {@link Tracer}. Each span is only used by one thread at a time, and ended exactly once.
+ */
+public interface Span {
+
+    void setAttribute(String key, String value);
+
+    void setAttribute(String key, long value);
+
+    void recordException(Throwable exception);
+
+    void end();
+
+    /**
+     * Makes the span the current one on this thread, so that spans started by the call become its children.
+     */
+    default Scope makeCurrent() {
+        return Scope.NOOP;
+    }
+}
@@ -0,0 +1,27 @@
+package com.evanlennick.retry4j.tracing;
+
+/**
+ * Adapts a tracing library to retry4j, which starts one span per sampled execution, with a child span for each try
+ * and each backoff between tries. Implementations are called on the thread executing the call and should return
+ * quickly.
+ */
+public interface Tracer {
+
+    /**
+     * @param callName the name passed to execute, may be null
+     * @return the span of the execution, as a child of whatever span is current on this thread
+     */
+    Span startExecution(String callName);
+
+    Span startAttempt(Span executionSpan, int attempt);
+
+    Span startBackoff(Span executionSpan, int nextAttempt, long plannedDelayMillis);
+
+    /**
+     * Captures the current context of the tracing library, which async executors attach on every thread that runs a
+     * part of the execution.
+     */
+    default ContextSnapshot captureContext() {
+        return ContextSnapshot.EMPTY;
+    }
+}
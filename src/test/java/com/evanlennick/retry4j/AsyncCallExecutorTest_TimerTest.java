@@ -0,0 +1,158 @@
+package com.evanlennick.retry4j;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import com.evanlennick.retry4j.exception.UnexpectedException;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncCallExecutorTest_TimerTest {
+
+    private RetryConfig retryOnAnyExceptionConfig;
+
+    private RetryConfig failOnAnyExceptionConfig;
+
+    private ExecutorService executorService;
+
+    private HashedWheelTimer timer;
+
+    @BeforeClass
+    public void setup() {
+        retryOnAnyExceptionConfig = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withFixedBackoff()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(Duration.ofMillis(10))
+                .build();
+
+        failOnAnyExceptionConfig = new RetryConfigBuilder()
+                .failOnAnyException()
+                .withFixedBackoff()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(Duration.ofMillis(10))
+                .build();
+
+        executorService = Executors.newFixedThreadPool(5);
+        timer = new HashedWheelTimer();
+    }
+
+    @AfterClass
+    public void teardown() {
+        executorService.shutdown();
+        timer.stop();
+    }
+
+    @Test
+    public void verifyOneCall_successAfterRetries() throws Exception {
+        AtomicInteger tries = new AtomicInteger();
+        Callable<Boolean> callable = () -> {
+            if (tries.incrementAndGet() < 3) {
+                throw new RuntimeException();
+            }
+            return true;
+        };
+
+        AsyncCallExecutor<Boolean> executor = new CallExecutorBuilder<Boolean>().config(retryOnAnyExceptionConfig)
+                .buildAsync(executorService, timer);
+
+        Status<Boolean> status = executor.execute(callable).get();
+
+        assertThat(status.wasSuccessful()).isTrue();
+        assertThat(status.getResult()).isTrue();
+        assertThat(status.getTotalTries()).isEqualTo(3);
+    }
+
+    @Test
+    public void verifyOneCall_failDueToTooManyRetries() {
+        Callable<Boolean> callable = () -> { throw new RuntimeException(); };
+
+        AsyncCallExecutor<Boolean> executor = new CallExecutorBuilder<Boolean>().config(retryOnAnyExceptionConfig)
+                .buildAsync(executorService, timer);
+
+        CompletableFuture<Status<Boolean>> future = executor.execute(callable);
+
+        assertThatThrownBy(future::get)
+                .isExactlyInstanceOf(ExecutionException.class)
+                .hasCauseExactlyInstanceOf(RetriesExhaustedException.class);
+    }
+
+    @Test
+    public void verifyOneCall_failDueToUnexpectedException() {
+        Callable<Boolean> callable = () -> { throw new RuntimeException(); };
+
+        AsyncCallExecutor<Boolean> executor = new CallExecutorBuilder<Boolean>().config(failOnAnyExceptionConfig)
+                .buildAsync(executorService, timer);
+
+        CompletableFuture<Status<Boolean>> future = executor.execute(callable);
+
+        assertThatThrownBy(future::get)
+                .isExactlyInstanceOf(ExecutionException.class)
+                .hasCauseExactlyInstanceOf(UnexpectedException.class);
+    }
+
+    @Test
+    public void verifyListenersAreCalled() throws Exception {
+        AtomicInteger failedTries = new AtomicInteger();
+        AtomicInteger nextTries = new AtomicInteger();
+        AtomicInteger completions = new AtomicInteger();
+
+        AsyncCallExecutor<Boolean> executor = new CallExecutorBuilder<Boolean>().config(retryOnAnyExceptionConfig)
+                .afterFailedTryListener(status -> failedTries.incrementAndGet())
+                .beforeNextTryListener(status -> nextTries.incrementAndGet())
+                .onCompletionListener(status -> completions.incrementAndGet())
+                .onFailureListener(status -> {})
+                .buildAsync(executorService, timer);
+
+        Status<Boolean> status = executor.execute(() -> { throw new RuntimeException(); }).get();
+
+        assertThat(status.wasSuccessful()).isFalse();
+        assertThat(failedTries.get()).isEqualTo(3);
+        assertThat(nextTries.get()).isEqualTo(2);
+        assertThat(completions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void verifyNoThreadIsHeldDuringBackoff() throws Exception {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        RetryConfig slowBackoffConfig = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withFixedBackoff()
+                .withMaxNumberOfTries(2)
+                .withDelayBetweenTries(Duration.ofMillis(500))
+                .build();
+        try {
+            AsyncCallExecutor<Boolean> executor = new CallExecutorBuilder<Boolean>().config(slowBackoffConfig)
+                    .buildAsync(singleThread, timer);
+
+            AtomicInteger tries = new AtomicInteger();
+            CompletableFuture<Status<Boolean>> backingOff = executor.execute(() -> {
+                if (tries.incrementAndGet() < 2) {
+                    throw new RuntimeException();
+                }
+                return true;
+            });
+            CompletableFuture<Status<Boolean>> quick = executor.execute(() -> true);
+
+            //the quick call is able to use the only thread while the first call waits on the timer
+            assertThat(quick.get().wasSuccessful()).isTrue();
+            assertThat(backingOff).isNotDone();
+            assertThat(backingOff.get().wasSuccessful()).isTrue();
+        } finally {
+            singleThread.shutdown();
+        }
+    }
+}
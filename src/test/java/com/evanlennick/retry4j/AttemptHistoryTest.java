@@ -0,0 +1,110 @@
+package com.evanlennick.retry4j;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.InvalidRetryConfigException;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import org.testng.annotations.Test;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AttemptHistoryTest {
+
+    @Test
+    public void verifyOnlyMostRecentAttemptsAreKept() {
+        AttemptHistory history = new AttemptHistory(3);
+        for (int i = 1; i <= 5; i++) {
+            history.record(i, i * 100, 10, AttemptObserver.FAILED_ON_VALUE, null);
+        }
+
+        assertThat(history.size()).isEqualTo(3);
+        assertThat(history.getTotalRecorded()).isEqualTo(5);
+        assertThat(history.getAttempts())
+                .extracting(AttemptHistory.AttemptRecord::getAttempt)
+                .containsExactly(3, 4, 5);
+    }
+
+    @Test
+    public void verifyEmptyHistory() {
+        AttemptHistory history = new AttemptHistory(3);
+
+        assertThat(history.getAttempts()).isEmpty();
+        assertThat(history.size()).isZero();
+    }
+
+    @Test
+    public void verifyExhaustedExceptionCarriesHistory() {
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(5)
+                .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .withAttemptHistory(2)
+                .build();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> new CallExecutorBuilder<String>().config(config).build().execute(() -> {
+            throw new IllegalStateException("try " + calls.incrementAndGet());
+        })).isInstanceOfSatisfying(RetriesExhaustedException.class, e -> {
+            List<AttemptHistory.AttemptRecord> attempts = e.getAttemptHistory().getAttempts();
+            assertThat(attempts).extracting(AttemptHistory.AttemptRecord::getAttempt).containsExactly(4, 5);
+            assertThat(attempts).extracting(AttemptHistory.AttemptRecord::getOutcome)
+                    .containsOnly(AttemptObserver.FAILED_ON_EXCEPTION);
+            assertThat(attempts.get(1).getException()).hasMessage("try 5");
+            assertThat(attempts.get(1).getStartNanos()).isGreaterThanOrEqualTo(attempts.get(0).getStartNanos());
+        });
+    }
+
+    @Test
+    public void verifyEachExecutionHasItsOwnHistory() {
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(5)
+                .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .withAttemptHistory(10)
+                .build();
+        CallExecutor<String> executor = new CallExecutorBuilder<String>().config(config).build();
+        AtomicInteger calls = new AtomicInteger();
+
+        Status<String> first = executor.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        });
+        AttemptHistory firstHistory = first.getAttemptHistory();
+        Status<String> second = executor.execute(() -> "done");
+
+        assertThat(firstHistory.getAttempts()).extracting(AttemptHistory.AttemptRecord::getOutcome)
+                .containsExactly(AttemptObserver.FAILED_ON_EXCEPTION, AttemptObserver.FAILED_ON_EXCEPTION,
+                        AttemptObserver.SUCCEEDED);
+        assertThat(second.getAttemptHistory().getAttempts()).hasSize(1);
+    }
+
+    @Test
+    public void verifyHistoryIsOffByDefault() {
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(1)
+                .withNoWaitBackoff()
+                .build();
+
+        Status<String> status = new CallExecutorBuilder<String>().config(config).build().execute(() -> "done");
+
+        assertThat(status.getAttemptHistory()).isNull();
+    }
+
+    @Test
+    public void verifyHistorySizeMustBePositive() {
+        assertThatThrownBy(() -> new RetryConfigBuilder().withAttemptHistory(0))
+                .isInstanceOf(InvalidRetryConfigException.class)
+                .hasMessage(RetryConfigBuilder.SHOULD_SPECIFY_ATTEMPT_HISTORY_SIZE_AS_POSITIVE__ERROR_MSG);
+    }
+}
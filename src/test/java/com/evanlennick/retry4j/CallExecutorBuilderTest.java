@@ -3,6 +3,7 @@ package com.evanlennick.retry4j;
 import com.evanlennick.retry4j.config.RetryConfig;
 import com.evanlennick.retry4j.config.RetryConfigBuilder;
 import com.evanlennick.retry4j.listener.RetryListener;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
 import org.testng.annotations.Test;
 
 import java.util.concurrent.ExecutorService;
@@ -78,4 +79,17 @@ public class CallExecutorBuilderTest {
         assertThat(asyncCallExecutor.getExecutorService()).isEqualTo(executorService);
     }
 
+    @Test
+    public void shouldBuildAsyncCallExecutorWithExecutorServiceAndTimer() {
+        HashedWheelTimer timer = new HashedWheelTimer();
+
+        AsyncCallExecutor asyncCallExecutor = new CallExecutorBuilder()
+                .config(retryConfig)
+                .buildAsync(executorService, timer);
+
+        assertThat(asyncCallExecutor.getConfig()).isEqualTo(retryConfig);
+        assertThat(asyncCallExecutor.getExecutorService()).isEqualTo(executorService);
+        assertThat(asyncCallExecutor.getTimer()).isEqualTo(timer);
+    }
+
 }
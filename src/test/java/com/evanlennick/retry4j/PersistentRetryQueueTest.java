@@ -0,0 +1,142 @@
+package com.evanlennick.retry4j;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.persistence.PendingRetry;
+import com.evanlennick.retry4j.persistence.RetryJournal;
+import com.evanlennick.retry4j.persistence.SerializableTaskCodec;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class PersistentRetryQueueTest {
+
+    private Path directory;
+
+    private HashedWheelTimer timer;
+
+    private RetryConfig config;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("retry4j-queue");
+        timer = new HashedWheelTimer();
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(Duration.ofMillis(10))
+                .withFixedBackoff()
+                .build();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        timer.stop();
+    }
+
+    @Test
+    public void verifyPendingRetryIsJournaledUntilExecutionFinishes() throws Exception {
+        RetryConfig slowConfig = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(2)
+                .withDelayBetweenTries(Duration.ofMillis(500))
+                .withFixedBackoff()
+                .build();
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            PersistentRetryQueue<String> queue = new PersistentRetryQueue<>(
+                    new CallExecutorBuilder<String>().config(slowConfig).onFailureListener(s -> {}).buildAsync(null, timer),
+                    journal, new SerializableTaskCodec<>());
+
+            CompletableFuture<Status<String>> future = queue.submit("key", new FailingTask());
+
+            Thread.sleep(200);
+            assertThat(journal.getPendingRetries()).extracting(PendingRetry::getAttemptCount).containsExactly(1);
+
+            future.get();
+            assertThat(journal.getPendingRetries()).isEmpty();
+        }
+    }
+
+    @Test
+    public void verifySubmittingSameKeyReturnsExistingExecution() {
+        RetryConfig slowConfig = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(2)
+                .withDelayBetweenTries(Duration.ofSeconds(1))
+                .withFixedBackoff()
+                .build();
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            PersistentRetryQueue<String> queue = new PersistentRetryQueue<>(
+                    new CallExecutorBuilder<String>().config(slowConfig).onFailureListener(s -> {}).buildAsync(null, timer),
+                    journal, new SerializableTaskCodec<>());
+
+            CompletableFuture<Status<String>> first = queue.submit("key", new FailingTask());
+            CompletableFuture<Status<String>> second = queue.submit("key", new SucceedingTask());
+
+            assertThat(second).isSameAs(first);
+        }
+    }
+
+    @Test
+    public void verifyRecoverReschedulesJournaledRetries() throws Exception {
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            SerializableTaskCodec<String> codec = new SerializableTaskCodec<>();
+            journal.recordPending(new PendingRetry("recovered", codec.encode(new SucceedingTask()), 1, 0L));
+        }
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            PersistentRetryQueue<String> queue = new PersistentRetryQueue<>(
+                    new CallExecutorBuilder<String>().config(config).buildAsync(null, timer),
+                    journal, new SerializableTaskCodec<>());
+
+            Map<String, CompletableFuture<Status<String>>> recovered = queue.recover();
+
+            assertThat(recovered).containsOnlyKeys("recovered");
+            Status<String> status = recovered.get("recovered").get();
+            assertThat(status.getResult()).isEqualTo("success");
+            assertThat(status.getCallName()).isEqualTo("recovered");
+            assertThat(status.getTotalTries()).isEqualTo(2);
+            assertThat(journal.getPendingRetries()).isEmpty();
+        }
+    }
+
+    @Test
+    public void verifyQueueRequiresTimer() {
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            assertThatThrownBy(() -> new PersistentRetryQueue<>(
+                    new CallExecutorBuilder<String>().config(config).buildAsync(),
+                    journal, new SerializableTaskCodec<>()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static class FailingTask implements Callable<String>, Serializable {
+        @Override
+        public String call() {
+            throw new RuntimeException();
+        }
+    }
+
+    private static class SucceedingTask implements Callable<String>, Serializable {
+        @Override
+        public String call() {
+            return "success";
+        }
+    }
+}
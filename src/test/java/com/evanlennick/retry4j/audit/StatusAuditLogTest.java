@@ -0,0 +1,149 @@
+package com.evanlennick.retry4j.audit;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Test(singleThreaded = true)
+public class StatusAuditLogTest {
+
+    private Path directory;
+
+    private RetryConfig config;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("retry4j-audit");
+
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .build();
+    }
+
+    @Test
+    public void verifyCompletedExecutionsAreReadBack() {
+        try (StatusAuditLog<String> auditLog = new StatusAuditLog<>(directory)) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .onCompletionListener(auditLog)
+                    .onFailureListener(status -> {
+                    })
+                    .build();
+
+            AtomicInteger tries = new AtomicInteger();
+            Status<String> succeeded = executor.execute(() -> {
+                if (tries.incrementAndGet() < 2) {
+                    throw new IllegalStateException();
+                }
+                return "done";
+            }, "order-1");
+            String id = succeeded.getId();
+            long startTime = succeeded.getStartTime();
+            long endTime = succeeded.getEndTime();
+            executor.execute(() -> {
+                throw new IllegalArgumentException();
+            }, "order-2");
+            auditLog.sync();
+
+            List<AuditRecord> records = AuditLogReader.read(directory);
+            assertThat(records).extracting(AuditRecord::getCallName).containsExactly("order-1", "order-2");
+            assertThat(records.get(0).getId()).isEqualTo(id);
+            assertThat(records.get(0).getTotalTries()).isEqualTo(2);
+            assertThat(records.get(0).wasSuccessful()).isTrue();
+            assertThat(records.get(0).getExceptionClassName()).isEqualTo(IllegalStateException.class.getName());
+            assertThat(records.get(0).getStartTime()).isEqualTo(startTime);
+            assertThat(records.get(0).getEndTime()).isEqualTo(endTime);
+            assertThat(records.get(1).getTotalTries()).isEqualTo(3);
+            assertThat(records.get(1).getExceptionClassName()).isEqualTo(IllegalArgumentException.class.getName());
+            assertThat(records.get(1).wasSuccessful()).isFalse();
+            assertThat(auditLog.getCommittedStatuses()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void verifySegmentsRollOver() {
+        List<String> ids = new ArrayList<>();
+        try (StatusAuditLog<String> auditLog = new StatusAuditLog<>(directory, 256, Duration.ofSeconds(10), true)) {
+            for (int i = 0; i < 20; i++) {
+                Status<String> status = newStatus("call-" + i);
+                ids.add(status.getId());
+                auditLog.onEvent(status);
+            }
+        }
+
+        assertThat(AuditLogReader.segments(directory).size()).isGreaterThan(1);
+        assertThat(AuditLogReader.read(directory)).extracting(AuditRecord::getId).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    public void verifyConcurrentSyncsShareCommits() throws Exception {
+        int threads = 8;
+        int statusesPerThread = 200;
+        try (StatusAuditLog<String> auditLog = new StatusAuditLog<>(directory,
+                StatusAuditLog.DEFAULT_MAX_SEGMENT_BYTES, Duration.ofSeconds(10), true)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < statusesPerThread; i++) {
+                        auditLog.onEvent(newStatus("call"));
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            assertThat(auditLog.getCommittedStatuses()).isEqualTo(threads * statusesPerThread);
+            assertThat(auditLog.getCommits()).isLessThan(threads * statusesPerThread);
+        }
+
+        assertThat(AuditLogReader.read(directory)).hasSize(threads * statusesPerThread);
+    }
+
+    @Test
+    public void verifyRecordCutShortByCrashIsIgnored() throws IOException {
+        try (StatusAuditLog<String> auditLog = new StatusAuditLog<>(directory)) {
+            auditLog.onEvent(newStatus("call-1"));
+            auditLog.onEvent(newStatus("call-2"));
+        }
+        Path segment = AuditLogReader.segments(directory).get(0);
+        long size = Files.size(segment);
+        Files.newByteChannel(segment, StandardOpenOption.WRITE).truncate(size - 3).close();
+
+        assertThat(AuditLogReader.read(directory)).extracting(AuditRecord::getCallName).containsExactly("call-1");
+
+        try (StatusAuditLog<String> auditLog = new StatusAuditLog<>(directory)) {
+            auditLog.onEvent(newStatus("call-3"));
+        }
+        assertThat(AuditLogReader.read(directory)).extracting(AuditRecord::getCallName)
+                .containsExactly("call-1", "call-3");
+    }
+
+    private Status<String> newStatus(String callName) {
+        return new CallExecutorBuilder<String>()
+                .config(config)
+                .build()
+                .execute(() -> "done", callName);
+    }
+}
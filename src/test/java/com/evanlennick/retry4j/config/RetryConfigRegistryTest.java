@@ -0,0 +1,178 @@
+package com.evanlennick.retry4j.config;
+
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.backoff.ExponentialBackoffStrategy;
+import com.evanlennick.retry4j.backoff.NoWaitBackoffStrategy;
+import com.evanlennick.retry4j.exception.InvalidRetryConfigException;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetryConfigRegistryTest {
+
+    private Path directory;
+
+    private RetryConfig defaultConfig;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("retry4j-configs");
+
+        defaultConfig = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(1)
+                .withDelayBetweenTries(Duration.ZERO)
+                .withFixedBackoff()
+                .build();
+    }
+
+    @Test
+    public void verifyPropertiesAreRead() throws IOException {
+        Path file = write("retry.properties", "db.maxTries=5\n"
+                + "db.delay=100ms\n"
+                + "db.backoff=exponential\n"
+                + "db.retryOn=java.io.IOException, java.lang.IllegalStateException\n"
+                + "cache.maxTries=indefinitely\n"
+                + "cache.delay=PT1S\n"
+                + "cache.backoff=no-wait\n");
+
+        RetryConfigRegistry registry = RetryConfigRegistry.load(file);
+
+        assertThat(registry.getNames()).containsExactlyInAnyOrder("db", "cache");
+        RetryConfig db = registry.get("db");
+        assertThat(db.getMaxNumberOfTries()).isEqualTo(5);
+        assertThat(db.getDelayBetweenRetries()).isEqualTo(Duration.ofMillis(100));
+        assertThat(db.getBackoffStrategy()).isInstanceOf(ExponentialBackoffStrategy.class);
+        assertThat(db.getRetryOnSpecificExceptions()).containsExactlyInAnyOrder(IOException.class,
+                IllegalStateException.class);
+        RetryConfig cache = registry.get("cache");
+        assertThat(cache.getMaxNumberOfTries()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(cache.getBackoffStrategy()).isInstanceOf(NoWaitBackoffStrategy.class);
+        assertThat(cache.isRetryOnAnyException()).isTrue();
+    }
+
+    @Test
+    public void verifyYamlIsRead() throws IOException {
+        Path file = write("retry.yml", "# retry configs\n"
+                + "db:\n"
+                + "  maxTries: 4 # a few\n"
+                + "  delay: '2s'\n"
+                + "  backoff: fixed\n"
+                + "  abortOn: [java.lang.IllegalArgumentException]\n");
+
+        RetryConfig db = RetryConfigRegistry.load(file).get("db");
+
+        assertThat(db.getMaxNumberOfTries()).isEqualTo(4);
+        assertThat(db.getDelayBetweenRetries()).isEqualTo(Duration.ofSeconds(2));
+        assertThat(db.getRetryOnAnyExceptionExcluding()).containsExactly(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void verifyHashInsideQuotesIsNotAComment() throws IOException {
+        Path file = write("retry.yml", "\"orders#v2\": # quoted names may contain a #\n"
+                + "  maxTries: '3' # but a # after whitespace still starts a comment\n"
+                + "  delay: 10ms\n"
+                + "  backoff: fixed\n"
+                + "#db:\n");
+
+        RetryConfigRegistry registry = RetryConfigRegistry.load(file);
+
+        assertThat(registry.getNames()).containsExactly("orders#v2");
+        assertThat(registry.get("orders#v2").getMaxNumberOfTries()).isEqualTo(3);
+    }
+
+    @Test
+    public void verifyInvalidConfigsAreRejected() throws IOException {
+        Path unknownProperty = write("unknown.properties", "db.maxTries=3\ndb.colour=red\ndb.backoff=fixed\n");
+        Path invalidConfig = write("invalid.properties", "db.maxTries=0\ndb.backoff=fixed\n");
+
+        assertThatThrownBy(() -> RetryConfigRegistry.load(unknownProperty))
+                .isInstanceOf(InvalidRetryConfigException.class)
+                .hasMessage("Retry config 'db' has an unknown property 'colour'!");
+        assertThatThrownBy(() -> RetryConfigRegistry.load(invalidConfig))
+                .isInstanceOf(InvalidRetryConfigException.class)
+                .hasMessage("Retry config 'db' is not valid: "
+                        + RetryConfigBuilder.MUST_SPECIFY_MAX_TRIES_ABOVE_0__ERROR_MSG);
+    }
+
+    @Test
+    public void verifyInvalidReloadKeepsCurrentConfigs() throws IOException {
+        Path file = write("retry.properties", "db.maxTries=3\ndb.backoff=fixed\n");
+        RetryConfigRegistry registry = RetryConfigRegistry.load(file);
+
+        write("retry.properties", "db.maxTries=0\ndb.backoff=fixed\n");
+        assertThat(registry.reload()).isFalse();
+        assertThat(registry.get("db").getMaxNumberOfTries()).isEqualTo(3);
+        assertThat(registry.getVersion()).isEqualTo(1);
+
+        write("retry.properties", "db.maxTries=7\ndb.backoff=fixed\n");
+        assertThat(registry.reload()).isTrue();
+        assertThat(registry.get("db").getMaxNumberOfTries()).isEqualTo(7);
+        assertThat(registry.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    public void verifyExecutionsUseTheCurrentConfigOfTheirCallName() throws Exception {
+        Path file = write("retry.properties", "db.maxTries=2\ndb.delay=1ms\ndb.backoff=fixed\n");
+        RetryConfigRegistry registry = RetryConfigRegistry.load(file);
+        CallExecutorBuilder<String> builder = new CallExecutorBuilder<String>()
+                .config(defaultConfig)
+                .configRegistry(registry);
+
+        assertThat(triesUntilExhausted(builder, "db")).isEqualTo(2);
+        assertThat(triesUntilExhausted(builder, "other")).isEqualTo(1);
+
+        write("retry.properties", "db.maxTries=4\ndb.delay=1ms\ndb.backoff=fixed\n");
+        registry.reload();
+
+        assertThat(triesUntilExhausted(builder, "db")).isEqualTo(4);
+        AtomicInteger calls = new AtomicInteger();
+        Status<String> status = builder.buildAsync().execute(() -> {
+            if (calls.incrementAndGet() < 4) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        }, "db").get();
+        assertThat(status.getTotalTries()).isEqualTo(4);
+    }
+
+    @Test
+    public void verifyWatchedFileIsReloaded() throws Exception {
+        Path file = write("retry.properties", "db.maxTries=3\ndb.backoff=fixed\n");
+        try (RetryConfigRegistry registry = RetryConfigRegistry.load(file).watch()) {
+            write("retry.properties", "db.maxTries=9\ndb.backoff=fixed\n");
+
+            for (int i = 0; i < 100 && registry.get("db").getMaxNumberOfTries() != 9; i++) {
+                Thread.sleep(100);
+            }
+            assertThat(registry.get("db").getMaxNumberOfTries()).isEqualTo(9);
+        }
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int triesUntilExhausted(CallExecutorBuilder<String> builder, String callName) {
+        try {
+            builder.build().execute(() -> {
+                throw new IllegalStateException();
+            }, callName);
+            throw new AssertionError("The execution should have exhausted its tries");
+        } catch (RetriesExhaustedException e) {
+            return e.getStatus().getTotalTries();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.evanlennick.retry4j.exception;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class Retry4jExceptionTest {
+
+    @Test
+    public void verifyMessageIsBuiltOnceWhenFirstRequested() {
+        AtomicInteger built = new AtomicInteger();
+        RetriesExhaustedException exception = new RetriesExhaustedException(() -> "message " + built.incrementAndGet(),
+                null, null, true);
+
+        assertThat(built.get()).isZero();
+        assertThat(exception.getMessage()).isEqualTo("message 1");
+        assertThat(exception.getMessage()).isEqualTo("message 1");
+        assertThat(exception.toString()).endsWith(": message 1");
+    }
+
+    @Test
+    public void verifyStacklessExceptionsKeepCauseStackTrace() {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(new RetryConfigBuilder()
+                        .retryOnSpecificExceptions(IllegalStateException.class)
+                        .withMaxNumberOfTries(2)
+                        .withNoWaitBackoff()
+                        .withStacklessExceptions()
+                        .build())
+                .build();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalStateException();
+        })).isInstanceOfSatisfying(RetriesExhaustedException.class, e -> {
+            assertThat(e.getStackTrace()).isEmpty();
+            assertThat(e.getCause().getStackTrace()).isNotEmpty();
+            assertThat(e.getMessage()).endsWith("failed after 2 tries!");
+        });
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalArgumentException();
+        })).isInstanceOfSatisfying(UnexpectedException.class, e -> {
+            assertThat(e.getStackTrace()).isEmpty();
+            assertThat(e.getCause().getStackTrace()).isNotEmpty();
+        });
+    }
+
+    @Test
+    public void verifyStackTraceIsFilledInByDefault() {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(new RetryConfigBuilder()
+                        .retryOnAnyException()
+                        .withMaxNumberOfTries(1)
+                        .withNoWaitBackoff()
+                        .build())
+                .build();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalStateException();
+        })).isInstanceOfSatisfying(RetriesExhaustedException.class,
+                e -> assertThat(e.getStackTrace()).isNotEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package com.evanlennick.retry4j.jfr;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class FlightRecorderEventsTest {
+
+    private static final String ATTEMPT = "com.evanlennick.retry4j.Attempt";
+    private static final String BACKOFF = "com.evanlennick.retry4j.Backoff";
+    private static final String EXECUTION = "com.evanlennick.retry4j.Execution";
+
+    private final RetryConfig config = new RetryConfigBuilder()
+            .retryOnSpecificExceptions(IllegalStateException.class)
+            .withMaxNumberOfTries(2)
+            .withDelayBetweenTries(10, ChronoUnit.MILLIS)
+            .withFixedBackoff()
+            .build();
+
+    @Test
+    public void verifyRecorderIsOnlyCreatedWhileEventsAreEnabled() {
+        assertThat(FlightRecorderSupport.isAvailable()).isTrue();
+        assertThat(FlightRecorderSupport.startExecution("call")).isNull();
+
+        try (Recording recording = new Recording()) {
+            recording.enable(EXECUTION);
+            recording.start();
+
+            assertThat(FlightRecorderSupport.startExecution("call")).isNotNull();
+        }
+    }
+
+    @Test
+    public void verifyEventsAreEmittedForExhaustedExecution() throws IOException {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>().config(config).build();
+
+        List<RecordedEvent> events = record(() -> assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalStateException();
+        }, "inventory")).isInstanceOf(RetriesExhaustedException.class));
+
+        List<RecordedEvent> attempts = ofType(events, ATTEMPT);
+        assertThat(attempts).hasSize(2);
+        assertThat(attempts.get(0).getInt("attempt")).isEqualTo(1);
+        assertThat(attempts.get(0).getString("outcome")).isEqualTo("FAILURE");
+        assertThat(attempts.get(0).getString("exceptionClass")).isEqualTo(IllegalStateException.class.getName());
+        assertThat(attempts.get(1).getInt("attempt")).isEqualTo(2);
+
+        List<RecordedEvent> backoffs = ofType(events, BACKOFF);
+        assertThat(backoffs).hasSize(1);
+        assertThat(backoffs.get(0).getInt("nextAttempt")).isEqualTo(2);
+        assertThat(backoffs.get(0).getDuration().toMillis()).isGreaterThanOrEqualTo(10);
+
+        List<RecordedEvent> executions = ofType(events, EXECUTION);
+        assertThat(executions).hasSize(1);
+        assertThat(executions.get(0).getString("callName")).isEqualTo("inventory");
+        assertThat(executions.get(0).getInt("totalTries")).isEqualTo(2);
+        assertThat(executions.get(0).getString("outcome")).isEqualTo("EXHAUSTED");
+    }
+
+    @Test
+    public void verifyEventsAreEmittedForUnexpectedException() throws IOException {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>().config(config).build();
+
+        List<RecordedEvent> events = record(() -> assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IOException();
+        }, "inventory")));
+
+        assertThat(ofType(events, ATTEMPT)).extracting(e -> e.getString("outcome")).containsExactly("UNEXPECTED");
+        assertThat(ofType(events, EXECUTION)).extracting(e -> e.getString("outcome")).containsExactly("UNEXPECTED");
+        assertThat(ofType(events, BACKOFF)).isEmpty();
+    }
+
+    private static List<RecordedEvent> record(Runnable runnable) throws IOException {
+        Path file = Files.createTempFile("retry4j", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ATTEMPT);
+            recording.enable(BACKOFF);
+            recording.enable(EXECUTION);
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String type) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(type))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,168 @@
+package com.evanlennick.retry4j.jmx;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetryExecutorMonitorTest {
+
+    private RetryExecutorMonitor monitor;
+
+    private RetryConfig config;
+
+    @BeforeMethod
+    public void setup() {
+        monitor = RetryExecutorMonitor.register("test-" + UUID.randomUUID());
+
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .build();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        monitor.unregister();
+    }
+
+    @Test
+    public void verifyExecutionsAreCountedOverJmx() throws Exception {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .monitor(monitor)
+                .onFailureListener(status -> {
+                })
+                .build();
+
+        AtomicInteger tries = new AtomicInteger();
+        executor.execute(() -> {
+            if (tries.incrementAndGet() < 3) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        });
+        executor.execute(() -> {
+            throw new IllegalStateException();
+        });
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = RetryExecutorMonitor.objectName(monitor.getName());
+        assertThat(server.getAttribute(name, "Retries")).isEqualTo(4L);
+        assertThat(server.getAttribute(name, "RecentRetries")).isEqualTo(4L);
+        assertThat(server.getAttribute(name, "ExhaustedExecutions")).isEqualTo(1L);
+        assertThat(server.getAttribute(name, "RecentExhaustedExecutions")).isEqualTo(1L);
+        assertThat(server.getAttribute(name, "InFlightExecutions")).isEqualTo(0L);
+        assertThat(server.getAttribute(name, "ExecutionsInBackoff")).isEqualTo(0L);
+        assertThat((String) server.getAttribute(name, "Config")).contains("maxNumberOfTries=3");
+        assertThat(server.isRegistered(new ObjectName(RetryControl.OBJECT_NAME))).isTrue();
+
+        monitor.unregister();
+        assertThat(server.isRegistered(name)).isFalse();
+    }
+
+    @Test
+    public void verifyExecutionsInBackoffAreShown() throws Exception {
+        RetryConfig slowConfig = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(Duration.ofSeconds(10))
+                .withFixedBackoff()
+                .build();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        HashedWheelTimer timer = new HashedWheelTimer();
+        try {
+            AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(slowConfig)
+                    .monitor(monitor)
+                    .buildAsync(executorService, timer);
+
+            CountDownLatch tried = new CountDownLatch(1);
+            CompletableFuture<Status<String>> future = executor.execute(() -> {
+                tried.countDown();
+                throw new IllegalStateException();
+            });
+            assertThat(tried.await(5, TimeUnit.SECONDS)).isTrue();
+            await(monitor::getExecutionsInBackoff, 1);
+            assertThat(monitor.getInFlightExecutions()).isEqualTo(1);
+
+            // the execution may end on the worker thread, if it had not yet handed its next try to the timer
+            future.cancel(true);
+            await(monitor::getInFlightExecutions, 0);
+            assertThat(monitor.getExecutionsInBackoff()).isEqualTo(0);
+            assertThat(monitor.getRetries()).isEqualTo(0);
+        } finally {
+            executorService.shutdown();
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void verifyPausedRetriesDrainExecutions() {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .monitor(monitor)
+                .onFailureListener(status -> {
+                })
+                .build();
+
+        monitor.pauseRetries();
+        AtomicInteger tries = new AtomicInteger();
+        Status<String> status = executor.execute(() -> {
+            tries.incrementAndGet();
+            throw new IllegalStateException();
+        });
+        assertThat(status.wasSuccessful()).isFalse();
+        assertThat(tries.get()).isEqualTo(1);
+        assertThat(monitor.getDrainedExecutions()).isEqualTo(1);
+
+        monitor.resumeRetries();
+        tries.set(0);
+        executor.execute(() -> {
+            tries.incrementAndGet();
+            throw new IllegalStateException();
+        });
+        assertThat(tries.get()).isEqualTo(3);
+        assertThat(monitor.getDrainedExecutions()).isEqualTo(1);
+    }
+
+    @Test
+    public void verifyNamesAreUnique() {
+        assertThatThrownBy(() -> RetryExecutorMonitor.register(monitor.getName()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void await(LongSupplier gauge, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (gauge.getAsLong() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(gauge.getAsLong()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,171 @@
+package com.evanlennick.retry4j.listener;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import org.testng.annotations.Test;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncEventDispatcherTest {
+
+    private final RetryConfig config = new RetryConfigBuilder()
+            .retryOnAnyException()
+            .withMaxNumberOfTries(2)
+            .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+            .withFixedBackoff()
+            .build();
+
+    @Test
+    public void verifyEventsAreDeliveredInOrderToEverySubscriber() throws Exception {
+        List<String> all = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(2);
+
+        try (AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>()) {
+            dispatcher.subscribe(event -> all.add(event.getType() + ":" + event.getTotalTries()));
+            dispatcher.subscribe(RetryEventType.ON_COMPLETION, event -> completed.countDown());
+            dispatcher.subscribe(RetryEventType.ON_COMPLETION, event -> completed.countDown());
+
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .eventDispatcher(dispatcher)
+                    .build();
+            assertThatThrownBy(() -> executor.execute(() -> {
+                throw new IllegalStateException();
+            })).isInstanceOf(RetriesExhaustedException.class);
+
+            assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(all).containsExactly("AFTER_FAILED_TRY:1", "BEFORE_NEXT_TRY:1", "AFTER_FAILED_TRY:2",
+                "ON_FAILURE:2", "ON_COMPLETION:2");
+    }
+
+    @Test
+    public void verifyEventIsSnapshotOfStatus() {
+        List<RetryEvent<String>> events = Collections.synchronizedList(new ArrayList<>());
+        Status<String> status = new Status<>();
+        status.setCallName("before");
+
+        try (AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>()) {
+            dispatcher.subscribe(RetryEventType.ON_SUCCESS, events::add);
+
+            dispatcher.publish(RetryEventType.ON_SUCCESS, status);
+            status.setCallName("after");
+        }
+
+        assertThat(events).extracting(RetryEvent::getCallName).containsExactly("before");
+    }
+
+    @Test
+    public void verifyFailingListenerDoesNotStopDelivery() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+
+        try (AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>()) {
+            dispatcher.subscribe(RetryEventType.ON_SUCCESS, event -> {
+                throw new IllegalStateException();
+            });
+            dispatcher.subscribe(RetryEventType.ON_SUCCESS, event -> delivered.countDown());
+
+            dispatcher.publish(RetryEventType.ON_SUCCESS, new Status<>());
+
+            assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    public void verifySlowListenerDoesNotBlockExecutionWhenDropping() {
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (AsyncEventDispatcher<String> dispatcher =
+                     new AsyncEventDispatcher<>(4, AsyncEventDispatcher.OverflowStrategy.DROP)) {
+            dispatcher.subscribe(RetryEventType.ON_SUCCESS, event -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .eventDispatcher(dispatcher)
+                    .build();
+            for (int i = 0; i < 10; i++) {
+                executor.execute(() -> "done");
+            }
+
+            assertThat(dispatcher.getDroppedCount()).isGreaterThanOrEqualTo(5);
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void verifyBlockingDispatcherDeliversEveryEvent() throws Exception {
+        LongAdder delivered = new LongAdder();
+
+        AsyncEventDispatcher<String> dispatcher =
+                new AsyncEventDispatcher<>(16, AsyncEventDispatcher.OverflowStrategy.BLOCK, 2);
+        dispatcher.subscribe(RetryEventType.ON_SUCCESS, event -> delivered.increment());
+
+        List<Thread> publishers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread publisher = new Thread(() -> {
+                Status<String> status = new Status<>();
+                for (int j = 0; j < 10_000; j++) {
+                    dispatcher.publish(RetryEventType.ON_SUCCESS, status);
+                }
+            });
+            publisher.start();
+            publishers.add(publisher);
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        dispatcher.close();
+
+        assertThat(delivered.sum()).isEqualTo(40_000);
+        assertThat(dispatcher.getDroppedCount()).isZero();
+    }
+
+    @Test
+    public void verifyEventsWithoutSubscribersAreNotQueued() {
+        try (AsyncEventDispatcher<String> dispatcher =
+                     new AsyncEventDispatcher<>(2, AsyncEventDispatcher.OverflowStrategy.DROP)) {
+            for (int i = 0; i < 10; i++) {
+                assertThat(dispatcher.publish(RetryEventType.ON_SUCCESS, new Status<>())).isTrue();
+            }
+
+            assertThat(dispatcher.getDroppedCount()).isZero();
+        }
+    }
+
+    @Test
+    public void verifyClosedDispatcherDropsEvents() {
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>();
+        dispatcher.subscribe(event -> {
+        });
+        dispatcher.close();
+
+        assertThat(dispatcher.publish(RetryEventType.ON_SUCCESS, new Status<>())).isFalse();
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void verifyCapacityMustBePowerOfTwo() {
+        assertThatThrownBy(() -> new AsyncEventDispatcher<String>(100, AsyncEventDispatcher.OverflowStrategy.DROP))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,193 @@
+package com.evanlennick.retry4j.listener;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import com.evanlennick.retry4j.exception.UnexpectedException;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.Test;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AttemptObserverTest {
+
+    private final RetryConfig config = new RetryConfigBuilder()
+            .retryOnSpecificExceptions(IllegalStateException.class)
+            .retryOnReturnValue("retry")
+            .withMaxNumberOfTries(3)
+            .withDelayBetweenTries(10, ChronoUnit.MILLIS)
+            .withFixedBackoff()
+            .build();
+
+    @Test
+    public void verifyEveryAttemptIsObserved() {
+        RecordingObserver observer = new RecordingObserver();
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .attemptObserver(observer)
+                .build();
+
+        AtomicInteger calls = new AtomicInteger();
+        executor.execute(() -> {
+            switch (calls.incrementAndGet()) {
+                case 1:
+                    throw new IllegalStateException();
+                case 2:
+                    return "retry";
+                default:
+                    return "done";
+            }
+        }, "db");
+
+        assertThat(observer.events).containsExactly(
+                "attempt db 1 1 IllegalStateException",
+                "backoff db 2",
+                "attempt db 2 2 null",
+                "backoff db 3",
+                "attempt db 3 0 null",
+                "execution db 3 0");
+    }
+
+    @Test
+    public void verifyExhaustedExecutionIsObserved() {
+        RecordingObserver observer = new RecordingObserver();
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .attemptObserver(observer)
+                .build();
+
+        assertThatThrownBy(() -> executor.execute(() -> "retry", "db"))
+                .isInstanceOf(RetriesExhaustedException.class);
+
+        assertThat(observer.events).last().isEqualTo("execution db 3 " + AttemptObserver.EXHAUSTED);
+    }
+
+    @Test
+    public void verifyAbortedExecutionIsObserved() {
+        RecordingObserver observer = new RecordingObserver();
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .attemptObserver(observer)
+                .build();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalArgumentException();
+        }, "db")).isInstanceOf(UnexpectedException.class);
+
+        assertThat(observer.events).containsExactly(
+                "attempt db 1 " + AttemptObserver.ABORTED + " IllegalArgumentException",
+                "execution db 1 " + AttemptObserver.ABORTED);
+    }
+
+    @Test
+    public void verifyTimesAreOrdered() {
+        List<long[]> times = new ArrayList<>();
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .attemptObserver(new AttemptObserver() {
+                    @Override
+                    public void onAttempt(String callName, int attempt, long startNanos, long endNanos, int outcome,
+                                          Class<? extends Throwable> exceptionClass) {
+                        times.add(new long[]{startNanos, endNanos});
+                    }
+
+                    @Override
+                    public void onBackoff(String callName, int nextAttempt, long startNanos, long endNanos) {
+                        times.add(new long[]{startNanos, endNanos});
+                    }
+                })
+                .build();
+
+        assertThatThrownBy(() -> executor.execute(() -> "retry"))
+                .isInstanceOf(RetriesExhaustedException.class);
+
+        assertThat(times).hasSize(5);
+        for (int i = 0; i < times.size(); i++) {
+            assertThat(times.get(i)[1]).isGreaterThanOrEqualTo(times.get(i)[0]);
+            if (i > 0) {
+                assertThat(times.get(i)[0]).isEqualTo(times.get(i - 1)[1]);
+            }
+        }
+        assertThat(times.get(1)[1] - times.get(1)[0]).isGreaterThanOrEqualTo(10_000_000L);
+    }
+
+    @Test
+    public void verifyQueueWaitIsNotPartOfFirstAttempt() throws Exception {
+        List<long[]> times = new ArrayList<>();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        HashedWheelTimer timer = new HashedWheelTimer();
+        try {
+            AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .attemptObserver(new AttemptObserver() {
+                        @Override
+                        public void onAttempt(String callName, int attempt, long startNanos, long endNanos,
+                                              int outcome, Class<? extends Throwable> exceptionClass) {
+                            times.add(new long[]{startNanos, endNanos});
+                        }
+
+                        @Override
+                        public void onExecution(String callName, int totalTries, long startNanos, long endNanos,
+                                                int outcome) {
+                            times.add(new long[]{startNanos, endNanos});
+                        }
+                    })
+                    .buildAsync(executorService, timer);
+
+            // keep the only worker busy, so that the first try waits in the queue
+            CountDownLatch release = new CountDownLatch(1);
+            executorService.submit(() -> {
+                release.await();
+                return null;
+            });
+            CompletableFuture<Status<String>> future = executor.execute(() -> "done");
+            Thread.sleep(200);
+            release.countDown();
+            future.get(5, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdown();
+            timer.stop();
+        }
+
+        assertThat(times).hasSize(2);
+        assertThat(times.get(1)[1] - times.get(1)[0]).isGreaterThanOrEqualTo(200_000_000L);
+        assertThat(times.get(0)[1] - times.get(0)[0]).isLessThan(100_000_000L);
+    }
+
+    private static class RecordingObserver implements AttemptObserver {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onAttempt(String callName, int attempt, long startNanos, long endNanos, int outcome,
+                              Class<? extends Throwable> exceptionClass) {
+            events.add("attempt " + callName + " " + attempt + " " + outcome + " "
+                    + (exceptionClass == null ? null : exceptionClass.getSimpleName()));
+        }
+
+        @Override
+        public void onBackoff(String callName, int nextAttempt, long startNanos, long endNanos) {
+            events.add("backoff " + callName + " " + nextAttempt);
+        }
+
+        @Override
+        public void onExecution(String callName, int totalTries, long startNanos, long endNanos, int outcome) {
+            events.add("execution " + callName + " " + totalTries + " " + outcome);
+        }
+    }
+}
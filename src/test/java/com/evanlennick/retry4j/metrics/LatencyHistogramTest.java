@@ -0,0 +1,71 @@
+package com.evanlennick.retry4j.metrics;
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void verifyEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getValueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    public void verifySmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 64; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(31);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(63);
+    }
+
+    @Test
+    public void verifyPercentilesAreWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(100_000);
+        assertThat((double) histogram.getValueAtPercentile(50)).isCloseTo(50_000_000, within(50_000_000 / 64.0));
+        assertThat((double) histogram.getValueAtPercentile(99)).isCloseTo(99_000_000, within(99_000_000 / 64.0));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100_000_000);
+        assertThat(histogram.getMaxNanos()).isEqualTo(100_000_000);
+        assertThat(histogram.getTotalNanos()).isEqualTo(1000L * 100_000 * 100_001 / 2);
+    }
+
+    @Test
+    public void verifyOutOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.getValueAtPercentile(0)).isZero();
+        assertThat(histogram.getValueAtPercentile(100)).isGreaterThanOrEqualTo(LatencyHistogram.MAX_TRACKABLE_NANOS);
+        assertThat(histogram.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void verifyBucketBoundsCoverEveryValue() {
+        for (long value : new long[]{63, 64, 65, 127, 128, 1000, 123_456_789, LatencyHistogram.MAX_TRACKABLE_NANOS}) {
+            int index = LatencyHistogram.indexOf(value);
+
+            assertThat(LatencyHistogram.lowestEquivalentValue(index)).isLessThanOrEqualTo(value);
+            assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+        }
+    }
+
+    @Test
+    public void verifyInvalidPercentileIsRejected() {
+        assertThatThrownBy(() -> new LatencyHistogram().getValueAtPercentile(101))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.evanlennick.retry4j.metrics;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import com.evanlennick.retry4j.exception.UnexpectedException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetryMetricsTest {
+
+    private RetryMetrics metrics;
+
+    private CallExecutor<String> executor;
+
+    @BeforeMethod
+    public void setup() {
+        metrics = new RetryMetrics();
+
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnSpecificExceptions(IllegalStateException.class)
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(10, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+
+        executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .metrics(metrics)
+                .build();
+    }
+
+    @Test
+    public void verifyExhaustedExecutionIsRecorded() {
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalStateException();
+        }, "inventory")).isInstanceOf(RetriesExhaustedException.class);
+
+        CallMetrics callMetrics = metrics.forCall("inventory");
+        assertThat(callMetrics.getCalls()).isEqualTo(1);
+        assertThat(callMetrics.getAttempts()).isEqualTo(3);
+        assertThat(callMetrics.getRetries()).isEqualTo(2);
+        assertThat(callMetrics.getExhausted()).isEqualTo(1);
+        assertThat(callMetrics.getAttemptLatency().getCount()).isEqualTo(3);
+        assertThat(callMetrics.getBackoffTime().getCount()).isEqualTo(2);
+        assertThat(callMetrics.getBackoffTime().getValueAtPercentile(50)).isGreaterThanOrEqualTo(10_000_000);
+        assertThat(callMetrics.getCallLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void verifySuccessfulExecutionIsRecorded() {
+        executor.execute(() -> "done", "inventory");
+
+        CallMetrics callMetrics = metrics.forCall("inventory");
+        assertThat(callMetrics.getCalls()).isEqualTo(1);
+        assertThat(callMetrics.getAttempts()).isEqualTo(1);
+        assertThat(callMetrics.getRetries()).isZero();
+        assertThat(callMetrics.getExhausted()).isZero();
+    }
+
+    @Test
+    public void verifyUnexpectedExceptionIsRecorded() {
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new FileNotFoundException();
+        }, "inventory")).isInstanceOf(UnexpectedException.class);
+
+        CallMetrics callMetrics = metrics.forCall("inventory");
+        assertThat(callMetrics.getUnexpectedExceptions()).isEqualTo(1);
+        assertThat(callMetrics.getAttempts()).isEqualTo(1);
+        assertThat(callMetrics.getCallLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void verifyPrometheusFormat() {
+        executor.execute(() -> "done", "say \"hi\"");
+        executor.execute(() -> "done");
+
+        String scrape = metrics.scrape();
+
+        assertThat(scrape).contains("# TYPE retry4j_calls_total counter\n");
+        assertThat(scrape).contains("retry4j_calls_total{call_name=\"say \\\"hi\\\"\"} 1\n");
+        assertThat(scrape).contains("retry4j_calls_total{call_name=\"\"} 1\n");
+        assertThat(scrape).contains("# TYPE retry4j_attempt_duration_seconds summary\n");
+        assertThat(scrape).contains("retry4j_attempt_duration_seconds_count{call_name=\"\"} 1\n");
+        assertThat(scrape).containsPattern("retry4j_call_duration_seconds\\{call_name=\"\",quantile=\"0.99\"} [0-9.E-]+\n");
+    }
+
+    @Test
+    public void verifyHttpEndpointServesMetrics() throws Exception {
+        executor.execute(() -> "done", "inventory");
+
+        try (PrometheusHttpServer server = new PrometheusHttpServer(metrics, 0)) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(
+                    "http://localhost:" + server.getPort() + "/metrics").openConnection();
+
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            assertThat(connection.getContentType()).isEqualTo(PrometheusHttpServer.CONTENT_TYPE);
+            assertThat(read(connection.getInputStream()))
+                    .contains("retry4j_calls_total{call_name=\"inventory\"} 1\n");
+        }
+    }
+
+    private static String read(InputStream in) throws Exception {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.evanlennick.retry4j.persistence;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.PersistenceException;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class DeadLetterStoreTest {
+
+    private static volatile boolean healthy;
+
+    private Path directory;
+
+    private RetryConfig config;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("retry4j-dead-letters");
+        healthy = false;
+
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(2)
+                .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .build();
+    }
+
+    @Test
+    public void verifyExhaustedCallIsStoredBeforeExceptionIsThrown() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .build();
+
+            assertThatThrownBy(() -> executor.execute(new DependencyCall(), "order-1"))
+                    .isInstanceOf(RetriesExhaustedException.class);
+
+            assertThat(store.getDeadLetters()).hasSize(1);
+            DeadLetter deadLetter = store.getDeadLetters().get(0);
+            assertThat(deadLetter.getCallName()).isEqualTo("order-1");
+            assertThat(deadLetter.getTotalTries()).isEqualTo(2);
+            assertThat(deadLetter.getExceptionClassName()).isEqualTo(IllegalStateException.class.getName());
+            assertThat(deadLetter.getExceptionMessage()).isEqualTo("dependency is down");
+        }
+    }
+
+    @Test
+    public void verifyFailingStoreDoesNotReplaceRetriesExhaustedException() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .build();
+
+            // a plain lambda is not serializable, so the store cannot encode it
+            assertThatThrownBy(() -> executor.execute(() -> {
+                throw new IllegalStateException("dependency is down");
+            }, "order-1"))
+                    .isInstanceOf(RetriesExhaustedException.class)
+                    .satisfies(e -> assertThat(e.getSuppressed()).hasOnlyElementsOfType(PersistenceException.class));
+
+            assertThat(store.getDeadLetters()).isEmpty();
+        }
+    }
+
+    @Test
+    public void verifyFailingStoreDoesNotSkipOnFailureListener() {
+        AtomicInteger failures = new AtomicInteger();
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .onFailureListener(s -> failures.incrementAndGet())
+                    .build();
+
+            Status<String> status = executor.execute(() -> {
+                throw new IllegalStateException("dependency is down");
+            }, "order-1");
+
+            assertThat(status.wasSuccessful()).isFalse();
+            assertThat(failures.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void verifyDeadLettersSurviveReopen() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .onFailureListener(s -> { })
+                    .build();
+            executor.execute(new DependencyCall(), "order-1");
+            executor.execute(new DependencyCall(), "order-2");
+        }
+
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            assertThat(store.getDeadLetters()).extracting(DeadLetter::getCallName)
+                    .containsExactly("order-1", "order-2");
+        }
+    }
+
+    @Test
+    public void verifyRemovedDeadLettersAreNotRecovered() {
+        DeadLetter deadLetter = new DeadLetter("id", null, "call", 3, 1000L, 2000L, null, null, new byte[]{1});
+
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            store.add(deadLetter);
+            assertThat(store.remove("id")).isTrue();
+            assertThat(store.remove("id")).isFalse();
+        }
+
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    @Test
+    public void verifySuccessfulReplayRemovesDeadLetters() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .onFailureListener(s -> { })
+                    .build();
+            executor.execute(new DependencyCall(), "order-1");
+            executor.execute(new DependencyCall(), "order-2");
+
+            healthy = true;
+            ReplayResult result = store.replay(executor, 1000);
+
+            assertThat(result.getReplayed()).isEqualTo(2);
+            assertThat(result.getSucceeded()).isEqualTo(2);
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    @Test
+    public void verifyFailedReplayReplacesDeadLetter() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .build();
+            assertThatThrownBy(() -> executor.execute(new DependencyCall(), "order-1"))
+                    .isInstanceOf(RetriesExhaustedException.class);
+            String originalId = store.getDeadLetters().get(0).getId();
+
+            ReplayResult result = store.replay(executor, 1000);
+
+            assertThat(result.getFailed()).isEqualTo(1);
+            assertThat(store.getDeadLetters()).hasSize(1);
+            assertThat(store.getDeadLetters().get(0).getId()).isNotEqualTo(originalId);
+        }
+    }
+
+    @Test
+    public void verifyFailedReplayKeepsDeadLetterWhenStoreCannotAddReplacement() throws Exception {
+        AtomicBoolean diskFull = new AtomicBoolean();
+        try (DeadLetterStore<String> store = new DeadLetterStore<String>(directory, new SerializableTaskCodec<>()) {
+            @Override
+            protected long append(byte[] record) {
+                // only fails adds, so that removals still go through
+                if (diskFull.get() && record[0] == 1) {
+                    throw new PersistenceException("No space left on device");
+                }
+                return super.append(record);
+            }
+        }) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .build();
+            assertThatThrownBy(() -> executor.execute(new DependencyCall(), "order-1"))
+                    .isInstanceOf(RetriesExhaustedException.class);
+            String originalId = store.getDeadLetters().get(0).getId();
+
+            diskFull.set(true);
+            ReplayResult result = store.replay(executor, 1000);
+
+            assertThat(result.getFailed()).isEqualTo(1);
+            assertThat(store.getDeadLetters()).extracting(DeadLetter::getId).containsExactly(originalId);
+
+            CallExecutor<String> listeningExecutor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .onFailureListener(s -> { })
+                    .build();
+            store.replay(listeningExecutor, 1000);
+            assertThat(store.getDeadLetters()).extracting(DeadLetter::getId).containsExactly(originalId);
+
+            AsyncCallExecutor<String> asyncExecutor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .buildAsync();
+            store.replay(asyncExecutor, 1000).get(5, TimeUnit.SECONDS);
+            assertThat(store.getDeadLetters()).extracting(DeadLetter::getId).containsExactly(originalId);
+        }
+    }
+
+    @Test
+    public void verifyReplayOnlyTouchesMatchingDeadLetters() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .onFailureListener(s -> { })
+                    .build();
+            executor.execute(new DependencyCall(), "order-1");
+            executor.execute(new DependencyCall(), "invoice-1");
+
+            healthy = true;
+            store.replay(executor, 1000, deadLetter -> deadLetter.getCallName().startsWith("order"));
+
+            assertThat(store.getDeadLetters()).extracting(DeadLetter::getCallName).containsExactly("invoice-1");
+        }
+    }
+
+    @Test
+    public void verifyReplayIsThrottled() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .onFailureListener(s -> { })
+                    .build();
+            for (int i = 0; i < 5; i++) {
+                executor.execute(new DependencyCall(), "order-" + i);
+            }
+
+            healthy = true;
+            long start = System.currentTimeMillis();
+            store.replay(executor, 20);
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertThat(elapsed).isGreaterThanOrEqualTo(200);
+        }
+    }
+
+    @Test
+    public void verifyAsyncReplay() throws Exception {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .deadLetterSink(store)
+                    .buildAsync();
+            executor.execute(new DependencyCall(), "order-1").exceptionally(t -> null).get();
+            assertThat(store.size()).isEqualTo(1);
+
+            healthy = true;
+            ReplayResult result = store.replay(executor, 1000).get();
+
+            assertThat(result.getSucceeded()).isEqualTo(1);
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    @Test
+    public void verifyReplayRateMustBePositive() {
+        try (DeadLetterStore<String> store = new DeadLetterStore<>(directory, new SerializableTaskCodec<>())) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>().config(config).build();
+
+            assertThatThrownBy(() -> store.replay(executor, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static class DependencyCall implements Callable<String>, Serializable {
+
+        @Override
+        public String call() {
+            if (!healthy) {
+                throw new IllegalStateException("dependency is down");
+            }
+            return "done";
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.evanlennick.retry4j.persistence;
+
+import com.evanlennick.retry4j.exception.PersistenceException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetryJournalTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("retry4j-journal");
+    }
+
+    @Test
+    public void verifyPendingRetriesSurviveReopen() {
+        PendingRetry first = new PendingRetry("first", new byte[]{1, 2, 3}, 1, 1000L);
+        PendingRetry second = new PendingRetry("second", new byte[]{4, 5}, 2, 2000L);
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            journal.recordPending(first);
+            journal.recordPending(second);
+        }
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            assertThat(journal.getPendingRetries()).containsExactly(first, second);
+        }
+    }
+
+    @Test
+    public void verifyLatestRecordForKeyWins() {
+        PendingRetry updated = new PendingRetry("key", new byte[]{1}, 2, 2000L);
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            journal.recordPending(new PendingRetry("key", new byte[]{1}, 1, 1000L));
+            journal.recordPending(updated);
+        }
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            assertThat(journal.getPendingRetries()).containsExactly(updated);
+        }
+    }
+
+    @Test
+    public void verifyCompletedRetriesAreNotRecovered() {
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            journal.recordPending(new PendingRetry("done", new byte[]{1}, 1, 1000L));
+            journal.recordCompleted("done");
+        }
+
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            assertThat(journal.getPendingRetries()).isEmpty();
+            assertThat(journal.isPending("done")).isFalse();
+        }
+    }
+
+    @Test
+    public void verifyDueRetries() {
+        try (RetryJournal journal = new RetryJournal(directory)) {
+            journal.recordPending(new PendingRetry("due", new byte[]{1}, 1, 1000L));
+            journal.recordPending(new PendingRetry("notDue", new byte[]{1}, 1, 3000L));
+
+            List<PendingRetry> due = journal.getDueRetries(2000L);
+
+            assertThat(due).extracting(PendingRetry::getKey).containsExactly("due");
+        }
+    }
+
+    @Test
+    public void verifyCompactionRemovesStaleSegments() {
+        try (RetryJournal journal = new RetryJournal(directory, 1024, 3)) {
+            for (int i = 0; i < 200; i++) {
+                journal.recordPending(new PendingRetry("key" + (i % 5), new byte[32], i, i));
+            }
+
+            assertThat(journal.getSegmentCount()).isLessThan(3);
+            assertThat(journal.getPendingRetries()).hasSize(5);
+        }
+
+        try (RetryJournal journal = new RetryJournal(directory, 1024, 3)) {
+            assertThat(journal.getPendingRetries()).hasSize(5);
+            assertThat(journal.getPendingRetries()).extracting(PendingRetry::getAttemptCount)
+                    .containsExactlyInAnyOrder(195, 196, 197, 198, 199);
+        }
+    }
+
+    @Test
+    public void verifyRecordLargerThanSegmentIsRejected() {
+        try (RetryJournal journal = new RetryJournal(directory, 64, 2)) {
+            assertThatThrownBy(() -> journal.recordPending(new PendingRetry("key", new byte[128], 1, 1L)))
+                    .isInstanceOf(PersistenceException.class);
+        }
+    }
+
+    @Test
+    public void verifyClosedJournalRejectsWrites() {
+        RetryJournal journal = new RetryJournal(directory);
+        journal.close();
+
+        assertThatThrownBy(() -> journal.recordPending(new PendingRetry("key", new byte[1], 1, 1L)))
+                .isInstanceOf(PersistenceException.class);
+    }
+}
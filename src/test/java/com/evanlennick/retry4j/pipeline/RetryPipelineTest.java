@@ -0,0 +1,133 @@
+package com.evanlennick.retry4j.pipeline;
+
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetryPipelineTest {
+
+    private AtomicInteger fetches;
+
+    private AtomicInteger transforms;
+
+    private AtomicInteger publishes;
+
+    private RetryConfig config;
+
+    private ExecutorService executorService;
+
+    private HashedWheelTimer timer;
+
+    @BeforeMethod
+    public void setup() {
+        fetches = new AtomicInteger();
+        transforms = new AtomicInteger();
+        publishes = new AtomicInteger();
+
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(Duration.ofMillis(10))
+                .withFixedBackoff()
+                .build();
+
+        executorService = Executors.newFixedThreadPool(2);
+        timer = new HashedWheelTimer();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        executorService.shutdown();
+        timer.stop();
+    }
+
+    @Test
+    public void verifyOnlyTheFailedStageIsRetried() {
+        PipelineStatus<String> status = newPipeline(config, 2).newRun().execute();
+
+        assertThat(status.getResult()).isEqualTo("published:HELLO");
+        assertThat(fetches.get()).isEqualTo(1);
+        assertThat(transforms.get()).isEqualTo(1);
+        assertThat(publishes.get()).isEqualTo(3);
+        assertThat(status.getStageStatuses()).extracting(Status::getTotalTries).containsExactly(1, 1, 3);
+        assertThat(status.getStageStatus("transform").getResult()).isEqualTo("HELLO");
+        assertThat(status.getResumedFromStage()).isEqualTo("fetch");
+    }
+
+    @Test
+    public void verifyRunResumesFromTheFailedStage() {
+        PipelineRun<String> run = newPipeline(config, 4).newRun();
+
+        assertThatThrownBy(run::execute)
+                .isInstanceOfSatisfying(RetriesExhaustedException.class,
+                        e -> assertThat(e.getStatus().getCallName()).isEqualTo("publish"));
+        assertThat(run.getCompletedStages()).isEqualTo(2);
+        assertThat(run.getNextStage()).isEqualTo("publish");
+        assertThat(run.getCheckpoint("transform")).isEqualTo("HELLO");
+
+        PipelineStatus<String> status = run.execute();
+
+        assertThat(status.getResult()).isEqualTo("published:HELLO");
+        assertThat(status.getResumedFromStage()).isEqualTo("publish");
+        assertThat(fetches.get()).isEqualTo(1);
+        assertThat(transforms.get()).isEqualTo(1);
+        assertThat(publishes.get()).isEqualTo(5);
+        assertThat(run.isComplete()).isTrue();
+    }
+
+    @Test
+    public void verifyAsyncRunResumesFromTheFailedStage() throws Exception {
+        PipelineRun<String> run = newPipeline(config, 4).newRun();
+
+        assertThatThrownBy(() -> run.executeAsync(executorService, timer).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RetriesExhaustedException.class);
+        assertThat(run.getNextStage()).isEqualTo("publish");
+
+        PipelineStatus<String> status = run.executeAsync(executorService, timer).get(5, TimeUnit.SECONDS);
+
+        assertThat(status.getResult()).isEqualTo("published:HELLO");
+        assertThat(status.getResumedFromStage()).isEqualTo("publish");
+        assertThat(fetches.get()).isEqualTo(1);
+        assertThat(transforms.get()).isEqualTo(1);
+        assertThat(publishes.get()).isEqualTo(5);
+    }
+
+    @Test
+    public void verifyStageNamesAreUnique() {
+        assertThatThrownBy(() -> RetryPipeline.firstStage("fetch", config, () -> "hello")
+                .thenStage("fetch", config, String::length))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RetryPipeline<String> newPipeline(RetryConfig config, int failedPublishes) {
+        return RetryPipeline.firstStage("fetch", config, () -> {
+            fetches.incrementAndGet();
+            return "hello";
+        }).thenStage("transform", config, page -> {
+            transforms.incrementAndGet();
+            return page.toUpperCase();
+        }).thenStage("publish", config, report -> {
+            if (publishes.incrementAndGet() <= failedPublishes) {
+                throw new IllegalStateException("publish failed");
+            }
+            return "published:" + report;
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.evanlennick.retry4j.proxy;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import com.evanlennick.retry4j.exception.UnexpectedException;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RetryProxyTest {
+
+    private final RetryConfig config = new RetryConfigBuilder()
+            .retryOnSpecificExceptions(IOException.class)
+            .withMaxNumberOfTries(3)
+            .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+            .withFixedBackoff()
+            .build();
+
+    @Test
+    public void verifyAnnotatedMethodIsRetried() throws IOException {
+        FlakyInventory target = new FlakyInventory(2);
+        Inventory inventory = new RetryProxy().config("db", config).create(Inventory.class, target);
+
+        assertThat(inventory.count("widget")).isEqualTo(42);
+        assertThat(target.calls).isEqualTo(3);
+    }
+
+    @Test
+    public void verifyExhaustedCallThrowsRetriesExhaustedException() {
+        FlakyInventory target = new FlakyInventory(5);
+        Inventory inventory = new RetryProxy().config("db", config).create(Inventory.class, target);
+
+        assertThatThrownBy(() -> inventory.count("widget"))
+                .isInstanceOf(RetriesExhaustedException.class);
+        assertThat(target.calls).isEqualTo(3);
+    }
+
+    @Test
+    public void verifyExceptionThatIsNotRetriedOnAbortsCall() {
+        FlakyInventory target = new FlakyInventory(0);
+        Inventory inventory = new RetryProxy().config("db", config).create(Inventory.class, target);
+
+        assertThatThrownBy(() -> inventory.reserve("widget", -1))
+                .isInstanceOf(UnexpectedException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(target.calls).isEqualTo(1);
+    }
+
+    @Test
+    public void verifyMethodAnnotationTakesPrecedenceOverInterfaceAnnotation() throws IOException {
+        RecordingObserver observer = new RecordingObserver();
+        Inventory inventory = new RetryProxy()
+                .config("db", config)
+                .config("reservations", config)
+                .attemptObserver(observer)
+                .create(Inventory.class, new FlakyInventory(0));
+
+        inventory.count("widget");
+        inventory.reserve("widget", 1);
+
+        assertThat(observer.callNames).containsExactly("Inventory.count", "reserve");
+    }
+
+    @Test
+    public void verifyUnannotatedMethodIsPassedThrough() {
+        FlakyInventory target = new FlakyInventory(0);
+        Catalog catalog = new RetryProxy().create(Catalog.class, target);
+
+        assertThat(catalog.describe("widget")).isEqualTo("widget");
+        assertThat(catalog.toString()).contains(target.toString());
+        assertThat(catalog.equals(catalog)).isTrue();
+    }
+
+    @Test
+    public void verifyUnknownConfigIsRejected() {
+        assertThatThrownBy(() -> new RetryProxy().create(Inventory.class, new FlakyInventory(0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'db'");
+    }
+
+    @Test
+    public void verifyClassesAreRejected() {
+        assertThatThrownBy(() -> new RetryProxy().create(FlakyInventory.class, new FlakyInventory(0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Retry("db")
+    interface Inventory {
+
+        int count(String item) throws IOException;
+
+        @Retry(value = "reservations", callName = "reserve")
+        void reserve(String item, int quantity);
+    }
+
+    interface Catalog {
+
+        String describe(String item);
+    }
+
+    static class FlakyInventory implements Inventory, Catalog {
+
+        private final int failures;
+        private int calls;
+
+        FlakyInventory(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public int count(String item) throws IOException {
+            if (++calls <= failures) {
+                throw new IOException("inventory is down");
+            }
+            return 42;
+        }
+
+        @Override
+        public void reserve(String item, int quantity) {
+            calls++;
+            if (quantity < 0) {
+                throw new IllegalArgumentException("quantity must be positive");
+            }
+        }
+
+        @Override
+        public String describe(String item) {
+            return item;
+        }
+    }
+
+    private static class RecordingObserver implements AttemptObserver {
+
+        private final List<String> callNames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onAttempt(String callName, int attempt, long startNanos, long endNanos, int outcome,
+                              Class<? extends Throwable> exceptionClass) {
+            callNames.add(callName);
+        }
+    }
+}
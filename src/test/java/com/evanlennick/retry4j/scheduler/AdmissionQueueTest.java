@@ -0,0 +1,169 @@
+package com.evanlennick.retry4j.scheduler;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.metrics.CallMetrics;
+import com.evanlennick.retry4j.metrics.RetryMetrics;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Test(singleThreaded = true)
+public class AdmissionQueueTest {
+
+    private RetryConfig config;
+
+    private CountDownLatch release;
+
+    @BeforeMethod
+    public void setup() {
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(10, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    public void verifyFailFastRejectsCallsPastCapacity() throws Exception {
+        AdmissionQueue admissionQueue = new AdmissionQueue(1, 2, RejectionPolicy.FAIL_FAST);
+
+        List<Status<String>> statuses = executeBlockedCalls(admissionQueue, 5);
+
+        assertThat(statuses).extracting(Status::isRejected).containsExactly(false, false, false, true, true);
+        assertThat(admissionQueue.getRejected()).isEqualTo(2);
+        assertThat(admissionQueue.getAdmitted()).isEqualTo(3);
+        assertThat(admissionQueue.getWaitTime().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void verifyDropOldestRejectsTheLongestWaitingCalls() throws Exception {
+        AdmissionQueue admissionQueue = new AdmissionQueue(1, 2, RejectionPolicy.DROP_OLDEST);
+
+        List<Status<String>> statuses = executeBlockedCalls(admissionQueue, 5);
+
+        assertThat(statuses).extracting(Status::isRejected).containsExactly(false, true, true, false, false);
+        assertThat(admissionQueue.getDroppedOldest()).isEqualTo(2);
+    }
+
+    @Test
+    public void verifyCallerRunsCallsPastCapacity() throws Exception {
+        AdmissionQueue admissionQueue = new AdmissionQueue(1, 1, RejectionPolicy.CALLER_RUNS);
+        AsyncCallExecutor<String> executor = newExecutor(admissionQueue);
+
+        executor.execute(() -> {
+            release.await();
+            return "blocking";
+        });
+        executor.execute(() -> "queued");
+        Status<String> status = executor.execute(() -> Thread.currentThread().getName()).get(1, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(status.getResult()).isEqualTo(Thread.currentThread().getName());
+        assertThat(admissionQueue.getCallerRuns()).isEqualTo(1);
+    }
+
+    @Test
+    public void verifyCallsWaitingLongerThanMaxQueueTimeAreDropped() throws Exception {
+        AdmissionQueue admissionQueue = new AdmissionQueue(1, 10, RejectionPolicy.FAIL_FAST, Duration.ofMillis(50));
+        AsyncCallExecutor<String> executor = newExecutor(admissionQueue);
+
+        CompletableFuture<Status<String>> running = executor.execute(() -> {
+            release.await();
+            return "blocking";
+        });
+        CompletableFuture<Status<String>> queued = executor.execute(() -> "queued");
+        assertThat(admissionQueue.getQueueDepth()).isEqualTo(1);
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(running.get(1, TimeUnit.SECONDS).isRejected()).isFalse();
+        assertThat(queued.get(1, TimeUnit.SECONDS).isRejected()).isTrue();
+        assertThat(admissionQueue.getExpired()).isEqualTo(1);
+        assertThat(admissionQueue.getWaitTime().getMaxNanos())
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void verifyRejectedCallsAreNotReportedAsExhausted() throws Exception {
+        AdmissionQueue admissionQueue = new AdmissionQueue(1, 2, RejectionPolicy.FAIL_FAST);
+        RetryMetrics metrics = new RetryMetrics();
+        List<Integer> outcomes = Collections.synchronizedList(new ArrayList<>());
+        AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .admissionQueue(admissionQueue)
+                .metrics(metrics)
+                .attemptObserver(new AttemptObserver() {
+                    @Override
+                    public void onAttempt(String callName, int attempt, long startNanos, long endNanos, int outcome,
+                                          Class<? extends Throwable> exceptionClass) {
+                    }
+
+                    @Override
+                    public void onExecution(String callName, int totalTries, long startNanos, long endNanos,
+                                            int outcome) {
+                        outcomes.add(outcome);
+                    }
+                })
+                .onFailureListener(status -> {
+                })
+                .buildAsync();
+
+        executeBlockedCalls(executor, 5);
+
+        assertThat(outcomes).hasSize(5);
+        assertThat(Collections.frequency(outcomes, AttemptObserver.REJECTED)).isEqualTo(2);
+        assertThat(Collections.frequency(outcomes, AttemptObserver.SUCCEEDED)).isEqualTo(3);
+        CallMetrics callMetrics = metrics.forCall(null);
+        assertThat(callMetrics.getRejected()).isEqualTo(2);
+        assertThat(callMetrics.getExhausted()).isZero();
+    }
+
+    private List<Status<String>> executeBlockedCalls(AdmissionQueue admissionQueue, int calls) throws Exception {
+        return executeBlockedCalls(newExecutor(admissionQueue), calls);
+    }
+
+    private List<Status<String>> executeBlockedCalls(AsyncCallExecutor<String> executor, int calls)
+            throws Exception {
+
+        List<CompletableFuture<Status<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            futures.add(executor.execute(() -> {
+                release.await();
+                return "done";
+            }));
+        }
+        release.countDown();
+
+        List<Status<String>> statuses = new ArrayList<>();
+        for (CompletableFuture<Status<String>> future : futures) {
+            statuses.add(future.get(1, TimeUnit.SECONDS));
+        }
+        return statuses;
+    }
+
+    private AsyncCallExecutor<String> newExecutor(AdmissionQueue admissionQueue) {
+        return new CallExecutorBuilder<String>()
+                .config(config)
+                .admissionQueue(admissionQueue)
+                .onFailureListener(status -> {
+                })
+                .buildAsync();
+    }
+}
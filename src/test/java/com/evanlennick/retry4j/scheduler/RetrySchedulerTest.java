@@ -0,0 +1,210 @@
+package com.evanlennick.retry4j.scheduler;
+
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetrySchedulerTest {
+
+    private RetryScheduler scheduler;
+
+    private CallExecutorBuilder<String> executorBuilder;
+
+    private final Callable<String> failingCall = () -> {
+        throw new IllegalStateException();
+    };
+
+    @BeforeMethod
+    public void setup() {
+        scheduler = new RetryScheduler(1, 2);
+
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(100, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+        executorBuilder = new CallExecutorBuilder<String>()
+                .config(config)
+                .scheduler(scheduler)
+                .onFailureListener(status -> {
+                });
+    }
+
+    @AfterMethod
+    public void teardown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void verifyQueuedTriesRunInPriorityOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executorBuilder.buildAsync().execute(() -> {
+            release.await();
+            return "blocking";
+        });
+        Thread.sleep(50);
+
+        List<RetryPriority> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Status<String>>> futures = new ArrayList<>();
+        RetryPriority[] priorities = {RetryPriority.LOW, RetryPriority.NORMAL, RetryPriority.HIGH};
+        for (RetryPriority priority : priorities) {
+            futures.add(executorBuilder.priority(priority).buildAsync().execute(() -> {
+                order.add(priority);
+                return priority.name();
+            }));
+        }
+        assertThat(scheduler.getQueuedTries()).isEqualTo(3);
+
+        release.countDown();
+        for (CompletableFuture<Status<String>> future : futures) {
+            future.get(1, TimeUnit.SECONDS);
+        }
+        assertThat(order).containsExactly(RetryPriority.HIGH, RetryPriority.NORMAL, RetryPriority.LOW);
+    }
+
+    @Test
+    public void verifyLowestPriorityRetriesAreShedFirst() throws Exception {
+        CompletableFuture<Status<String>> firstLow = execute(RetryPriority.LOW, "first");
+        CompletableFuture<Status<String>> secondLow = execute(RetryPriority.LOW, "second");
+        assertThat(scheduler.getPendingRetries()).isEqualTo(2);
+
+        CompletableFuture<Status<String>> high = execute(RetryPriority.HIGH, "high");
+        Status<String> shed = secondLow.get(1, TimeUnit.SECONDS);
+        assertThat(shed.isRejected()).isTrue();
+        assertThat(shed.wasSuccessful()).isFalse();
+        assertThat(shed.getTotalTries()).isEqualTo(1);
+
+        // nothing pending has a lower priority than another LOW retry, so the new one is shed itself
+        Status<String> thirdLow = execute(RetryPriority.LOW, "third").get(1, TimeUnit.SECONDS);
+        assertThat(thirdLow.isRejected()).isTrue();
+
+        assertThat(firstLow.get(1, TimeUnit.SECONDS).isRejected()).isFalse();
+        assertThat(firstLow.get().getTotalTries()).isEqualTo(3);
+        assertThat(high.get(1, TimeUnit.SECONDS).isRejected()).isFalse();
+        assertThat(high.get().getTotalTries()).isEqualTo(3);
+        assertThat(scheduler.getShedRetries(RetryPriority.LOW)).isEqualTo(2);
+        assertThat(scheduler.getShedRetries(RetryPriority.HIGH)).isEqualTo(0);
+    }
+
+    @Test
+    public void verifyRejectionWithoutFailureListenerThrows() throws Exception {
+        CallExecutorBuilder<String> throwingBuilder = new CallExecutorBuilder<String>()
+                .config(executorBuilder.buildAsync().getConfig())
+                .scheduler(scheduler);
+
+        throwingBuilder.buildAsync().execute(failingCall);
+        throwingBuilder.buildAsync().execute(failingCall);
+        Thread.sleep(20);
+        CompletableFuture<Status<String>> shed = throwingBuilder.buildAsync().execute(failingCall);
+
+        assertThatThrownBy(() -> shed.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RetriesExhaustedException.class)
+                .hasMessageContaining("was rejected after 1 tries!");
+    }
+
+    @Test
+    public void verifyShutdownRejectsPendingRetries() throws Exception {
+        CompletableFuture<Status<String>> pending = execute(RetryPriority.HIGH, "pending");
+
+        scheduler.shutdown();
+
+        assertThat(pending.get(1, TimeUnit.SECONDS).isRejected()).isTrue();
+        assertThat(scheduler.getPendingRetries()).isEqualTo(0);
+        assertThat(execute(RetryPriority.HIGH, "late").get(1, TimeUnit.SECONDS).isRejected()).isTrue();
+    }
+
+    @Test
+    public void verifyTenantsTakeTurnsInProportionToTheirWeights() throws Exception {
+        scheduler.setTenantWeight("heavy", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.execute(RetryPriority.NORMAL, null, () -> await(release), () -> {
+        });
+        Thread.sleep(50);
+
+        StringBuffer order = new StringBuffer();
+        CountDownLatch finished = new CountDownLatch(12);
+        for (int i = 0; i < 8; i++) {
+            scheduler.execute(RetryPriority.NORMAL, "light", () -> {
+                order.append('l');
+                finished.countDown();
+            }, () -> {
+            });
+        }
+        for (int i = 0; i < 4; i++) {
+            scheduler.execute(RetryPriority.NORMAL, "heavy", () -> {
+                order.append('h');
+                finished.countDown();
+            }, () -> {
+            });
+        }
+        assertThat(scheduler.getQueuedTries("light")).isEqualTo(8);
+
+        release.countDown();
+        assertThat(finished.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(order.toString()).isEqualTo("lhhlhhllllll");
+    }
+
+    @Test
+    public void verifyTenantsOverTheirShareAreShedFirst() {
+        scheduler.shutdown();
+        scheduler = new RetryScheduler(1, 6);
+        scheduler.setTenantWeight("heavy", 2);
+        List<String> shed = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < 6; i++) {
+            String name = "light" + i;
+            scheduler.schedule(RetryPriority.NORMAL, "light", () -> {
+            }, () -> shed.add(name), 10, TimeUnit.SECONDS);
+        }
+        assertThat(scheduler.getPendingRetries("light")).isEqualTo(6);
+
+        // the heavy tenant's share is 4 of 6, so it takes over the newest retries of the light one until it has it
+        for (int i = 0; i < 5; i++) {
+            String name = "heavy" + i;
+            scheduler.schedule(RetryPriority.NORMAL, "heavy", () -> {
+            }, () -> shed.add(name), 10, TimeUnit.SECONDS);
+        }
+
+        assertThat(shed).containsExactly("light5", "light4", "light3", "light2", "heavy4");
+        assertThat(scheduler.getPendingRetries("light")).isEqualTo(2);
+        assertThat(scheduler.getPendingRetries("heavy")).isEqualTo(4);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // waits until the first try failed and its retry is pending
+    private CompletableFuture<Status<String>> execute(RetryPriority priority, String callName)
+            throws InterruptedException {
+        CompletableFuture<Status<String>> future = executorBuilder.priority(priority).buildAsync()
+                .execute(failingCall, callName);
+        Thread.sleep(20);
+        return future;
+    }
+}
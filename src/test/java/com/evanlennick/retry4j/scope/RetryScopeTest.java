@@ -0,0 +1,179 @@
+package com.evanlennick.retry4j.scope;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetryScopeException;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+@Test(singleThreaded = true)
+public class RetryScopeTest {
+
+    private RetryConfig config;
+
+    private HashedWheelTimer timer;
+
+    @BeforeMethod
+    public void setup() {
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(100)
+                .withDelayBetweenTries(10, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .build();
+        timer = new HashedWheelTimer();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        timer.stop();
+    }
+
+    @Test
+    public void verifyJoinReturnsOnceAllSubtasksSucceed() throws Exception {
+        AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>().config(config).buildAsync();
+
+        try (RetryScope scope = new RetryScope()) {
+            RetryScope.Subtask<String> first = scope.fork(executor, () -> "first");
+            RetryScope.Subtask<String> second = scope.fork(executor, () -> "second");
+            scope.join();
+
+            assertThat(first.get()).isEqualTo("first");
+            assertThat(second.get()).isEqualTo("second");
+            assertThat(first.getState()).isEqualTo(RetryScope.Subtask.State.SUCCEEDED);
+        }
+    }
+
+    @Test
+    public void verifyFailedSubtaskCancelsSiblingBackingOffOnTimer() throws Exception {
+        AtomicInteger siblingTries = new AtomicInteger();
+        AtomicReference<Status<String>> siblingStatus = new AtomicReference<>();
+        CountDownLatch siblingCompleted = new CountDownLatch(1);
+        AsyncCallExecutor<String> sibling = new CallExecutorBuilder<String>()
+                .config(config)
+                .onCompletionListener(status -> {
+                    siblingStatus.set(status);
+                    siblingCompleted.countDown();
+                })
+                .buildAsync(null, timer);
+        AsyncCallExecutor<String> failing = new CallExecutorBuilder<String>()
+                .config(new RetryConfigBuilder()
+                        .retryOnAnyException()
+                        .withMaxNumberOfTries(1)
+                        .withNoWaitBackoff()
+                        .build())
+                .onFailureListener(status -> {
+                })
+                .buildAsync();
+        CountDownLatch siblingTried = new CountDownLatch(1);
+
+        try (RetryScope scope = new RetryScope()) {
+            RetryScope.Subtask<String> backingOff = scope.fork(sibling, () -> {
+                siblingTries.incrementAndGet();
+                siblingTried.countDown();
+                throw new IllegalStateException();
+            });
+            siblingTried.await(1, TimeUnit.SECONDS);
+            RetryScope.Subtask<String> failed = scope.fork(failing, () -> {
+                throw new IllegalStateException();
+            });
+
+            try {
+                scope.join();
+                fail("Expected a failed scope");
+            } catch (RetryScopeException e) {
+                assertThat(e.isDeadlineExceeded()).isFalse();
+                assertThat(e.getStatus().wasSuccessful()).isFalse();
+            }
+
+            assertThat(failed.getState()).isEqualTo(RetryScope.Subtask.State.FAILED);
+            assertThat(backingOff.getState()).isEqualTo(RetryScope.Subtask.State.CANCELLED);
+            assertThat(siblingCompleted.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(siblingStatus.get().isCancelled()).isTrue();
+            assertThat(siblingTries.get()).isEqualTo(1);
+            assertThat(timer.pendingTimeouts()).isZero();
+        }
+    }
+
+    @Test
+    public void verifyDeadlineCancelsSiblingSleepingBetweenTries() throws Exception {
+        CountDownLatch completed = new CountDownLatch(1);
+        AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .onCompletionListener(status -> completed.countDown())
+                .buildAsync();
+
+        try (RetryScope scope = new RetryScope(Duration.ofMillis(50))) {
+            RetryScope.Subtask<String> subtask = scope.fork(executor, () -> {
+                throw new IllegalStateException();
+            });
+
+            try {
+                scope.join();
+                fail("Expected the deadline to pass");
+            } catch (RetryScopeException e) {
+                assertThat(e.isDeadlineExceeded()).isTrue();
+            }
+
+            assertThat(subtask.getState()).isEqualTo(RetryScope.Subtask.State.CANCELLED);
+            assertThat(completed.await(1, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    public void verifySubtaskThatCannotStartFailsScope() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.shutdown();
+        AsyncCallExecutor<String> rejecting = new CallExecutorBuilder<String>()
+                .config(config)
+                .buildAsync(executorService);
+        AsyncCallExecutor<String> sibling = new CallExecutorBuilder<String>().config(config).buildAsync(null, timer);
+
+        try (RetryScope scope = new RetryScope()) {
+            RetryScope.Subtask<String> sleeping = scope.fork(sibling, () -> {
+                throw new IllegalStateException();
+            }, "sibling");
+            RetryScope.Subtask<String> rejected = scope.fork(rejecting, () -> "never", "rejected");
+
+            try {
+                scope.join();
+                fail("Expected the rejected subtask to fail the scope");
+            } catch (RetryScopeException e) {
+                assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+            }
+            assertThat(rejected.getState()).isEqualTo(RetryScope.Subtask.State.FAILED);
+            assertThat(sleeping.getState()).isEqualTo(RetryScope.Subtask.State.CANCELLED);
+        }
+    }
+
+    @Test
+    public void verifySubtasksForkedAfterShutdownNeverRun() {
+        AtomicInteger tries = new AtomicInteger();
+        AsyncCallExecutor<Integer> executor = new CallExecutorBuilder<Integer>().config(config).buildAsync();
+
+        RetryScope scope = new RetryScope();
+        scope.close();
+        RetryScope.Subtask<Integer> subtask = scope.fork(executor, tries::incrementAndGet);
+
+        assertThat(subtask.getState()).isEqualTo(RetryScope.Subtask.State.CANCELLED);
+        assertThat(tries.get()).isZero();
+    }
+}
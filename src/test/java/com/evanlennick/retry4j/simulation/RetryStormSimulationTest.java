@@ -0,0 +1,111 @@
+package com.evanlennick.retry4j.simulation;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class RetryStormSimulationTest {
+
+    private final ServerProfile outage = ServerProfile.outage(5_000, 5_000, 0);
+
+    @Test
+    public void verifyHealthyServerNeedsNoRetries() {
+        SimulationReport report = new RetryStormSimulation(config(5, false))
+                .clients(100, 2)
+                .server(50, Duration.ofMillis(50))
+                .run(Duration.ofSeconds(10));
+
+        assertThat(report.getTotalCalls()).isBetween(1800L, 2200L);
+        assertThat(report.getAmplificationFactor()).isEqualTo(1.0);
+        assertThat(report.getSucceededCalls()).isEqualTo(report.getTotalCalls());
+        assertThat(report.getTimeToRecovery()).isEqualTo(Duration.ZERO);
+        assertThat(report.getCallLatencyPercentile(99)).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    public void verifyOutageWithoutRetriesFailsCallsMadeDuringIt() {
+        SimulationReport report = new RetryStormSimulation(config(1, false))
+                .clients(100, 2)
+                .serverProfile(outage)
+                .run(Duration.ofSeconds(15));
+
+        assertThat(report.getAmplificationFactor()).isEqualTo(1.0);
+        assertThat((double) report.getExhaustedCalls() / report.getTotalCalls()).isCloseTo(1 / 3.0, within(0.05));
+        assertThat(report.getTimeToRecovery()).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void verifyRetriesAmplifyLoadDuringOutage() {
+        SimulationReport report = new RetryStormSimulation(config(10, false))
+                .clients(100, 2)
+                .serverProfile(outage)
+                .run(Duration.ofSeconds(15));
+
+        assertThat(report.getAmplificationFactor()).isGreaterThan(2).isLessThanOrEqualTo(10);
+        assertThat(report.getPeakOfferedLoad()).isGreaterThan(report.getCallsStarted()[6] * 5);
+        assertThat(report.getTotalCalls())
+                .isEqualTo(report.getSucceededCalls() + report.getExhaustedCalls() + report.getUnfinishedCalls());
+    }
+
+    @Test
+    public void verifyExponentialBackoffSendsFewerRequestsThanFixedWhenRetryingIndefinitely() {
+        RetryConfig fixed = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .retryIndefinitely()
+                .withDelayBetweenTries(10, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+        RetryConfig exponential = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .retryIndefinitely()
+                .withDelayBetweenTries(10, ChronoUnit.MILLIS)
+                .withExponentialBackoff()
+                .build();
+
+        SimulationReport fixedReport = new RetryStormSimulation(fixed).serverProfile(outage)
+                .run(Duration.ofSeconds(15));
+        SimulationReport exponentialReport = new RetryStormSimulation(exponential).serverProfile(outage)
+                .run(Duration.ofSeconds(15));
+
+        assertThat(fixedReport.getExhaustedCalls()).isZero();
+        assertThat(exponentialReport.getAmplificationFactor()).isLessThan(fixedReport.getAmplificationFactor());
+        assertThat(exponentialReport.getPeakOfferedLoad()).isLessThan(fixedReport.getPeakOfferedLoad());
+    }
+
+    @Test
+    public void verifySameSeedGivesSameReport() {
+        RetryStormSimulation simulation = new RetryStormSimulation(config(5, true))
+                .serverProfile(outage)
+                .seed(7);
+
+        SimulationReport first = simulation.run(Duration.ofSeconds(15));
+        SimulationReport second = simulation.run(Duration.ofSeconds(15));
+
+        assertThat(second.getOfferedLoad()).isEqualTo(first.getOfferedLoad());
+        assertThat(second.getTimeToRecovery()).isEqualTo(first.getTimeToRecovery());
+    }
+
+    @Test
+    public void verifyOutageProfile() {
+        ServerProfile profile = ServerProfile.outage(1000, 1000, 1000);
+
+        assertThat(profile.capacityFactor(999)).isEqualTo(1.0);
+        assertThat(profile.capacityFactor(1000)).isEqualTo(0.0);
+        assertThat(profile.capacityFactor(2500)).isEqualTo(0.5);
+        assertThat(profile.capacityFactor(3000)).isEqualTo(1.0);
+    }
+
+    private RetryConfig config(int maxTries, boolean exponential) {
+        RetryConfigBuilder builder = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(maxTries)
+                .withDelayBetweenTries(10, ChronoUnit.MILLIS);
+        return exponential ? builder.withExponentialBackoff().build() : builder.withFixedBackoff().build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.evanlennick.retry4j.state;
+
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.PersistenceException;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class SharedRetryStateTest {
+
+    private Path file;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        file = Files.createTempDirectory("retry4j-state").resolve("retry-state");
+    }
+
+    @Test
+    public void verifyBudgetIsLimitedPerWindow() {
+        try (SharedRetryState state = new SharedRetryState(file, 3, Duration.ofHours(1))) {
+            assertThat(state.tryAcquireRetry("db")).isTrue();
+            assertThat(state.tryAcquireRetry("db")).isTrue();
+            assertThat(state.tryAcquireRetry("db")).isTrue();
+            assertThat(state.tryAcquireRetry("db")).isFalse();
+
+            assertThat(state.getRemainingRetries("db")).isZero();
+            assertThat(state.getRemainingRetries("cache")).isEqualTo(3);
+            assertThat(state.tryAcquireRetry("cache")).isTrue();
+        }
+    }
+
+    @Test
+    public void verifyBudgetIsRefilledInNextWindow() throws InterruptedException {
+        try (SharedRetryState state = new SharedRetryState(file, 1, Duration.ofMillis(50))) {
+            assertThat(state.tryAcquireRetry("db")).isTrue();
+            assertThat(state.tryAcquireRetry("db")).isFalse();
+
+            Thread.sleep(100);
+
+            assertThat(state.tryAcquireRetry("db")).isTrue();
+        }
+    }
+
+    @Test
+    public void verifyCountersAreSharedBetweenMappingsOfTheSameFile() throws InterruptedException {
+        try (SharedRetryState first = new SharedRetryState(file, 1000, Duration.ofHours(1));
+             SharedRetryState second = new SharedRetryState(file, 1000, Duration.ofHours(1))) {
+            AtomicInteger acquired = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                SharedRetryState state = i % 2 == 0 ? first : second;
+                Thread thread = new Thread(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (state.tryAcquireRetry("db")) {
+                            acquired.incrementAndGet();
+                        }
+                        state.recordFailure("db");
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertThat(acquired.get()).isEqualTo(1000);
+            assertThat(first.getTotalFailures("db")).isEqualTo(2000);
+            assertThat(second.getConsecutiveFailures("db")).isEqualTo(2000);
+        }
+    }
+
+    @Test
+    public void verifySuccessResetsConsecutiveFailures() {
+        try (SharedRetryState state = new SharedRetryState(file, 10, Duration.ofHours(1))) {
+            state.recordFailure("db");
+            state.recordFailure("db");
+            state.recordSuccess("db");
+
+            assertThat(state.getConsecutiveFailures("db")).isZero();
+            assertThat(state.getTotalFailures("db")).isEqualTo(2);
+            assertThat(state.getTotalSuccesses("db")).isEqualTo(1);
+            assertThat(state.getLastFailureTime("db")).isPositive();
+        }
+    }
+
+    @Test
+    public void verifyCountersSurviveReopen() {
+        try (SharedRetryState state = new SharedRetryState(file, 10, Duration.ofHours(1), 16)) {
+            state.recordFailure("db");
+        }
+
+        try (SharedRetryState state = new SharedRetryState(file, 10, Duration.ofHours(1))) {
+            assertThat(state.getTotalFailures("db")).isEqualTo(1);
+            assertThat(state.getMaxKeys()).isEqualTo(16);
+        }
+    }
+
+    @Test
+    public void verifyKeysBeyondCapacityAreNotLimited() {
+        try (SharedRetryState state = new SharedRetryState(file, 0, Duration.ofHours(1), 2)) {
+            state.recordFailure("first");
+            state.recordFailure("second");
+
+            assertThat(state.tryAcquireRetry("first")).isFalse();
+            assertThat(state.tryAcquireRetry("third")).isTrue();
+        }
+    }
+
+    @Test
+    public void verifyForeignFileIsRejected() throws IOException {
+        Files.write(file, new byte[128]);
+
+        assertThatThrownBy(() -> new SharedRetryState(file, 10, Duration.ofHours(1)))
+                .isInstanceOf(PersistenceException.class);
+    }
+
+    @Test
+    public void verifyExecutorStopsRetryingWhenBudgetIsUsedUp() {
+        RetryConfig config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(10)
+                .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .build();
+
+        try (SharedRetryState state = new SharedRetryState(file, 2, Duration.ofHours(1))) {
+            CallExecutor<Boolean> executor = new CallExecutorBuilder<Boolean>()
+                    .config(config)
+                    .stateBackend(state)
+                    .build();
+
+            assertThatThrownBy(() -> executor.execute(() -> {
+                throw new IllegalStateException();
+            }, "db"))
+                    .isInstanceOfSatisfying(RetriesExhaustedException.class,
+                            e -> assertThat(e.getStatus().getTotalTries()).isEqualTo(3));
+            assertThat(state.getTotalFailures("db")).isEqualTo(3);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.evanlennick.retry4j.stream;
+
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetryingIteratorTest {
+
+    private static final int SIZE = 100;
+
+    private RetryConfig config;
+
+    private AtomicInteger produced;
+
+    private AtomicInteger closed;
+
+    @BeforeMethod
+    public void setup() {
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(0, ChronoUnit.SECONDS)
+                .withFixedBackoff()
+                .build();
+
+        produced = new AtomicInteger();
+        closed = new AtomicInteger();
+    }
+
+    @Test
+    public void verifyScanResumesFromLastConsumedPosition() {
+        Set<Integer> failOnce = new HashSet<>();
+        failOnce.add(30);
+        failOnce.add(70);
+
+        List<Integer> elements;
+        try (RetryingIterator<Integer, Long> iterator = RetryingIterator.fromOffset(config, 0,
+                offset -> new FlakySource(offset.intValue(), failOnce))) {
+            elements = iterator.stream().collect(Collectors.toList());
+
+            assertThat(iterator.getOpens()).isEqualTo(3);
+            assertThat(iterator.getCursor()).isEqualTo((long) SIZE);
+        }
+
+        assertThat(elements).containsExactlyElementsOf(IntStream.range(0, SIZE).boxed().collect(Collectors.toList()));
+        assertThat(produced.get()).isEqualTo(SIZE);
+        assertThat(closed.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void verifyScanGivesUpAfterRunningOutOfTriesAtOnePosition() {
+        Set<Integer> alwaysFail = new HashSet<>();
+        alwaysFail.add(50);
+        RetryingIterator<Integer, Long> iterator = RetryingIterator.fromOffset(config, 0,
+                offset -> new FlakySource(offset.intValue(), alwaysFail, false));
+
+        int consumed = 0;
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+                consumed++;
+            }
+        } catch (RetriesExhaustedException e) {
+            assertThat(e.getStatus().getTotalTries()).isEqualTo(3);
+        }
+
+        assertThat(consumed).isEqualTo(50);
+        assertThat(iterator.getCursor()).isEqualTo(50L);
+        assertThat(iterator.getOpens()).isEqualTo(3);
+
+        Stream<Integer> rest = RetryingIterator.<Integer>fromOffset(config, iterator.getCursor(),
+                offset -> IntStream.range(offset.intValue(), SIZE).iterator()).stream();
+        assertThat(rest.count()).isEqualTo(SIZE - 50);
+    }
+
+    @Test
+    public void verifyCursorIsAdvancedByElements() {
+        List<String> pages = Arrays.asList("a", "b", "c");
+        RetryingIterator<String, String> iterator = new RetryingIterator<>(config, null,
+                token -> pages.subList(null == token ? 0 : pages.indexOf(token) + 1, pages.size()).iterator(),
+                (token, page) -> page);
+
+        assertThat(iterator.next()).isEqualTo("a");
+        assertThat(iterator.getCursor()).isEqualTo("a");
+        assertThat(iterator.next()).isEqualTo("b");
+        assertThat(iterator.next()).isEqualTo("c");
+        assertThat(iterator.hasNext()).isFalse();
+        assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    /**
+     * Counts up from an offset, failing the first time it gets to one of the given positions, or every time.
+     */
+    private class FlakySource implements Iterator<Integer>, AutoCloseable {
+
+        private final Set<Integer> failures;
+        private final boolean failOnce;
+        private int position;
+
+        FlakySource(int offset, Set<Integer> failures) {
+            this(offset, failures, true);
+        }
+
+        FlakySource(int offset, Set<Integer> failures, boolean failOnce) {
+            this.position = offset;
+            this.failures = failures;
+            this.failOnce = failOnce;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (failOnce ? failures.remove(position) : failures.contains(position)) {
+                throw new IllegalStateException("Connection reset at " + position);
+            }
+            return position < SIZE;
+        }
+
+        @Override
+        public Integer next() {
+            produced.incrementAndGet();
+            return position++;
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}
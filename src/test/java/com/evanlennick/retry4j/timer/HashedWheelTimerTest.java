@@ -0,0 +1,143 @@
+package com.evanlennick.retry4j.timer;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeMethod
+    public void setup() {
+        timer = new HashedWheelTimer(Duration.ofMillis(1), 64);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        timer.stop();
+    }
+
+    @Test
+    public void verifyTaskRunsAfterDelay() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        Timeout timeout = timer.newTimeout(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timer.pendingTimeouts()).isEqualTo(0);
+    }
+
+    @Test
+    public void verifyTaskWithDelayLongerThanOneWheelRotation() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        //wheel has 64 ticks of 1ms, so this needs more than two full rotations
+        timer.newTimeout(latch::countDown, 150, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void verifyCancelledTaskDoesNotRun() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean(false);
+
+        Timeout timeout = timer.newTimeout(() -> ran.set(true), 50, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(timer.pendingTimeouts()).isEqualTo(0);
+
+        Thread.sleep(150);
+        assertThat(ran.get()).isFalse();
+    }
+
+    @Test
+    public void verifyCoalescedTimerNeverRunsTasksEarly() throws Exception {
+        HashedWheelTimer coalescingTimer
+                = new HashedWheelTimer(Duration.ofMillis(1), 64, Duration.ofMillis(20));
+        try {
+            int numberOfTasks = 100;
+            CountDownLatch latch = new CountDownLatch(numberOfTasks);
+            AtomicInteger ranEarly = new AtomicInteger();
+
+            for (int i = 0; i < numberOfTasks; i++) {
+                long delayNanos = TimeUnit.MILLISECONDS.toNanos(i);
+                long deadline = System.nanoTime() + delayNanos;
+                coalescingTimer.newTimeout(() -> {
+                    if (System.nanoTime() < deadline) {
+                        ranEarly.incrementAndGet();
+                    }
+                    latch.countDown();
+                }, delayNanos, TimeUnit.NANOSECONDS);
+            }
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(ranEarly.get()).isEqualTo(0);
+        } finally {
+            coalescingTimer.stop();
+        }
+    }
+
+    @Test
+    public void verifyMillionPendingTimeouts() throws Exception {
+        int numberOfTasks = 1_000_000;
+        AtomicInteger ran = new AtomicInteger();
+        Timeout[] timeouts = new Timeout[numberOfTasks];
+
+        for (int i = 0; i < numberOfTasks; i++) {
+            timeouts[i] = timer.newTimeout(ran::incrementAndGet, 1, TimeUnit.HOURS);
+        }
+        assertThat(timer.pendingTimeouts()).isEqualTo(numberOfTasks);
+
+        for (Timeout timeout : timeouts) {
+            timeout.cancel();
+        }
+        assertThat(timer.pendingTimeouts()).isEqualTo(0);
+        assertThat(ran.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void verifyStopReturnsUnprocessedTimeouts() {
+        Timeout timeout = timer.newTimeout(() -> {}, 1, TimeUnit.HOURS);
+
+        assertThat(timer.stop()).containsExactly(timeout);
+    }
+
+    @Test
+    public void verifyCannotScheduleAfterStop() {
+        timer.stop();
+
+        assertThatThrownBy(() -> timer.newTimeout(() -> {}, 1, TimeUnit.MILLISECONDS))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void verifyTicksPerWheelIsNormalizedToPowerOfTwo() {
+        HashedWheelTimer unstartedTimer = new HashedWheelTimer(Duration.ofMillis(1), 100);
+
+        assertThat(unstartedTimer.getTicksPerWheel()).isEqualTo(128);
+    }
+
+    @Test
+    public void verifyInvalidTickDuration() {
+        assertThatThrownBy(() -> new HashedWheelTimer(Duration.ZERO, 64))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package com.evanlennick.retry4j.trace;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.exception.RetriesExhaustedException;
+import com.evanlennick.retry4j.listener.AttemptObserver;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class TraceRecorderTest {
+
+    private Path file;
+
+    private RetryConfig config;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        file = Files.createTempFile("retry4j", ".trace");
+
+        config = new RetryConfigBuilder()
+                .retryOnSpecificExceptions(IllegalStateException.class)
+                .withMaxNumberOfTries(2)
+                .withDelayBetweenTries(20, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+    }
+
+    @Test
+    public void verifyRecordedExecutionsAreReadBack() {
+        AtomicInteger calls = new AtomicInteger();
+        try (TraceRecorder recorder = new TraceRecorder(file)) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .attemptObserver(recorder)
+                    .build();
+
+            executor.execute(() -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException();
+                }
+                return "done";
+            }, "db");
+            executor.execute(() -> "done", "cache");
+
+            assertThat(recorder.getRecordedAttempts()).isEqualTo(3);
+        }
+
+        RetryTrace trace = TraceReader.read(file);
+        assertThat(trace.getExecutions()).hasSize(2);
+        assertThat(trace.getIncompleteExecutions()).isZero();
+
+        TracedExecution execution = trace.forCall("db").getExecutions().get(0);
+        assertThat(execution.getOutcome()).isEqualTo(AttemptObserver.SUCCEEDED);
+        assertThat(execution.getAttempts()).hasSize(2);
+
+        TracedAttempt first = execution.getAttempts().get(0);
+        TracedAttempt second = execution.getAttempts().get(1);
+        assertThat(first.getOutcome()).isEqualTo(AttemptObserver.FAILED_ON_EXCEPTION);
+        assertThat(first.getExceptionClassName()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(second.getOutcome()).isEqualTo(AttemptObserver.SUCCEEDED);
+        assertThat(second.getExceptionClassName()).isNull();
+        assertThat(second.getStartNanos() - first.getEndNanos()).isGreaterThanOrEqualTo(20_000_000L);
+    }
+
+    @Test
+    public void verifyRecordsSurviveBufferBeingWrittenOutRepeatedly() {
+        try (TraceRecorder recorder = new TraceRecorder(file, TraceFormat.MAX_RECORD_SIZE)) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .attemptObserver(recorder)
+                    .build();
+
+            for (int i = 0; i < 50; i++) {
+                executor.execute(() -> "done", "call-" + (i % 5));
+            }
+        }
+
+        RetryTrace trace = TraceReader.read(file);
+        assertThat(trace.getExecutions()).hasSize(50);
+        assertThat(trace.forCall("call-3").getExecutions()).hasSize(10);
+    }
+
+    @Test
+    public void verifyAsyncExecutionsAreReadBack() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        HashedWheelTimer timer = new HashedWheelTimer();
+        try (TraceRecorder recorder = new TraceRecorder(file)) {
+            AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .attemptObserver(recorder)
+                    .buildAsync(executorService, timer);
+
+            // with a single worker, the first tries of later executions wait in the queue
+            List<CompletableFuture<Status<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                AtomicInteger calls = new AtomicInteger();
+                futures.add(executor.execute(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        Thread.sleep(5);
+                        throw new IllegalStateException();
+                    }
+                    return "done";
+                }, "db"));
+            }
+            for (CompletableFuture<Status<String>> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdown();
+            timer.stop();
+        }
+
+        RetryTrace trace = TraceReader.read(file);
+        assertThat(trace.getIncompleteExecutions()).isZero();
+        assertThat(trace.getExecutions()).hasSize(5);
+        assertThat(trace.getExecutions()).extracting(TracedExecution::getOutcome)
+                .containsOnly(AttemptObserver.SUCCEEDED);
+        assertThat(trace.getExecutions()).extracting(execution -> execution.getAttempts().size()).containsOnly(2);
+    }
+
+    @Test
+    public void verifyReplayWithRecordedConfigReproducesTrace() {
+        recordOutage();
+
+        TraceReplayReport report = TraceReplay.fromFile(file).replay(config);
+
+        assertThat(report.getReplayed().getSucceeded()).isEqualTo(report.getRecorded().getSucceeded());
+        assertThat(report.getReplayed().getExhausted()).isEqualTo(report.getRecorded().getExhausted());
+        assertThat(report.getMeanAttemptsChange()).isZero();
+        assertThat(report.getReplayed().getMeanLatency()).isEqualTo(report.getRecorded().getMeanLatency());
+    }
+
+    @Test
+    public void verifyReplayWithMoreTriesRidesOutOutage() {
+        recordOutage();
+
+        RetryConfig patientConfig = new RetryConfigBuilder()
+                .retryOnSpecificExceptions(IllegalStateException.class)
+                .withMaxNumberOfTries(50)
+                .withDelayBetweenTries(20, ChronoUnit.MILLIS)
+                .withFixedBackoff()
+                .build();
+        TraceReplayReport report = TraceReplay.fromFile(file).replay(patientConfig);
+
+        assertThat(report.getRecorded().getExhausted()).isEqualTo(1);
+        assertThat(report.getReplayed().getExhausted()).isZero();
+        assertThat(report.getReplayed().getUnresolved()).isZero();
+        assertThat(report.getReplayed().getSucceeded()).isEqualTo(3);
+        assertThat(report.getSuccessRateChange()).isPositive();
+        assertThat(report.getMeanAttemptsChange()).isPositive();
+    }
+
+    @Test
+    public void verifyTinyBufferIsRejected() {
+        assertThatThrownBy(() -> new TraceRecorder(file, 8))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // the first execution exhausts its tries while the dependency is down, the later ones succeed after it recovered
+    private void recordOutage() {
+        try (TraceRecorder recorder = new TraceRecorder(file)) {
+            CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                    .config(config)
+                    .attemptObserver(recorder)
+                    .build();
+
+            assertThatThrownBy(() -> executor.execute(() -> {
+                throw new IllegalStateException();
+            }, "db")).isInstanceOf(RetriesExhaustedException.class);
+
+            Thread.sleep(100);
+            executor.execute(() -> "done", "db");
+            Thread.sleep(100);
+            executor.execute(() -> "done", "db");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.evanlennick.retry4j.tracing;
+
+import com.evanlennick.retry4j.AsyncCallExecutor;
+import com.evanlennick.retry4j.CallExecutor;
+import com.evanlennick.retry4j.CallExecutorBuilder;
+import com.evanlennick.retry4j.Status;
+import com.evanlennick.retry4j.config.RetryConfig;
+import com.evanlennick.retry4j.config.RetryConfigBuilder;
+import com.evanlennick.retry4j.timer.HashedWheelTimer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class RetryTracingTest {
+
+    private InMemoryTracer tracer;
+
+    private RetryConfig config;
+
+    private ExecutorService executorService;
+
+    private HashedWheelTimer timer;
+
+    @BeforeMethod
+    public void setup() {
+        tracer = new InMemoryTracer();
+
+        config = new RetryConfigBuilder()
+                .retryOnAnyException()
+                .withMaxNumberOfTries(3)
+                .withDelayBetweenTries(Duration.ofMillis(10))
+                .withFixedBackoff()
+                .build();
+
+        executorService = Executors.newFixedThreadPool(2);
+        timer = new HashedWheelTimer();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        executorService.shutdown();
+        timer.stop();
+    }
+
+    @Test
+    public void verifySpansOfSampledExecution() {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .tracing(new RetryTracing(tracer, 1))
+                .build();
+
+        AtomicInteger tries = new AtomicInteger();
+        Queue<RecordedSpan> currentSpans = new ConcurrentLinkedQueue<>();
+        RecordedSpan requestSpan = tracer.startSpan("request");
+        try (Scope ignored = requestSpan.makeCurrent()) {
+            executor.execute(() -> {
+                currentSpans.add(tracer.getCurrentSpan());
+                if (tries.incrementAndGet() < 2) {
+                    throw new IllegalStateException();
+                }
+                return "done";
+            }, "orders");
+        }
+
+        RecordedSpan execution = tracer.getFinishedSpans(InMemoryTracer.EXECUTION_SPAN).get(0);
+        List<RecordedSpan> attempts = tracer.getFinishedSpans(InMemoryTracer.ATTEMPT_SPAN);
+        List<RecordedSpan> backoffs = tracer.getFinishedSpans(InMemoryTracer.BACKOFF_SPAN);
+
+        assertThat(execution.getParentId()).isEqualTo(requestSpan.getId());
+        assertThat(execution.getAttribute(ExecutionSpans.CALL_NAME)).isEqualTo("orders");
+        assertThat(execution.getAttribute(ExecutionSpans.TOTAL_TRIES)).isEqualTo(2L);
+        assertThat(execution.getAttribute(ExecutionSpans.OUTCOME)).isEqualTo("succeeded");
+
+        assertThat(attempts).hasSize(2);
+        assertThat(attempts).extracting(RecordedSpan::getParentId).containsOnly(execution.getId());
+        assertThat(attempts.get(0).getAttribute(ExecutionSpans.OUTCOME)).isEqualTo("failed_on_exception");
+        assertThat(attempts.get(0).getException()).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts.get(1).getAttribute(ExecutionSpans.OUTCOME)).isEqualTo("succeeded");
+        assertThat(currentSpans).containsExactlyElementsOf(attempts);
+
+        assertThat(backoffs).hasSize(1);
+        assertThat(backoffs.get(0).getParentId()).isEqualTo(execution.getId());
+        assertThat(backoffs.get(0).getAttribute(ExecutionSpans.PLANNED_DELAY_MILLIS)).isEqualTo(10L);
+    }
+
+    @Test
+    public void verifyUnsampledExecutionsStartNoSpans() {
+        CallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .tracing(new RetryTracing(tracer, 0))
+                .build();
+
+        executor.execute(() -> "done");
+
+        assertThat(tracer.getFinishedSpans()).isEmpty();
+    }
+
+    @Test
+    public void verifyContextIsCarriedToAsyncTries() throws Exception {
+        AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .tracing(new RetryTracing(tracer, 1))
+                .buildAsync(executorService, timer);
+
+        Queue<RecordedSpan> currentSpans = new ConcurrentLinkedQueue<>();
+        Queue<String> threads = new ConcurrentLinkedQueue<>();
+        AtomicInteger tries = new AtomicInteger();
+        RecordedSpan requestSpan = tracer.startSpan("request");
+        Status<String> status;
+        try (Scope ignored = requestSpan.makeCurrent()) {
+            status = executor.execute(() -> {
+                currentSpans.add(tracer.getCurrentSpan());
+                threads.add(Thread.currentThread().getName());
+                if (tries.incrementAndGet() < 3) {
+                    throw new IllegalStateException();
+                }
+                return "done";
+            }).get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(status.wasSuccessful()).isTrue();
+        assertThat(threads).doesNotContain(Thread.currentThread().getName());
+        RecordedSpan execution = tracer.getFinishedSpans(InMemoryTracer.EXECUTION_SPAN).get(0);
+        assertThat(execution.getParentId()).isEqualTo(requestSpan.getId());
+        assertThat(currentSpans).containsExactlyElementsOf(tracer.getFinishedSpans(InMemoryTracer.ATTEMPT_SPAN));
+        assertThat(tracer.getFinishedSpans(InMemoryTracer.BACKOFF_SPAN)).hasSize(2);
+    }
+
+    @Test
+    public void verifyContextIsCarriedForUnsampledExecutions() throws Exception {
+        AsyncCallExecutor<String> executor = new CallExecutorBuilder<String>()
+                .config(config)
+                .tracing(new RetryTracing(tracer, 0))
+                .buildAsync(executorService);
+
+        RecordedSpan requestSpan = tracer.startSpan("request");
+        RecordedSpan currentSpan;
+        try (Scope ignored = requestSpan.makeCurrent()) {
+            currentSpan = executor.execute(() -> tracer.getCurrentSpan()).get(5, TimeUnit.SECONDS).getResult();
+        }
+
+        assertThat(currentSpan).isSameAs(requestSpan);
+        assertThat(tracer.getFinishedSpans()).isEmpty();
+    }
+
+    @Test
+    public void verifySampleRateIsValidated() {
+        assertThatThrownBy(() -> new RetryTracing(tracer, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}